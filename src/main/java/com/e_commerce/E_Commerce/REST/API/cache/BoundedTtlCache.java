@@ -0,0 +1,203 @@
+package com.e_commerce.E_Commerce.REST.API.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size-bounded LRU cache whose entries also expire a fixed time after they were written.
+ * Keeps hit / miss / eviction counters and can notify a listener when an entry leaves the cache.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final BiConsumer<K, V> removalListener;
+
+    // access-ordered -> iteration starts at the least recently used entry
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedTtlCache(String name, int maxSize, Duration ttl) {
+        this(name, maxSize, ttl, (key, value) -> { }, System::currentTimeMillis);
+    }
+
+    public BoundedTtlCache(String name, int maxSize, Duration ttl, BiConsumer<K, V> removalListener) {
+        this(name, maxSize, ttl, removalListener, System::currentTimeMillis);
+    }
+
+    BoundedTtlCache(String name, int maxSize, Duration ttl, BiConsumer<K, V> removalListener, LongSupplier clock) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.removalListener = removalListener;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the cached value, or null when absent or expired
+     */
+    public V get(K key) {
+        V value = null;
+        V expired = null;
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAtMillis() > clock.getAsLong()) {
+                    value = entry.value();
+                } else {
+                    entries.remove(key);
+                    expired = entry.value();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (expired != null) {
+            evictions.increment();
+            removalListener.accept(key, expired);
+        }
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Read-through lookup. The loader runs outside the lock, so two concurrent misses
+     * for the same key may both load; the last one wins.
+     */
+    public V get(K key, Supplier<V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.get();
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        Map<K, V> removed = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            store(key, value, removed);
+        } finally {
+            lock.unlock();
+        }
+        removed.forEach(removalListener);
+    }
+
+    /**
+     * Stores the value unless the key is already cached and not expired, as one step.
+     *
+     * @return true when the value was stored
+     */
+    public boolean putIfAbsent(K key, V value) {
+        Map<K, V> removed = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAtMillis() > clock.getAsLong()) {
+                hits.increment();
+                return false;
+            }
+            misses.increment();
+            store(key, value, removed);
+        } finally {
+            lock.unlock();
+        }
+        removed.forEach(removalListener);
+        return true;
+    }
+
+    public void invalidate(K key) {
+        Entry<V> removed;
+        lock.lock();
+        try {
+            removed = entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+        if (removed != null) {
+            removalListener.accept(key, removed.value());
+        }
+    }
+
+    public void invalidateIf(Predicate<K> keyFilter) {
+        Map<K, V> removed = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            entries.entrySet().removeIf(entry -> {
+                if (keyFilter.test(entry.getKey())) {
+                    removed.put(entry.getKey(), entry.getValue().value());
+                    return true;
+                }
+                return false;
+            });
+        } finally {
+            lock.unlock();
+        }
+        removed.forEach(removalListener);
+    }
+
+    public void invalidateAll() {
+        invalidateIf(key -> true);
+    }
+
+    public CacheStats stats() {
+        int size;
+        lock.lock();
+        try {
+            size = entries.size();
+        } finally {
+            lock.unlock();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size, maxSize);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    /**
+     * Writes the entry and evicts down to the size bound; called with the lock held, the
+     * replaced and evicted values are collected for the removal listener.
+     */
+    private void store(K key, V value, Map<K, V> removed) {
+        Entry<V> previous = entries.put(key, new Entry<>(value, clock.getAsLong() + ttlMillis));
+        if (previous != null && previous.value() != value) {
+            removed.put(key, previous.value());
+        }
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            Map.Entry<K, Entry<V>> victim = eldest.next();
+            eldest.remove();
+            removed.put(victim.getKey(), victim.getValue().value());
+            evictions.increment();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+    }
+}
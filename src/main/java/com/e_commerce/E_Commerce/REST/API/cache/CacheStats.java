@@ -0,0 +1,18 @@
+package com.e_commerce.E_Commerce.REST.API.cache;
+
+/**
+ * Point-in-time counters of a {@link BoundedTtlCache}, used to tune size and TTL.
+ */
+public record CacheStats(
+        long hits,
+        long misses,
+        long evictions,
+        long size,
+        long maxSize
+) {
+
+    public double hitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,163 @@
+package com.e_commerce.E_Commerce.REST.API.cache;
+
+import com.e_commerce.E_Commerce.REST.API.dto.request.PaginationRequestDto;
+import com.e_commerce.E_Commerce.REST.API.dto.response.PaginationResponseDto;
+import com.e_commerce.E_Commerce.REST.API.dto.response.ProductResponseDTO;
+import com.e_commerce.E_Commerce.REST.API.util.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for the public catalog reads of {@code ProductService}.
+ * <p>
+ * Two regions: single products by id, and product pages keyed by query + paging parameters.
+ * A reverse index (product id -> cached pages showing it) lets a write invalidate only the
+ * pages that contain the changed product; creates drop every page because a new product can
+ * land on any of them. Invalidation runs after commit so readers never re-cache stale rows.
+ * <p>
+ * Every invalidation bumps a generation counter before it evicts. A value loaded while the
+ * generation moved may predate the write, so it is returned but not left in the cache.
+ */
+@Component
+public class ProductCatalogCache {
+
+    public static final String PRODUCTS_REGION = "products";
+    public static final String PAGES_REGION = "productPages";
+
+    private final BoundedTtlCache<Long, ProductResponseDTO> products;
+    private final BoundedTtlCache<PageKey, PaginationResponseDto<ProductResponseDTO>> pages;
+    private final Map<Long, Set<PageKey>> pagesByProduct = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductCatalogCache(
+            @Value("${app.cache.products.max-size:10000}") int productsMaxSize,
+            @Value("${app.cache.products.ttl:5m}") Duration productsTtl,
+            @Value("${app.cache.product-pages.max-size:2000}") int pagesMaxSize,
+            @Value("${app.cache.product-pages.ttl:30s}") Duration pagesTtl
+    ) {
+        this.products = new BoundedTtlCache<>(PRODUCTS_REGION, productsMaxSize, productsTtl);
+        this.pages = new BoundedTtlCache<>(PAGES_REGION, pagesMaxSize, pagesTtl, this::unindexPage);
+    }
+
+    public ProductResponseDTO getProduct(Long productId, Supplier<ProductResponseDTO> loader) {
+        ProductResponseDTO product = products.get(productId);
+        if (product == null) {
+            long loadedAt = generation.get();
+            product = loader.get();
+            if (product != null) {
+                products.put(productId, product);
+                if (generation.get() != loadedAt) {
+                    products.invalidate(productId);
+                }
+            }
+        }
+        return product;
+    }
+
+    public PaginationResponseDto<ProductResponseDTO> getPage(PageKey key,
+                                                             Supplier<PaginationResponseDto<ProductResponseDTO>> loader) {
+        PaginationResponseDto<ProductResponseDTO> page = pages.get(key);
+        if (page == null) {
+            long loadedAt = generation.get();
+            page = loader.get();
+            // indexed before it is visible, so an eviction that follows the check below always finds it
+            indexPage(key, page);
+            pages.put(key, page);
+            if (generation.get() != loadedAt) {
+                pages.invalidate(key);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Drops a product and every cached page that shows it, once the current transaction commits.
+     */
+    public void invalidateProduct(Long productId) {
+        invalidateProducts(List.of(productId));
+    }
+
+    public void invalidateProducts(Collection<Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        TransactionCallbacks.afterCommit(() -> ids.forEach(this::evictProduct));
+    }
+
+    /**
+     * Drops every cached page (a new product may belong on any of them).
+     */
+    public void invalidatePages() {
+        TransactionCallbacks.afterCommit(() -> {
+            generation.incrementAndGet();
+            pages.invalidateAll();
+        });
+    }
+
+    public Map<String, CacheStats> stats() {
+        return Map.of(
+                PRODUCTS_REGION, products.stats(),
+                PAGES_REGION, pages.stats()
+        );
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private void evictProduct(Long productId) {
+        generation.incrementAndGet();
+        products.invalidate(productId);
+        Set<PageKey> keys = pagesByProduct.remove(productId);
+        if (keys != null) {
+            keys.forEach(pages::invalidate);
+        }
+    }
+
+    private void indexPage(PageKey key, PaginationResponseDto<ProductResponseDTO> page) {
+        for (ProductResponseDTO product : page.getData()) {
+            pagesByProduct.computeIfAbsent(product.id(), id -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private void unindexPage(PageKey key, PaginationResponseDto<ProductResponseDTO> page) {
+        for (ProductResponseDTO product : page.getData()) {
+            pagesByProduct.computeIfPresent(product.id(), (id, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    /**
+     * Identifies one cached page: which query, its filter values and the paging parameters
+     * (page number for offset pages, cursor for keyset slices).
+     */
+    public record PageKey(
+            String query,
+            List<Object> filters,
+            int page,
+            int size,
+            String sortBy,
+            String sortDirection,
+            String cursor
+    ) {
+
+        public static PageKey of(String query, PaginationRequestDto requestDto, Object... filters) {
+            return new PageKey(
+                    query,
+                    List.of(filters),
+                    requestDto.getPage(),
+                    requestDto.getSize(),
+                    requestDto.getSortBy(),
+                    requestDto.getSortDirection(),
+                    requestDto.getCursor()
+            );
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.e_commerce.E_Commerce.REST.API.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Executor that runs payment gateway calls outside the request transaction.
+ * <p>
+ * Both variants run at most {@code max-concurrent-calls} gateway calls at once, hold up to
+ * {@code queue-capacity} more and reject work beyond that ({@code TaskRejectedException})
+ * instead of queueing without limit behind a slow gateway.
+ */
+@Configuration
+public class PaymentExecutorConfig {
+
+    public static final String PAYMENT_GATEWAY_EXECUTOR = "paymentGatewayExecutor";
+
+    @Bean(name = PAYMENT_GATEWAY_EXECUTOR)
+    public AsyncTaskExecutor paymentGatewayExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${app.payment.async.max-concurrent-calls:32}") int maxConcurrentCalls,
+            @Value("${app.payment.async.queue-capacity:200}") int queueCapacity
+    ) {
+        if (virtualThreads) {
+            // a thread per call is free, only the calls in flight and the calls waiting need a cap
+            SimpleAsyncTaskExecutor threads = new SimpleAsyncTaskExecutor("payment-gateway-");
+            threads.setVirtualThreads(true);
+            return new BoundedVirtualThreadExecutor(threads, maxConcurrentCalls, queueCapacity);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("payment-gateway-");
+        executor.setCorePoolSize(maxConcurrentCalls);
+        executor.setMaxPoolSize(maxConcurrentCalls);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * The virtual thread counterpart of the pool above: at most {@code maxConcurrentCalls} tasks
+     * run, up to {@code queueCapacity} more wait on a parked virtual thread (no carrier held)
+     * for a slot, and further tasks are rejected right away.
+     */
+    static final class BoundedVirtualThreadExecutor implements AsyncTaskExecutor {
+
+        private final AsyncTaskExecutor threads;
+        private final Semaphore running;
+        private final Semaphore admitted;
+
+        BoundedVirtualThreadExecutor(AsyncTaskExecutor threads, int maxConcurrentCalls, int queueCapacity) {
+            this.threads = threads;
+            this.running = new Semaphore(maxConcurrentCalls, true);
+            this.admitted = new Semaphore(maxConcurrentCalls + queueCapacity);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (!admitted.tryAcquire()) {
+                throw new TaskRejectedException("Payment gateway executor is full");
+            }
+            try {
+                threads.execute(() -> {
+                    try {
+                        running.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        admitted.release();
+                        return;
+                    }
+                    try {
+                        task.run();
+                    } finally {
+                        running.release();
+                        admitted.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                admitted.release();
+                throw e;
+            }
+        }
+    }
+}
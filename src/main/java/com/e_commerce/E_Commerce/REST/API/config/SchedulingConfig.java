@@ -0,0 +1,9 @@
+package com.e_commerce.E_Commerce.REST.API.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -40,12 +40,15 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/v1/auth/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/webhooks/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/products/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/v1/products/**").hasAuthority(Role.ROLE_ADMIN.toString())
                         .requestMatchers(HttpMethod.PUT, "/api/v1/products/**").hasAuthority(Role.ROLE_ADMIN.toString())
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/products/**").hasAuthority(Role.ROLE_ADMIN.toString())
                         .requestMatchers("/api/v1/customers/**").hasAuthority(Role.ROLE_ADMIN.toString())
+                        .requestMatchers("/api/v1/admin/**").hasAuthority(Role.ROLE_ADMIN.toString())
                         .requestMatchers("/api/v1/orders/**").hasAnyAuthority(Role.ROLE_USER.toString(), Role.ROLE_ADMIN.toString())
+                        .requestMatchers(HttpMethod.POST, "/api/v1/payments/batch").hasAuthority(Role.ROLE_ADMIN.toString())
                         .requestMatchers("/api/v1/payments/**").hasAnyAuthority(Role.ROLE_USER.toString(), Role.ROLE_ADMIN.toString())
                         .anyRequest().authenticated()
                 )
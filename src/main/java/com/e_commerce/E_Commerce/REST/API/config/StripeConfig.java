@@ -5,15 +5,34 @@ import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class StripeConfig {
 
     @Value("${stripe.api.key}")
     private String secretKey;
 
+    // empty -> Stripe's default endpoint; set to point the client at a local stub gateway
+    @Value("${stripe.api.base:}")
+    private String apiBase;
+
+    // gateway calls run off the request thread, but must still end on their own
+    @Value("${stripe.api.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${stripe.api.read-timeout:10s}")
+    private Duration readTimeout;
+
     @PostConstruct
     public void setUp()
     {
         Stripe.apiKey = secretKey;
+        Stripe.setConnectTimeout(Math.toIntExact(connectTimeout.toMillis()));
+        Stripe.setReadTimeout(Math.toIntExact(readTimeout.toMillis()));
+        if (!apiBase.isBlank())
+        {
+            Stripe.overrideApiBase(apiBase);
+        }
     }
 }
@@ -0,0 +1,24 @@
+package com.e_commerce.E_Commerce.REST.API.controller;
+
+import com.e_commerce.E_Commerce.REST.API.cache.CacheStats;
+import com.e_commerce.E_Commerce.REST.API.cache.ProductCatalogCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1/admin/caches")
+public class CacheStatsController {
+
+    private final ProductCatalogCache productCatalogCache;
+
+    @GetMapping
+    public ResponseEntity<Map<String, CacheStats>> getCacheStats() {
+        return ResponseEntity.ok(productCatalogCache.stats());
+    }
+}
@@ -0,0 +1,38 @@
+package com.e_commerce.E_Commerce.REST.API.controller;
+
+import com.e_commerce.E_Commerce.REST.API.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1/admin/export")
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ExportService exportService;
+
+    @GetMapping("/products")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        return ndjson("products.ndjson", exportService::exportProducts);
+    }
+
+    @GetMapping("/orders")
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        return ndjson("orders.ndjson", exportService::exportOrders);
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(String fileName, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+}
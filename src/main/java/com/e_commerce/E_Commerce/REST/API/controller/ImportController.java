@@ -0,0 +1,39 @@
+package com.e_commerce.E_Commerce.REST.API.controller;
+
+import com.e_commerce.E_Commerce.REST.API.dto.response.BulkReportDTO;
+import com.e_commerce.E_Commerce.REST.API.service.ProductImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1/admin/import")
+public class ImportController {
+
+    private final ProductImportService productImportService;
+
+    /**
+     * Streams the request body, so the upload is never held in memory as a whole.
+     */
+    @PostMapping(value = "/products", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<BulkReportDTO> importProducts(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(productImportService.importProducts(
+                request.getInputStream(), MediaType.parseMediaType(request.getContentType())));
+    }
+
+    /**
+     * Applies (id, price, stockQuantity, active) changes to existing products; empty fields are left as they are.
+     */
+    @PostMapping(value = "/products/updates", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<BulkReportDTO> updateProducts(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(productImportService.updateProducts(
+                request.getInputStream(), MediaType.parseMediaType(request.getContentType())));
+    }
+}
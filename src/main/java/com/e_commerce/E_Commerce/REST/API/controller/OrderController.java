@@ -5,6 +5,7 @@ import com.e_commerce.E_Commerce.REST.API.dto.request.OrderUpdateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.request.PaginationRequestDto;
 import com.e_commerce.E_Commerce.REST.API.dto.response.OrderResponseDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.response.PaginationResponseDto;
+import com.e_commerce.E_Commerce.REST.API.idempotency.IdempotencyService;
 import com.e_commerce.E_Commerce.REST.API.service.OrderService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -15,6 +16,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.List;
 
 @Validated
@@ -24,11 +26,21 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
 
+    /**
+     * Retries carrying the same {@code Idempotency-Key} get the first order back instead of a new one.
+     */
     @PostMapping
-    public ResponseEntity<OrderResponseDTO> createOrder(@Valid @RequestBody OrderCreateRequestDTO requestDTO)
+    public ResponseEntity<OrderResponseDTO> createOrder(
+            @Valid @RequestBody OrderCreateRequestDTO requestDTO,
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            Principal principal)
     {
-        OrderResponseDTO orderResponseDTO = orderService.createOrder(requestDTO);
+        String scope = "orders:" + (principal != null ? principal.getName() : "anonymous");
+        OrderResponseDTO orderResponseDTO = idempotencyService.execute(
+                scope, idempotencyKey, requestDTO, OrderResponseDTO.class,
+                () -> orderService.createOrder(requestDTO));
         return ResponseEntity.status(HttpStatus.CREATED).body(orderResponseDTO);
     }
 
@@ -0,0 +1,24 @@
+package com.e_commerce.E_Commerce.REST.API.controller;
+
+import com.e_commerce.E_Commerce.REST.API.inventory.PendingOrderReaper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1/admin/order-reaper")
+public class OrderReaperController {
+
+    private final PendingOrderReaper pendingOrderReaper;
+
+    /**
+     * Expired PENDING orders cancelled and units given back since startup, plus the last run.
+     */
+    @GetMapping
+    public ResponseEntity<PendingOrderReaper.Stats> getStats() {
+        return ResponseEntity.ok(pendingOrderReaper.stats());
+    }
+}
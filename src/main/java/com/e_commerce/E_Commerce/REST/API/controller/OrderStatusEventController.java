@@ -0,0 +1,55 @@
+package com.e_commerce.E_Commerce.REST.API.controller;
+
+import com.e_commerce.E_Commerce.REST.API.dto.request.OrderStatusEventRequestDTO;
+import com.e_commerce.E_Commerce.REST.API.dto.response.OrderStatusReceiptDTO;
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+import com.e_commerce.E_Commerce.REST.API.orderstatus.OrderStatusEvent;
+import com.e_commerce.E_Commerce.REST.API.orderstatus.OrderStatusIngestion;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@Validated
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1/admin/orders/status-events")
+public class OrderStatusEventController {
+
+    private final OrderStatusIngestion statusIngestion;
+
+    /**
+     * Queues status transitions for many orders; events of one order are applied in request order.
+     * Answers 202 once the batch is on disk, transitions that turn out not to be allowed are
+     * counted as rejected in the stats.
+     */
+    @PostMapping
+    public ResponseEntity<OrderStatusReceiptDTO> acceptEvents(
+            @RequestBody
+            @NotEmpty(message = "At least one status event is required")
+            @Size(max = 10000, message = "At most 10000 status events per request")
+            List<@Valid OrderStatusEventRequestDTO> events)
+    {
+        List<OrderStatusEvent> logged = statusIngestion.accept(events.stream()
+                .map(event -> Map.entry(event.getOrderId(), OrderStatus.valueOf(event.getOrderStatus())))
+                .toList());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new OrderStatusReceiptDTO(
+                logged.size(), logged.get(0).sequence(), logged.get(logged.size() - 1).sequence()));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<OrderStatusIngestion.Stats> getStats() {
+        return ResponseEntity.ok(statusIngestion.stats());
+    }
+}
@@ -1,6 +1,8 @@
 package com.e_commerce.E_Commerce.REST.API.controller;
 
+import com.e_commerce.E_Commerce.REST.API.dto.request.PaymentBatchRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.request.PaymentRequestDTO;
+import com.e_commerce.E_Commerce.REST.API.dto.response.PaymentBatchResultDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.response.PaymentResponseDTO;
 import com.e_commerce.E_Commerce.REST.API.service.PaymentService;
 import jakarta.validation.Valid;
@@ -8,6 +10,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/payments")
 @RequiredArgsConstructor
@@ -18,14 +22,27 @@ public class PaymentController {
     /**
      * Creates a new payment for an order.
      * Returns client_secret (in paymentGatewayResponse) for frontend to confirm
-     * payment.
+     * payment, or 202 while the gateway is still answering; poll GET /{id} for it.
      */
     @PostMapping
     public ResponseEntity<PaymentResponseDTO> createPayment(@Valid @RequestBody PaymentRequestDTO requestDTO) {
         PaymentResponseDTO response = paymentService.createPayment(requestDTO);
+        if (response.isPending() && response.transactionId() == null) {
+            return ResponseEntity.accepted().body(response);
+        }
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Creates payments for many orders at once (admin only).
+     * Answers with one result per order; orders that could not be charged are reported
+     * in their result instead of failing the whole batch.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<PaymentBatchResultDTO>> createPayments(@Valid @RequestBody PaymentBatchRequestDTO batchDTO) {
+        return ResponseEntity.ok(paymentService.createPayments(batchDTO));
+    }
+
     /**
      * Retrieves a payment by its ID.
      */
@@ -0,0 +1,24 @@
+package com.e_commerce.E_Commerce.REST.API.controller;
+
+import com.e_commerce.E_Commerce.REST.API.payment.StripeGatewayClient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1/admin/payment-gateway")
+public class PaymentGatewayController {
+
+    private final StripeGatewayClient gatewayClient;
+
+    /**
+     * Circuit breaker state and counters plus bulkhead occupancy of the Stripe client.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<StripeGatewayClient.Stats> getStats() {
+        return ResponseEntity.ok(gatewayClient.stats());
+    }
+}
@@ -5,9 +5,11 @@ import com.e_commerce.E_Commerce.REST.API.dto.request.PaginationRequestDto;
 import com.e_commerce.E_Commerce.REST.API.dto.request.ProductCreateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.request.ProductUpdateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.response.PaginationResponseDto;
+import com.e_commerce.E_Commerce.REST.API.dto.response.ProductBrowseResponseDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.response.ProductResponseDTO;
 import com.e_commerce.E_Commerce.REST.API.service.ProductService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -100,6 +102,26 @@ public class ProductController {
                 .getProductsByName(name ,requestDto));
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<PaginationResponseDto<ProductResponseDTO>> search(
+            @RequestParam @NotBlank(message = "q must not be blank") String q,
+            @Valid PaginationRequestDto requestDto
+    )
+    {
+        return ResponseEntity.ok(productService.search(q, requestDto));
+    }
+
+    @GetMapping("/browse")
+    public ResponseEntity<ProductBrowseResponseDTO> browse(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String priceRange,
+            @RequestParam(required = false) Boolean inStock,
+            @Valid PaginationRequestDto requestDto
+    )
+    {
+        return ResponseEntity.ok(productService.browse(category, priceRange, inStock, requestDto));
+    }
+
     @GetMapping("/category")
     public ResponseEntity<PaginationResponseDto<ProductResponseDTO>> getByCategory(
             @RequestParam @NotNull(message = "category must be not null") String category,
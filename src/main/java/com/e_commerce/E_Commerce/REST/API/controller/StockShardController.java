@@ -0,0 +1,30 @@
+package com.e_commerce.E_Commerce.REST.API.controller;
+
+import com.e_commerce.E_Commerce.REST.API.inventory.StockShards;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1/admin/stock-shards")
+public class StockShardController {
+
+    private final StockShards stockShards;
+
+    /**
+     * Spreads the stock of a hot product over {@code count} sub-counters; 0 folds it back into the product row.
+     *
+     * @return the quantity held by each shard
+     */
+    @PutMapping("/{productId}")
+    public ResponseEntity<List<Integer>> shardStock(@PathVariable Long productId, @RequestParam int count) {
+        return ResponseEntity.ok(stockShards.shard(productId, count));
+    }
+}
@@ -0,0 +1,36 @@
+package com.e_commerce.E_Commerce.REST.API.controller;
+
+import com.e_commerce.E_Commerce.REST.API.payment.StripeWebhookReceiver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequiredArgsConstructor
+@RestController
+public class StripeWebhookController {
+
+    private final StripeWebhookReceiver webhookReceiver;
+
+    /**
+     * Stripe's webhook endpoint; unauthenticated, the signature is the credential. The body is
+     * taken as raw bytes because the signature covers it byte for byte. Answers 200 once the
+     * event is on disk (or known to be applied), it is applied to the payment afterwards.
+     */
+    @PostMapping("/api/v1/webhooks/stripe")
+    public ResponseEntity<Void> receive(
+            @RequestBody byte[] payload,
+            @RequestHeader(value = "Stripe-Signature", required = false) String signature)
+    {
+        webhookReceiver.receive(payload, signature);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/api/v1/admin/webhooks/stripe/stats")
+    public ResponseEntity<StripeWebhookReceiver.Stats> getStats() {
+        return ResponseEntity.ok(webhookReceiver.stats());
+    }
+}
@@ -0,0 +1,24 @@
+package com.e_commerce.E_Commerce.REST.API.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusEventRequestDTO {
+
+    @NotNull(message = "Order ID cannot be null")
+    @Positive(message = "Order ID must be positive")
+    private Long orderId;
+
+    @NotBlank(message = "Order status cannot be blank")
+    @Pattern(regexp = "PENDING|CONFIRMED|PAID|SHIPPED|DELIVERED|CANCELLED",
+            message = "Status must be one of: PENDING, CONFIRMED, PAID, SHIPPED, DELIVERED, CANCELLED")
+    private String orderStatus;
+}
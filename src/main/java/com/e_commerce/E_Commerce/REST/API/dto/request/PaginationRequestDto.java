@@ -3,14 +3,17 @@ package com.e_commerce.E_Commerce.REST.API.dto.request;
 import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
 import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
 import com.e_commerce.E_Commerce.REST.API.model.enums.PaginationColumnsWhiteList;
+import com.e_commerce.E_Commerce.REST.API.util.KeysetCursor;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
 @Builder
 @Data
@@ -29,15 +32,48 @@ public class PaginationRequestDto {
     private String sortDirection = "ASC";
     private String searchQuery;
 
+    // keyset mode: send an empty cursor for the first slice, then the next/prev cursor of the last response
+    private String cursor;
+
     public Pageable toPageable ()
     {
-        //ASSIGN SORT DIR
-        Sort.Direction direction = "DESC".equalsIgnoreCase(sortDirection) ?
-                 Sort.Direction.DESC: Sort.Direction.ASC;
+        return PageRequest.of(page-1 , size , toSort());
 
+    }
 
-        return PageRequest.of(page-1 , size , Sort.by(direction, sortBy));
+    public boolean isKeyset()
+    {
+        return cursor != null;
+    }
 
+    public Sort toSort()
+    {
+        return Sort.by(direction(), sortBy);
+    }
+
+    public Limit toLimit()
+    {
+        return Limit.of(size);
+    }
+
+    /**
+     * Seek position encoded in {@link #cursor}; the id tie-breaker is appended to the sort by Spring Data.
+     */
+    public ScrollPosition toScrollPosition(Class<?> entityType)
+    {
+        return KeysetCursor.decode(cursor, entityType, sortSignature());
+    }
+
+    public String sortSignature()
+    {
+        return KeysetCursor.sortSignature(sortBy, direction().name());
+    }
+
+    private Sort.Direction direction()
+    {
+        //ASSIGN SORT DIR
+        return "DESC".equalsIgnoreCase(sortDirection) ?
+                 Sort.Direction.DESC: Sort.Direction.ASC;
     }
 
 
@@ -54,6 +90,14 @@ public class PaginationRequestDto {
                             String.join(", ", PaginationColumnsWhiteList.getAllowedFields()))
             );
         }
+        // services that compute an offset themselves must not see a page below 1 or an empty page
+        if (requestDto.getPage() < 1 || requestDto.getSize() < 1)
+        {
+            throw new ValidationException(
+                    ErrorCode.INVALID_PAGINATION_PARAMETER,
+                    String.format("page and size must be at least 1, were %d and %d", requestDto.getPage(), requestDto.getSize())
+            );
+        }
 
     }
 }
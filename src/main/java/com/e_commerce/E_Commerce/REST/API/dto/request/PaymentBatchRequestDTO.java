@@ -0,0 +1,26 @@
+package com.e_commerce.E_Commerce.REST.API.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Payments for many orders, settled in one call. Each order may appear once.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentBatchRequestDTO {
+
+    public static final int MAX_PAYMENTS = 500;
+
+    @NotEmpty(message = "At least one payment is required")
+    @Size(max = MAX_PAYMENTS, message = "At most " + MAX_PAYMENTS + " payments per batch")
+    private List<@Valid PaymentRequestDTO> payments;
+
+}
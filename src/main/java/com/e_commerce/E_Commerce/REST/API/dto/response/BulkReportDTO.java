@@ -0,0 +1,26 @@
+package com.e_commerce.E_Commerce.REST.API.dto.response;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk upload: counts, throughput and the rows that were rejected.
+ *
+ * @param errorsTruncated true when more rows failed than {@code errors} lists
+ */
+public record BulkReportDTO(
+        long rows,
+        long succeeded,
+        long failed,
+        long elapsedMillis,
+        double rowsPerSecond,
+        List<RowError> errors,
+        boolean errorsTruncated
+) {
+
+    /**
+     * @param row 1-based position of the row in the upload
+     * @param key what identifies the row to the client, e.g. the product name or id
+     */
+    public record RowError(long row, String key, List<String> messages) {
+    }
+}
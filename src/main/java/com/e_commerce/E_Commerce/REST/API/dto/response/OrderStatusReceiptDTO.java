@@ -0,0 +1,13 @@
+package com.e_commerce.E_Commerce.REST.API.dto.response;
+
+/**
+ * Acknowledges a batch of status events once it is durably logged; the orders are updated later.
+ *
+ * @param firstSequence log sequence of the first event, the others follow in request order
+ */
+public record OrderStatusReceiptDTO(
+        int accepted,
+        long firstSequence,
+        long lastSequence
+) {
+}
@@ -1,11 +1,17 @@
 package com.e_commerce.E_Commerce.REST.API.dto.response;
 
+import com.e_commerce.E_Commerce.REST.API.dto.request.PaginationRequestDto;
+import com.e_commerce.E_Commerce.REST.API.util.KeysetCursor;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 
@@ -19,31 +25,44 @@ public class PaginationResponseDto<T> {
 
 
 
+    /**
+     * Offset pages fill the page numbers and totals; keyset slices leave them null (no COUNT query)
+     * and carry the cursors to the neighbouring slices instead.
+     */
     @Builder
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class PaginationMetadata
     {
-        private int currentPage;
+        private Integer currentPage;
         private int pageSize;
         private Long totalElement;
-        private int totalPages;
+        private Integer totalPages;
         private boolean hasNext;
         private boolean hasPrevious;
         private boolean isFirst;
         private boolean isLast;
+        private String nextCursor;
+        private String prevCursor;
 
 
         @JsonProperty("rangeStart")
-        public int getRangeStart()
+        public Integer getRangeStart()
         {
+            if (currentPage == null) {
+                return null;
+            }
             return (currentPage-1) * pageSize+1;
         }
 
         @JsonProperty("rangeEnd")
-        public long getRangeEnd()
+        public Long getRangeEnd()
         {
+            if (currentPage == null || totalElement == null) {
+                return null;
+            }
             long end = (long) currentPage * pageSize;
             return Math.min(end, totalElement);
         }
@@ -60,9 +79,47 @@ public class PaginationResponseDto<T> {
                     page.hasNext(),
                     page.hasPrevious(),
                     page.isFirst(),
-                    page.isLast()
+                    page.isLast(),
+                    null,
+                    null
             );
             return new PaginationResponseDto<>(page.getContent() , metadata1);
         }
+
+        /**
+         * Builds a keyset slice response from a window read at {@code requested}.
+         */
+        public static <T> PaginationResponseDto<T> of (Window<T> window, ScrollPosition requested, PaginationRequestDto requestDto)
+        {
+            boolean backward = requested instanceof KeysetScrollPosition keyset && keyset.scrollsBackward();
+            boolean initial = requested.isInitial();
+
+            // a backward window reports "more rows" towards the start of the result
+            boolean hasNext = backward || window.hasNext();
+            boolean hasPrevious = backward ? window.hasNext() : !initial;
+
+            String sort = requestDto.sortSignature();
+            String nextCursor = null;
+            String prevCursor = null;
+            if (!window.isEmpty()) {
+                if (hasNext) {
+                    nextCursor = KeysetCursor.encode(window.positionAt(window.size() - 1), ScrollPosition.Direction.FORWARD, sort);
+                }
+                if (hasPrevious) {
+                    prevCursor = KeysetCursor.encode(window.positionAt(0), ScrollPosition.Direction.BACKWARD, sort);
+                }
+            }
+
+            PaginationMetadata metadata1 = PaginationMetadata.builder()
+                    .pageSize(requestDto.getSize())
+                    .hasNext(hasNext)
+                    .hasPrevious(hasPrevious)
+                    .isFirst(!hasPrevious)
+                    .isLast(!hasNext)
+                    .nextCursor(nextCursor)
+                    .prevCursor(prevCursor)
+                    .build();
+            return new PaginationResponseDto<>(window.getContent(), metadata1);
+        }
     }
 }
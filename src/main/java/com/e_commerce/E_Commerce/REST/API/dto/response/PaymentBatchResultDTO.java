@@ -0,0 +1,27 @@
+package com.e_commerce.E_Commerce.REST.API.dto.response;
+
+import com.e_commerce.E_Commerce.REST.API.payment.PaymentStrategy;
+
+/**
+ * Outcome of one order of a payment batch.
+ *
+ * @param paymentId     the stored payment, null when the order was rejected before the gateway call
+ * @param paymentStatus PENDING until the gateway confirms the payment, or while the outcome of the
+ *                      gateway call is unknown; FAILED otherwise
+ * @param clientSecret  for the frontend to confirm the payment, as with a single payment
+ */
+public record PaymentBatchResultDTO(
+        Long orderId,
+        Long paymentId,
+        String paymentStatus,
+        boolean success,
+        String transactionId,
+        String clientSecret,
+        String errorMessage
+) {
+
+    public static PaymentBatchResultDTO of(Long orderId, Long paymentId, PaymentStrategy.PaymentResult result) {
+        return new PaymentBatchResultDTO(orderId, paymentId, result.success() || result.outcomeUnknown() ? "PENDING" : "FAILED",
+                result.success(), result.transactionId(), result.clientSecret(), result.errorMessage());
+    }
+}
@@ -0,0 +1,12 @@
+package com.e_commerce.E_Commerce.REST.API.dto.response;
+
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetIndex.Facets;
+
+/**
+ * One page of filtered products together with the facet counts for the same filters.
+ */
+public record ProductBrowseResponseDTO(
+        PaginationResponseDto<ProductResponseDTO> results,
+        Facets facets
+) {
+}
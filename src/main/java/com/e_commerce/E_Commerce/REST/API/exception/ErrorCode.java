@@ -28,6 +28,8 @@ public enum ErrorCode {
     INVALID_ENUM_VALUE("VAL-021", "Invalid enum value", HttpStatus.BAD_REQUEST),
     INVALID_BOOLEAN_VALUE("VAL-022", "Invalid boolean value", HttpStatus.BAD_REQUEST),
     INVALID_PRICE("VAL-023", " Price is invalid", HttpStatus.BAD_REQUEST),
+    IDEMPOTENCY_KEY_REUSED("VAL-024", "Idempotency key was already used for a different request", HttpStatus.UNPROCESSABLE_ENTITY),
+    IDEMPOTENT_REQUEST_IN_PROGRESS("VAL-025", "A request with this idempotency key is still being processed", HttpStatus.CONFLICT),
 
 
     // Authentication & Authorization Errors (AUTH-XXX)
@@ -67,6 +69,7 @@ public enum ErrorCode {
     ORDER_ITEMS_EMPTY("ORD-006", "Order must contain at least one item", HttpStatus.BAD_REQUEST),
     ORDER_TOTAL_INVALID("ORD-007", "Order total amount must be greater than zero", HttpStatus.BAD_REQUEST),
     ORDER_ITEM_NOT_FOUND("ORD-8", "Order item not found", HttpStatus.NOT_FOUND),
+    ORDER_INVALID_STATUS_TRANSITION("ORD-009", "Order status transition is not allowed", HttpStatus.CONFLICT),
 
     // Payment Errors (PAY-XXX)
     PAYMENT_NOT_FOUND("PAY-001", "Payment not found", HttpStatus.NOT_FOUND),
@@ -74,6 +77,7 @@ public enum ErrorCode {
     INVALID_PAYMENT_METHOD("PAY-003", "Invalid payment method", HttpStatus.BAD_REQUEST),
     PAYMENT_ALREADY_PROCESSED("PAY-004", "Payment already processed", HttpStatus.CONFLICT),
     PAYMENT_REFUND_FAILED("PAY-005", "Payment refund failed", HttpStatus.BAD_REQUEST),
+    PAYMENT_WEBHOOK_SIGNATURE_INVALID("PAY-006", "Payment webhook signature is invalid", HttpStatus.BAD_REQUEST),
     PAYMENT_AMOUNT_MISMATCH("BUS-005", "Payment amount does not match the expected value", HttpStatus.BAD_REQUEST),
 
     // Cart Errors (CRT-XXX)
@@ -89,6 +93,7 @@ public enum ErrorCode {
     SERVICE_UNAVAILABLE("SYS-004", "Service temporarily unavailable", HttpStatus.SERVICE_UNAVAILABLE),
     REQUEST_TIMEOUT("SYS-005", "Request timeout", HttpStatus.REQUEST_TIMEOUT),
     DATA_INTEGRITY_VIOLATION("SYS-006", "Data integrity violation", HttpStatus.CONFLICT),
+    CONCURRENT_MODIFICATION("SYS-007", "Resource was modified concurrently, please retry", HttpStatus.CONFLICT),
     DATABASE_UNAVAILABLE("SYS-003", "Database connection failed", HttpStatus.SERVICE_UNAVAILABLE),
     EXTERNAL_SERVICE_ERROR("SYS-004", "External service unavailable", HttpStatus.SERVICE_UNAVAILABLE),
 
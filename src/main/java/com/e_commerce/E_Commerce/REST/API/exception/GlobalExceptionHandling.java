@@ -10,6 +10,7 @@ import com.e_commerce.E_Commerce.REST.API.exception.product.ProductNotFoundExcep
 import com.e_commerce.E_Commerce.REST.API.exception.product.ProductOutOfStockException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -113,6 +114,23 @@ public class GlobalExceptionHandling {
 
 
 
+    /*
+        OptimisticLockingFailureException -> a versioned entity was saved from a stale copy
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException ex, HttpServletRequest request)
+    {
+        log.debug("Concurrent modification at {}: {}", request.getRequestURI(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ErrorResponse.of(
+                        ErrorCode.CONCURRENT_MODIFICATION.getCode(),
+                        ErrorCode.CONCURRENT_MODIFICATION.getMessage(),
+                        HttpStatus.CONFLICT.value(),
+                        request.getRequestURI()
+                ));
+    }
+
+
     /*
         Catch-all for unexpected errors Generic Exception with logger
  */
@@ -20,6 +20,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -43,8 +44,10 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         try {
             String token = authHeader.substring(7);
             
-            if (jwtService.validateToken(token)) {
-                Claims claims = jwtService.extractAllClaims(token);
+            // single verification per request, repeat tokens are served from the claims cache
+            Optional<Claims> verifiedClaims = jwtService.parseVerifiedClaims(token);
+            if (verifiedClaims.isPresent()) {
+                Claims claims = verifiedClaims.get();
                 String username = claims.getSubject();
 
                 // Extract roles with null safety
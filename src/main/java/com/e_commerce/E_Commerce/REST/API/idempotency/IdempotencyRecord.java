@@ -0,0 +1,10 @@
+package com.e_commerce.E_Commerce.REST.API.idempotency;
+
+/**
+ * Outcome of a completed idempotent request.
+ *
+ * @param requestHash  fingerprint of the request body the key was first used with
+ * @param responseBody serialized response returned to the first caller
+ */
+public record IdempotencyRecord(String requestHash, String responseBody) {
+}
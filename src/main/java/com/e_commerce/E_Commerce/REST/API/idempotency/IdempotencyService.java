@@ -0,0 +1,177 @@
+package com.e_commerce.E_Commerce.REST.API.idempotency;
+
+import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
+import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
+import com.e_commerce.E_Commerce.REST.API.model.IdempotencyKey;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key}.
+ * <p>
+ * A completed request is answered from the {@link IdempotencyStore}. While the first request
+ * with a key is still running, duplicates on this node wait for its result on a future instead
+ * of running the action again; the store keeps duplicates on other nodes out. Failed requests
+ * are not recorded: waiting duplicates get the same error and a later retry runs the action anew.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final long inFlightWaitMillis;
+
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(
+            IdempotencyStore store,
+            ObjectMapper objectMapper,
+            @Value("${app.idempotency.in-flight-wait:30s}") Duration inFlightWait
+    ) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.inFlightWaitMillis = inFlightWait.toMillis();
+    }
+
+    /**
+     * @param scope        namespace of the key, e.g. operation and caller, so clients cannot collide
+     * @param key          the client's idempotency key; null runs the action without deduplication
+     * @param request      request body, fingerprinted to reject a key reused for another request
+     * @param responseType type to rebuild a stored response as
+     * @param action       the operation to run once
+     */
+    public <T> T execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException(ErrorCode.INVALID_INPUT_FORMAT,
+                    HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String scopedKey = scope + ":" + key;
+        if (scopedKey.length() > IdempotencyKey.KEY_LENGTH) {
+            throw new ValidationException(ErrorCode.INVALID_INPUT_FORMAT,
+                    HEADER + " must be at most " + (IdempotencyKey.KEY_LENGTH - scope.length() - 1) + " characters");
+        }
+        String requestHash = fingerprint(request);
+
+        Optional<IdempotencyRecord> completed = store.find(scopedKey);
+        if (completed.isPresent()) {
+            return replay(completed.get(), requestHash, responseType);
+        }
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(scopedKey, mine);
+        if (running != null) {
+            return awaitDuplicate(running, requestHash, responseType);
+        }
+
+        try {
+            // the first request may have completed between the lookup and claiming the key
+            completed = store.find(scopedKey);
+            if (completed.isPresent()) {
+                String body = completed.get().responseBody();
+                mine.response().complete(body);
+                return replay(completed.get(), requestHash, responseType);
+            }
+
+            String[] body = new String[1];
+            Optional<T> response = store.execute(scopedKey, requestHash, action, result -> body[0] = serialize(result));
+            if (response.isEmpty()) {
+                // a request on another node completed the key while this one waited to claim it
+                IdempotencyRecord record = store.find(scopedKey)
+                        .orElseThrow(() -> new ValidationException(ErrorCode.IDEMPOTENT_REQUEST_IN_PROGRESS));
+                mine.response().complete(record.responseBody());
+                return replay(record, requestHash, responseType);
+            }
+            mine.response().complete(body[0]);
+            return response.get();
+        } catch (RuntimeException e) {
+            mine.response().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(scopedKey, mine);
+        }
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private <T> T replay(IdempotencyRecord record, String requestHash, Class<T> responseType) {
+        checkSameRequest(record.requestHash(), requestHash);
+        log.debug("replaying stored response for a duplicate request");
+        return deserialize(record.responseBody(), responseType);
+    }
+
+    private <T> T awaitDuplicate(InFlight running, String requestHash, Class<T> responseType) {
+        checkSameRequest(running.requestHash(), requestHash);
+        try {
+            String body = running.response().get(inFlightWaitMillis, TimeUnit.MILLISECONDS);
+            return deserialize(body, responseType);
+        } catch (TimeoutException e) {
+            throw new ValidationException(ErrorCode.IDEMPOTENT_REQUEST_IN_PROGRESS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValidationException(ErrorCode.IDEMPOTENT_REQUEST_IN_PROGRESS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void checkSameRequest(String expectedHash, String requestHash) {
+        if (!expectedHash.equals(requestHash)) {
+            throw new ValidationException(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    private String serialize(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot store response for idempotent replay", e);
+        }
+    }
+
+    private <T> T deserialize(String body, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot replay stored response", e);
+        }
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<String> response) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.e_commerce.E_Commerce.REST.API.idempotency;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Completed idempotent requests, kept until their TTL runs out.
+ */
+public interface IdempotencyStore {
+
+    Optional<IdempotencyRecord> find(String key);
+
+    /**
+     * Runs {@code action} for a key no request has completed yet and stores its serialized
+     * response, unless another request claims the key first.
+     *
+     * @return the action's response, or empty when another request completed the key meanwhile
+     * and the action did not run; {@link #find} then returns its record
+     */
+    <T> Optional<T> execute(String key, String requestHash, Supplier<T> action, Function<T, String> serializer);
+}
@@ -0,0 +1,49 @@
+package com.e_commerce.E_Commerce.REST.API.idempotency;
+
+import com.e_commerce.E_Commerce.REST.API.cache.BoundedTtlCache;
+import com.e_commerce.E_Commerce.REST.API.cache.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Default store: bounded LRU with TTL, local to this node. Retries that land on another node
+ * are not deduplicated; use {@code app.idempotency.store=table} when running several nodes.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final BoundedTtlCache<String, IdempotencyRecord> records;
+
+    public InMemoryIdempotencyStore(
+            @Value("${app.idempotency.max-size:100000}") int maxSize,
+            @Value("${app.idempotency.ttl:24h}") Duration ttl
+    ) {
+        this.records = new BoundedTtlCache<>("idempotencyKeys", maxSize, ttl);
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        return Optional.ofNullable(records.get(key));
+    }
+
+    /**
+     * Nothing to claim: the service's in-flight map already runs a key once at a time on this node.
+     */
+    @Override
+    public <T> Optional<T> execute(String key, String requestHash, Supplier<T> action, Function<T, String> serializer) {
+        T response = action.get();
+        records.put(key, new IdempotencyRecord(requestHash, serializer.apply(response)));
+        return Optional.of(response);
+    }
+
+    public CacheStats stats() {
+        return records.stats();
+    }
+}
@@ -0,0 +1,95 @@
+package com.e_commerce.E_Commerce.REST.API.idempotency;
+
+import com.e_commerce.E_Commerce.REST.API.cache.BoundedTtlCache;
+import com.e_commerce.E_Commerce.REST.API.repository.IdempotencyKeyRepository;
+import com.e_commerce.E_Commerce.REST.API.util.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Table-backed store shared by every node ({@code app.idempotency.store=table}).
+ * <p>
+ * A request claims its key with an insert-only statement before the action runs, and the
+ * claim, the action's writes and the stored response commit or roll back in one transaction
+ * (the action joins it). A duplicate on another node blocks on the uncommitted key until the
+ * first request ends: after a commit its insert fails and it answers with the stored response,
+ * after a rollback it runs the action itself. Records read or written on this node are also
+ * kept in a local cache, so repeated retries against the same node do not hit the database.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "table")
+public class JpaIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyKeyRepository repository;
+    private final TransactionTemplate transaction;
+    private final BoundedTtlCache<String, IdempotencyRecord> localRecords;
+    private final Duration ttl;
+
+    public JpaIdempotencyStore(
+            IdempotencyKeyRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.idempotency.max-size:100000}") int maxSize,
+            @Value("${app.idempotency.ttl:24h}") Duration ttl
+    ) {
+        this.repository = repository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.localRecords = new BoundedTtlCache<>("idempotencyKeys", maxSize, ttl);
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        IdempotencyRecord local = localRecords.get(key);
+        if (local != null) {
+            return Optional.of(local);
+        }
+
+        Optional<IdempotencyRecord> stored = repository.findLive(key, LocalDateTime.now())
+                .map(row -> new IdempotencyRecord(row.getRequestHash(), row.getResponseBody()));
+        stored.ifPresent(record -> localRecords.put(key, record));
+        return stored;
+    }
+
+    @Override
+    public <T> Optional<T> execute(String key, String requestHash, Supplier<T> action, Function<T, String> serializer) {
+        return transaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            // an expired key that was not purged yet would fail the claim
+            repository.deleteIfExpired(key, now);
+            try {
+                repository.claim(key, requestHash, now.plus(ttl));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("idempotency key {} completed by another request", key);
+                status.setRollbackOnly();
+                return Optional.empty();
+            }
+
+            T result = action.get();
+            IdempotencyRecord record = new IdempotencyRecord(requestHash, serializer.apply(result));
+            repository.complete(key, record.responseBody());
+            TransactionCallbacks.afterCommit(() -> localRecords.put(key, record));
+            return Optional.of(result);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("purged {} expired idempotency keys", purged);
+        }
+    }
+}
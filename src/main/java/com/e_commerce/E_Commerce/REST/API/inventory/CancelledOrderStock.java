@@ -0,0 +1,54 @@
+package com.e_commerce.E_Commerce.REST.API.inventory;
+
+import com.e_commerce.E_Commerce.REST.API.cache.ProductCatalogCache;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderItemRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderItemRepository.ProductQuantity;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gives the stock reserved by cancelled orders back. Every path that cancels orders (the pending
+ * order reaper, status ingestion, an admin status update) goes through here.
+ * <p>
+ * The items of all the orders are summed per product in one grouped query and released through
+ * {@link StockReservationLedger#releaseAll}; the cached products are invalidated once the caller's
+ * transaction commits.
+ */
+@Component
+public class CancelledOrderStock {
+
+    private final OrderItemRepository orderItemRepository;
+    private final StockReservationLedger stockLedger;
+    private final ProductCatalogCache catalogCache;
+
+    public CancelledOrderStock(OrderItemRepository orderItemRepository,
+                               StockReservationLedger stockLedger,
+                               ProductCatalogCache catalogCache) {
+        this.orderItemRepository = orderItemRepository;
+        this.stockLedger = stockLedger;
+        this.catalogCache = catalogCache;
+    }
+
+    /**
+     * Releases the stock of orders the caller has cancelled in its current transaction.
+     *
+     * @return the units given back
+     */
+    public long release(Collection<Long> cancelledOrderIds) {
+        if (cancelledOrderIds.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> quantities = new HashMap<>();
+        long units = 0;
+        for (ProductQuantity row : orderItemRepository.sumQuantitiesByProduct(cancelledOrderIds)) {
+            quantities.put(row.getProductId(), Math.toIntExact(row.getQuantity()));
+            units += row.getQuantity();
+        }
+        stockLedger.releaseAll(quantities);
+        catalogCache.invalidateProducts(quantities.keySet());
+        return units;
+    }
+}
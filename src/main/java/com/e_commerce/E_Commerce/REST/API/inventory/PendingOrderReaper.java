@@ -0,0 +1,125 @@
+package com.e_commerce.E_Commerce.REST.API.inventory;
+
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+import com.e_commerce.E_Commerce.REST.API.payment.PaymentStatus;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cancels PENDING orders that were not paid within {@code app.orders.pending-expiry} and gives
+ * their reserved stock back.
+ * <p>
+ * Each run works through at most {@code max-batches} batches of {@code batch-size} orders, oldest
+ * first, found by a range scan on {@code idx_orders_status_date}. Every batch is its own short
+ * transaction: the candidates are locked with {@code SKIP LOCKED}, so orders a customer is
+ * editing or paying right now are left for the next run, the orders are cancelled in one update
+ * and their stock goes back through {@link CancelledOrderStock}. Orders with a pending or successful payment are never
+ * cancelled; the gateway decides those.
+ */
+@Slf4j
+@Component
+public class PendingOrderReaper {
+
+    private static final Set<PaymentStatus> LIVE_PAYMENT_STATUSES =
+            EnumSet.of(PaymentStatus.PENDING, PaymentStatus.SUCCESSFUL, PaymentStatus.COMPLETED);
+    // the locking query is native, it binds the enum names
+    private static final List<String> LIVE_PAYMENT_STATUS_NAMES =
+            LIVE_PAYMENT_STATUSES.stream().map(Enum::name).toList();
+
+    private final OrderRepository orderRepository;
+    private final CancelledOrderStock cancelledOrderStock;
+    private final TransactionTemplate batchTransaction;
+    private final Duration expiry;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong cancelledOrders = new AtomicLong();
+    private final AtomicLong releasedUnits = new AtomicLong();
+    private final AtomicReference<Run> lastRun = new AtomicReference<>();
+
+    public PendingOrderReaper(OrderRepository orderRepository,
+                              CancelledOrderStock cancelledOrderStock,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.orders.pending-expiry:30m}") Duration expiry,
+                              @Value("${app.orders.reaper.batch-size:200}") int batchSize,
+                              @Value("${app.orders.reaper.max-batches:50}") int maxBatches) {
+        this.orderRepository = orderRepository;
+        this.cancelledOrderStock = cancelledOrderStock;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.expiry = expiry;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.reaper.interval-ms:60000}")
+    public void reap() {
+        long started = System.nanoTime();
+        LocalDateTime cutoff = LocalDateTime.now().minus(expiry);
+        int orders = 0;
+        long units = 0;
+
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> candidates = orderRepository.findIdsByStatusOlderThan(
+                    OrderStatus.PENDING, cutoff, LIVE_PAYMENT_STATUSES, PageRequest.of(0, batchSize));
+            if (candidates.isEmpty()) {
+                break;
+            }
+            Batch reaped = batchTransaction.execute(status -> reapBatch(candidates));
+            orders += reaped.orders();
+            units += reaped.units();
+            // a short page was the last one; a batch that got no lock only holds orders being worked on
+            if (candidates.size() < batchSize || reaped.orders() == 0) {
+                break;
+            }
+        }
+
+        runs.incrementAndGet();
+        cancelledOrders.addAndGet(orders);
+        releasedUnits.addAndGet(units);
+        lastRun.set(new Run(LocalDateTime.now(), orders, units, (System.nanoTime() - started) / 1_000_000));
+        if (orders > 0) {
+            log.info("cancelled {} expired pending orders, released {} units", orders, units);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(runs.get(), cancelledOrders.get(), releasedUnits.get(), expiry.toString(), lastRun.get());
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private Batch reapBatch(List<Long> candidates) {
+        List<Long> orderIds = orderRepository.lockIdsByStatus(candidates, OrderStatus.PENDING.name(), LIVE_PAYMENT_STATUS_NAMES);
+        if (orderIds.isEmpty()) {
+            return new Batch(0, 0);
+        }
+
+        orderRepository.updateStatus(orderIds, OrderStatus.CANCELLED);
+        long units = cancelledOrderStock.release(orderIds);
+        return new Batch(orderIds.size(), units);
+    }
+
+    private record Batch(int orders, long units) {
+    }
+
+    public record Run(LocalDateTime finishedAt, int cancelledOrders, long releasedUnits, long durationMs) {
+    }
+
+    public record Stats(long runs, long cancelledOrders, long releasedUnits, String pendingExpiry, Run lastRun) {
+    }
+}
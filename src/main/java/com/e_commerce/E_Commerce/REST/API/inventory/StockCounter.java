@@ -0,0 +1,75 @@
+package com.e_commerce.E_Commerce.REST.API.inventory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free stock counter for a single product.
+ * {@code available} is what buyers can still take, {@code unflushed} is the net number
+ * of units taken since the last write back to the database.
+ */
+final class StockCounter {
+
+    private final AtomicLong available;
+    private final AtomicLong unflushed = new AtomicLong();
+    private volatile boolean retired;
+
+    StockCounter(long available) {
+        this.available = new AtomicLong(available);
+    }
+
+    /**
+     * Takes units from the counter (negative units give stock back).
+     *
+     * @return false when a positive request is larger than the available stock
+     */
+    boolean tryTake(long units) {
+        long current;
+        do {
+            current = available.get();
+            if (units > 0 && current < units) {
+                return false;
+            }
+        } while (!available.compareAndSet(current, current - units));
+
+        unflushed.addAndGet(units);
+        return true;
+    }
+
+    void undo(long units) {
+        available.addAndGet(units);
+        unflushed.addAndGet(-units);
+    }
+
+    long drainUnflushed() {
+        return unflushed.getAndSet(0);
+    }
+
+    void restoreUnflushed(long units) {
+        unflushed.addAndGet(units);
+    }
+
+    /**
+     * Counts units taken elsewhere against this counter without the stock guard, e.g. the
+     * reservations a retired counter still held. They are written back with the next flush.
+     */
+    void carry(long units) {
+        available.addAndGet(-units);
+        unflushed.addAndGet(units);
+    }
+
+    /**
+     * Marks the counter as stale; callers that took units from it afterwards give them back
+     * and retry on the counter that replaced it.
+     */
+    void retire() {
+        retired = true;
+    }
+
+    boolean isRetired() {
+        return retired;
+    }
+
+    long available() {
+        return available.get();
+    }
+}
@@ -0,0 +1,295 @@
+package com.e_commerce.E_Commerce.REST.API.inventory;
+
+import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository;
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetService;
+import com.e_commerce.E_Commerce.REST.API.util.TransactionCallbacks;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory stock reservation ledger that sits in front of the {@code products} stock column.
+ * <p>
+ * When enabled ({@code app.stock.ledger.enabled=true}) reservations are admitted or rejected
+ * with a CAS on a per-product counter and written back to the database in coalesced batches
+ * every {@code app.stock.ledger.flush-interval-ms}. When disabled every call goes straight to
+ * the guarded SQL updates, through {@link StockShards} so hot products can be sharded.
+ * <p>
+ * Counters are loaded lazily from the database, so a restart reconciles itself: everything
+ * flushed before shutdown is already in {@code stock_quantity}. Reservations taken in the last
+ * flush interval before a crash are lost, and the ledger assumes a single application node.
+ * It writes back to {@code stock_quantity} only, so it can not run together with
+ * {@link StockShards}; enabling both fails at startup.
+ * <p>
+ * Every committed reservation and release is also reported to {@link ProductFacetService}, so
+ * the in-stock facet follows products that sell out or come back.
+ */
+@Slf4j
+@Component
+public class StockReservationLedger {
+
+    private final ProductRepository productRepository;
+    private final StockShards shards;
+    private final ProductFacetService facets;
+    private final boolean enabled;
+
+    private final ConcurrentMap<Long, StockCounter> counters = new ConcurrentHashMap<>();
+    // flush and reconcile must not interleave, otherwise drained units could land on a retired counter
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public StockReservationLedger(ProductRepository productRepository,
+                                  StockShards shards,
+                                  ProductFacetService facets,
+                                  @Value("${app.stock.ledger.enabled:false}") boolean enabled) {
+        if (enabled && shards.isEnabled()) {
+            // the flush would drive an emptied stock column negative and never touch the shards
+            throw new IllegalStateException("app.stock.ledger.enabled and app.stock.shards.enabled can not both be set");
+        }
+        this.productRepository = productRepository;
+        this.shards = shards;
+        this.facets = facets;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Reserves stock for a single product.
+     *
+     * @return false when there is not enough stock left
+     */
+    public boolean reserve(Long productId, int quantity) {
+        if (!enabled) {
+            if (!shards.reserve(productId, quantity)) {
+                return false;
+            }
+        } else {
+            if (!adjust(productId, quantity)) {
+                return false;
+            }
+            TransactionCallbacks.afterRollback(() -> adjust(productId, -quantity));
+        }
+        facets.takeStockAfterCommit(productId, quantity);
+        return true;
+    }
+
+    /**
+     * Reserves stock for many products, all or nothing.
+     *
+     * @return ids of the products that could not be reserved (empty on success)
+     */
+    public List<Long> reserveAll(Map<Long, Integer> quantities) {
+        if (!enabled) {
+            List<Long> rejected = reserveAllInDatabase(quantities);
+            if (rejected.isEmpty()) {
+                quantities.forEach(facets::takeStockAfterCommit);
+            }
+            return rejected;
+        }
+
+        Map<Long, Integer> taken = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (!adjust(entry.getKey(), entry.getValue())) {
+                taken.forEach((productId, quantity) -> adjust(productId, -quantity));
+                return List.of(entry.getKey());
+            }
+            taken.put(entry.getKey(), entry.getValue());
+        }
+
+        TransactionCallbacks.afterRollback(() -> taken.forEach((productId, quantity) -> adjust(productId, -quantity)));
+        taken.forEach(facets::takeStockAfterCommit);
+        return List.of();
+    }
+
+    /**
+     * Gives stock back. The units only become available again once the surrounding
+     * transaction commits, so a rolled back cancellation can never oversell.
+     */
+    public void release(Long productId, int quantity) {
+        if (!enabled) {
+            shards.release(productId, quantity);
+        } else {
+            TransactionCallbacks.afterCommit(() -> adjust(productId, -quantity));
+        }
+        facets.takeStockAfterCommit(productId, -quantity);
+    }
+
+    /**
+     * Gives stock back for many products at once, e.g. for a batch of expired orders. Unsharded
+     * products share one JDBC batch, applied in id order so concurrent batches lock rows in the
+     * same order; like {@link #release}, the units become available once the transaction commits.
+     */
+    public void releaseAll(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        if (!enabled) {
+            Map<Long, Long> deltas = new TreeMap<>();
+            quantities.forEach((productId, quantity) -> {
+                if (shards.isSharded(productId)) {
+                    shards.release(productId, quantity);
+                } else {
+                    deltas.put(productId, -(long) quantity);
+                }
+            });
+            productRepository.applyStockDeltas(deltas);
+        } else {
+            Map<Long, Integer> released = Map.copyOf(quantities);
+            TransactionCallbacks.afterCommit(() -> released.forEach((productId, quantity) -> adjust(productId, -quantity)));
+        }
+        quantities.forEach((productId, quantity) -> facets.takeStockAfterCommit(productId, -quantity));
+    }
+
+    /**
+     * Brings the ledger in line with stock written outside it (e.g. an admin or bulk update).
+     * Call it inside the writing transaction, before the new stock is written: units reserved
+     * but not yet flushed are written back first, in the caller's transaction, so the new value
+     * supersedes them. Once the transaction commits the counter is replaced by one loaded from
+     * the new stock; reservations taken in between are carried over to it.
+     */
+    public void reconcile(Long productId) {
+        if (!enabled) {
+            return;
+        }
+
+        StockCounter pending = counters.get(productId);
+        long delta = pending != null ? pending.drainUnflushed() : 0;
+        if (delta != 0) {
+            productRepository.applyStockDeltas(Map.of(productId, delta));
+            TransactionCallbacks.afterRollback(() -> pending.restoreUnflushed(delta));
+        }
+
+        TransactionCallbacks.afterCommit(() -> {
+            flushLock.lock();
+            try {
+                StockCounter stale = counters.get(productId);
+                if (stale == null) {
+                    return;
+                }
+                StockCounter fresh = loadCounter(productId);
+                counters.put(productId, fresh);
+                // takers still on the stale counter undo and retry on the fresh one
+                stale.retire();
+                long carried = stale.drainUnflushed();
+                if (carried != 0) {
+                    fresh.carry(carried);
+                    log.info("Stock of product {} reset, {} units reserved meanwhile carried over", productId, carried);
+                }
+            } finally {
+                flushLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Writes every unflushed reservation back to the database in one batch.
+     */
+    @Scheduled(fixedDelayString = "${app.stock.ledger.flush-interval-ms:200}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            Map<Long, Long> deltas = new HashMap<>();
+            Map<Long, StockCounter> drained = new HashMap<>();
+            counters.forEach((productId, counter) -> {
+                long delta = counter.drainUnflushed();
+                if (delta != 0) {
+                    deltas.put(productId, delta);
+                    drained.put(productId, counter);
+                }
+            });
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            try {
+                productRepository.applyStockDeltas(deltas);
+                log.debug("Flushed stock reservations for {} products", deltas.size());
+            } catch (RuntimeException e) {
+                // keep the units so the next flush retries them
+                deltas.forEach((productId, delta) -> drained.get(productId).restoreUnflushed(delta));
+                log.error("Failed to flush stock reservations: {}", e.getMessage());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Stock currently admitted by the ledger, or the database value when disabled.
+     */
+    public long available(Long productId) {
+        if (!enabled) {
+            return productRepository.findStockQuantityById(productId).orElse(0) + shards.shardedStock(productId);
+        }
+        return counters.computeIfAbsent(productId, this::loadCounter).available();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private boolean adjust(Long productId, long units) {
+        while (true) {
+            StockCounter counter = counters.computeIfAbsent(productId, this::loadCounter);
+            if (!counter.tryTake(units)) {
+                return false;
+            }
+            if (!counter.isRetired()) {
+                return true;
+            }
+            // counter was reconciled away underneath us -> retry on a fresh one
+            counter.undo(units);
+        }
+    }
+
+    private StockCounter loadCounter(Long productId) {
+        return new StockCounter(productRepository.findStockQuantityById(productId).orElse(0) + shards.shardedStock(productId));
+    }
+
+    /**
+     * Unsharded products share one JDBC batch, sharded ones (and any the batch rejects, in case
+     * they were sharded elsewhere) go through their shards.
+     */
+    private List<Long> reserveAllInDatabase(Map<Long, Integer> quantities) {
+        if (!shards.isEnabled()) {
+            return productRepository.reserveStock(quantities);
+        }
+
+        List<Long> rejected = new ArrayList<>();
+        Map<Long, Integer> unsharded = new LinkedHashMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (!shards.isSharded(productId)) {
+                unsharded.put(productId, quantity);
+            } else if (!shards.reserve(productId, quantity)) {
+                rejected.add(productId);
+            }
+        });
+        for (Long productId : productRepository.reserveStock(unsharded)) {
+            if (!shards.reserveIfShardedElsewhere(productId, unsharded.get(productId))) {
+                rejected.add(productId);
+            }
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,251 @@
+package com.e_commerce.E_Commerce.REST.API.inventory;
+
+import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
+import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
+import com.e_commerce.E_Commerce.REST.API.exception.product.ProductNotFoundException;
+import com.e_commerce.E_Commerce.REST.API.model.Product;
+import com.e_commerce.E_Commerce.REST.API.model.ProductStockShard;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductStockShardRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductStockShardRepository.ShardQuantity;
+import com.e_commerce.E_Commerce.REST.API.util.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Optional stock sharding for designated hot products ({@code app.stock.shards.enabled=true}).
+ * <p>
+ * The stock of a sharded product is split across {@link ProductStockShard} sub-counter rows and
+ * its {@code stock_quantity} is emptied. A reservation takes its units from a random shard and
+ * falls back to the other shards, then to the product row, then to the row and all shards
+ * together, so concurrent buyers mostly lock different rows instead of queueing on one. Stock on
+ * hand is always the product row plus its shards, and the last fallback counts both, so a
+ * reservation is only refused when they hold too little together.
+ * <p>
+ * Which products are sharded is cached per node. A stale entry only costs a detour: a reservation
+ * that finds the product row empty re-reads the shard count, and one that finds no shard rows
+ * falls back to the product row.
+ */
+@Slf4j
+@Component
+public class StockShards {
+
+    private static final int NOT_SHARDED = 0;
+
+    private final ProductRepository productRepository;
+    private final ProductStockShardRepository shardRepository;
+    private final boolean enabled;
+    private final int maxShards;
+
+    private final ConcurrentMap<Long, Integer> shardCounts = new ConcurrentHashMap<>();
+
+    public StockShards(ProductRepository productRepository,
+                       ProductStockShardRepository shardRepository,
+                       @Value("${app.stock.shards.enabled:false}") boolean enabled,
+                       @Value("${app.stock.shards.max:64}") int maxShards) {
+        this.productRepository = productRepository;
+        this.shardRepository = shardRepository;
+        this.enabled = enabled;
+        this.maxShards = maxShards;
+    }
+
+    public boolean isSharded(Long productId) {
+        return enabled && shardCount(productId) > 0;
+    }
+
+    /**
+     * Reserves stock of a product, sharded or not.
+     *
+     * @return false when there is not enough stock left
+     */
+    public boolean reserve(Long productId, int quantity) {
+        int shards = enabled ? shardCount(productId) : NOT_SHARDED;
+        if (shards != NOT_SHARDED) {
+            return reserveFromShards(productId, shards, quantity);
+        }
+        if (productRepository.reduceStock(productId, quantity) == 1) {
+            return true;
+        }
+        return enabled && reserveIfShardedElsewhere(productId, quantity);
+    }
+
+    /**
+     * Second chance for a product whose row could not cover the quantity: the row is emptied
+     * when a product is sharded, possibly by another node, so the shard count is read again.
+     */
+    public boolean reserveIfShardedElsewhere(Long productId, int quantity) {
+        if (!enabled) {
+            return false;
+        }
+        int shards = loadShardCount(productId);
+        shardCounts.put(productId, shards);
+        return shards != NOT_SHARDED && reserveFromShards(productId, shards, quantity);
+    }
+
+    /**
+     * Gives stock back to a random shard, or to the product row when it is not sharded.
+     */
+    public void release(Long productId, int quantity) {
+        int shards = enabled ? shardCount(productId) : NOT_SHARDED;
+        if (shards == NOT_SHARDED
+                || shardRepository.restoreStock(productId, ThreadLocalRandom.current().nextInt(shards), quantity) == 0) {
+            productRepository.restoreStock(productId, quantity);
+        }
+    }
+
+    /**
+     * Units held by the shards of a product, 0 when it is not sharded.
+     */
+    public long shardedStock(Long productId) {
+        return isSharded(productId) ? shardRepository.sumQuantity(productId) : 0;
+    }
+
+    /**
+     * Splits the stock on hand of a product evenly across {@code shardCount} shards, or folds it
+     * back into the product row when {@code shardCount} is 0. Re-sharding an already sharded
+     * product redistributes its stock.
+     *
+     * @return the shard quantities, in shard order
+     */
+    @Transactional
+    public List<Integer> shard(Long productId, int shardCount) {
+        if (!enabled) {
+            throw new ValidationException(ErrorCode.SERVICE_UNAVAILABLE, "Stock sharding is disabled");
+        }
+        if (shardCount < 0 || shardCount > maxShards) {
+            throw new ValidationException(ErrorCode.INVALID_INPUT_FORMAT,
+                    "Shard count must be between 0 and " + maxShards);
+        }
+
+        Product product = productRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> new ProductNotFoundException(productId));
+        List<ProductStockShard> current = shardRepository.findAllForUpdate(productId);
+        long onHand = product.getStockQuantity() == null ? 0 : product.getStockQuantity();
+        for (ProductStockShard shard : current) {
+            onHand += shard.getQuantity();
+        }
+
+        shardRepository.deleteAllInBatch(current);
+        List<Integer> quantities = new ArrayList<>(shardCount);
+        if (shardCount == NOT_SHARDED) {
+            product.setStockQuantity(Math.toIntExact(onHand));
+            product.setStockShardCount(null);
+        } else {
+            List<ProductStockShard> shards = new ArrayList<>(shardCount);
+            for (int shardNo = 0; shardNo < shardCount; shardNo++) {
+                // the first onHand % shardCount shards take one unit more
+                int quantity = Math.toIntExact(onHand / shardCount + (shardNo < onHand % shardCount ? 1 : 0));
+                shards.add(ProductStockShard.builder().productId(productId).shardNo(shardNo).quantity(quantity).build());
+                quantities.add(quantity);
+            }
+            shardRepository.saveAll(shards);
+            product.setStockQuantity(0);
+            product.setStockShardCount(shardCount);
+        }
+
+        TransactionCallbacks.afterCommit(() -> shardCounts.put(productId, shardCount));
+        log.info("stock of product {} ({} units) now held in {} shards", productId, onHand, shardCount);
+        return quantities;
+    }
+
+    /**
+     * Sets the stock on hand of a sharded product after an admin wrote {@code stock} into its
+     * stock column: the units are spread over the shards and the product row is emptied again.
+     *
+     * @return false when the product has no shards, the stock column is then left as written
+     */
+    public boolean replaceStock(Long productId, int stock) {
+        if (!isSharded(productId)) {
+            return false;
+        }
+        List<ShardQuantity> shards = shardRepository.lockQuantities(productId);
+        if (shards.isEmpty()) {
+            return false;
+        }
+        for (ShardQuantity shard : shards) {
+            shardRepository.setQuantity(productId, shard.getShardNo(),
+                    stock / shards.size() + (shard.getShardNo() < stock % shards.size() ? 1 : 0));
+        }
+        productRepository.clearStock(productId);
+        return true;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private int shardCount(Long productId) {
+        return shardCounts.computeIfAbsent(productId, this::loadShardCount);
+    }
+
+    private int loadShardCount(Long productId) {
+        Integer shards = productRepository.findStockShardCountById(productId).orElse(null);
+        return shards == null ? NOT_SHARDED : shards;
+    }
+
+    private boolean reserveFromShards(Long productId, int shards, int quantity) {
+        int first = ThreadLocalRandom.current().nextInt(shards);
+        for (int i = 0; i < shards; i++) {
+            if (shardRepository.reduceStock(productId, (first + i) % shards, quantity) == 1) {
+                return true;
+            }
+        }
+        // no single shard covers the quantity: units given back to the row, then the row and the shards together
+        if (productRepository.reduceStock(productId, quantity) == 1) {
+            return true;
+        }
+        return reserveAcrossShards(productId, quantity);
+    }
+
+    /**
+     * Slow path near exhaustion: locks the product row and every shard, in the same order as
+     * {@link #shard}, and takes the units from the row's leftovers first, then from as many
+     * shards as needed. The quantities are read from the locked rows and taken with guarded
+     * relative updates, never written back from entities that may predate the lock.
+     */
+    private boolean reserveAcrossShards(Long productId, int quantity) {
+        int rowStock = productRepository.lockStockQuantityById(productId).orElse(0);
+        List<ShardQuantity> shards = shardRepository.lockQuantities(productId);
+        if (shards.isEmpty()) {
+            // folded back by another node, possibly after the row was tried
+            shardCounts.put(productId, NOT_SHARDED);
+            return rowStock >= quantity && productRepository.reduceStock(productId, quantity) == 1;
+        }
+
+        long onHand = rowStock;
+        for (ShardQuantity shard : shards) {
+            onHand += shard.getQuantity();
+        }
+        if (onHand < quantity) {
+            return false;
+        }
+
+        int missing = quantity;
+        int fromRow = Math.min(missing, rowStock);
+        if (fromRow > 0) {
+            productRepository.reduceStock(productId, fromRow);
+            missing -= fromRow;
+        }
+        for (ShardQuantity shard : shards) {
+            if (missing == 0) {
+                break;
+            }
+            int taken = Math.min(missing, shard.getQuantity());
+            if (taken > 0) {
+                shardRepository.reduceStock(productId, shard.getShardNo(), taken);
+                missing -= taken;
+            }
+        }
+        return true;
+    }
+}
@@ -30,6 +30,7 @@ public interface OrderMapper {
     @Mapping(target = "payment", ignore = true)
     @Mapping(target = "customer", ignore = true)
     @Mapping(target = "orderItems", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Order toEntity(OrderCreateRequestDTO requestDTO);
 
     @Mapping(target = "id", ignore = true)
@@ -38,6 +39,7 @@ public interface OrderMapper {
     @Mapping(target = "payment", ignore = true)
     @Mapping(target = "customer", ignore = true)
     @Mapping(target = "orderItems", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "totalAmount", ignore = true)
     void updateEntityFromDTO(OrderUpdateRequestDTO requestDTO, @MappingTarget Order order);
 
@@ -18,15 +18,31 @@ public interface ProductMapper {
     @Mapping(target = "active", ignore = true)
     @Mapping(target = "itemList", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "stockShardCount", ignore = true)
+    @Mapping(target = "stockShards", ignore = true)
     Product toEntity(ProductCreateRequestDTO requestDTO);
 
     // ===== entity to response Dto
-    @Mapping(target = "totalOrders", expression = "java(product.getItemList() != null ? product.getItemList().size() : 0)")
+    // never touch the lazy itemList here -> counting it loads every order item of the product
+    // stock of a sharded product is summed over its sub-counters (batch-loaded, unsharded products skip them)
+    @Mapping(target = "totalOrders", ignore = true)
+    @Mapping(target = "stockQuantity", expression = "java(product.stockOnHand())")
     ProductResponseDTO toResponseDTO(Product product);
 
+    // totalOrders comes from OrderItemRepository count queries (one grouped query per page)
+    // the formatted and availability fields are derived by the record's constructor
+    @Mapping(target = "totalOrders", source = "totalOrders")
+    @Mapping(target = "stockQuantity", expression = "java(product.stockOnHand())")
+    @Mapping(target = "formattedPrice", ignore = true)
+    @Mapping(target = "availabilityStatus", ignore = true)
+    @Mapping(target = "inStock", ignore = true)
+    ProductResponseDTO toResponseDTO(Product product, Integer totalOrders);
+
 
     @Mapping(target = "id" , ignore = true)
     @Mapping(target = "itemList" , ignore = true)
+    @Mapping(target = "stockShardCount" , ignore = true)
+    @Mapping(target = "stockShards" , ignore = true)
     void updateEntityFromDTO(ProductUpdateRequestDTO updateRequestDTO , @MappingTarget Product product);
 
 
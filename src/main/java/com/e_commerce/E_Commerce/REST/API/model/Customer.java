@@ -25,7 +25,8 @@ import java.util.List;
 })
 public class Customer {
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_seq")
+    @SequenceGenerator(name = "customers_seq", sequenceName = "customers_seq", allocationSize = 20)
     private Long id;
     @Column(name = "first_name" , nullable = false)
     private String firstName;
@@ -0,0 +1,36 @@
+package com.e_commerce.E_Commerce.REST.API.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(
+        name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_expires_at", columnList = "expires_at")
+)
+public class IdempotencyKey
+{
+    // scope and client key together, checked by the service before anything is stored
+    public static final int KEY_LENGTH = 320;
+
+    @Id
+    @Column(name = "idempotency_key", length = KEY_LENGTH)
+    private String key;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Lob
+    @Column(name = "response_body", nullable = false)
+    private String responseBody;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
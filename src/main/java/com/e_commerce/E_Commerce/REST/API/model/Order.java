@@ -3,6 +3,7 @@ package com.e_commerce.E_Commerce.REST.API.model;
 import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -21,14 +22,17 @@ import java.util.List;
 @Table(
         name = "orders",
         indexes = {
-                @Index(name = "idx_order_number" ,columnList = "order_number"),
+                @Index(name = "idx_order_number" ,columnList = "order_number", unique = true),
+                // expired PENDING orders are found by range scan, see PendingOrderReaper
+                @Index(name = "idx_orders_status_date", columnList = "order_status, order_date"),
 
         }
 )
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE) // TO ENABLE BATCHING
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq") // TO ENABLE BATCHING
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @CreatedDate
@@ -42,6 +46,12 @@ public class Order {
     @Column(name = "order_status")
     private OrderStatus orderStatus = OrderStatus.PENDING;
 
+    // bumped by every write, including the bulk status updates in OrderRepository
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
 
     // Relations
 
@@ -13,11 +13,19 @@ import java.math.BigDecimal;
 @Builder
 @Entity
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "order_items")
+@Table(
+        name = "order_items",
+        indexes = {
+                @Index(name = "idx_order_items_product", columnList = "product_id"),
+                @Index(name = "idx_order_items_order", columnList = "order_id")
+        }
+)
 public class OrderItem
 {
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    // one nextval covers the items of several large orders
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 200)
     private Long id;
     private Integer quantity;
     @Column(name = "unit_price")
@@ -20,8 +20,12 @@ import java.time.LocalDateTime;
 @Table(name = "payments")
 public class Payment
 {
+    // also used by the JDBC batch insert, which hands out ids from the same sequence blocks
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -42,6 +46,9 @@ public class Payment
     private String transactionId;
     private String paymentGatewayResponse; // represent response coming from gateway
 
+    // gateway attempts of this row, null for the first; a retry after FAILED counts up and gets a fresh idempotency key
+    private Integer gatewayAttempt;
+
 
     @OneToOne
     @JoinColumn(name = "order_id" , unique = true)
@@ -2,6 +2,7 @@ package com.e_commerce.E_Commerce.REST.API.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.DialectOverride;
 import org.hibernate.annotations.Where;
 import org.springframework.data.annotation.CreatedDate;
@@ -31,8 +32,12 @@ import java.util.List;
 )
 public class Product
 {
+    // also used by the JDBC bulk insert, which hands out ids from the same sequence blocks
+    public static final int ID_ALLOCATION_SIZE = 100;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     @Column(nullable = false)
     private String name;
@@ -51,10 +56,40 @@ public class Product
     private LocalDateTime createdAt;
     private boolean active ; // instead of remove product from db when unavailable just mark is an active  = true -> mean available if false -> mean unavailable
 
+    // number of stock sub-counters of a hot product, null while all stock lives in stock_quantity
+    @Column(name = "stock_shard_count")
+    private Integer stockShardCount;
+
     // relations
     @OneToMany(mappedBy = "product")
     private List<OrderItem> itemList = new ArrayList<>();
 
+    // only read for sharded products; one query loads the shards of a whole page
+    @OneToMany
+    @JoinColumn(name = "product_id", insertable = false, updatable = false)
+    @BatchSize(size = 100)
+    @Builder.Default
+    private List<ProductStockShard> stockShards = new ArrayList<>();
+
+    public boolean isStockSharded()
+    {
+        return stockShardCount != null && stockShardCount > 0;
+    }
+
+    /**
+     * Units on hand: the stock column plus, for a sharded product, every sub-counter.
+     */
+    public int stockOnHand()
+    {
+        int onHand = stockQuantity == null ? 0 : stockQuantity;
+        if (isStockSharded()) {
+            for (ProductStockShard shard : stockShards) {
+                onHand += shard.getQuantity();
+            }
+        }
+        return onHand;
+    }
+
 
 
 
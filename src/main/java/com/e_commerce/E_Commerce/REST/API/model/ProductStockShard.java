@@ -0,0 +1,32 @@
+package com.e_commerce.E_Commerce.REST.API.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One stock sub-counter of a hot product. Reservations for a sharded product update a random
+ * shard row instead of the single {@code products} row, so concurrent buyers lock different rows.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(
+        name = "product_stock_shards",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_shard_product_shard", columnNames = {"product_id", "shard_no"})
+)
+public class ProductStockShard
+{
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_stock_shards_seq")
+    @SequenceGenerator(name = "product_stock_shards_seq", sequenceName = "product_stock_shards_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    @Column(name = "shard_no", nullable = false)
+    private int shardNo;
+    @Column(nullable = false)
+    private int quantity;
+}
@@ -1,10 +1,45 @@
 package com.e_commerce.E_Commerce.REST.API.model.enums;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
 
+    // the order status log stores ordinals: add new statuses at the end
     PENDING, CONFIRMED, PAID, SHIPPED, DELIVERED, CANCELLED;
 
+    // the order life cycle; statuses missing here are final
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(Map.of(
+            PENDING, EnumSet.of(CONFIRMED, PAID, CANCELLED),
+            CONFIRMED, EnumSet.of(PAID, CANCELLED),
+            PAID, EnumSet.of(SHIPPED, CANCELLED),
+            SHIPPED, EnumSet.of(DELIVERED)
+    ));
+
+    // compiled to one bit per target status, indexed by ordinal, so a check is a mask test
+    private static final int[] ALLOWED_TARGETS = new int[values().length];
+
+    static {
+        TRANSITIONS.forEach((from, targets) -> targets.forEach(to -> ALLOWED_TARGETS[from.ordinal()] |= 1 << to.ordinal()));
+    }
+
     public boolean canModifyItems() {
         return this == PENDING || this == CONFIRMED;
     }
+
+    /**
+     * Whether an order in this status may move to {@code next}; staying in the same status is not a transition.
+     */
+    public boolean canTransitionTo(OrderStatus next) {
+        return (ALLOWED_TARGETS[ordinal()] & 1 << next.ordinal()) != 0;
+    }
+
+    /**
+     * The statuses an order in this status may move to.
+     */
+    public Set<OrderStatus> transitions() {
+        return TRANSITIONS.containsKey(this) ? EnumSet.copyOf(TRANSITIONS.get(this)) : EnumSet.noneOf(OrderStatus.class);
+    }
 }
@@ -0,0 +1,9 @@
+package com.e_commerce.E_Commerce.REST.API.orderstatus;
+
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+
+/**
+ * One status transition as it was accepted, numbered in the order it was appended to the log.
+ */
+public record OrderStatusEvent(long sequence, long orderId, OrderStatus status) {
+}
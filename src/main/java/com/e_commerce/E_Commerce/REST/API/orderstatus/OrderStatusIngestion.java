@@ -0,0 +1,300 @@
+package com.e_commerce.E_Commerce.REST.API.orderstatus;
+
+import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
+import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
+import com.e_commerce.E_Commerce.REST.API.inventory.CancelledOrderStock;
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository.OrderStatusRow;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepositoryCustom.StatusChange;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind ingestion of order status transitions pushed in bulk by fulfilment systems.
+ * <p>
+ * {@link #accept} appends a batch to the {@link OrderStatusLog} and returns once it is on disk;
+ * the database is not touched. Every {@code app.orders.status-log.drain-interval-ms} the pending
+ * events are applied in batches of {@code batch-size}, each batch in one short transaction: the
+ * current status of its orders is read in one query, the events of each order are folded in
+ * sequence order (a repeated status is a no-op, a transition {@link OrderStatus#canTransitionTo}
+ * does not allow is rejected and counted) and the resulting statuses are written in one JDBC
+ * batch guarded by the status and version that were read. Orders changed in the meantime by someone else are
+ * retried on the next drain with all their events, so each order still sees its events in order.
+ * Cancelled orders give their stock back like expired ones do.
+ * <p>
+ * The log and its ordering are per node: a feed whose events for one order may reach several
+ * nodes must be routed by order id. Events not yet applied are replayed from the log on startup.
+ */
+@Slf4j
+@Component
+public class OrderStatusIngestion {
+
+    private final OrderStatusLog statusLog;
+    private final OrderRepository orderRepository;
+    private final CancelledOrderStock cancelledOrderStock;
+    private final TransactionTemplate batchTransaction;
+    private final int batchSize;
+    private final int maxPending;
+
+    // appends and the pending queue share one lock so the queue stays in sequence order
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<OrderStatusEvent> pending = new ArrayDeque<>();
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong appliedThrough = new AtomicLong();
+
+    public OrderStatusIngestion(OrderRepository orderRepository,
+                                CancelledOrderStock cancelledOrderStock,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.orders.status-log.dir:data/order-status-log}") Path directory,
+                                @Value("${app.orders.status-log.segment-size:64MB}") DataSize segmentSize,
+                                @Value("${app.orders.status-log.batch-size:500}") int batchSize,
+                                @Value("${app.orders.status-log.max-pending:100000}") int maxPending) {
+        this.orderRepository = orderRepository;
+        this.cancelledOrderStock = cancelledOrderStock;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        try {
+            this.statusLog = new OrderStatusLog(directory, segmentSize.toBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the order status log in " + directory, e);
+        }
+        pending.addAll(statusLog.unapplied());
+        appliedThrough.set(pending.isEmpty() ? statusLog.lastSequence() : pending.peekFirst().sequence() - 1);
+    }
+
+    /**
+     * Durably queues status transitions, in the given order.
+     *
+     * @return the events as they were logged
+     * @throws ValidationException (503) when the backlog is full or the log can not be written
+     */
+    public List<OrderStatusEvent> accept(List<Map.Entry<Long, OrderStatus>> transitions) {
+        lock.lock();
+        try {
+            if (pending.size() + transitions.size() > maxPending) {
+                throw new ValidationException(ErrorCode.SERVICE_UNAVAILABLE,
+                        "Order status backlog is full, retry later");
+            }
+            List<OrderStatusEvent> events;
+            try {
+                events = statusLog.append(transitions);
+            } catch (IOException e) {
+                log.error("appending to the order status log failed", e);
+                throw new ValidationException(ErrorCode.SERVICE_UNAVAILABLE, "Order status log is not writable");
+            }
+            pending.addAll(events);
+            accepted.addAndGet(events.size());
+            return events;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies pending events batch by batch until the queue is empty or a batch hits a conflict.
+     */
+    @Scheduled(fixedDelayString = "${app.orders.status-log.drain-interval-ms:200}")
+    public void drain() {
+        while (true) {
+            List<OrderStatusEvent> batch = take();
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            Outcome outcome;
+            try {
+                outcome = batchTransaction.execute(status -> apply(batch));
+            } catch (RuntimeException e) {
+                putBack(batch);
+                log.error("applying {} order status events failed, retrying on the next drain", batch.size(), e);
+                return;
+            }
+            applied.addAndGet(outcome.applied());
+            rejected.addAndGet(outcome.rejected());
+            conflicts.addAndGet(outcome.conflicts());
+            putBack(outcome.retry());
+            checkpoint();
+            if (!outcome.retry().isEmpty()) {
+                // the conflicting orders are being changed right now, give them a moment
+                return;
+            }
+        }
+    }
+
+    public Stats stats() {
+        int queued;
+        lock.lock();
+        try {
+            queued = pending.size();
+        } finally {
+            lock.unlock();
+        }
+        return new Stats(accepted.get(), applied.get(), rejected.get(), conflicts.get(), queued, appliedThrough.get());
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            statusLog.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    /**
+     * Folds one batch into at most one status change per order and writes them.
+     *
+     * @return the counts, and the events of orders whose status changed underneath to be applied again
+     */
+    private Outcome apply(List<OrderStatusEvent> batch) {
+        Map<Long, List<OrderStatusEvent>> byOrder = new LinkedHashMap<>();
+        for (OrderStatusEvent event : batch) {
+            byOrder.computeIfAbsent(event.orderId(), id -> new ArrayList<>()).add(event);
+        }
+        Map<Long, OrderStatusRow> current = new HashMap<>();
+        for (OrderStatusRow row : orderRepository.findStatusesByIds(byOrder.keySet())) {
+            current.put(row.getId(), row);
+        }
+
+        List<StatusChange> changes = new ArrayList<>();
+        Map<Long, Integer> appliedByOrder = new HashMap<>();
+        Map<Long, Integer> rejectedByOrder = new HashMap<>();
+        byOrder.forEach((orderId, events) -> {
+            OrderStatusRow row = current.get(orderId);
+            if (row == null) {
+                log.warn("dropping {} status events for unknown order {}", events.size(), orderId);
+                rejectedByOrder.put(orderId, events.size());
+                return;
+            }
+            OrderStatus from = row.getOrderStatus();
+            OrderStatus status = from;
+            int transitions = 0;
+            int invalid = 0;
+            for (OrderStatusEvent event : events) {
+                if (event.status() == status) {
+                    continue;
+                }
+                if (!status.canTransitionTo(event.status())) {
+                    log.debug("rejecting status event {}: order {} can not go from {} to {}",
+                            event.sequence(), orderId, status, event.status());
+                    invalid++;
+                    continue;
+                }
+                status = event.status();
+                transitions++;
+            }
+            appliedByOrder.put(orderId, transitions);
+            rejectedByOrder.put(orderId, invalid);
+            if (status != from) {
+                changes.add(new StatusChange(orderId, from, row.getVersion(), status));
+            }
+        });
+
+        Set<Long> conflicted = new HashSet<>(orderRepository.updateStatuses(changes));
+        List<Long> cancelled = new ArrayList<>();
+        for (StatusChange change : changes) {
+            if (!conflicted.contains(change.orderId()) && change.status() == OrderStatus.CANCELLED) {
+                cancelled.add(change.orderId());
+            }
+        }
+        cancelledOrderStock.release(cancelled);
+
+        List<OrderStatusEvent> retry = new ArrayList<>();
+        int appliedCount = 0;
+        int rejectedCount = 0;
+        for (Map.Entry<Long, List<OrderStatusEvent>> order : byOrder.entrySet()) {
+            if (conflicted.contains(order.getKey())) {
+                retry.addAll(order.getValue());
+            } else {
+                appliedCount += appliedByOrder.getOrDefault(order.getKey(), 0);
+                rejectedCount += rejectedByOrder.getOrDefault(order.getKey(), 0);
+            }
+        }
+        retry.sort(Comparator.comparingLong(OrderStatusEvent::sequence));
+        return new Outcome(appliedCount, rejectedCount, conflicted.size(), retry);
+    }
+
+    private List<OrderStatusEvent> take() {
+        lock.lock();
+        try {
+            List<OrderStatusEvent> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            while (batch.size() < batchSize && !pending.isEmpty()) {
+                batch.add(pending.pollFirst());
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns unapplied events to the head of the queue; they are older than anything still in it.
+     */
+    private void putBack(List<OrderStatusEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (int i = events.size() - 1; i >= 0; i--) {
+                pending.addFirst(events.get(i));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkpoint() {
+        lock.lock();
+        try {
+            long through = pending.isEmpty() ? statusLog.lastSequence() : pending.peekFirst().sequence() - 1;
+            statusLog.checkpoint(through);
+            appliedThrough.set(through);
+        } catch (IOException e) {
+            // harmless: events after the old checkpoint are replayed on restart and find their status already set
+            log.warn("writing the order status checkpoint failed: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Outcome(int applied, int rejected, int conflicts, List<OrderStatusEvent> retry) {
+    }
+
+    /**
+     * @param appliedThrough every event up to this sequence has been applied (or rejected)
+     */
+    public record Stats(long accepted, long applied, long rejected, long conflicts, int pending, long appliedThrough) {
+    }
+}
@@ -0,0 +1,238 @@
+package com.e_commerce.E_Commerce.REST.API.orderstatus;
+
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of order status events on local disk.
+ * <p>
+ * Events are written as fixed-size records (sequence, order id, status ordinal, CRC32) to
+ * segment files named after their first sequence, and every append is forced to disk before it
+ * returns. A checkpoint file holds the last sequence applied to the database; opening the log
+ * replays everything after it, and segments that lie entirely below it are deleted. A torn
+ * record at the end of the last segment (a crash in the middle of an append) is cut off.
+ * <p>
+ * Not thread-safe: callers serialize appends and checkpoints.
+ */
+@Slf4j
+public class OrderStatusLog implements Closeable {
+
+    static final int RECORD_BYTES = Long.BYTES + Long.BYTES + Byte.BYTES + Integer.BYTES;
+    private static final int CHECKSUMMED_BYTES = RECORD_BYTES - Integer.BYTES;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final Path directory;
+    private final long segmentBytes;
+    // first sequence -> segment file
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+    private final List<OrderStatusEvent> unapplied = new ArrayList<>();
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel current;
+    private long nextSequence;
+    private long checkpoint;
+
+    public OrderStatusLog(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        checkpoint = readCheckpoint();
+        nextSequence = checkpoint + 1;
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .forEach(file -> segments.put(firstSequence(file), file));
+        }
+        for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+            replay(segment.getKey(), segment.getValue(), segment.getKey().equals(segments.lastKey()));
+        }
+
+        if (segments.isEmpty()) {
+            roll();
+        } else {
+            current = FileChannel.open(segments.lastEntry().getValue(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        if (!unapplied.isEmpty()) {
+            log.info("order status log: {} events after checkpoint {} to apply", unapplied.size(), checkpoint);
+        }
+    }
+
+    /**
+     * Events that were appended but not checkpointed before the log was last closed, in order.
+     */
+    public List<OrderStatusEvent> unapplied() {
+        return List.copyOf(unapplied);
+    }
+
+    /**
+     * Appends the transitions as one write and forces them to disk.
+     *
+     * @return the events with their sequence numbers, in the given order
+     */
+    public List<OrderStatusEvent> append(List<Map.Entry<Long, OrderStatus>> transitions) throws IOException {
+        if (current.size() >= segmentBytes) {
+            roll();
+        }
+
+        long firstSequence = nextSequence;
+        List<OrderStatusEvent> events = new ArrayList<>(transitions.size());
+        ByteBuffer buffer = ByteBuffer.allocate(transitions.size() * RECORD_BYTES);
+        for (Map.Entry<Long, OrderStatus> transition : transitions) {
+            OrderStatusEvent event = new OrderStatusEvent(firstSequence + events.size(), transition.getKey(), transition.getValue());
+            write(buffer, event);
+            events.add(event);
+        }
+        buffer.flip();
+
+        long size = current.size();
+        try {
+            while (buffer.hasRemaining()) {
+                current.write(buffer);
+            }
+            current.force(false);
+        } catch (IOException e) {
+            // drop what made it to the file, the caller reports the batch as not accepted
+            current.truncate(size);
+            throw e;
+        }
+        nextSequence += events.size();
+        return events;
+    }
+
+    /**
+     * Records that every event up to {@code sequence} is applied and deletes the segments that
+     * hold nothing newer.
+     */
+    public void checkpoint(long sequence) throws IOException {
+        if (sequence <= checkpoint) {
+            return;
+        }
+        Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        checkpoint = sequence;
+
+        // a segment ends where the next one starts; the newest one is still being written
+        while (segments.size() > 1) {
+            Map.Entry<Long, Path> oldest = segments.firstEntry();
+            long lastSequence = segments.higherKey(oldest.getKey()) - 1;
+            if (lastSequence > checkpoint) {
+                break;
+            }
+            Files.deleteIfExists(oldest.getValue());
+            segments.pollFirstEntry();
+        }
+    }
+
+    public long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        current.close();
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private void roll() throws IOException {
+        if (current != null) {
+            current.close();
+        }
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        current = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segments.put(nextSequence, segment);
+    }
+
+    private void replay(long firstSequence, Path segment, boolean last) throws IOException {
+        byte[] content = Files.readAllBytes(segment);
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        long expected = firstSequence;
+        while (buffer.remaining() >= RECORD_BYTES) {
+            OrderStatusEvent event = read(buffer, expected);
+            if (event == null) {
+                break;
+            }
+            if (event.sequence() > checkpoint) {
+                unapplied.add(event);
+            }
+            expected++;
+        }
+
+        long valid = (expected - firstSequence) * RECORD_BYTES;
+        if (valid < content.length) {
+            if (!last) {
+                throw new IOException("order status log segment " + segment + " is corrupt at byte " + valid);
+            }
+            log.warn("order status log: cutting a torn record off {} at byte {}", segment, valid);
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+                channel.force(true);
+            }
+        }
+        nextSequence = Math.max(nextSequence, expected);
+    }
+
+    private void write(ByteBuffer buffer, OrderStatusEvent event) {
+        int start = buffer.position();
+        buffer.putLong(event.sequence()).putLong(event.orderId()).put((byte) event.status().ordinal());
+        crc.reset();
+        crc.update(buffer.array(), start, CHECKSUMMED_BYTES);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    /**
+     * @return the next record, or null when it is torn, out of sequence or fails its checksum
+     */
+    private OrderStatusEvent read(ByteBuffer buffer, long expectedSequence) {
+        int start = buffer.position();
+        long sequence = buffer.getLong();
+        long orderId = buffer.getLong();
+        int status = buffer.get();
+        int checksum = buffer.getInt();
+        crc.reset();
+        crc.update(buffer.array(), start, CHECKSUMMED_BYTES);
+        if ((int) crc.getValue() != checksum || sequence != expectedSequence
+                || status < 0 || status >= STATUSES.length) {
+            return null;
+        }
+        return new OrderStatusEvent(sequence, orderId, STATUSES[status]);
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(file)).getLong();
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
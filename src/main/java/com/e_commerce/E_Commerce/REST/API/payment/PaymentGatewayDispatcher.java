@@ -0,0 +1,98 @@
+package com.e_commerce.E_Commerce.REST.API.payment;
+
+import com.e_commerce.E_Commerce.REST.API.config.PaymentExecutorConfig;
+import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
+import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs {@link PaymentStrategy} calls on the bounded payment executor, so callers never hold a
+ * transaction (and its pooled connection) across a gateway round trip.
+ */
+@Slf4j
+@Component
+public class PaymentGatewayDispatcher {
+
+    private final Executor executor;
+    private final long gatewayTimeoutMillis;
+    private final long responseWaitMillis;
+
+    public PaymentGatewayDispatcher(
+            @Qualifier(PaymentExecutorConfig.PAYMENT_GATEWAY_EXECUTOR) Executor executor,
+            @Value("${app.payment.async.gateway-timeout:30s}") Duration gatewayTimeout,
+            @Value("${app.payment.async.response-wait:5s}") Duration responseWait
+    ) {
+        this.executor = executor;
+        this.gatewayTimeoutMillis = gatewayTimeout.toMillis();
+        this.responseWaitMillis = responseWait.toMillis();
+    }
+
+    /**
+     * Starts the gateway call. The returned future always completes normally: a call the
+     * executor rejects completes with a failed {@link PaymentStrategy.PaymentResult}, one that
+     * throws or is still running {@code gateway-timeout} after it started completes with an
+     * unknown outcome, since it may have reached the gateway.
+     *
+     * @param idempotencyKey passed to the strategy, so a retry of an unknown outcome can not
+     *                       create a second payment at the gateway
+     */
+    public CompletableFuture<PaymentStrategy.PaymentResult> dispatch(PaymentStrategy strategy, BigDecimal amount,
+                                                                     String idempotencyKey) {
+        CompletableFuture<PaymentStrategy.PaymentResult> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                // time the call, not its wait in the executor queue
+                result.completeOnTimeout(PaymentStrategy.PaymentResult.unknown("Payment gateway timed out"),
+                        gatewayTimeoutMillis, TimeUnit.MILLISECONDS);
+                try {
+                    if (!result.complete(strategy.processPayment(amount, idempotencyKey))) {
+                        log.warn("{} payment {} answered after the gateway timeout, its result is left to a retry",
+                                strategy.getPaymentMethodType(), idempotencyKey);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("{} payment call failed", strategy.getPaymentMethodType(), e);
+                    result.complete(PaymentStrategy.PaymentResult.unknown("Payment gateway error"));
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("Payment executor full, rejecting {} payment", strategy.getPaymentMethodType());
+            return CompletableFuture.completedFuture(
+                    PaymentStrategy.PaymentResult.failure("Payment gateway busy, please retry"));
+        }
+        return result;
+    }
+
+    /**
+     * Waits up to the configured response wait for the future.
+     *
+     * @return the value, or empty if it is still running; the work itself keeps going
+     */
+    public <T> Optional<T> await(CompletableFuture<T> future) {
+        try {
+            return Optional.ofNullable(future.get(responseWaitMillis, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValidationException(ErrorCode.REQUEST_TIMEOUT);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ValidationException(ErrorCode.EXTERNAL_SERVICE_ERROR, e.getCause().getMessage());
+        }
+    }
+}
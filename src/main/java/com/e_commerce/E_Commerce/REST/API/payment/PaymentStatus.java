@@ -1,6 +1,50 @@
 package com.e_commerce.E_Commerce.REST.API.payment;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum PaymentStatus {
-    PENDING, SUCCESSFUL,COMPLETED, FAILED, REFUNDED
+    PENDING, SUCCESSFUL,COMPLETED, FAILED, REFUNDED;
+
+    // a failed intent can still succeed when the customer retries it; REFUNDED is final
+    private static final Map<PaymentStatus, Set<PaymentStatus>> TRANSITIONS = new EnumMap<>(Map.of(
+            PENDING, EnumSet.of(SUCCESSFUL, COMPLETED, FAILED),
+            SUCCESSFUL, EnumSet.of(COMPLETED, REFUNDED),
+            COMPLETED, EnumSet.of(REFUNDED),
+            FAILED, EnumSet.of(COMPLETED)
+    ));
+
+    // one bit per target status, indexed by ordinal, like OrderStatus
+    private static final int[] ALLOWED_TARGETS = new int[values().length];
+    // the same over any number of transitions
+    private static final int[] REACHABLE_TARGETS = new int[values().length];
+
+    static {
+        TRANSITIONS.forEach((from, targets) -> targets.forEach(to -> ALLOWED_TARGETS[from.ordinal()] |= 1 << to.ordinal()));
+        System.arraycopy(ALLOWED_TARGETS, 0, REACHABLE_TARGETS, 0, ALLOWED_TARGETS.length);
+        // transitive closure (Warshall), each status in turn as the one passed through
+        for (PaymentStatus via : values()) {
+            for (PaymentStatus from : values()) {
+                if ((REACHABLE_TARGETS[from.ordinal()] & 1 << via.ordinal()) != 0) {
+                    REACHABLE_TARGETS[from.ordinal()] |= REACHABLE_TARGETS[via.ordinal()];
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether a payment in this status may move to {@code next}; staying in the same status is not a transition.
+     */
+    public boolean canTransitionTo(PaymentStatus next) {
+        return (ALLOWED_TARGETS[ordinal()] & 1 << next.ordinal()) != 0;
+    }
 
+    /**
+     * Whether a payment in this status can still end up in {@code target} through later transitions.
+     */
+    public boolean canReach(PaymentStatus target) {
+        return (REACHABLE_TARGETS[ordinal()] & 1 << target.ordinal()) != 0;
+    }
 }
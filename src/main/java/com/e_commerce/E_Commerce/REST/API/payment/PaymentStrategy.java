@@ -1,6 +1,12 @@
 package com.e_commerce.E_Commerce.REST.API.payment;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Strategy interface for processing payments.
@@ -17,25 +23,95 @@ public interface PaymentStrategy {
      */
     PaymentResult processPayment(BigDecimal amount);
 
+    /**
+     * Processes a payment that may be sent more than once, e.g. when a call whose outcome is
+     * unknown is retried. Gateways that support it pass the key on, so every call with the same
+     * key ends up as one payment on their side; the default ignores it.
+     *
+     * @param idempotencyKey stable per payment, {@code null} for none
+     */
+    default PaymentResult processPayment(BigDecimal amount, String idempotencyKey) {
+        return processPayment(amount);
+    }
+
+    /**
+     * Processes many payments, at most {@code maxParallelism} of them at a time.
+     * <p>
+     * The default runs {@link #processPayment(BigDecimal)} per payment on virtual threads,
+     * the calling thread being one of the workers; a call that throws gives a result with an
+     * unknown outcome instead of failing the batch. Keep the parallelism within what the gateway client admits
+     * at once, or the excess calls are turned away as busy.
+     *
+     * @return order id -> result, in the order of {@code payments}
+     */
+    default Map<Long, PaymentResult> processPayments(List<BatchPayment> payments, int maxParallelism) {
+        PaymentResult[] results = new PaymentResult[payments.size()];
+        AtomicInteger next = new AtomicInteger();
+        Runnable worker = () -> {
+            for (int i = next.getAndIncrement(); i < results.length; i = next.getAndIncrement()) {
+                results[i] = processSafely(payments.get(i));
+            }
+        };
+
+        int workers = Math.max(1, Math.min(maxParallelism, payments.size()));
+        // close() waits for every worker, which also publishes their results to this thread
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 1; i < workers; i++) {
+                executor.execute(worker);
+            }
+            worker.run();
+        }
+
+        Map<Long, PaymentResult> byOrder = new LinkedHashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            byOrder.put(payments.get(i).orderId(),
+                    results[i] != null ? results[i] : PaymentResult.unknown("Payment gateway error"));
+        }
+        return byOrder;
+    }
+
     /**
      * Returns the payment method identifier (e.g., "STRIPE", "PAYPAL").
      */
     String getPaymentMethodType();
 
+    // the call may have reached the gateway before it threw
+    private PaymentResult processSafely(BatchPayment payment) {
+        try {
+            return processPayment(payment.amount(), payment.idempotencyKey());
+        } catch (RuntimeException e) {
+            return PaymentResult.unknown("Payment gateway error");
+        }
+    }
+
+    /**
+     * One entry of {@link #processPayments(List, int)}.
+     */
+    record BatchPayment(Long orderId, BigDecimal amount, String idempotencyKey) {
+    }
+
     /**
      * Result object returned after processing a payment.
+     *
+     * @param outcomeUnknown the call timed out or broke off after it may have reached the gateway,
+     *                       so the payment may exist there; it is neither a success nor a failure
      */
     record PaymentResult(
             boolean success,
             String transactionId,
             String clientSecret,
-            String errorMessage) {
+            String errorMessage,
+            boolean outcomeUnknown) {
         public static PaymentResult success(String transactionId, String clientSecret) {
-            return new PaymentResult(true, transactionId, clientSecret, null);
+            return new PaymentResult(true, transactionId, clientSecret, null, false);
         }
 
         public static PaymentResult failure(String errorMessage) {
-            return new PaymentResult(false, null, null, errorMessage);
+            return new PaymentResult(false, null, null, errorMessage, false);
+        }
+
+        public static PaymentResult unknown(String errorMessage) {
+            return new PaymentResult(false, null, null, errorMessage, true);
         }
     }
 }
@@ -4,6 +4,8 @@ import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
 import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -49,6 +51,21 @@ public class PaymentStrategyFactory {
         return strategy;
     }
 
+    /**
+     * Routes a batch: splits the items by the strategy their payment method resolves to,
+     * keeping their order within each group.
+     *
+     * @param paymentMethod extracts the payment method type of an item
+     * @throws ValidationException if an item's payment method has no strategy
+     */
+    public <T> Map<PaymentStrategy, List<T>> groupByStrategy(List<T> items, Function<T, String> paymentMethod) {
+        Map<PaymentStrategy, List<T>> groups = new LinkedHashMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(getStrategy(paymentMethod.apply(item)), strategy -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
     /**
      * Checks if a payment method is supported.
      */
@@ -0,0 +1,104 @@
+package com.e_commerce.E_Commerce.REST.API.payment;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import com.stripe.net.HttpHeaders;
+import com.stripe.net.StripeRequest;
+import com.stripe.net.StripeResponse;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Stripe SDK transport on top of the JDK {@link HttpClient}, replacing the SDK's
+ * {@code HttpURLConnection} client.
+ * <p>
+ * One client is shared by every call, so TLS connections to the gateway are kept alive and
+ * reused instead of being set up per payment (pool limits: {@code jdk.httpclient.connectionPoolSize}
+ * and {@code jdk.httpclient.keepalive.timeout}). Each attempt gets a deadline that covers the
+ * whole exchange, connect to last body byte, and is cancelled when it passes. The JDK client does
+ * not block inside monitors, so waiting callers park virtual threads without pinning carriers.
+ */
+public class PooledStripeHttpClient extends com.stripe.net.HttpClient {
+
+    // set by the JDK client itself, it refuses them as request headers
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private final HttpClient httpClient;
+    private final Duration deadline;
+
+    public PooledStripeHttpClient(Duration connectTimeout, Duration deadline) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.deadline = deadline;
+    }
+
+    @Override
+    public StripeResponse request(StripeRequest request) throws StripeException {
+        HttpRequest httpRequest = toHttpRequest(request);
+        long deadlineMillis = request.options().getReadTimeout() != null
+                ? request.options().getReadTimeout()
+                : deadline.toMillis();
+
+        CompletableFuture<HttpResponse<String>> exchange =
+                httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response;
+        try {
+            response = exchange.get(deadlineMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            exchange.cancel(true);
+            throw new ApiConnectionException(String.format("Stripe request %s %s exceeded its %d ms deadline",
+                    request.method(), request.url().getPath(), deadlineMillis), e);
+        } catch (InterruptedException e) {
+            exchange.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ApiConnectionException("Interrupted while waiting for Stripe", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof IOException ? e.getCause() : e;
+            throw new ApiConnectionException(String.format("IOException during API request to Stripe (%s): %s",
+                    request.url().getHost(), cause.getMessage()), cause);
+        }
+        return new StripeResponse(response.statusCode(), HttpHeaders.of(response.headers().map()), response.body());
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private HttpRequest toHttpRequest(StripeRequest request) throws StripeException {
+        HttpRequest.BodyPublisher body = request.content() == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(request.content().byteArrayContent());
+        HttpRequest.Builder builder;
+        try {
+            builder = HttpRequest.newBuilder(request.url().toURI())
+                    .method(request.method().name(), body);
+        } catch (URISyntaxException e) {
+            throw new ApiConnectionException("Invalid Stripe URL " + request.url(), e);
+        }
+
+        HttpHeaders headers = request.headers()
+                .withAdditionalHeader("User-Agent", buildUserAgentString(request))
+                .withAdditionalHeader("X-Stripe-Client-User-Agent", buildXStripeClientUserAgentString());
+        for (Map.Entry<String, List<String>> header : headers.map().entrySet()) {
+            if (!RESTRICTED_HEADERS.contains(header.getKey().toLowerCase())) {
+                builder.setHeader(header.getKey(), String.join(",", header.getValue()));
+            }
+        }
+        if (request.content() != null) {
+            builder.setHeader("Content-Type", request.content().contentType());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.e_commerce.E_Commerce.REST.API.payment;
+
+import java.time.Instant;
+
+/**
+ * One verified Stripe event as it was accepted, numbered in the order it was appended to the log.
+ *
+ * @param transactionId the payment intent the event is about
+ * @param status        the payment status the event moves the payment to
+ */
+public record StripeEvent(long sequence, String eventId, String transactionId, PaymentStatus status, Instant receivedAt) {
+}
@@ -0,0 +1,276 @@
+package com.e_commerce.E_Commerce.REST.API.payment;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of verified Stripe events on local disk, laid out like the order status log.
+ * <p>
+ * Each event is one length-prefixed record (sequence, receive time, status ordinal, event id,
+ * payment intent id, CRC32 over all of it) in segment files named after their first sequence,
+ * and every append is forced to disk before it returns. A checkpoint file holds the sequence up
+ * to which every event is applied; opening the log replays everything after it, and segments
+ * that lie entirely below it are deleted. A torn record at the end of the last segment (a crash
+ * in the middle of an append) is cut off.
+ * <p>
+ * Not thread-safe: callers serialize appends and checkpoints.
+ */
+@Slf4j
+public class StripeEventLog implements Closeable {
+
+    /**
+     * Longest event or payment intent id in UTF-8 bytes; Stripe's ids are far shorter.
+     */
+    public static final int MAX_ID_BYTES = 255;
+
+    private static final int FIXED_BODY_BYTES = Long.BYTES + Long.BYTES + Byte.BYTES + Byte.BYTES + Byte.BYTES;
+    private static final int MAX_RECORD_BYTES = Integer.BYTES + FIXED_BODY_BYTES + 2 * MAX_ID_BYTES + Integer.BYTES;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+    private final Path directory;
+    private final long segmentBytes;
+    // first sequence -> segment file
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+    private final List<StripeEvent> unapplied = new ArrayList<>();
+    private final ByteBuffer recordBuffer = ByteBuffer.allocate(MAX_RECORD_BYTES);
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel current;
+    private long nextSequence;
+    private long checkpoint;
+
+    public StripeEventLog(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        checkpoint = readCheckpoint();
+        nextSequence = checkpoint + 1;
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .forEach(file -> segments.put(firstSequence(file), file));
+        }
+        for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+            replay(segment.getKey(), segment.getValue(), segment.getKey().equals(segments.lastKey()));
+        }
+
+        if (segments.isEmpty()) {
+            roll();
+        } else {
+            current = FileChannel.open(segments.lastEntry().getValue(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        if (!unapplied.isEmpty()) {
+            log.info("stripe event log: {} events after checkpoint {} to apply", unapplied.size(), checkpoint);
+        }
+    }
+
+    /**
+     * Events that were appended but not checkpointed before the log was last closed, in order.
+     */
+    public List<StripeEvent> unapplied() {
+        return List.copyOf(unapplied);
+    }
+
+    /**
+     * Appends one event and forces it to disk.
+     *
+     * @return the event with its sequence number
+     * @throws IllegalArgumentException when an id is longer than {@link #MAX_ID_BYTES}
+     */
+    public StripeEvent append(String eventId, String transactionId, PaymentStatus status, Instant receivedAt)
+            throws IOException {
+        byte[] eventIdBytes = idBytes(eventId);
+        byte[] transactionIdBytes = idBytes(transactionId);
+        if (current.size() >= segmentBytes) {
+            roll();
+        }
+
+        StripeEvent event = new StripeEvent(nextSequence, eventId, transactionId, status,
+                Instant.ofEpochMilli(receivedAt.toEpochMilli()));
+        recordBuffer.clear();
+        recordBuffer.putInt(FIXED_BODY_BYTES + eventIdBytes.length + transactionIdBytes.length)
+                .putLong(event.sequence())
+                .putLong(event.receivedAt().toEpochMilli())
+                .put((byte) status.ordinal())
+                .put((byte) eventIdBytes.length).put(eventIdBytes)
+                .put((byte) transactionIdBytes.length).put(transactionIdBytes);
+        crc.reset();
+        crc.update(recordBuffer.array(), 0, recordBuffer.position());
+        recordBuffer.putInt((int) crc.getValue());
+        recordBuffer.flip();
+
+        long size = current.size();
+        try {
+            while (recordBuffer.hasRemaining()) {
+                current.write(recordBuffer);
+            }
+            current.force(false);
+        } catch (IOException e) {
+            // drop what made it to the file, the caller reports the event as not accepted
+            current.truncate(size);
+            throw e;
+        }
+        nextSequence++;
+        return event;
+    }
+
+    /**
+     * Records that every event up to {@code sequence} is applied and deletes the segments that
+     * hold nothing newer.
+     */
+    public void checkpoint(long sequence) throws IOException {
+        if (sequence <= checkpoint) {
+            return;
+        }
+        Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        checkpoint = sequence;
+
+        // a segment ends where the next one starts; the newest one is still being written
+        while (segments.size() > 1) {
+            Map.Entry<Long, Path> oldest = segments.firstEntry();
+            long lastSequence = segments.higherKey(oldest.getKey()) - 1;
+            if (lastSequence > checkpoint) {
+                break;
+            }
+            Files.deleteIfExists(oldest.getValue());
+            segments.pollFirstEntry();
+        }
+    }
+
+    public long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        current.close();
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private void roll() throws IOException {
+        if (current != null) {
+            current.close();
+        }
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        current = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segments.put(nextSequence, segment);
+    }
+
+    private void replay(long firstSequence, Path segment, boolean last) throws IOException {
+        byte[] content = Files.readAllBytes(segment);
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        long expected = firstSequence;
+        int valid = 0;
+        while (buffer.hasRemaining()) {
+            StripeEvent event = read(buffer, expected);
+            if (event == null) {
+                break;
+            }
+            if (event.sequence() > checkpoint) {
+                unapplied.add(event);
+            }
+            valid = buffer.position();
+            expected++;
+        }
+
+        if (valid < content.length) {
+            if (!last) {
+                throw new IOException("stripe event log segment " + segment + " is corrupt at byte " + valid);
+            }
+            log.warn("stripe event log: cutting a torn record off {} at byte {}", segment, valid);
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+                channel.force(true);
+            }
+        }
+        nextSequence = Math.max(nextSequence, expected);
+    }
+
+    /**
+     * @return the next record, or null when it is torn, out of sequence or fails its checksum
+     */
+    private StripeEvent read(ByteBuffer buffer, long expectedSequence) {
+        int start = buffer.position();
+        if (buffer.remaining() < Integer.BYTES) {
+            return null;
+        }
+        int bodyBytes = buffer.getInt();
+        if (bodyBytes < FIXED_BODY_BYTES || bodyBytes > FIXED_BODY_BYTES + 2 * MAX_ID_BYTES
+                || buffer.remaining() < bodyBytes + Integer.BYTES) {
+            return null;
+        }
+        crc.reset();
+        crc.update(buffer.array(), start, Integer.BYTES + bodyBytes);
+        int checksum = buffer.getInt(start + Integer.BYTES + bodyBytes);
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+
+        long sequence = buffer.getLong();
+        long receivedAt = buffer.getLong();
+        int status = buffer.get();
+        String eventId = readId(buffer);
+        String transactionId = readId(buffer);
+        if (buffer.position() != start + Integer.BYTES + bodyBytes
+                || sequence != expectedSequence || status < 0 || status >= STATUSES.length) {
+            return null;
+        }
+        buffer.getInt();
+        return new StripeEvent(sequence, eventId, transactionId, STATUSES[status], Instant.ofEpochMilli(receivedAt));
+    }
+
+    private static String readId(ByteBuffer buffer) {
+        byte[] id = new byte[Byte.toUnsignedInt(buffer.get())];
+        buffer.get(id);
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] idBytes(String id) {
+        byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_ID_BYTES) {
+            throw new IllegalArgumentException("Stripe id longer than " + MAX_ID_BYTES + " bytes");
+        }
+        return bytes;
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(file)).getLong();
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,209 @@
+package com.e_commerce.E_Commerce.REST.API.payment;
+
+import com.e_commerce.E_Commerce.REST.API.util.Bulkhead;
+import com.e_commerce.E_Commerce.REST.API.util.CircuitBreaker;
+import com.stripe.Stripe;
+import com.stripe.StripeClient;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.net.Authenticator;
+import com.stripe.net.BearerTokenAuthenticator;
+import com.stripe.net.LiveStripeResponseGetter;
+import com.stripe.net.RequestOptions;
+import com.stripe.net.StripeResponseGetterOptions;
+import com.stripe.param.PaymentIntentCreateParams;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.PasswordAuthentication;
+import java.net.Proxy;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The Stripe calls made by {@link StripePaymentStrategy}, behind the guards a slow or failing
+ * gateway needs.
+ * <p>
+ * Calls go through an own {@link StripeClient} on a {@link PooledStripeHttpClient} (keep-alive
+ * connections, a deadline per attempt) instead of the SDK's static default client. Each call
+ * first takes a slot in a {@link Bulkhead}, which caps the calls in flight so a slow gateway can
+ * not absorb every thread, then passes a {@link CircuitBreaker}, which fails fast while Stripe is
+ * down. A call turned away by the bulkhead never reaches the breaker, so it is neither a success
+ * nor a failure there. Only connection problems, timeouts, 429 and 5xx answers count as gateway
+ * failures; card and validation errors do not.
+ */
+@Slf4j
+@Component
+public class StripeGatewayClient {
+
+    private final StripeClient stripeClient;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final LongAdder rejectedBusy = new LongAdder();
+
+    public StripeGatewayClient(
+            @Value("${stripe.api.key}") String apiKey,
+            @Value("${stripe.api.base:}") String apiBase,
+            @Value("${stripe.api.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${stripe.api.read-timeout:10s}") Duration deadline,
+            @Value("${stripe.api.max-network-retries:0}") int maxNetworkRetries,
+            @Value("${app.payment.gateway.max-concurrent-calls:32}") int maxConcurrentCalls,
+            @Value("${app.payment.gateway.max-wait:2s}") Duration maxWait,
+            @Value("${app.payment.gateway.circuit-breaker.window-size:50}") int windowSize,
+            @Value("${app.payment.gateway.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${app.payment.gateway.circuit-breaker.failure-rate-threshold:50}") int failureRatePercent,
+            @Value("${app.payment.gateway.circuit-breaker.open-duration:30s}") Duration openDuration,
+            @Value("${app.payment.gateway.circuit-breaker.half-open-calls:3}") int halfOpenCalls
+    ) {
+        GatewayOptions options = new GatewayOptions(new BearerTokenAuthenticator(apiKey),
+                apiBase.isBlank() ? Stripe.LIVE_API_BASE : apiBase,
+                Math.toIntExact(connectTimeout.toMillis()), Math.toIntExact(deadline.toMillis()), maxNetworkRetries);
+        this.stripeClient = new StripeClient(new LiveStripeResponseGetter(options,
+                new PooledStripeHttpClient(connectTimeout, deadline)));
+        this.bulkhead = new Bulkhead("stripe", maxConcurrentCalls, maxWait);
+        this.circuitBreaker = new CircuitBreaker("stripe", windowSize, minimumCalls, failureRatePercent / 100.0,
+                openDuration, halfOpenCalls, StripeGatewayClient::isGatewayFailure);
+    }
+
+    /**
+     * @param idempotencyKey sent as {@code Idempotency-Key}, so Stripe answers a repeated call with
+     *                       the intent the first one created; {@code null} for none
+     * @throws GatewayRejectedException when the breaker is open or no call slot frees up in time
+     */
+    public PaymentIntent createPaymentIntent(PaymentIntentCreateParams params, String idempotencyKey)
+            throws StripeException {
+        RequestOptions requestOptions = idempotencyKey != null
+                ? RequestOptions.builder().setIdempotencyKey(idempotencyKey).build()
+                : RequestOptions.getDefault();
+        // the bulkhead wraps the breaker: a busy rejection must not count as a (half-open trial) success
+        PaymentIntent paymentIntent = bulkhead.call(
+                () -> circuitBreaker.call(() -> stripeClient.paymentIntents().create(params, requestOptions),
+                        () -> {
+                            throw new GatewayRejectedException("Payment gateway unavailable, please retry");
+                        }),
+                () -> null);
+        if (paymentIntent == null) {
+            rejectedBusy.increment();
+            throw new GatewayRejectedException("Payment gateway busy, please retry");
+        }
+        return paymentIntent;
+    }
+
+    public Stats stats() {
+        return new Stats(circuitBreaker.stats(), bulkhead.inFlight(), bulkhead.getMaxConcurrentCalls(), rejectedBusy.sum());
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private static boolean isGatewayFailure(Exception e) {
+        if (e instanceof ApiConnectionException) {
+            return true;
+        }
+        if (e instanceof StripeException stripeException) {
+            Integer status = stripeException.getStatusCode();
+            return status == null || status == 429 || status >= 500;
+        }
+        return !(e instanceof GatewayRejectedException);
+    }
+
+    /**
+     * The call was not made: the breaker is open or the bulkhead is full.
+     */
+    public static class GatewayRejectedException extends RuntimeException {
+        public GatewayRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * @param inFlight     gateway calls running right now
+     * @param rejectedBusy calls turned away because every slot stayed taken past the max wait
+     */
+    public record Stats(CircuitBreaker.Stats circuitBreaker, int inFlight, int maxConcurrentCalls, long rejectedBusy) {
+    }
+
+    private static class GatewayOptions extends StripeResponseGetterOptions {
+
+        private final Authenticator authenticator;
+        private final String apiBase;
+        private final int connectTimeout;
+        private final int readTimeout;
+        private final int maxNetworkRetries;
+
+        private GatewayOptions(Authenticator authenticator, String apiBase, int connectTimeout, int readTimeout,
+                               int maxNetworkRetries) {
+            this.authenticator = authenticator;
+            this.apiBase = apiBase;
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.maxNetworkRetries = maxNetworkRetries;
+        }
+
+        @Override
+        public Authenticator getAuthenticator() {
+            return authenticator;
+        }
+
+        @Override
+        public String getClientId() {
+            return null;
+        }
+
+        @Override
+        public int getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        @Override
+        public Proxy getConnectionProxy() {
+            return null;
+        }
+
+        @Override
+        public int getMaxNetworkRetries() {
+            return maxNetworkRetries;
+        }
+
+        @Override
+        public PasswordAuthentication getProxyCredential() {
+            return null;
+        }
+
+        @Override
+        public String getApiBase() {
+            return apiBase;
+        }
+
+        @Override
+        public String getFilesBase() {
+            return Stripe.UPLOAD_API_BASE;
+        }
+
+        @Override
+        public String getConnectBase() {
+            return Stripe.CONNECT_API_BASE;
+        }
+
+        @Override
+        public String getMeterEventsBase() {
+            return Stripe.METER_EVENTS_API_BASE;
+        }
+
+        @Override
+        public int getReadTimeout() {
+            return readTimeout;
+        }
+
+        @Override
+        public String getStripeAccount() {
+            return null;
+        }
+
+        @Override
+        public String getStripeContext() {
+            return null;
+        }
+    }
+}
@@ -1,25 +1,44 @@
 package com.e_commerce.E_Commerce.REST.API.payment;
 
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.IdempotencyException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
 import com.stripe.param.PaymentIntentCreateParams;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 
 /**
  * Stripe implementation of PaymentStrategy.
- * Uses PaymentIntent API for secure payment processing.
+ * Uses PaymentIntent API for secure payment processing; the calls go through
+ * {@link StripeGatewayClient}.
+ * <p>
+ * A call that breaks off without an answer (deadline, connection loss, 5xx, or the same
+ * idempotency key still in flight) may have created the intent, so its outcome is reported as
+ * unknown rather than failed; sent again with the same idempotency key, Stripe returns that
+ * intent instead of creating a second one.
  */
 @Slf4j
+@RequiredArgsConstructor
 @Component
+@ConditionalOnProperty(name = "app.payment.gateway.stub.enabled", havingValue = "false", matchIfMissing = true)
 public class StripePaymentStrategy implements PaymentStrategy {
 
     private static final String CURRENCY = "usd";
 
+    private final StripeGatewayClient gatewayClient;
+
     @Override
     public PaymentResult processPayment(BigDecimal amount) {
+        return processPayment(amount, null);
+    }
+
+    @Override
+    public PaymentResult processPayment(BigDecimal amount, String idempotencyKey) {
         try {
             // Convert to cents (Stripe requires smallest currency unit)
             long amountInCents = amount.multiply(BigDecimal.valueOf(100)).longValue();
@@ -34,8 +53,8 @@ public class StripePaymentStrategy implements PaymentStrategy {
                                     .build())
                     .build();
 
-            // Create PaymentIntent via Stripe API
-            PaymentIntent paymentIntent = PaymentIntent.create(params);
+            // Create PaymentIntent via Stripe API (bounded, fails fast while the gateway is down)
+            PaymentIntent paymentIntent = gatewayClient.createPaymentIntent(params, idempotencyKey);
 
             log.info("Created Stripe PaymentIntent: {}", paymentIntent.getId());
 
@@ -43,7 +62,17 @@ public class StripePaymentStrategy implements PaymentStrategy {
                     paymentIntent.getId(),
                     paymentIntent.getClientSecret());
 
+        } catch (StripeGatewayClient.GatewayRejectedException e) {
+            log.warn("Stripe call not made: {}", e.getMessage());
+            return PaymentResult.failure(e.getMessage());
+        } catch (ApiConnectionException | IdempotencyException e) {
+            log.warn("Stripe call broke off, outcome unknown: {}", e.getMessage());
+            return PaymentResult.unknown("Stripe did not answer: " + e.getMessage());
         } catch (StripeException e) {
+            if (e.getStatusCode() == null || e.getStatusCode() >= 500) {
+                log.warn("Stripe answered {}, outcome unknown: {}", e.getStatusCode(), e.getMessage());
+                return PaymentResult.unknown("Stripe error: " + e.getMessage());
+            }
             log.error("Stripe payment failed: {}", e.getMessage(), e);
             return PaymentResult.failure("Stripe error: " + e.getMessage());
         }
@@ -0,0 +1,130 @@
+package com.e_commerce.E_Commerce.REST.API.payment;
+
+import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
+import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.function.LongSupplier;
+
+/**
+ * Checks the {@code Stripe-Signature} header of webhook deliveries
+ * ({@code t=<unix seconds>,v1=<hex HMAC-SHA256 of "t.payload">[,v1=...]}).
+ * <p>
+ * The key is built and a {@link Mac} initialised once; each check works on a clone of that
+ * prototype, which skips the key schedule and is safe from any thread (virtual threads included,
+ * where a thread-local Mac would be set up again for nearly every request).
+ */
+public class StripeSignatureVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String SIGNATURE_SCHEME = "v1";
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final SecretKeySpec key;
+    private final Mac prototype;
+    private final long toleranceSeconds;
+    private final LongSupplier epochSeconds;
+
+    public StripeSignatureVerifier(String secret, Duration tolerance) {
+        this(secret, tolerance, () -> System.currentTimeMillis() / 1000);
+    }
+
+    StripeSignatureVerifier(String secret, Duration tolerance, LongSupplier epochSeconds) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(key);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+        this.toleranceSeconds = tolerance.toSeconds();
+        this.epochSeconds = epochSeconds;
+    }
+
+    /**
+     * @throws ValidationException (400) when the header is missing or malformed, too old, or no
+     *                             signature in it matches the payload
+     */
+    public void verify(byte[] payload, String header) {
+        if (header == null || header.isBlank()) {
+            throw invalid("missing signature header");
+        }
+
+        long timestamp = -1;
+        String[] parts = header.split(",");
+        for (String part : parts) {
+            if (part.startsWith("t=")) {
+                try {
+                    timestamp = Long.parseLong(part.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    throw invalid("malformed timestamp");
+                }
+            }
+        }
+        if (timestamp < 0) {
+            throw invalid("missing timestamp");
+        }
+        if (Math.abs(epochSeconds.getAsLong() - timestamp) > toleranceSeconds) {
+            throw invalid("timestamp outside the tolerance");
+        }
+
+        byte[] expected = sign(timestamp, payload);
+        for (String part : parts) {
+            int separator = part.indexOf('=');
+            if (separator < 0 || !SIGNATURE_SCHEME.equals(part.substring(0, separator).trim())) {
+                continue;
+            }
+            byte[] candidate;
+            try {
+                candidate = HEX.parseHex(part.substring(separator + 1).trim());
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            if (MessageDigest.isEqual(expected, candidate)) {
+                return;
+            }
+        }
+        throw invalid("no matching signature");
+    }
+
+    /**
+     * The header Stripe would send for this payload; used to sign recorded payloads for replays.
+     */
+    public String header(long timestamp, byte[] payload) {
+        return "t=" + timestamp + "," + SIGNATURE_SCHEME + "=" + HEX.formatHex(sign(timestamp, payload));
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private byte[] sign(long timestamp, byte[] payload) {
+        Mac mac = newMac();
+        mac.update((timestamp + ".").getBytes(StandardCharsets.UTF_8));
+        return mac.doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            // providers without clone support pay for the key setup on every call
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM, prototype.getProvider());
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException unavailable) {
+                throw new IllegalStateException("HmacSHA256 is not available", unavailable);
+            }
+        }
+    }
+
+    private static ValidationException invalid(String reason) {
+        return new ValidationException(ErrorCode.PAYMENT_WEBHOOK_SIGNATURE_INVALID,
+                "Invalid Stripe signature: " + reason);
+    }
+}
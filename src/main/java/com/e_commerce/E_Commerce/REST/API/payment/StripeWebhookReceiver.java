@@ -0,0 +1,586 @@
+package com.e_commerce.E_Commerce.REST.API.payment;
+
+import com.e_commerce.E_Commerce.REST.API.cache.BoundedTtlCache;
+import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
+import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository.OrderStatusRow;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepositoryCustom;
+import com.e_commerce.E_Commerce.REST.API.repository.PaymentRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.PaymentRepository.PaymentStatusRow;
+import com.e_commerce.E_Commerce.REST.API.repository.PaymentRepositoryCustom;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Receives Stripe webhook deliveries and applies them to payments and orders in batches.
+ * <p>
+ * {@link #receive} only does what must happen before Stripe gets its 2xx: it checks the
+ * signature with a key set up once, reads the event id, type and payment intent, drops event ids
+ * already applied (a bounded LRU, Stripe delivers at least once) and appends the event to the
+ * {@link StripeEventLog}, returning once it is on disk. No database work happens on the request,
+ * so acknowledgements stay in the millisecond range however many events arrive at once; a full
+ * backlog or a log that can not be written answers 503 and Stripe redelivers later.
+ * <p>
+ * Every {@code app.payment.webhook.drain-interval-ms} the logged events are applied in batches of
+ * {@code batch-size}, each in one short transaction: the payments and their orders are read in
+ * one query by transaction id, the events of each payment are folded with
+ * {@link PaymentStatus#canTransitionTo} (within a batch, events that only fit after a later one,
+ * such as a refund delivered before the success, are applied once the earlier one is), the new
+ * statuses are written in one JDBC batch guarded by the status that was read, and the orders of
+ * completed payments move to {@link OrderStatus#PAID} in one more batch guarded by their version.
+ * Payments changed in the meantime are retried on the next drain. Event ids enter the dedupe
+ * cache only once their batch has committed; events the payment can never reach again are
+ * rejected and remembered too.
+ * <p>
+ * Events that can not be applied yet are parked and tried again every
+ * {@code unmatched-retry-interval}: those for a payment intent no payment carries yet (the gateway
+ * call that created it timed out and the payment is waiting for its retry) and those the payment
+ * can still reach once an earlier event arrives in a later drain, such as that refund. They are
+ * dropped with a warning after {@code unmatched-ttl}. Parked events keep the log from being
+ * checkpointed past them.
+ * <p>
+ * The log and the dedupe cache are per node; events not yet applied are replayed from the log
+ * on startup.
+ */
+@Slf4j
+@Component
+public class StripeWebhookReceiver {
+
+    private static final int MAX_ORDER_UPDATE_ATTEMPTS = 3;
+
+    private final PaymentRepository paymentRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate batchTransaction;
+    private final ObjectMapper objectMapper;
+    private final StripeSignatureVerifier verifier;
+    private final BoundedTtlCache<String, Boolean> seenEvents;
+    private final StripeEventLog eventLog;
+    private final int maxPending;
+    private final int batchSize;
+    private final Duration unmatchedRetryInterval;
+    private final Duration unmatchedTtl;
+
+    // appends, the pending and parked queues and checkpoints share one lock so both queues stay in sequence order
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<StripeEvent> pending = new ArrayDeque<>();
+    private final Queue<StripeEvent> parked = new PriorityQueue<>(Comparator.comparingLong(StripeEvent::sequence));
+    // the scheduled drain and the one on shutdown must not overlap; guards nextParkedRetry
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private Instant nextParkedRetry = Instant.MIN;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong ignored = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong unmatched = new AtomicLong();
+    private final AtomicLong paidOrders = new AtomicLong();
+
+    public StripeWebhookReceiver(PaymentRepository paymentRepository,
+                                 OrderRepository orderRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${stripe.webhook.secret:}") String secret,
+                                 @Value("${stripe.webhook.tolerance:5m}") Duration tolerance,
+                                 @Value("${app.payment.webhook.dedupe-size:100000}") int dedupeSize,
+                                 @Value("${app.payment.webhook.dedupe-ttl:72h}") Duration dedupeTtl,
+                                 @Value("${app.payment.webhook.log-dir:data/stripe-webhook-log}") Path logDirectory,
+                                 @Value("${app.payment.webhook.segment-size:64MB}") DataSize segmentSize,
+                                 @Value("${app.payment.webhook.max-pending:10000}") int maxPending,
+                                 @Value("${app.payment.webhook.batch-size:500}") int batchSize,
+                                 @Value("${app.payment.webhook.unmatched-retry-interval:30s}") Duration unmatchedRetryInterval,
+                                 @Value("${app.payment.webhook.unmatched-ttl:24h}") Duration unmatchedTtl) {
+        this.paymentRepository = paymentRepository;
+        this.orderRepository = orderRepository;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.verifier = secret.isBlank() ? null : new StripeSignatureVerifier(secret, tolerance);
+        this.seenEvents = new BoundedTtlCache<>("stripe-webhook-events", dedupeSize, dedupeTtl);
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        this.unmatchedRetryInterval = unmatchedRetryInterval;
+        this.unmatchedTtl = unmatchedTtl;
+        try {
+            this.eventLog = new StripeEventLog(logDirectory, segmentSize.toBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the Stripe event log in " + logDirectory, e);
+        }
+        pending.addAll(eventLog.unapplied());
+        if (verifier == null) {
+            log.warn("stripe.webhook.secret is not set, Stripe webhooks will be answered with 503");
+        }
+    }
+
+    /**
+     * Verifies one delivery and logs it durably.
+     *
+     * @throws ValidationException 400 for a bad signature or payload, 503 when no webhook secret
+     *                             is configured, the backlog is full or the log can not be written
+     */
+    public void receive(byte[] payload, String signatureHeader) {
+        if (verifier == null) {
+            throw new ValidationException(ErrorCode.SERVICE_UNAVAILABLE, "Stripe webhooks are not configured");
+        }
+        verifier.verify(payload, signatureHeader);
+
+        JsonNode event;
+        try {
+            event = objectMapper.readTree(payload);
+        } catch (IOException e) {
+            throw new ValidationException(ErrorCode.BAD_REQUEST, "Stripe event is not valid JSON");
+        }
+        String eventId = event.path("id").asText("");
+        if (eventId.isEmpty()) {
+            throw new ValidationException(ErrorCode.BAD_REQUEST, "Stripe event has no id");
+        }
+        received.incrementAndGet();
+
+        JsonNode object = event.path("data").path("object");
+        String transactionId;
+        PaymentStatus status;
+        switch (event.path("type").asText("")) {
+            case "payment_intent.succeeded" -> {
+                transactionId = object.path("id").asText("");
+                status = PaymentStatus.COMPLETED;
+            }
+            case "payment_intent.payment_failed", "payment_intent.canceled" -> {
+                transactionId = object.path("id").asText("");
+                status = PaymentStatus.FAILED;
+            }
+            case "charge.refunded" -> {
+                transactionId = object.path("payment_intent").asText("");
+                status = PaymentStatus.REFUNDED;
+            }
+            default -> {
+                transactionId = "";
+                status = null;
+            }
+        }
+        if (status == null || transactionId.isEmpty()) {
+            ignored.incrementAndGet();
+            return;
+        }
+
+        // ids are only remembered once applied; a redelivery of an event still in the log is logged
+        // again and skipped when its batch is applied
+        if (seenEvents.get(eventId) != null) {
+            duplicates.incrementAndGet();
+            return;
+        }
+        lock.lock();
+        try {
+            if (pending.size() + parked.size() >= maxPending) {
+                throw new ValidationException(ErrorCode.SERVICE_UNAVAILABLE, "Stripe webhook backlog is full, retry later");
+            }
+            pending.addLast(eventLog.append(eventId, transactionId, status, Instant.now()));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(ErrorCode.BAD_REQUEST, e.getMessage());
+        } catch (IOException e) {
+            log.error("appending to the Stripe event log failed", e);
+            throw new ValidationException(ErrorCode.SERVICE_UNAVAILABLE, "Stripe event log is not writable");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retries parked events when they are due, then applies logged events batch by batch until
+     * none are left or a batch hits a conflict.
+     */
+    @Scheduled(fixedDelayString = "${app.payment.webhook.drain-interval-ms:100}")
+    public void drain() {
+        drainLock.lock();
+        try {
+            if (!Instant.now().isBefore(nextParkedRetry)) {
+                nextParkedRetry = Instant.now().plus(unmatchedRetryInterval);
+                retryParked();
+            }
+            while (true) {
+                List<StripeEvent> batch = take();
+                if (batch.isEmpty() || !applyBatch(batch, this::putBack)) {
+                    break;
+                }
+            }
+            checkpoint();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        int queued;
+        int waiting;
+        lock.lock();
+        try {
+            queued = pending.size();
+            waiting = parked.size();
+        } finally {
+            lock.unlock();
+        }
+        return new Stats(received.get(), duplicates.get(), ignored.get(), applied.get(), rejected.get(),
+                conflicts.get(), unmatched.get(), paidOrders.get(), queued, waiting);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        drain();
+        lock.lock();
+        try {
+            eventLog.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    /**
+     * Applies one batch in its own transaction. Events of the batch that were applied or rejected
+     * are remembered as seen, those that can not be applied yet are parked and the rest is handed
+     * to {@code requeue}.
+     *
+     * @return false when the batch failed or hit a conflict and the drain should stop for now
+     */
+    private boolean applyBatch(List<StripeEvent> batch, Consumer<List<StripeEvent>> requeue) {
+        // redeliveries logged before the first delivery was applied
+        List<StripeEvent> fresh = new ArrayList<>(batch.size());
+        Set<String> batchIds = new HashSet<>();
+        for (StripeEvent event : batch) {
+            if (seenEvents.get(event.eventId()) == null && batchIds.add(event.eventId())) {
+                fresh.add(event);
+            }
+        }
+
+        Outcome outcome;
+        try {
+            outcome = fresh.isEmpty() ? Outcome.NONE : batchTransaction.execute(status -> apply(fresh));
+        } catch (RuntimeException e) {
+            requeue.accept(batch);
+            log.error("applying {} Stripe events failed, retrying on the next drain", batch.size(), e);
+            return false;
+        }
+        duplicates.addAndGet(batch.size() - fresh.size());
+        applied.addAndGet(outcome.applied());
+        rejected.addAndGet(outcome.rejected());
+        conflicts.addAndGet(outcome.conflicts());
+        paidOrders.addAndGet(outcome.paidOrders());
+
+        Set<Long> open = new HashSet<>();
+        outcome.retry().forEach(event -> open.add(event.sequence()));
+        outcome.parked().forEach(event -> open.add(event.sequence()));
+        for (StripeEvent event : fresh) {
+            if (!open.contains(event.sequence())) {
+                seenEvents.put(event.eventId(), Boolean.TRUE);
+            }
+        }
+        park(outcome.parked());
+        if (!outcome.retry().isEmpty()) {
+            // the conflicting payments are being changed right now, give them a moment
+            requeue.accept(outcome.retry());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Tries the parked events again, dropping those that waited longer than {@code unmatched-ttl}.
+     * Events that fail or conflict go back to the parked ones and are retried on the next drain.
+     */
+    private void retryParked() {
+        List<StripeEvent> due = new ArrayList<>();
+        lock.lock();
+        try {
+            while (!parked.isEmpty()) {
+                due.add(parked.poll());
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        Instant expired = Instant.now().minus(unmatchedTtl);
+        List<StripeEvent> live = new ArrayList<>(due.size());
+        for (StripeEvent event : due) {
+            if (!event.receivedAt().isAfter(expired)) {
+                log.warn("dropping Stripe event {}: not applicable to payment intent {} since {}",
+                        event.eventId(), event.transactionId(), event.receivedAt());
+                unmatched.incrementAndGet();
+            } else {
+                live.add(event);
+            }
+        }
+        for (int from = 0; from < live.size(); from += batchSize) {
+            applyBatch(live.subList(from, Math.min(live.size(), from + batchSize)), events -> {
+                park(events);
+                nextParkedRetry = Instant.MIN;
+            });
+        }
+    }
+
+    private List<StripeEvent> take() {
+        lock.lock();
+        try {
+            List<StripeEvent> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            while (batch.size() < batchSize && !pending.isEmpty()) {
+                batch.add(pending.pollFirst());
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns unapplied events to the head of the queue; they are older than anything still in it.
+     */
+    private void putBack(List<StripeEvent> events) {
+        lock.lock();
+        try {
+            for (int i = events.size() - 1; i >= 0; i--) {
+                pending.addFirst(events.get(i));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void park(List<StripeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            parked.addAll(events);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checkpoints the log up to the oldest event still pending or parked.
+     */
+    private void checkpoint() {
+        lock.lock();
+        try {
+            long through = eventLog.lastSequence();
+            if (!pending.isEmpty()) {
+                through = Math.min(through, pending.peekFirst().sequence() - 1);
+            }
+            if (!parked.isEmpty()) {
+                through = Math.min(through, parked.peek().sequence() - 1);
+            }
+            eventLog.checkpoint(through);
+        } catch (IOException e) {
+            // harmless: events after the old checkpoint are replayed on restart and skipped or found applied
+            log.warn("writing the Stripe event checkpoint failed: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Folds one batch into at most one status change per payment, writes them and marks the
+     * orders of completed payments as paid.
+     *
+     * @return the counts, the events of payments whose status changed underneath to be applied
+     * again and the events to park (no payment carries their intent yet, or the payment can only
+     * take them after an event still to come), both in sequence order
+     */
+    private Outcome apply(List<StripeEvent> batch) {
+        Map<String, List<StripeEvent>> byTransaction = new LinkedHashMap<>();
+        for (StripeEvent event : batch) {
+            byTransaction.computeIfAbsent(event.transactionId(), id -> new ArrayList<>()).add(event);
+        }
+        Map<String, PaymentStatusRow> current = new HashMap<>();
+        for (PaymentStatusRow row : paymentRepository.findStatusesByTransactionIds(byTransaction.keySet())) {
+            current.put(row.getTransactionId(), row);
+        }
+
+        List<PaymentRepositoryCustom.StatusChange> changes = new ArrayList<>();
+        Map<Long, PaymentStatusRow> completed = new HashMap<>();
+        Map<Long, int[]> countsByPayment = new HashMap<>();
+        Map<Long, List<StripeEvent>> waitingByPayment = new HashMap<>();
+        List<StripeEvent> parkedEvents = new ArrayList<>();
+        for (Map.Entry<String, List<StripeEvent>> payment : byTransaction.entrySet()) {
+            PaymentStatusRow row = current.get(payment.getKey());
+            if (row == null) {
+                log.debug("parking {} Stripe events for unknown payment intent {}", payment.getValue().size(), payment.getKey());
+                parkedEvents.addAll(payment.getValue());
+                continue;
+            }
+
+            PaymentStatus from = row.getPaymentStatus();
+            PaymentStatus status = from;
+            boolean reachedCompleted = false;
+            List<StripeEvent> remaining = new ArrayList<>(payment.getValue());
+            int transitions = 0;
+            boolean progress = true;
+            while (progress) {
+                progress = false;
+                for (int i = 0; i < remaining.size(); i++) {
+                    PaymentStatus next = remaining.get(i).status();
+                    if (next == status || status.canTransitionTo(next)) {
+                        if (next != status) {
+                            transitions++;
+                            reachedCompleted |= next == PaymentStatus.COMPLETED;
+                        }
+                        status = next;
+                        remaining.remove(i--);
+                        progress = true;
+                    }
+                }
+            }
+            List<StripeEvent> waiting = new ArrayList<>();
+            for (StripeEvent event : remaining) {
+                if (status.canReach(event.status())) {
+                    // e.g. a refund whose success is delivered in a later drain
+                    waiting.add(event);
+                } else {
+                    log.debug("rejecting Stripe event {}: payment {} can not go from {} to {}",
+                            event.eventId(), row.getId(), status, event.status());
+                }
+            }
+            countsByPayment.put(row.getId(), new int[]{transitions, remaining.size() - waiting.size()});
+            waitingByPayment.put(row.getId(), waiting);
+            if (status != from) {
+                changes.add(new PaymentRepositoryCustom.StatusChange(row.getId(), from, status));
+                if (reachedCompleted) {
+                    completed.put(row.getId(), row);
+                }
+            }
+        }
+
+        Set<Long> conflicted = new HashSet<>(paymentRepository.updateStatuses(changes));
+        completed.keySet().removeAll(conflicted);
+        int paid = markOrdersPaid(completed.values());
+
+        List<StripeEvent> retry = new ArrayList<>();
+        int appliedCount = 0;
+        int rejectedCount = 0;
+        for (Map.Entry<String, List<StripeEvent>> payment : byTransaction.entrySet()) {
+            PaymentStatusRow row = current.get(payment.getKey());
+            if (row == null) {
+                continue;
+            }
+            if (conflicted.contains(row.getId())) {
+                retry.addAll(payment.getValue());
+            } else {
+                int[] counts = countsByPayment.get(row.getId());
+                appliedCount += counts[0];
+                rejectedCount += counts[1];
+                parkedEvents.addAll(waitingByPayment.get(row.getId()));
+            }
+        }
+        retry.sort(Comparator.comparingLong(StripeEvent::sequence));
+        parkedEvents.sort(Comparator.comparingLong(StripeEvent::sequence));
+        return new Outcome(appliedCount, rejectedCount, conflicted.size(), paid, retry, parkedEvents);
+    }
+
+    /**
+     * Moves the orders of completed payments to PAID in guarded batches; orders changed
+     * concurrently are re-read and tried again.
+     *
+     * @return the number of orders marked as paid
+     */
+    private int markOrdersPaid(Iterable<PaymentStatusRow> completedPayments) {
+        Map<Long, OrderStatusRow> orders = new HashMap<>();
+        for (PaymentStatusRow payment : completedPayments) {
+            orders.put(payment.getOrderId(), orderRow(payment.getOrderId(), payment.getOrderStatus(), payment.getOrderVersion()));
+        }
+
+        int paid = 0;
+        for (int attempt = 1; !orders.isEmpty(); attempt++) {
+            List<OrderRepositoryCustom.StatusChange> changes = new ArrayList<>();
+            for (OrderStatusRow order : orders.values()) {
+                if (order.getOrderStatus().canTransitionTo(OrderStatus.PAID)) {
+                    changes.add(new OrderRepositoryCustom.StatusChange(order.getId(), order.getOrderStatus(),
+                            order.getVersion(), OrderStatus.PAID));
+                } else if (order.getOrderStatus() != OrderStatus.PAID) {
+                    log.warn("payment for order {} completed while the order is {}, it needs a manual refund",
+                            order.getId(), order.getOrderStatus());
+                }
+            }
+
+            List<Long> conflictedOrders = orderRepository.updateStatuses(changes);
+            paid += changes.size() - conflictedOrders.size();
+            if (conflictedOrders.isEmpty()) {
+                break;
+            }
+            if (attempt == MAX_ORDER_UPDATE_ATTEMPTS) {
+                throw new ValidationException(ErrorCode.CONCURRENT_MODIFICATION,
+                        conflictedOrders.size() + " orders kept changing, Stripe events not applied");
+            }
+            orders.clear();
+            for (OrderStatusRow order : orderRepository.findStatusesByIds(conflictedOrders)) {
+                orders.put(order.getId(), order);
+            }
+        }
+        return paid;
+    }
+
+    private static OrderStatusRow orderRow(Long orderId, OrderStatus status, long version) {
+        return new OrderStatusRow() {
+            @Override
+            public Long getId() {
+                return orderId;
+            }
+
+            @Override
+            public OrderStatus getOrderStatus() {
+                return status;
+            }
+
+            @Override
+            public long getVersion() {
+                return version;
+            }
+        };
+    }
+
+    private record Outcome(int applied, int rejected, int conflicts, int paidOrders,
+                           List<StripeEvent> retry, List<StripeEvent> parked) {
+
+        static final Outcome NONE = new Outcome(0, 0, 0, 0, List.of(), List.of());
+    }
+
+    /**
+     * @param ignored   event types that do not change a payment
+     * @param unmatched events dropped after waiting {@code unmatched-ttl} to become applicable
+     * @param pending   logged events waiting for the next drain
+     * @param parked    events waiting for a payment to carry their intent or to reach a status they fit
+     */
+    public record Stats(long received, long duplicates, long ignored, long applied, long rejected,
+                        long conflicts, long unmatched, long paidOrders, int pending, int parked) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.e_commerce.E_Commerce.REST.API.payment;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Local stand-in for the Stripe gateway: answers after a fixed latency without any network call.
+ * Enabled with {@code app.payment.gateway.stub.enabled=true}, replacing {@link StripePaymentStrategy}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.payment.gateway.stub.enabled", havingValue = "true")
+public class StubPaymentStrategy implements PaymentStrategy {
+
+    private final long latencyMillis;
+
+    public StubPaymentStrategy(@Value("${app.payment.gateway.stub.latency:300ms}") Duration latency) {
+        this.latencyMillis = latency.toMillis();
+    }
+
+    @Override
+    public PaymentResult processPayment(BigDecimal amount) {
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return PaymentResult.failure("Stub gateway interrupted");
+        }
+
+        String intentId = "pi_stub_" + UUID.randomUUID().toString().replace("-", "");
+        log.debug("Stub PaymentIntent {} for {}", intentId, amount);
+        return PaymentResult.success(intentId, intentId + "_secret_stub");
+    }
+
+    @Override
+    public String getPaymentMethodType() {
+        return PaymentMethod.STRIPE.toString();
+    }
+}
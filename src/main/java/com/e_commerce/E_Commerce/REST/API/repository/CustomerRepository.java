@@ -1,8 +1,12 @@
 package com.e_commerce.E_Commerce.REST.API.repository;
 
 import com.e_commerce.E_Commerce.REST.API.model.Customer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -14,4 +18,6 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     Page<Customer> findAll(Pageable pageable);
 
+    Window<Customer> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
 }
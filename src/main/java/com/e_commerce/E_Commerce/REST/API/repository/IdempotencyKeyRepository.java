@@ -0,0 +1,43 @@
+package com.e_commerce.E_Commerce.REST.API.repository;
+
+import com.e_commerce.E_Commerce.REST.API.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    @Query("SELECT k FROM IdempotencyKey k WHERE k.key = :key AND k.expiresAt > :now")
+    Optional<IdempotencyKey> findLive(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    /**
+     * Claims a key with a plain insert, which fails on the primary key where {@code save} would
+     * merge. A concurrent claim of the same key waits on the uncommitted row and fails once it
+     * commits. The response is filled in by {@link #complete} in the same transaction.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, response_body, expires_at) " +
+            "VALUES (:key, :requestHash, EMPTY_CLOB(), :expiresAt)", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("requestHash") String requestHash,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.responseBody = :responseBody WHERE k.key = :key")
+    int complete(@Param("key") String key, @Param("responseBody") String responseBody);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.key = :key AND k.expiresAt <= :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
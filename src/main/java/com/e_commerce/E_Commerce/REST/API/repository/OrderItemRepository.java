@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +18,13 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
     List<OrderItem> findByProductId(Long productId);
 
+    long countByProductId(Long productId);
+
+    // one grouped count for a whole page of products
+    @Query("select oi.product.id as productId, count(oi) as totalOrders from OrderItem oi " +
+            "where oi.product.id in :productIds group by oi.product.id")
+    List<ProductOrderCount> countByProductIds(@Param("productIds") Collection<Long> productIds);
+
     List<OrderItem> getItemsByOrderIdAndProductId(Long orderId, Long productId);
     Optional<OrderItem> findByOrderIdAndProductId(Long orderId, Long productId);
     Optional<OrderItem> findByIdAndOrderId(Long orderItemId, Long orderId);
@@ -30,5 +38,18 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     @Query("select oi from OrderItem oi join fetch oi.order where oi.id = :id")
     Optional<OrderItem> findByIdWithOrder(@Param("id") Long OrderItemId);
 
+    // units per product over many orders, to give their stock back in one pass
+    @Query("select oi.product.id as productId, sum(oi.quantity) as quantity from OrderItem oi " +
+            "where oi.order.id in :orderIds group by oi.product.id")
+    List<ProductQuantity> sumQuantitiesByProduct(@Param("orderIds") Collection<Long> orderIds);
+
+    interface ProductQuantity {
+        Long getProductId();
+        Long getQuantity();
+    }
 
+    interface ProductOrderCount {
+        Long getProductId();
+        Long getTotalOrders();
+    }
 }
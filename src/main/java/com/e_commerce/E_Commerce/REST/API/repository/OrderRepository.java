@@ -2,34 +2,147 @@ package com.e_commerce.E_Commerce.REST.API.repository;
 
 import com.e_commerce.E_Commerce.REST.API.model.Order;
 import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+import com.e_commerce.E_Commerce.REST.API.payment.PaymentStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
 
+    /*
+     * Fetch plan for order responses (OrderMapper reads payment, items and each item's product):
+     * list queries join the to-one payment (inverse one-to-one -> otherwise one select per order),
+     * then findAllWithItemsAndProducts loads items + products of the whole page in one IN query.
+     * Collections are never join-fetched into a paged query, so paging stays in the database.
+     */
+
+    @EntityGraph(attributePaths = "payment")
     List<Order> findByCustomerId(Long customerId);
 
+    @EntityGraph(attributePaths = "payment")
     Page<Order> findByOrderStatus(OrderStatus orderStatus, Pageable pageable);
 
     @Query("SELECT o FROM Order o JOIN FETCH o.customer WHERE o.id = :id")
     Optional<Order> findByIdWithCustomer(@Param("id") Long id);
 
-    @Query("SELECT o FROM Order o JOIN FETCH o.customer")
+    @EntityGraph(attributePaths = {"customer", "payment"})
+    @Query("SELECT o FROM Order o")
     Page<Order> findAllWithCustomer(Pageable pageable);
 
-    @Query("SELECT o FROM Order o JOIN FETCH o.customer JOIN FETCH o.orderItems WHERE o.id = :id")
+    // keyset (seek) variants -> no COUNT, constant cost per slice
+    @EntityGraph(attributePaths = {"customer", "payment"})
+    Window<Order> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = "payment")
+    Window<Order> findByOrderStatus(OrderStatus orderStatus, ScrollPosition position, Sort sort, Limit limit);
+
+    // second phase of the list fetch plan, the orders are already in the persistence context
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.product WHERE o.id IN :ids")
+    List<Order> findAllWithItemsAndProducts(@Param("ids") Collection<Long> ids);
+
+    // forward-only cursor for exports: rows arrive in fetch-size round trips, callers must close the stream
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.payment ORDER BY o.id")
+    Stream<Order> streamAllForExport();
+
+    @Query("SELECT o FROM Order o JOIN FETCH o.customer LEFT JOIN FETCH o.payment " +
+            "LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.product WHERE o.id = :id")
     Optional<Order> findByIdWithCustomerAndItems(@Param("id") Long id);
 
     Optional<Order> findByOrderNumber(String orderNumber);
 
     @Query("SELECT COUNT(o) FROM Order o WHERE o.customer.id = :customerId")
     Long countByCustomerId(@Param("customerId") Long customerId);
-}
\ No newline at end of file
+
+    // range scan on idx_orders_status_date, oldest first; orders with a live payment are left alone
+    @Query("SELECT o.id FROM Order o WHERE o.orderStatus = :status AND o.orderDate < :cutoff " +
+            "AND NOT EXISTS (SELECT p.id FROM Payment p WHERE p.order = o AND p.paymentStatus IN :livePaymentStatuses) " +
+            "ORDER BY o.orderDate")
+    List<Long> findIdsByStatusOlderThan(@Param("status") OrderStatus status,
+                                        @Param("cutoff") LocalDateTime cutoff,
+                                        @Param("livePaymentStatuses") Collection<PaymentStatus> livePaymentStatuses,
+                                        Pageable pageable);
+
+    // re-checks the candidates under FOR UPDATE SKIP LOCKED: orders another transaction holds are left for the next run
+    @Query(value = "SELECT o.id FROM orders o WHERE o.id IN (:ids) AND o.order_status = :status " +
+            "AND NOT EXISTS (SELECT 1 FROM payments p WHERE p.order_id = o.id AND p.payment_status IN (:livePaymentStatuses)) " +
+            "FOR UPDATE OF o.order_status SKIP LOCKED", nativeQuery = true)
+    List<Long> lockIdsByStatus(@Param("ids") Collection<Long> ids,
+                               @Param("status") String status,
+                               @Param("livePaymentStatuses") Collection<String> livePaymentStatuses);
+
+    // locks the order while a payment is started for it, so the reaper's SKIP LOCKED passes it over
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    // same lock for a payment batch; waits for the orders instead of skipping them
+    @Query(value = "SELECT o.id FROM orders o WHERE o.id IN (:ids) FOR UPDATE OF o.order_status", nativeQuery = true)
+    List<Long> lockIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT o.id AS id, o.orderStatus AS orderStatus, o.version AS version FROM Order o WHERE o.id = :id")
+    Optional<OrderStatusRow> findStatusById(@Param("id") Long id);
+
+    @Query("SELECT o.id AS id, o.orderStatus AS orderStatus, o.version AS version FROM Order o WHERE o.id IN :ids")
+    List<OrderStatusRow> findStatusesByIds(@Param("ids") Collection<Long> ids);
+
+    // status and total of many orders and the state of their payment, if any, without loading the orders
+    @Query("SELECT o.id AS id, o.orderStatus AS orderStatus, o.totalAmount AS totalAmount, p.id AS paymentId, " +
+            "p.paymentStatus AS paymentStatus, p.transactionId AS transactionId " +
+            "FROM Order o LEFT JOIN o.payment p WHERE o.id IN :ids")
+    List<OrderPaymentRow> findPaymentRowsByIds(@Param("ids") Collection<Long> ids);
+
+    // compare-and-set on status and version: 0 means someone else changed the order first, no row lock is held
+    @Modifying
+    @Query("UPDATE Order o SET o.orderStatus = :status, o.version = o.version + 1 " +
+            "WHERE o.id = :id AND o.orderStatus = :expected AND o.version = :version")
+    int updateStatusIfCurrent(@Param("id") Long id,
+                              @Param("expected") OrderStatus expected,
+                              @Param("version") long version,
+                              @Param("status") OrderStatus status);
+
+    // callers hold the row locks of the orders
+    @Modifying
+    @Query("UPDATE Order o SET o.orderStatus = :status, o.version = o.version + 1 WHERE o.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status);
+
+    interface OrderStatusRow {
+        Long getId();
+        OrderStatus getOrderStatus();
+        long getVersion();
+    }
+
+    interface OrderPaymentRow {
+        Long getId();
+        OrderStatus getOrderStatus();
+        BigDecimal getTotalAmount();
+        Long getPaymentId();
+        PaymentStatus getPaymentStatus();
+        String getTransactionId();
+    }
+}
@@ -0,0 +1,24 @@
+package com.e_commerce.E_Commerce.REST.API.repository;
+
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+
+import java.util.List;
+
+/**
+ * Bulk status writes that Spring Data derived queries can not express.
+ * Implemented by {@link OrderRepositoryCustomImpl} and exposed through {@link OrderRepository}.
+ */
+public interface OrderRepositoryCustom {
+
+    /**
+     * Applies many status changes in a single JDBC batch, bypassing the persistence context.
+     * Each change only applies while the order still has the status and version it was read
+     * with, and bumps the version.
+     *
+     * @return ids of the changes whose order was changed since it was read
+     */
+    List<Long> updateStatuses(List<StatusChange> changes);
+
+    record StatusChange(Long orderId, OrderStatus expected, long version, OrderStatus status) {
+    }
+}
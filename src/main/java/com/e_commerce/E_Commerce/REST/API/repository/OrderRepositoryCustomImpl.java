@@ -0,0 +1,53 @@
+package com.e_commerce.E_Commerce.REST.API.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    // the status and version guard turns a concurrent change into a 0 row count instead of a lost update
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE orders SET order_status = ?, version = version + 1 WHERE id = ? AND order_status = ? AND version = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public List<Long> updateStatuses(List<StatusChange> changes) {
+        if (changes == null || changes.isEmpty()) {
+            return List.of();
+        }
+
+        int[] updatedRows = jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StatusChange change = changes.get(i);
+                ps.setString(1, change.status().name());
+                ps.setLong(2, change.orderId());
+                ps.setString(3, change.expected().name());
+                ps.setLong(4, change.version());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return changes.size();
+            }
+        });
+
+        List<Long> conflicts = new ArrayList<>();
+        for (int i = 0; i < updatedRows.length; i++) {
+            if (updatedRows[i] == 0) {
+                conflicts.add(changes.get(i).orderId());
+            }
+        }
+        return conflicts;
+    }
+}
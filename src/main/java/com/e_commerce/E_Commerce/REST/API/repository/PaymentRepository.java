@@ -1,15 +1,36 @@
 package com.e_commerce.E_Commerce.REST.API.repository;
 
 import com.e_commerce.E_Commerce.REST.API.model.Payment;
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+import com.e_commerce.E_Commerce.REST.API.payment.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, PaymentRepositoryCustom {
 
     Optional<Payment> findByTransactionId(String transactionId);
 
     Optional<Payment> findByOrderId(Long orderId);
+
+    // status of many payments and their orders in one query, through the unique transaction_id index
+    @Query("SELECT p.id AS id, p.transactionId AS transactionId, p.paymentStatus AS paymentStatus, " +
+            "o.id AS orderId, o.orderStatus AS orderStatus, o.version AS orderVersion " +
+            "FROM Payment p JOIN p.order o WHERE p.transactionId IN :transactionIds")
+    List<PaymentStatusRow> findStatusesByTransactionIds(@Param("transactionIds") Collection<String> transactionIds);
+
+    interface PaymentStatusRow {
+        Long getId();
+        String getTransactionId();
+        PaymentStatus getPaymentStatus();
+        Long getOrderId();
+        OrderStatus getOrderStatus();
+        long getOrderVersion();
+    }
 }
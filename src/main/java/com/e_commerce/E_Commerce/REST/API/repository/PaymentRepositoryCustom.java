@@ -0,0 +1,46 @@
+package com.e_commerce.E_Commerce.REST.API.repository;
+
+import com.e_commerce.E_Commerce.REST.API.model.Payment;
+import com.e_commerce.E_Commerce.REST.API.payment.PaymentStatus;
+
+import java.util.List;
+
+/**
+ * Bulk inserts and status writes that Spring Data derived queries can not express.
+ * Implemented by {@link PaymentRepositoryCustomImpl} and exposed through {@link PaymentRepository}.
+ */
+public interface PaymentRepositoryCustom {
+
+    /**
+     * Applies many status changes in a single JDBC batch, bypassing the persistence context.
+     * Each change only applies while the payment is still in its {@code expected} status.
+     *
+     * @return ids of the payments that were no longer in the expected status
+     */
+    List<Long> updateStatuses(List<StatusChange> changes);
+
+    /**
+     * Inserts new payments in a single JDBC batch, bypassing the persistence context.
+     * Ids are taken from {@code payments_seq} one block of {@link Payment#ID_ALLOCATION_SIZE}
+     * at a time, like Hibernate's pooled optimizer does, and written back to the payments.
+     * Only the id of each payment's order is read.
+     */
+    void insertAll(List<Payment> payments);
+
+    /**
+     * Stores many gateway results in a single JDBC batch. Each result only applies while the
+     * payment is still PENDING.
+     *
+     * @return ids of the payments that were no longer PENDING
+     */
+    List<Long> applyGatewayResults(List<GatewayResult> results);
+
+    record StatusChange(Long paymentId, PaymentStatus expected, PaymentStatus status) {
+    }
+
+    /**
+     * @param gatewayResponse the client secret on success, the gateway's error otherwise
+     */
+    record GatewayResult(Long paymentId, PaymentStatus status, String transactionId, String gatewayResponse) {
+    }
+}
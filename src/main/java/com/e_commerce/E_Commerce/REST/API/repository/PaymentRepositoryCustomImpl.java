@@ -0,0 +1,140 @@
+package com.e_commerce.E_Commerce.REST.API.repository;
+
+import com.e_commerce.E_Commerce.REST.API.model.Payment;
+import com.e_commerce.E_Commerce.REST.API.payment.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class PaymentRepositoryCustomImpl implements PaymentRepositoryCustom {
+
+    // the status guard turns a concurrent change into a 0 row count instead of a lost update
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE payments SET payment_status = ? WHERE id = ? AND payment_status = ?";
+
+    private static final String INSERT_PAYMENT_SQL =
+            "INSERT INTO payments (id, payment_method, amount, payment_date, payment_status, transaction_id, " +
+            "payment_gateway_response, order_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // one round trip for several id blocks; each NEXTVAL is the low end of a block
+    private static final String NEXT_ID_BLOCKS_SQL =
+            "SELECT payments_seq.NEXTVAL FROM dual CONNECT BY LEVEL <= ?";
+
+    private static final String APPLY_GATEWAY_RESULT_SQL =
+            "UPDATE payments SET payment_status = ?, transaction_id = ?, payment_gateway_response = ? " +
+            "WHERE id = ? AND payment_status = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public List<Long> updateStatuses(List<StatusChange> changes) {
+        if (changes == null || changes.isEmpty()) {
+            return List.of();
+        }
+
+        int[] updatedRows = jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StatusChange change = changes.get(i);
+                ps.setString(1, change.status().name());
+                ps.setLong(2, change.paymentId());
+                ps.setString(3, change.expected().name());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return changes.size();
+            }
+        });
+
+        List<Long> conflicts = new ArrayList<>();
+        for (int i = 0; i < updatedRows.length; i++) {
+            if (updatedRows[i] == 0) {
+                conflicts.add(changes.get(i).paymentId());
+            }
+        }
+        return conflicts;
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<Payment> payments) {
+        if (payments == null || payments.isEmpty()) {
+            return;
+        }
+
+        int blocks = (payments.size() + Payment.ID_ALLOCATION_SIZE - 1) / Payment.ID_ALLOCATION_SIZE;
+        List<Long> blockStarts = jdbcTemplate.queryForList(NEXT_ID_BLOCKS_SQL, Long.class, blocks);
+        for (int i = 0; i < payments.size(); i++) {
+            long blockStart = blockStarts.get(i / Payment.ID_ALLOCATION_SIZE);
+            payments.get(i).setId(blockStart + i % Payment.ID_ALLOCATION_SIZE);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_PAYMENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Payment payment = payments.get(i);
+                ps.setLong(1, payment.getId());
+                ps.setString(2, payment.getPaymentMethod().name());
+                ps.setBigDecimal(3, payment.getAmount());
+                if (payment.getPaymentDate() != null) {
+                    ps.setTimestamp(4, Timestamp.valueOf(payment.getPaymentDate()));
+                } else {
+                    ps.setNull(4, Types.TIMESTAMP);
+                }
+                ps.setString(5, payment.getPaymentStatus().name());
+                ps.setString(6, payment.getTransactionId());
+                ps.setString(7, payment.getPaymentGatewayResponse());
+                ps.setLong(8, payment.getOrder().getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return payments.size();
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public List<Long> applyGatewayResults(List<GatewayResult> results) {
+        if (results == null || results.isEmpty()) {
+            return List.of();
+        }
+
+        int[] updatedRows = jdbcTemplate.batchUpdate(APPLY_GATEWAY_RESULT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                GatewayResult result = results.get(i);
+                ps.setString(1, result.status().name());
+                ps.setString(2, result.transactionId());
+                ps.setString(3, result.gatewayResponse());
+                ps.setLong(4, result.paymentId());
+                ps.setString(5, PaymentStatus.PENDING.name());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return results.size();
+            }
+        });
+
+        List<Long> conflicts = new ArrayList<>();
+        for (int i = 0; i < updatedRows.length; i++) {
+            if (updatedRows[i] == 0) {
+                conflicts.add(results.get(i).paymentId());
+            }
+        }
+        return conflicts;
+    }
+}
@@ -1,29 +1,87 @@
 package com.e_commerce.E_Commerce.REST.API.repository;
 
 import com.e_commerce.E_Commerce.REST.API.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product , Long> {
+public interface ProductRepository extends JpaRepository<Product , Long>, ProductRepositoryCustom {
+
+    // stock column plus the sub-counters of a sharded product, same as Product.stockOnHand()
+    String STOCK_ON_HAND = "(COALESCE(p.stockQuantity, 0) + CASE WHEN p.stockShardCount > 0 THEN " +
+            "(SELECT COALESCE(SUM(s.quantity), 0) FROM ProductStockShard s WHERE s.productId = p.id) ELSE 0 END)";
 
 
     boolean existsByName(String productName);
+
+    // set-based duplicate check for bulk imports, callers keep the list within Oracle's 1000 IN items
+    @Query("SELECT p.name FROM Product p WHERE p.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
     Page<Product> findByCategory(String category , Pageable pageable);
 
     Page<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice , Pageable pageable);
 
     Page<Product> findByNameStartingWithIgnoreCase(String name , Pageable pageable);
 
+    // keyset (seek) variants of the list queries above -> no COUNT, constant cost per slice
+    Window<Product> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Product> findByCategory(String category, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Product> findByNameStartingWithIgnoreCase(String name, ScrollPosition position, Sort sort, Limit limit);
+
+    // forward-only cursor for exports: rows arrive in fetch-size round trips, callers must close the stream
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAllForExport();
+
+    // facet cell of every product, without materialising entities
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id AS id, p.category AS category, p.price AS price, " + STOCK_ON_HAND + " AS stockQuantity FROM Product p")
+    Stream<ProductFacetRow> streamFacetRows();
+
+    @Query("SELECT p.id AS id, p.category AS category, p.price AS price, " + STOCK_ON_HAND + " AS stockQuantity " +
+            "FROM Product p WHERE p.id IN :ids")
+    List<ProductFacetRow> findFacetRows(@Param("ids") Collection<Long> ids);
+
+    // combined storefront filter; every null parameter is ignored. Returns a page without a COUNT,
+    // the caller already knows the total from the facet counts
+    @Query("SELECT p FROM Product p WHERE (:category IS NULL OR p.category = :category) " +
+            "AND (:minPrice IS NULL OR p.price >= :minPrice) AND (:maxPrice IS NULL OR p.price < :maxPrice) " +
+            "AND (:minStock IS NULL OR " + STOCK_ON_HAND + " >= :minStock) AND (:maxStock IS NULL OR " + STOCK_ON_HAND + " <= :maxStock)")
+    List<Product> filter(@Param("category") String category,
+                         @Param("minPrice") BigDecimal minPrice,
+                         @Param("maxPrice") BigDecimal maxPrice,
+                         @Param("minStock") Integer minStock,
+                         @Param("maxStock") Integer maxStock,
+                         Pageable pageable);
+
 
     @Modifying // tell jpa this is dml operation not select stat
     @Transactional // Required for DML operations (Update/Delete)
@@ -31,4 +89,36 @@ public interface ProductRepository extends JpaRepository<Product , Long> {
             "WHERE p.id = :id AND p.stockQuantity >= :quantity")
     int reduceStock(@Param("id") Long id, @Param("quantity") int quantity);
 
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity WHERE p.id = :id")
+    int restoreStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // the stock of a sharded product lives in its shards
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.stockQuantity = 0 WHERE p.id = :id")
+    int clearStock(@Param("id") Long id);
+
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockQuantityById(@Param("id") Long id);
+
+    @Query("SELECT p.stockShardCount FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockShardCountById(@Param("id") Long id);
+
+    // locks the product row for a reservation that takes the leftover row units and the shards together
+    @Query(value = "SELECT NVL(stock_quantity, 0) FROM products WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockStockQuantityById(@Param("id") Long id);
+
+    // locks the product row while its stock is split into shards or folded back
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    interface ProductFacetRow {
+        Long getId();
+        String getCategory();
+        BigDecimal getPrice();
+        Integer getStockQuantity();
+    }
 }
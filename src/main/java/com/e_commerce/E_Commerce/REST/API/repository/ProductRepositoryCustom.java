@@ -0,0 +1,53 @@
+package com.e_commerce.E_Commerce.REST.API.repository;
+
+import com.e_commerce.E_Commerce.REST.API.model.Product;
+
+import java.math.BigDecimal;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk stock and insert operations that Spring Data derived queries can not express.
+ * Implemented by {@link ProductRepositoryCustomImpl} and exposed through {@link ProductRepository}.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Reserves stock for many products in a single JDBC batch.
+     *
+     * @param quantities product id -> quantity to take from stock
+     * @return ids of the products whose stock could not cover the requested quantity
+     *         (empty when every reservation succeeded)
+     */
+    List<Long> reserveStock(Map<Long, Integer> quantities);
+
+    /**
+     * Applies already-admitted stock changes in a single JDBC batch, without the stock guard.
+     * Used to write back reservations that were admitted in memory.
+     *
+     * @param deltas product id -> units to subtract (negative values give stock back)
+     */
+    void applyStockDeltas(Map<Long, Long> deltas);
+
+    /**
+     * Inserts new products in a single JDBC batch, bypassing the persistence context.
+     * Ids are taken from {@code products_seq} one block of {@link Product#ID_ALLOCATION_SIZE}
+     * at a time, like Hibernate's pooled optimizer does, and written back to the products.
+     */
+    void insertAll(List<Product> products);
+
+    /**
+     * Applies many price / stock / active changes in a single JDBC batch, bypassing the
+     * persistence context. Inactive products are updated too, so a change can reactivate them.
+     *
+     * @return ids of the changes that matched no product
+     */
+    List<Long> updateAll(List<ProductChange> changes);
+
+    /**
+     * A change to one product; null fields keep their current value.
+     */
+    record ProductChange(Long id, BigDecimal price, Integer stockQuantity, Boolean active) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.e_commerce.E_Commerce.REST.API.repository;
+
+import com.e_commerce.E_Commerce.REST.API.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    // same guard as ProductRepository.reduceStock -> never lets stock go below zero
+    private static final String RESERVE_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ? " +
+            "WHERE id = ? AND stock_quantity >= ?";
+
+    private static final String APPLY_STOCK_DELTA_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ? WHERE id = ?";
+
+    private static final String INSERT_PRODUCT_SQL =
+            "INSERT INTO products (id, name, description, price, stock_quantity, category, img_url, created_at, active) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // one round trip for several id blocks; each NEXTVAL is the low end of a block
+    private static final String NEXT_ID_BLOCKS_SQL =
+            "SELECT products_seq.NEXTVAL FROM dual CONNECT BY LEVEL <= ?";
+
+    // a null parameter keeps the column as it is
+    private static final String UPDATE_PRODUCT_SQL =
+            "UPDATE products SET price = COALESCE(?, price), stock_quantity = COALESCE(?, stock_quantity), " +
+            "active = COALESCE(?, active) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> reserveStock(Map<Long, Integer> quantities) {
+        if (quantities == null || quantities.isEmpty()) {
+            return List.of();
+        }
+
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(quantities.entrySet());
+
+        // one round trip for the whole cart, runs on the caller's transaction connection
+        int[] updatedRows = jdbcTemplate.batchUpdate(RESERVE_STOCK_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<Long, Integer> entry = entries.get(i);
+                ps.setInt(1, entry.getValue());
+                ps.setLong(2, entry.getKey());
+                ps.setInt(3, entry.getValue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < updatedRows.length; i++) {
+            if (updatedRows[i] == 0) {
+                rejected.add(entries.get(i).getKey());
+            }
+        }
+        return rejected;
+    }
+
+    @Override
+    @Transactional
+    public void applyStockDeltas(Map<Long, Long> deltas) {
+        if (deltas == null || deltas.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(APPLY_STOCK_DELTA_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<Long, Long> entry = entries.get(i);
+                ps.setLong(1, entry.getValue());
+                ps.setLong(2, entry.getKey());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<Product> products) {
+        if (products == null || products.isEmpty()) {
+            return;
+        }
+
+        int blocks = (products.size() + Product.ID_ALLOCATION_SIZE - 1) / Product.ID_ALLOCATION_SIZE;
+        List<Long> blockStarts = jdbcTemplate.queryForList(NEXT_ID_BLOCKS_SQL, Long.class, blocks);
+        for (int i = 0; i < products.size(); i++) {
+            long blockStart = blockStarts.get(i / Product.ID_ALLOCATION_SIZE);
+            products.get(i).setId(blockStart + i % Product.ID_ALLOCATION_SIZE);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Product product = products.get(i);
+                ps.setLong(1, product.getId());
+                ps.setString(2, product.getName());
+                ps.setString(3, product.getDescription());
+                ps.setBigDecimal(4, product.getPrice());
+                ps.setInt(5, product.getStockQuantity());
+                ps.setString(6, product.getCategory());
+                ps.setString(7, product.getImgUrl());
+                ps.setTimestamp(8, Timestamp.valueOf(product.getCreatedAt()));
+                ps.setBoolean(9, product.isActive());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return products.size();
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public List<Long> updateAll(List<ProductChange> changes) {
+        if (changes == null || changes.isEmpty()) {
+            return List.of();
+        }
+
+        int[] updatedRows = jdbcTemplate.batchUpdate(UPDATE_PRODUCT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ProductChange change = changes.get(i);
+                ps.setObject(1, change.price(), Types.NUMERIC);
+                ps.setObject(2, change.stockQuantity(), Types.INTEGER);
+                ps.setObject(3, change.active(), Types.BOOLEAN);
+                ps.setLong(4, change.id());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return changes.size();
+            }
+        });
+
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < updatedRows.length; i++) {
+            if (updatedRows[i] == 0) {
+                missing.add(changes.get(i).id());
+            }
+        }
+        return missing;
+    }
+}
@@ -0,0 +1,54 @@
+package com.e_commerce.E_Commerce.REST.API.repository;
+
+import com.e_commerce.E_Commerce.REST.API.model.ProductStockShard;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, Long> {
+
+    // same guard as ProductRepository.reduceStock, on a single sub-counter
+    @Modifying
+    @Transactional
+    @Query("UPDATE ProductStockShard s SET s.quantity = s.quantity - :quantity " +
+            "WHERE s.productId = :productId AND s.shardNo = :shardNo AND s.quantity >= :quantity")
+    int reduceStock(@Param("productId") Long productId, @Param("shardNo") int shardNo, @Param("quantity") int quantity);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ProductStockShard s SET s.quantity = s.quantity + :quantity " +
+            "WHERE s.productId = :productId AND s.shardNo = :shardNo")
+    int restoreStock(@Param("productId") Long productId, @Param("shardNo") int shardNo, @Param("quantity") int quantity);
+
+    // locks every shard of the product, always in shard order so two lockers can not deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProductStockShard s WHERE s.productId = :productId ORDER BY s.shardNo")
+    List<ProductStockShard> findAllForUpdate(@Param("productId") Long productId);
+
+    // same lock and order, but the quantities come from the locked rows: shard entities already in the
+    // persistence context (loaded through Product.stockShards) would keep the quantities they were read with
+    @Query(value = "SELECT shard_no AS shardNo, quantity AS quantity FROM product_stock_shards " +
+            "WHERE product_id = :productId ORDER BY shard_no FOR UPDATE", nativeQuery = true)
+    List<ShardQuantity> lockQuantities(@Param("productId") Long productId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ProductStockShard s SET s.quantity = :quantity WHERE s.productId = :productId AND s.shardNo = :shardNo")
+    int setQuantity(@Param("productId") Long productId, @Param("shardNo") int shardNo, @Param("quantity") int quantity);
+
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM ProductStockShard s WHERE s.productId = :productId")
+    long sumQuantity(@Param("productId") Long productId);
+
+    interface ShardQuantity {
+        int getShardNo();
+        int getQuantity();
+    }
+}
@@ -0,0 +1,260 @@
+package com.e_commerce.E_Commerce.REST.API.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory facet counts over the active catalog.
+ * <p>
+ * Every product is reduced to a (category, price bucket, in stock) cell and the index keeps one
+ * counter per cell. Facet counts for any combination of filters are sums over that small table,
+ * so no request ever runs a {@code GROUP BY}. Each facet ignores its own filter and applies the
+ * others (selecting a category still shows how many products the other categories have).
+ */
+public class ProductFacetIndex {
+
+    public static final String IN_STOCK = "inStock";
+    public static final String OUT_OF_STOCK = "outOfStock";
+
+    // category id 0 collects products without a category; it is left out of the category facet
+    private static final int NO_CATEGORY = 0;
+
+    private final List<PriceBucket> priceBuckets;
+    private final BigDecimal[] upperBounds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> categoryIds = new HashMap<>();
+    private final List<String> categoryNames = new ArrayList<>();
+    // [category id][price bucket * 2 + (in stock ? 1 : 0)]
+    private int[][] cells = new int[16][];
+    private final Map<Long, Cell> cellByProduct = new HashMap<>();
+
+    /**
+     * @param upperBounds ascending bucket limits; n limits give n + 1 buckets, the last one open-ended
+     */
+    public ProductFacetIndex(BigDecimal... upperBounds) {
+        this.upperBounds = upperBounds.clone();
+        List<PriceBucket> buckets = new ArrayList<>(upperBounds.length + 1);
+        BigDecimal lower = BigDecimal.ZERO;
+        for (BigDecimal upper : this.upperBounds) {
+            if (upper.compareTo(lower) <= 0) {
+                throw new IllegalArgumentException("price bucket limits must be positive and ascending");
+            }
+            buckets.add(new PriceBucket(label(lower) + "-" + label(upper), lower, upper));
+            lower = upper;
+        }
+        buckets.add(new PriceBucket(label(lower) + "+", lower, null));
+        this.priceBuckets = List.copyOf(buckets);
+
+        categoryNames.add(null);
+        cells[NO_CATEGORY] = new int[priceBuckets.size() * 2];
+    }
+
+    /**
+     * Adds the product, or moves it to its new cell.
+     */
+    public void put(long productId, String category, BigDecimal price, int stockQuantity) {
+        lock.writeLock().lock();
+        try {
+            Cell cell = new Cell(categoryId(category), bucketOf(price), stockQuantity);
+            Cell previous = cellByProduct.put(productId, cell);
+            if (previous != null) {
+                count(previous, -1);
+            }
+            count(cell, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            Cell previous = cellByProduct.remove(productId);
+            if (previous != null) {
+                count(previous, -1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a stock movement; the product only changes cell when it sells out or is restocked.
+     *
+     * @param units units taken from stock (negative values give stock back)
+     */
+    public void takeStock(long productId, int units) {
+        lock.writeLock().lock();
+        try {
+            Cell previous = cellByProduct.get(productId);
+            if (previous == null) {
+                return;
+            }
+            Cell cell = new Cell(previous.category(), previous.bucket(), previous.stockQuantity() - units);
+            cellByProduct.put(productId, cell);
+            if (cell.inStock() != previous.inStock()) {
+                count(previous, -1);
+                count(cell, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return cellByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<PriceBucket> priceBuckets() {
+        return priceBuckets;
+    }
+
+    public Optional<PriceBucket> priceBucket(String label) {
+        return priceBuckets.stream().filter(bucket -> bucket.label().equals(label)).findFirst();
+    }
+
+    /**
+     * @param category    exact category, or null for all
+     * @param priceBucket bucket label, or null for all prices
+     * @param inStock     availability, or null for both
+     */
+    public Facets facets(String category, String priceBucket, Boolean inStock) {
+        int bucketFilter = priceBucket == null ? -1 : priceBuckets.indexOf(priceBucket(priceBucket)
+                .orElseThrow(() -> new IllegalArgumentException("unknown price bucket " + priceBucket)));
+
+        lock.readLock().lock();
+        try {
+            Integer categoryFilter = category == null ? null : categoryIds.get(category);
+            if (category != null && categoryFilter == null) {
+                // unknown category: nothing matches it, the other facets still apply
+                categoryFilter = -1;
+            }
+
+            long matching = 0;
+            long[] byCategory = new long[categoryNames.size()];
+            long[] byBucket = new long[priceBuckets.size()];
+            long[] byAvailability = new long[2];
+
+            for (int c = 0; c < categoryNames.size(); c++) {
+                boolean categoryMatches = categoryFilter == null || categoryFilter == c;
+                int[] row = cells[c];
+                for (int b = 0; b < priceBuckets.size(); b++) {
+                    boolean bucketMatches = bucketFilter < 0 || bucketFilter == b;
+                    for (int s = 0; s < 2; s++) {
+                        int count = row[b * 2 + s];
+                        if (count == 0) {
+                            continue;
+                        }
+                        boolean stockMatches = inStock == null || inStock == (s == 1);
+                        if (bucketMatches && stockMatches) {
+                            byCategory[c] += count;
+                        }
+                        if (categoryMatches && stockMatches) {
+                            byBucket[b] += count;
+                        }
+                        if (categoryMatches && bucketMatches) {
+                            byAvailability[s] += count;
+                            if (stockMatches) {
+                                matching += count;
+                            }
+                        }
+                    }
+                }
+            }
+
+            List<FacetCount> categories = new ArrayList<>();
+            for (int c = NO_CATEGORY + 1; c < byCategory.length; c++) {
+                if (byCategory[c] > 0) {
+                    categories.add(new FacetCount(categoryNames.get(c), byCategory[c]));
+                }
+            }
+            categories.sort(Comparator.comparingLong(FacetCount::count).reversed().thenComparing(FacetCount::value));
+
+            List<FacetCount> prices = new ArrayList<>(priceBuckets.size());
+            for (int b = 0; b < priceBuckets.size(); b++) {
+                prices.add(new FacetCount(priceBuckets.get(b).label(), byBucket[b]));
+            }
+
+            List<FacetCount> availability = List.of(
+                    new FacetCount(IN_STOCK, byAvailability[1]),
+                    new FacetCount(OUT_OF_STOCK, byAvailability[0]));
+            return new Facets(matching, categories, prices, availability);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private int categoryId(String category) {
+        if (category == null) {
+            return NO_CATEGORY;
+        }
+        Integer id = categoryIds.get(category);
+        if (id == null) {
+            id = categoryNames.size();
+            categoryIds.put(category, id);
+            categoryNames.add(category);
+            if (id == cells.length) {
+                cells = Arrays.copyOf(cells, id * 2);
+            }
+            cells[id] = new int[priceBuckets.size() * 2];
+        }
+        return id;
+    }
+
+    private int bucketOf(BigDecimal price) {
+        if (price == null) {
+            return 0;
+        }
+        int bucket = 0;
+        while (bucket < upperBounds.length && price.compareTo(upperBounds[bucket]) >= 0) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private void count(Cell cell, int delta) {
+        cells[cell.category()][cell.bucket() * 2 + (cell.inStock() ? 1 : 0)] += delta;
+    }
+
+    private static String label(BigDecimal amount) {
+        return amount.stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Prices from {@code min} (inclusive) up to {@code max} (exclusive); the last bucket has no max.
+     */
+    public record PriceBucket(String label, BigDecimal min, BigDecimal max) {
+    }
+
+    public record FacetCount(String value, long count) {
+    }
+
+    /**
+     * @param matching products matching every filter
+     */
+    public record Facets(long matching, List<FacetCount> categories, List<FacetCount> prices,
+                         List<FacetCount> availability) {
+    }
+
+    private record Cell(int category, int bucket, int stockQuantity) {
+
+        private boolean inStock() {
+            return stockQuantity > 0;
+        }
+    }
+}
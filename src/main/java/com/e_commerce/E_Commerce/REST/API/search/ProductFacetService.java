@@ -0,0 +1,175 @@
+package com.e_commerce.E_Commerce.REST.API.search;
+
+import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
+import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
+import com.e_commerce.E_Commerce.REST.API.model.Product;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository.ProductFacetRow;
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetIndex.Facets;
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetIndex.PriceBucket;
+import com.e_commerce.E_Commerce.REST.API.util.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@link ProductFacetIndex} in sync with the products table.
+ * <p>
+ * The index is loaded after startup from a projection of every active product; facets answer
+ * 503 until then. Afterwards product writes and stock movements from the reservation ledger are
+ * applied once their transaction commits. Writes that commit while the load is running are not
+ * applied directly; their products are re-read when the load finishes instead, so a write is
+ * never counted twice or lost behind an older row of the load.
+ * <p>
+ * Counts follow this node's writes; with the stock ledger enabled, reservations not yet flushed
+ * at load time are missing from the loaded stock until the product is written again.
+ */
+@Slf4j
+@Component
+public class ProductFacetService {
+
+    private final ProductFacetIndex index;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Object loadMonitor = new Object();
+    private Set<Long> touchedDuringLoad = new HashSet<>();
+    private boolean loading;
+    private volatile boolean ready;
+
+    public ProductFacetService(
+            ProductRepository productRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.facets.price-buckets:25,50,100,250,500,1000}") BigDecimal[] priceBuckets
+    ) {
+        this.index = new ProductFacetIndex(priceBuckets);
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread load = new Thread(this::load, "product-facets-load");
+        load.setDaemon(true);
+        load.start();
+    }
+
+    public Facets facets(String category, PriceBucket priceBucket, Boolean inStock) {
+        if (!ready) {
+            throw new ValidationException(ErrorCode.SERVICE_UNAVAILABLE, "Product facets are still loading");
+        }
+        return index.facets(category, priceBucket == null ? null : priceBucket.label(), inStock);
+    }
+
+    public PriceBucket priceBucket(String label) {
+        return index.priceBucket(label).orElseThrow(() -> new ValidationException(ErrorCode.INVALID_INPUT_FORMAT,
+                "Unknown price range '" + label + "', expected one of " +
+                        index.priceBuckets().stream().map(PriceBucket::label).toList()));
+    }
+
+    /**
+     * Moves the product to its current cell, or drops it if it is inactive, once the transaction commits.
+     */
+    public void putAfterCommit(Product product) {
+        long productId = product.getId();
+        if (!product.isActive()) {
+            removeAfterCommit(productId);
+            return;
+        }
+        String category = product.getCategory();
+        BigDecimal price = product.getPrice();
+        int stockQuantity = product.getStockQuantity() == null ? 0 : product.getStockQuantity();
+        afterCommit(productId, () -> index.put(productId, category, price, stockQuantity));
+    }
+
+    /**
+     * Same as {@link #putAfterCommit(Product)} for a product read as a projection; only active
+     * products are ever read that way.
+     */
+    public void putAfterCommit(ProductFacetRow row) {
+        afterCommit(row.getId(), () -> put(row));
+    }
+
+    public void removeAfterCommit(long productId) {
+        afterCommit(productId, () -> index.remove(productId));
+    }
+
+    /**
+     * @param units units taken from stock (negative values give stock back)
+     */
+    public void takeStockAfterCommit(long productId, int units) {
+        afterCommit(productId, () -> index.takeStock(productId, units));
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    void load() {
+        synchronized (loadMonitor) {
+            loading = true;
+        }
+        long started = System.nanoTime();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductFacetRow> rows = productRepository.streamFacetRows()) {
+                    rows.forEach(this::put);
+                }
+            });
+            reloadTouched();
+            ready = true;
+            log.info("product facets loaded for {} products in {} ms",
+                    index.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            synchronized (loadMonitor) {
+                loading = false;
+            }
+            log.error("loading product facets failed, facets stay unavailable", e);
+        }
+    }
+
+    /**
+     * Re-reads the products written during the load until a round sees no new writes.
+     */
+    private void reloadTouched() {
+        while (true) {
+            Set<Long> touched;
+            synchronized (loadMonitor) {
+                if (touchedDuringLoad.isEmpty()) {
+                    loading = false;
+                    return;
+                }
+                touched = touchedDuringLoad;
+                touchedDuringLoad = new HashSet<>();
+            }
+            touched.forEach(index::remove);
+            readOnlyTransaction.executeWithoutResult(status ->
+                    productRepository.findFacetRows(touched).forEach(this::put));
+        }
+    }
+
+    private void put(ProductFacetRow row) {
+        index.put(row.getId(), row.getCategory(), row.getPrice(),
+                row.getStockQuantity() == null ? 0 : row.getStockQuantity());
+    }
+
+    private void afterCommit(long productId, Runnable change) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (loadMonitor) {
+                if (loading) {
+                    touchedDuringLoad.add(productId);
+                    return;
+                }
+            }
+            change.run();
+        });
+    }
+}
@@ -0,0 +1,457 @@
+package com.e_commerce.E_Commerce.REST.API.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product name, description and category.
+ * <p>
+ * Every term maps to a postings list of internal doc ids (ascending) with a precomputed BM25
+ * field-weighted term weight, so a query only multiplies by the term's idf and sums. Query terms
+ * are ANDed; each one matches its exact term, terms one edit away (typos, via a deletion
+ * neighbourhood map instead of scanning the vocabulary) and, for the last term, every term it
+ * prefixes (search-as-you-type), with fuzzy and prefix matches scored lower.
+ * <p>
+ * Updates mark the old doc deleted and append a new one; deleted docs are purged by compacting
+ * once they make up a quarter of the index. Reads share a read lock, writes take the write lock.
+ */
+public class ProductSearchIndex {
+
+    static final float NAME_BOOST = 3.0f;
+    static final float CATEGORY_BOOST = 2.0f;
+    static final float DESCRIPTION_BOOST = 1.0f;
+    static final float FUZZY_FACTOR = 0.5f;
+    static final float PREFIX_FACTOR = 0.7f;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_DELETED_FOR_COMPACTION = 1024;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "for", "in", "of", "on", "or", "the", "to", "with");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    // term with one character removed -> terms it came from
+    private final Map<String, Set<String>> deletions = new HashMap<>();
+    private final Map<Long, Integer> docByProduct = new HashMap<>();
+    private long[] productByDoc = new long[1024];
+    private final BitSet deleted = new BitSet();
+    private int nextDoc;
+
+    private final FieldLengths nameLengths = new FieldLengths();
+    private final FieldLengths categoryLengths = new FieldLengths();
+    private final FieldLengths descriptionLengths = new FieldLengths();
+
+    /**
+     * Adds or replaces the product's document.
+     */
+    public void index(long productId, String name, String description, String category) {
+        List<String> nameTokens = tokenize(name);
+        List<String> categoryTokens = tokenize(category);
+        List<String> descriptionTokens = tokenize(description);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+
+            Map<String, Float> weights = new HashMap<>();
+            addFieldWeights(weights, nameTokens, NAME_BOOST, nameLengths.add(nameTokens.size()));
+            addFieldWeights(weights, categoryTokens, CATEGORY_BOOST, categoryLengths.add(categoryTokens.size()));
+            addFieldWeights(weights, descriptionTokens, DESCRIPTION_BOOST, descriptionLengths.add(descriptionTokens.size()));
+
+            int doc = nextDoc++;
+            if (doc == productByDoc.length) {
+                productByDoc = Arrays.copyOf(productByDoc, doc * 2);
+            }
+            productByDoc[doc] = productId;
+            docByProduct.put(productId, doc);
+            weights.forEach((term, weight) -> postingsFor(term).add(doc, weight));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long productId) {
+        lock.readLock().lock();
+        try {
+            return docByProduct.containsKey(productId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param offset number of top hits to skip
+     * @param limit  number of hits to return
+     * @return product ids of the requested slice, best first, and the total number of hits
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTerms.isEmpty()) {
+            return SearchResult.EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            int liveDocs = docByProduct.size();
+            List<List<Expansion>> clauses = new ArrayList<>(queryTerms.size());
+            for (int i = 0; i < queryTerms.size(); i++) {
+                List<Expansion> expansions = expand(queryTerms.get(i), i == queryTerms.size() - 1, liveDocs);
+                if (expansions.isEmpty()) {
+                    return SearchResult.EMPTY;
+                }
+                clauses.add(expansions);
+            }
+            // start from the most selective clause, so later clauses only probe few candidates
+            clauses.sort(Comparator.comparingLong(ProductSearchIndex::postingsSize));
+
+            Map<Integer, Float> scores = scoreFirstClause(clauses.get(0));
+            for (int i = 1; i < clauses.size() && !scores.isEmpty(); i++) {
+                List<Expansion> clause = clauses.get(i);
+                scores.entrySet().removeIf(candidate -> {
+                    float best = bestScore(clause, candidate.getKey());
+                    if (best == 0) {
+                        return true;
+                    }
+                    candidate.setValue(candidate.getValue() + best);
+                    return false;
+                });
+            }
+            return topHits(scores, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private void addFieldWeights(Map<String, Float> weights, List<String> tokens, float boost, float averageLength) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokens.forEach(token -> frequencies.merge(token, 1, Integer::sum));
+
+        float lengthNorm = K1 * (1 - B + B * tokens.size() / averageLength);
+        frequencies.forEach((term, tf) ->
+                weights.merge(term, boost * tf * (K1 + 1) / (tf + lengthNorm), Float::sum));
+    }
+
+    private Postings postingsFor(String term) {
+        Postings postings = terms.get(term);
+        if (postings == null) {
+            postings = new Postings();
+            terms.put(term, postings);
+            for (String deletion : deletionsOf(term)) {
+                deletions.computeIfAbsent(deletion, key -> new HashSet<>(2)).add(term);
+            }
+        }
+        return postings;
+    }
+
+    private void removeLocked(long productId) {
+        Integer doc = docByProduct.remove(productId);
+        if (doc != null) {
+            deleted.set(doc);
+        }
+    }
+
+    /**
+     * Rewrites every postings list without deleted docs and renumbers the live ones.
+     */
+    private void compactIfNeeded() {
+        int deletedDocs = deleted.cardinality();
+        if (deletedDocs < MIN_DELETED_FOR_COMPACTION || deletedDocs * 4 < nextDoc) {
+            return;
+        }
+
+        int[] newDocs = new int[nextDoc];
+        int live = 0;
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (deleted.get(doc)) {
+                newDocs[doc] = -1;
+            } else {
+                newDocs[doc] = live;
+                productByDoc[live] = productByDoc[doc];
+                docByProduct.put(productByDoc[live], live);
+                live++;
+            }
+        }
+
+        var iterator = terms.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            if (!entry.getValue().compact(newDocs)) {
+                iterator.remove();
+                for (String deletion : deletionsOf(entry.getKey())) {
+                    Set<String> sources = deletions.get(deletion);
+                    if (sources != null && sources.remove(entry.getKey()) && sources.isEmpty()) {
+                        deletions.remove(deletion);
+                    }
+                }
+            }
+        }
+        deleted.clear();
+        nextDoc = live;
+    }
+
+    private List<Expansion> expand(String queryTerm, boolean lastTerm, int liveDocs) {
+        Map<String, Float> matched = new LinkedHashMap<>();
+        if (terms.containsKey(queryTerm)) {
+            matched.put(queryTerm, 1.0f);
+        }
+        if (lastTerm && queryTerm.length() >= MIN_PREFIX_LENGTH) {
+            int expansions = 0;
+            for (String term : terms.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).keySet()) {
+                if (expansions++ == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                matched.putIfAbsent(term, PREFIX_FACTOR);
+            }
+        }
+        if (queryTerm.length() >= MIN_FUZZY_LENGTH) {
+            for (String term : oneEditAway(queryTerm)) {
+                matched.putIfAbsent(term, FUZZY_FACTOR);
+            }
+        }
+
+        List<Expansion> expansions = new ArrayList<>(matched.size());
+        matched.forEach((term, factor) -> {
+            Postings postings = terms.get(term);
+            expansions.add(new Expansion(postings, factor * idf(postings.size, liveDocs)));
+        });
+        return expansions;
+    }
+
+    /**
+     * Vocabulary terms within one insertion, deletion, substitution or adjacent transposition.
+     */
+    private Set<String> oneEditAway(String queryTerm) {
+        Set<String> candidates = new HashSet<>(deletions.getOrDefault(queryTerm, Set.of()));
+        for (String deletion : deletionsOf(queryTerm)) {
+            if (terms.containsKey(deletion)) {
+                candidates.add(deletion);
+            }
+            candidates.addAll(deletions.getOrDefault(deletion, Set.of()));
+        }
+        candidates.remove(queryTerm);
+        candidates.removeIf(term -> !withinOneEdit(queryTerm, term));
+        return candidates;
+    }
+
+    private Map<Integer, Float> scoreFirstClause(List<Expansion> clause) {
+        Map<Integer, Float> scores = new HashMap<>();
+        for (Expansion expansion : clause) {
+            Postings postings = expansion.postings();
+            for (int i = 0; i < postings.size; i++) {
+                int doc = postings.docs[i];
+                if (!deleted.get(doc)) {
+                    scores.merge(doc, expansion.factor() * postings.weights[i], Math::max);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static float bestScore(List<Expansion> clause, int doc) {
+        float best = 0;
+        for (Expansion expansion : clause) {
+            float weight = expansion.postings().weightOf(doc);
+            if (weight > 0) {
+                best = Math.max(best, expansion.factor() * weight);
+            }
+        }
+        return best;
+    }
+
+    private SearchResult topHits(Map<Integer, Float> scores, int offset, int limit) {
+        int wanted = offset + limit;
+        if (scores.isEmpty() || limit <= 0) {
+            return new SearchResult(scores.size(), List.of());
+        }
+
+        // min-heap of the best `wanted` hits; ties go to the lower product id
+        Comparator<Map.Entry<Integer, Float>> ranking = Map.Entry.<Integer, Float>comparingByValue()
+                .thenComparing(entry -> -productByDoc[entry.getKey()]);
+        PriorityQueue<Map.Entry<Integer, Float>> best = new PriorityQueue<>(Math.min(wanted, scores.size()) + 1, ranking);
+        for (Map.Entry<Integer, Float> entry : scores.entrySet()) {
+            best.offer(entry);
+            if (best.size() > wanted) {
+                best.poll();
+            }
+        }
+
+        // the heap pops worst first, so fill the slice from its end
+        int hits = Math.max(0, best.size() - offset);
+        Long[] productIds = new Long[hits];
+        for (int rank = best.size() - 1; rank >= offset; rank--) {
+            productIds[rank - offset] = productByDoc[best.poll().getKey()];
+        }
+        return new SearchResult(scores.size(), List.of(productIds));
+    }
+
+    private static float idf(int documentFrequency, int liveDocs) {
+        return (float) Math.log(1 + (liveDocs - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static long postingsSize(List<Expansion> clause) {
+        long size = 0;
+        for (Expansion expansion : clause) {
+            size += expansion.postings().size;
+        }
+        return size;
+    }
+
+    private static List<String> deletionsOf(String term) {
+        if (term.length() < MIN_FUZZY_LENGTH - 1) {
+            return List.of();
+        }
+        List<String> variants = new ArrayList<>(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return variants;
+    }
+
+    static boolean withinOneEdit(String a, String b) {
+        int lengthDifference = a.length() - b.length();
+        if (Math.abs(lengthDifference) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < a.length() && i < b.length() && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (lengthDifference > 0) {
+            return a.substring(i + 1).equals(b.substring(i));
+        }
+        if (lengthDifference < 0) {
+            return a.substring(i).equals(b.substring(i + 1));
+        }
+        if (i == a.length()) {
+            return true;
+        }
+        // substitution or adjacent transposition
+        return a.substring(i + 1).equals(b.substring(i + 1))
+                || (i + 1 < a.length()
+                && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                && a.substring(i + 2).equals(b.substring(i + 2)));
+    }
+
+    public record SearchResult(long totalHits, List<Long> productIds) {
+        static final SearchResult EMPTY = new SearchResult(0, List.of());
+    }
+
+    private record Expansion(Postings postings, float factor) {
+    }
+
+    /**
+     * Running average token count of one field, used for BM25 length normalisation.
+     */
+    private static final class FieldLengths {
+        private long documents;
+        private long tokens;
+
+        private float add(int length) {
+            documents++;
+            tokens += length;
+            return Math.max(1f, (float) tokens / documents);
+        }
+    }
+
+    /**
+     * Doc ids in ascending order with their term weights, in parallel growable arrays.
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        private void add(int doc, float weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+
+        private float weightOf(int doc) {
+            int index = Arrays.binarySearch(docs, 0, size, doc);
+            return index >= 0 ? weights[index] : 0;
+        }
+
+        /**
+         * @return false if no live doc is left
+         */
+        private boolean compact(int[] newDocs) {
+            int live = 0;
+            for (int i = 0; i < size; i++) {
+                int newDoc = newDocs[docs[i]];
+                if (newDoc >= 0) {
+                    docs[live] = newDoc;
+                    weights[live] = weights[i];
+                    live++;
+                }
+            }
+            size = live;
+            return live > 0;
+        }
+    }
+}
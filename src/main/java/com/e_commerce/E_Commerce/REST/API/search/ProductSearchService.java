@@ -0,0 +1,148 @@
+package com.e_commerce.E_Commerce.REST.API.search;
+
+import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
+import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
+import com.e_commerce.E_Commerce.REST.API.model.Product;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository;
+import com.e_commerce.E_Commerce.REST.API.search.ProductSearchIndex.SearchResult;
+import com.e_commerce.E_Commerce.REST.API.util.TransactionCallbacks;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@link ProductSearchIndex} in sync with the products table.
+ * <p>
+ * The index is built once after startup by streaming every active product, on a background
+ * thread so startup is not delayed; searches answer 503 until it is done. Afterwards product
+ * writes update it incrementally once their transaction commits. A product written while the
+ * rebuild is running is skipped by the rebuild, since the stream may have read an older version.
+ */
+@Slf4j
+@Component
+public class ProductSearchService {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxResultWindow;
+
+    // orders a live write against the rebuild indexing the same product from an older read
+    private final Object rebuildMonitor = new Object();
+    private final Set<Long> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    public ProductSearchService(
+            ProductRepository productRepository,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.search.max-result-window:1000}") int maxResultWindow
+    ) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxResultWindow = maxResultWindow;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        Thread rebuild = new Thread(this::rebuild, "product-search-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
+
+    /**
+     * @param offset number of top hits to skip
+     * @param limit  number of hits to return
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        if (!ready) {
+            throw new ValidationException(ErrorCode.SERVICE_UNAVAILABLE, "Product search index is still loading");
+        }
+        if ((long) offset + limit > maxResultWindow) {
+            throw new ValidationException(ErrorCode.INVALID_PAGINATION_PARAMETER,
+                    "Search results are limited to the first " + maxResultWindow + " hits, refine the query");
+        }
+        return index.search(query, offset, limit);
+    }
+
+    /**
+     * (Re)indexes the product, or drops it if it is inactive, once the current transaction commits.
+     */
+    public void indexAfterCommit(Product product) {
+        long productId = product.getId();
+        if (!product.isActive()) {
+            removeAfterCommit(productId);
+            return;
+        }
+        String name = product.getName();
+        String description = product.getDescription();
+        String category = product.getCategory();
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (rebuildMonitor) {
+                markTouched(productId);
+                index.index(productId, name, description, category);
+            }
+        });
+    }
+
+    public void removeAfterCommit(long productId) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (rebuildMonitor) {
+                markTouched(productId);
+                index.remove(productId);
+            }
+        });
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    void rebuild() {
+        rebuilding = true;
+        long started = System.nanoTime();
+        try {
+            Long indexed = readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<Product> products = productRepository.streamAllForExport()) {
+                    for (Product product : (Iterable<Product>) products::iterator) {
+                        synchronized (rebuildMonitor) {
+                            if (!touchedDuringRebuild.contains(product.getId())) {
+                                index.index(product.getId(), product.getName(), product.getDescription(), product.getCategory());
+                                count++;
+                            }
+                        }
+                        // the open cursor is not affected, and the persistence context stays small
+                        entityManager.detach(product);
+                    }
+                }
+                return count;
+            });
+            ready = true;
+            log.info("product search index built with {} products in {} ms",
+                    indexed, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("building the product search index failed, search stays unavailable", e);
+        } finally {
+            rebuilding = false;
+            touchedDuringRebuild.clear();
+        }
+    }
+
+    private void markTouched(long productId) {
+        if (rebuilding) {
+            touchedDuringRebuild.add(productId);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.e_commerce.E_Commerce.REST.API.exception.customer.CustomerNotFoundExc
 import com.e_commerce.E_Commerce.REST.API.mapper.CustomerMapper;
 import com.e_commerce.E_Commerce.REST.API.model.Customer;
 import com.e_commerce.E_Commerce.REST.API.repository.CustomerRepository;
+import com.e_commerce.E_Commerce.REST.API.util.PaginationUtility;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -26,6 +27,16 @@ public class CustomerService {
     private final CustomerMapper customerMapper;
 
     public PaginationResponseDto<CustomerResponseDTO> getAllCustomers(PaginationRequestDto paginationRequestDto) {
+        if (paginationRequestDto.isKeyset()) {
+            return PaginationUtility.read(
+                    paginationRequestDto,
+                    Customer.class,
+                    customerRepository::findAll,
+                    customerRepository::findAllBy,
+                    customerMapper::toResponse
+            );
+        }
+
         Pageable pageable = PageRequest.of(
                 paginationRequestDto.getPage(),
                 paginationRequestDto.getSize(),
@@ -43,7 +54,9 @@ public class CustomerService {
                 page.hasNext(),
                 page.hasPrevious(),
                 page.isFirst(),
-                page.isLast());
+                page.isLast(),
+                null,
+                null);
         return new PaginationResponseDto<>(content, metadata);
     }
 
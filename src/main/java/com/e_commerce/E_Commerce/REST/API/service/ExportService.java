@@ -0,0 +1,160 @@
+package com.e_commerce.E_Commerce.REST.API.service;
+
+import com.e_commerce.E_Commerce.REST.API.mapper.OrderMapper;
+import com.e_commerce.E_Commerce.REST.API.mapper.ProductMapper;
+import com.e_commerce.E_Commerce.REST.API.model.Order;
+import com.e_commerce.E_Commerce.REST.API.model.Product;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderItemRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables as newline-delimited JSON.
+ * <p>
+ * Rows come from a forward-only cursor, are handled in fixed-size chunks (children of a chunk
+ * are loaded with one IN query) and the persistence context is cleared after every chunk,
+ * so memory stays flat no matter how many rows are exported.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    static final int CHUNK_SIZE = 500;
+    private static final int OUTPUT_BUFFER_BYTES = 64 * 1024;
+
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductMapper productMapper;
+    private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    /**
+     * @return number of exported products
+     */
+    @Transactional(readOnly = true)
+    public long exportProducts(OutputStream out) throws IOException {
+        try (Stream<Product> products = productRepository.streamAllForExport();
+             NdjsonWriter writer = new NdjsonWriter(out)) {
+
+            long exported = forEachChunk(products, chunk -> {
+                Map<Long, Integer> totalOrders = countOrders(chunk);
+                for (Product product : chunk) {
+                    writer.write(productMapper.toResponseDTO(product, totalOrders.getOrDefault(product.getId(), 0)));
+                }
+            });
+            log.info("exported {} products", exported);
+            return exported;
+        }
+    }
+
+    /**
+     * @return number of exported orders
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(OutputStream out) throws IOException {
+        try (Stream<Order> orders = orderRepository.streamAllForExport();
+             NdjsonWriter writer = new NdjsonWriter(out)) {
+
+            long exported = forEachChunk(orders, chunk -> {
+                orderRepository.findAllWithItemsAndProducts(chunk.stream().map(Order::getId).toList());
+                for (Order order : chunk) {
+                    writer.write(orderMapper.toResponseDTO(order));
+                }
+            });
+            log.info("exported {} orders", exported);
+            return exported;
+        }
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private <T> long forEachChunk(Stream<T> rows, Consumer<List<T>> chunkHandler) {
+        long total = 0;
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == CHUNK_SIZE) {
+                total += flushChunk(chunk, chunkHandler);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            total += flushChunk(chunk, chunkHandler);
+        }
+        return total;
+    }
+
+    private <T> int flushChunk(List<T> chunk, Consumer<List<T>> chunkHandler) {
+        chunkHandler.accept(chunk);
+        int size = chunk.size();
+        chunk.clear();
+        // detach everything read so far; the open cursor is not affected
+        entityManager.clear();
+        return size;
+    }
+
+    private Map<Long, Integer> countOrders(List<Product> products) {
+        Map<Long, Integer> totalOrders = new HashMap<>();
+        List<Long> productIds = products.stream().map(Product::getId).toList();
+        for (OrderItemRepository.ProductOrderCount count : orderItemRepository.countByProductIds(productIds)) {
+            totalOrders.put(count.getProductId(), Math.toIntExact(count.getTotalOrders()));
+        }
+        return totalOrders;
+    }
+
+    /**
+     * One JSON document per line, buffered, without flushing after every row.
+     */
+    private final class NdjsonWriter implements AutoCloseable {
+
+        private final JsonGenerator generator;
+        private final ObjectWriter rowWriter;
+
+        private NdjsonWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory()
+                    .createGenerator(new BufferedOutputStream(out, OUTPUT_BUFFER_BYTES))
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+            this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        private void write(Object row) {
+            try {
+                rowWriter.writeValue(generator, row);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            // flushes the buffer, the response stream itself stays open for the container
+            generator.close();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.e_commerce.E_Commerce.REST.API.service;
 
+import com.e_commerce.E_Commerce.REST.API.cache.ProductCatalogCache;
 import com.e_commerce.E_Commerce.REST.API.dto.request.OrderItemCreateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.request.OrderItemUpdateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.response.OrderItemResponseDTO;
@@ -10,6 +11,7 @@ import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
 import com.e_commerce.E_Commerce.REST.API.exception.order.OrderNotFoundException;
 import com.e_commerce.E_Commerce.REST.API.exception.orderItem.OrderItemsEmptyException;
 import com.e_commerce.E_Commerce.REST.API.exception.product.ProductNotFoundException;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockReservationLedger;
 import com.e_commerce.E_Commerce.REST.API.mapper.OrderItemMapper;
 import com.e_commerce.E_Commerce.REST.API.model.Order;
 import com.e_commerce.E_Commerce.REST.API.model.OrderItem;
@@ -35,6 +37,8 @@ public class OrderItemService {
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final OrderItemValidator orderItemValidator;
+    private final StockReservationLedger stockLedger;
+    private final ProductCatalogCache catalogCache;
 
     @Transactional(readOnly = true)
     public OrderItemResponseDTO getOrderItemById(Long orderId, Long orderItemId) {
@@ -66,13 +70,13 @@ public class OrderItemService {
         // Validate no duplicate product in order
         validateNoDuplicateProductInOrder(orderId, product.getId());
 
+        // Reserve product stock
+        reserveProductStock(product.getId(), requestDTO.getQuantity());
+
         // Create and save order item
         OrderItem orderItem = orderItemMapper.createOrderItem(requestDTO, product, order);
         OrderItem saved = orderItemRepository.save(orderItem);
 
-        // Update product stock
-        updateProductStock(product, requestDTO.getQuantity());
-
         // Update order total
         updateOrderTotal(order, orderItemMapper.calculateItemTotal(saved));
 
@@ -101,11 +105,13 @@ public class OrderItemService {
 
         if (diff == 0) return orderItemMapper.toResponseDTO(orderItem);
 
-        // 4. ATOMIC STOCK UPDATE (The Fix)
-        int updatedRows = productRepository.reduceStock(orderItem.getProduct().getId(), diff);
-
-        if (updatedRows == 0) {
-            throw new ValidationException(ErrorCode.PRODUCT_INSUFFICIENT_STOCK);
+        // 4. ATOMIC STOCK UPDATE
+        Long productId = orderItem.getProduct().getId();
+        if (diff > 0) {
+            reserveProductStock(productId, diff);
+        } else {
+            stockLedger.release(productId, -diff);
+            catalogCache.invalidateProduct(productId);
         }
 
         // 5. Update OrderItem and Order Totals
@@ -219,20 +225,17 @@ public class OrderItemService {
         }
     }
 
-    private void updateProductStock(Product product, Integer quantityChange) {
-        int newStock = product.getStockQuantity() - quantityChange;
-        if (newStock < 0) {
+    private void reserveProductStock(Long productId, int quantity) {
+        if (!stockLedger.reserve(productId, quantity)) {
             throw new ValidationException(ErrorCode.PRODUCT_INSUFFICIENT_STOCK);
         }
-        product.setStockQuantity(newStock);
-        productRepository.save(product);
+        catalogCache.invalidateProduct(productId);
     }
 
     private void restoreProductStock(OrderItem orderItem) {
         if (orderItem.getProduct() != null) {
-            Product product = orderItem.getProduct();
-            product.setStockQuantity(product.getStockQuantity() + orderItem.getQuantity());
-            productRepository.save(product);
+            stockLedger.release(orderItem.getProduct().getId(), orderItem.getQuantity());
+            catalogCache.invalidateProduct(orderItem.getProduct().getId());
         }
     }
 
@@ -29,14 +29,14 @@ public class OrderItemValidator {
         return Optional.ofNullable(orderItem)
                 .filter(item -> item.getProduct() != null)
                 .filter(item -> item.getQuantity() != null)
-                .map(item -> item.getQuantity() <= item.getProduct().getStockQuantity())
+                .map(item -> item.getQuantity() <= item.getProduct().stockOnHand())
                 .orElse(false);
     }
     public boolean hasSufficientStock(OrderItemCreateRequestDTO requestDTO, Product product) {
         return Optional.ofNullable(requestDTO)
                 .filter(dto -> dto.getQuantity() != null)
                 .filter(dto -> product != null)
-                .map(dto -> dto.getQuantity() <= product.getStockQuantity())
+                .map(dto -> dto.getQuantity() <= product.stockOnHand())
                 .orElse(false);
     }
 
@@ -116,7 +116,7 @@ public class OrderItemValidator {
     public void validateStockForQuantityUpdate(OrderItem orderItem, Integer newQuantity) {
         Product product = orderItem.getProduct();
         int currentOrderQuantity = orderItem.getQuantity();
-        int availableStock = product.getStockQuantity() + currentOrderQuantity;
+        int availableStock = product.stockOnHand() + currentOrderQuantity;
 
         if (newQuantity > availableStock) {
             throw new ValidationException(ErrorCode.PRODUCT_INSUFFICIENT_STOCK);
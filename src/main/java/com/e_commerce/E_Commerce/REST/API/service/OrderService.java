@@ -1,10 +1,10 @@
 package com.e_commerce.E_Commerce.REST.API.service;
 
+import com.e_commerce.E_Commerce.REST.API.cache.ProductCatalogCache;
 import com.e_commerce.E_Commerce.REST.API.dto.request.OrderCreateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.request.OrderItemCreateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.request.OrderUpdateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.request.PaginationRequestDto;
-import com.e_commerce.E_Commerce.REST.API.dto.response.OrderItemResponseDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.response.OrderResponseDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.response.PaginationResponseDto;
 import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
@@ -14,6 +14,8 @@ import com.e_commerce.E_Commerce.REST.API.exception.order.OrderNotFoundException
 import com.e_commerce.E_Commerce.REST.API.exception.order.OrderTotalInvalidException;
 import com.e_commerce.E_Commerce.REST.API.exception.orderItem.OrderItemsEmptyException;
 import com.e_commerce.E_Commerce.REST.API.exception.product.ProductNotFoundException;
+import com.e_commerce.E_Commerce.REST.API.inventory.CancelledOrderStock;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockReservationLedger;
 import com.e_commerce.E_Commerce.REST.API.mapper.CustomerMapper;
 import com.e_commerce.E_Commerce.REST.API.mapper.OrderItemMapper;
 import com.e_commerce.E_Commerce.REST.API.mapper.OrderMapper;
@@ -24,19 +26,22 @@ import com.e_commerce.E_Commerce.REST.API.model.Product;
 import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
 import com.e_commerce.E_Commerce.REST.API.repository.CustomerRepository;
 import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository.OrderStatusRow;
 import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository;
+import com.e_commerce.E_Commerce.REST.API.util.OrderNumberGenerator;
+import com.e_commerce.E_Commerce.REST.API.util.PaginationUtility;
 import com.e_commerce.E_Commerce.REST.API.util.ValidationUtility;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -45,68 +50,72 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderService {
 
-    private static final int ORDER_NUMBER_RANDOM_MULTIPLIER = 1000;
+    private static final int MAX_STATUS_UPDATE_ATTEMPTS = 3;
 
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
     private final OrderMapper orderMapper;
     private final ProductRepository productRepository;
-    private final OrderItemService orderItemService;
+    private final OrderItemMapper orderItemMapper;
+    private final OrderItemValidator orderItemValidator;
+    private final StockReservationLedger stockLedger;
+    private final ProductCatalogCache catalogCache;
+    private final CancelledOrderStock cancelledOrderStock;
+    private final OrderNumberGenerator orderNumberGenerator;
 
     // Create new order
     public OrderResponseDTO createOrder(OrderCreateRequestDTO requestDTO)
     {
+        List<OrderItemCreateRequestDTO> itemRequests = requestDTO.getOrderItems();
+
         // validate total amount > 0 && contain at least one order item
-        ValidationUtility.validateOrderItemsNotEmpty(requestDTO.getOrderItems());
-        ValidationUtility.validateOrderItemsQuantity(requestDTO.getOrderItems());
-        ValidationUtility.validateOrderTotalGreaterThanZero(requestDTO.getOrderItems());
+        ValidationUtility.validateOrderItemsNotEmpty(itemRequests);
+        ValidationUtility.validateOrderItemsQuantity(itemRequests);
+        ValidationUtility.validateOrderTotalGreaterThanZero(itemRequests);
+        itemRequests.forEach(orderItemValidator::validateOrderItemRequest);
 
         // ensure customer exist first -> and then you can make order
         log.info("customer id :{}",requestDTO.getCustomerId());
         Customer customer = customerRepository.findById(requestDTO.getCustomerId())
                 .orElseThrow(() ->  new CustomerNotFoundException(requestDTO.getCustomerId()));
 
+        // fetch every product in the cart with one query
+        Map<Long, Product> productMap = loadProducts(itemRequests);
+
         // create order number
-        String orderNumber = generateOrderNumber();
+        String orderNumber = orderNumberGenerator.next();
         log.info("order number created :{}",orderNumber);
 
         Order order = orderMapper.createNewOrder(requestDTO,orderNumber);
-        log.info("order  :{}",order);
-
         order.setCustomer(customer);
 
-        List<OrderItemResponseDTO> orderItemResponseDTOS = requestDTO.getOrderItems().stream()
-                .map(item -> orderItemService.addOrderItem(order.getId(), item))
-                .toList();
-
-        List<OrderItem> orderItemList = order.getOrderItems();
-        log.info("o items: {}",orderItemList);
-
-        Set<Long> productsId = orderItemList
-                .stream()
-                .map(p -> p.getProduct().getId())
-                .collect(Collectors.toSet());
-
-        Map<Long, Product> productMap = productRepository.findAllById(productsId)
-                .stream()
-                .collect(Collectors.toMap(
-                        Product::getId,
-                        p -> p
-                ));
-
-        // fetch products and set in orders items
-        for (int i = 0; i < orderItemList.size(); i++) {
-            OrderItemCreateRequestDTO itemDto = requestDTO.getOrderItems().get(i);
-            OrderItem orderItem = orderItemList.get(i);
-
+        // build items in memory and collect the stock each product must give up
+        Map<Long, Integer> reservations = new LinkedHashMap<>();
+        for (OrderItemCreateRequestDTO itemDto : itemRequests) {
             Product product = productMap.get(itemDto.getProductId());
-            if (product == null) {
-                throw new ValidationException(ErrorCode.PRODUCT_NOT_FOUND);
+            orderItemValidator.validateProductAndQuantity(product, itemDto.getQuantity());
+
+            if (!orderItemValidator.hasSufficientStock(itemDto, product)) {
+                throw new ValidationException(ErrorCode.PRODUCT_INSUFFICIENT_STOCK);
             }
-            orderItem.setProduct(product);
+            if (reservations.putIfAbsent(product.getId(), itemDto.getQuantity()) != null) {
+                throw new ValidationException(ErrorCode.DUPLICATE_ENTRY,
+                        "product %d appears more than once in the order".formatted(product.getId()));
+            }
+            order.getOrderItems().add(orderItemMapper.createOrderItem(itemDto, product, order));
+        }
+
+        // reserve stock for all lines in one batched statement, guarded against concurrent buyers
+        List<Long> rejectedProducts = stockLedger.reserveAll(reservations);
+        if (!rejectedProducts.isEmpty()) {
+            throw new ValidationException(ErrorCode.PRODUCT_INSUFFICIENT_STOCK,
+                    "Insufficient stock for products: " + rejectedProducts);
         }
-        order.setOrderItems(orderItemList);
+        catalogCache.invalidateProducts(reservations.keySet());
+
+        // cascade persists the items, grouped into JDBC batches by hibernate.jdbc.batch_size
         Order savedOrder = orderRepository.save(order);
+        log.info("order {} placed with {} items", savedOrder.getOrderNumber(), savedOrder.getOrderItems().size());
         return orderMapper.toResponseDTO(savedOrder);
     }
 
@@ -117,24 +126,56 @@ public class OrderService {
         return orderMapper.toResponseDTO(order);
     }
 
+    /**
+     * Moves the order to the requested status if {@link OrderStatus#canTransitionTo} allows it.
+     * The write is a compare-and-set on status and version, so a concurrent change (a payment
+     * webhook, another admin) is detected without locking the row; the transition is then
+     * re-checked against the new status, at most {@code MAX_STATUS_UPDATE_ATTEMPTS} times.
+     * Cancelling gives the order's stock back, the same way the pending order reaper does.
+     */
     public OrderResponseDTO updateOrderStatus(Long id, OrderUpdateRequestDTO requestDTO)
     {
-        Order order = orderRepository.findById(id)
-                .orElseThrow( () -> new OrderNotFoundException(id) );
-
         requestDTO.validateStatus();
-        orderMapper.updateEntityFromDTO(requestDTO,order);
-        Order savedOrder = orderRepository.save(order);
-        return orderMapper.toResponseDTO(savedOrder);
+        OrderStatus target = OrderStatus.valueOf(requestDTO.getOrderStatus().toUpperCase());
+
+        for (int attempt = 1; ; attempt++) {
+            OrderStatusRow current = orderRepository.findStatusById(id)
+                    .orElseThrow(() -> new OrderNotFoundException(id));
+            OrderStatus from = current.getOrderStatus();
+            if (from == target) {
+                break;
+            }
+            if (!from.canTransitionTo(target)) {
+                throw new ValidationException(ErrorCode.ORDER_INVALID_STATUS_TRANSITION,
+                        "Order cannot go from " + from + " to " + target + ", allowed: " + from.transitions());
+            }
+            if (orderRepository.updateStatusIfCurrent(id, from, current.getVersion(), target) == 1) {
+                if (target == OrderStatus.CANCELLED) {
+                    cancelledOrderStock.release(List.of(id));
+                }
+                break;
+            }
+            if (attempt == MAX_STATUS_UPDATE_ATTEMPTS) {
+                throw new ValidationException(ErrorCode.CONCURRENT_MODIFICATION,
+                        "Order " + id + " kept changing, status not updated");
+            }
+            log.debug("order {} changed during a status update, attempt {}", id, attempt);
+        }
 
+        Order order = orderRepository.findByIdWithCustomerAndItems(id)
+                .orElseThrow( () -> new OrderNotFoundException(id) );
+        return orderMapper.toResponseDTO(order);
     }
 
     public PaginationResponseDto<OrderResponseDTO> getAll (PaginationRequestDto requestDto)
     {
-        Page<Order> orderPage =  orderRepository.findAllWithCustomer(requestDto.toPageable());
-        return PaginationResponseDto.PaginationMetadata.of(
-                orderPage.map(orderMapper::toResponseDTO)
-        );
+        return toResponsePage(PaginationUtility.read(
+                requestDto,
+                Order.class,
+                orderRepository::findAllWithCustomer,
+                orderRepository::findAllBy,
+                Function.identity()
+        ));
     }
 
     public List<OrderResponseDTO> getOrdersByCustomerId(Long customerId)
@@ -143,10 +184,7 @@ public class OrderService {
         customerRepository.findById(customerId)
                 .orElseThrow(() -> new CustomerNotFoundException(customerId));
 
-        return orderRepository.findByCustomerId(customerId)
-                .stream()
-                .map(orderMapper::toResponseDTO)
-                .toList();
+        return toResponseDTOs(orderRepository.findByCustomerId(customerId));
     }
 
 
@@ -159,15 +197,51 @@ public class OrderService {
         } catch (IllegalArgumentException e) {
             throw new ValidationException(ErrorCode.INVALID_ENUM_VALUE);
         }
-        Page<Order> orderPage =  orderRepository.findByOrderStatus(orderStatus , requestDto.toPageable());
-        return PaginationResponseDto.PaginationMetadata.of(
-                orderPage.map(orderMapper::toResponseDTO)
-        );
+        return toResponsePage(PaginationUtility.read(
+                requestDto,
+                Order.class,
+                pageable -> orderRepository.findByOrderStatus(orderStatus , pageable),
+                (position, sort, limit) -> orderRepository.findByOrderStatus(orderStatus, position, sort, limit),
+                Function.identity()
+        ));
+
+    }
+
+    private PaginationResponseDto<OrderResponseDTO> toResponsePage(PaginationResponseDto<Order> page)
+    {
+        return new PaginationResponseDto<>(toResponseDTOs(page.getData()), page.getMetadata());
+    }
 
+    private List<OrderResponseDTO> toResponseDTOs(List<Order> orders)
+    {
+        if (!orders.isEmpty())
+        {
+            // one IN query initializes items + products of every order before the mapper walks them
+            orderRepository.findAllWithItemsAndProducts(orders.stream().map(Order::getId).toList());
+        }
+        return orders.stream()
+                .map(orderMapper::toResponseDTO)
+                .toList();
     }
 
-    private String generateOrderNumber()
+    private Map<Long, Product> loadProducts(List<OrderItemCreateRequestDTO> itemRequests)
     {
-        return "ORD-" + System.currentTimeMillis() + "-" + (int)(Math.random() * ORDER_NUMBER_RANDOM_MULTIPLIER);
+        Set<Long> productsId = itemRequests.stream()
+                .map(OrderItemCreateRequestDTO::getProductId)
+                .collect(Collectors.toSet());
+
+        Map<Long, Product> productMap = productRepository.findAllById(productsId)
+                .stream()
+                .collect(Collectors.toMap(
+                        Product::getId,
+                        p -> p
+                ));
+
+        productsId.stream()
+                .filter(id -> !productMap.containsKey(id))
+                .findFirst()
+                .ifPresent(id -> { throw new ProductNotFoundException(id); });
+
+        return productMap;
     }
 }
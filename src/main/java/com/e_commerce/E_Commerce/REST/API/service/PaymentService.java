@@ -1,6 +1,8 @@
 package com.e_commerce.E_Commerce.REST.API.service;
 
+import com.e_commerce.E_Commerce.REST.API.dto.request.PaymentBatchRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.request.PaymentRequestDTO;
+import com.e_commerce.E_Commerce.REST.API.dto.response.PaymentBatchResultDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.response.PaymentResponseDTO;
 import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
 import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
@@ -9,20 +11,38 @@ import com.e_commerce.E_Commerce.REST.API.exception.payment.PaymentAmountMismatc
 import com.e_commerce.E_Commerce.REST.API.mapper.PaymentMapper;
 import com.e_commerce.E_Commerce.REST.API.model.Order;
 import com.e_commerce.E_Commerce.REST.API.model.Payment;
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+import com.e_commerce.E_Commerce.REST.API.payment.PaymentGatewayDispatcher;
 import com.e_commerce.E_Commerce.REST.API.payment.PaymentMethod;
 import com.e_commerce.E_Commerce.REST.API.payment.PaymentStatus;
 import com.e_commerce.E_Commerce.REST.API.payment.PaymentStrategy;
 import com.e_commerce.E_Commerce.REST.API.payment.PaymentStrategyFactory;
 import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository.OrderPaymentRow;
 import com.e_commerce.E_Commerce.REST.API.repository.PaymentRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.PaymentRepositoryCustom.GatewayResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.mapstruct.Mapping;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -34,65 +54,138 @@ public class PaymentService {
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
     private final PaymentMapper mapper;
+    private final PaymentGatewayDispatcher gatewayDispatcher;
+    private final TransactionTemplate transactionTemplate;
+
+    // gateway calls of a batch in flight at once; keep it within app.payment.gateway.max-concurrent-calls
+    @Value("${app.payment.batch.parallelism:16}")
+    private int batchParallelism;
 
     /**
      * Creates a payment for an order using the specified payment method.
+     * <p>
+     * The PENDING payment is committed first and the gateway is called afterwards, outside any
+     * transaction, so no connection is held for the gateway round trip. The gateway result is
+     * written back through {@link #updatePaymentStatus(Long, PaymentStrategy.PaymentResult)}.
+     * The call carries the payment's idempotency key, so a gateway call that timed out leaves the
+     * payment PENDING rather than FAILED: it may have gone through. Paying an order again reuses
+     * its FAILED payment, or its PENDING one whose gateway outcome is unknown.
      *
      * @param requestDTO Payment request containing amount, payment method, and
      *                   order ID
      * @return PaymentResponseDTO with transaction details (including client_secret
-     *         for Stripe)
+     *         for Stripe); still PENDING without a client secret if the gateway
+     *         has not answered within the response wait
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PaymentResponseDTO createPayment(PaymentRequestDTO requestDTO) {
         // 1. Validate payment request
         requestDTO.validatePaymentAmount();
         requestDTO.handlePaymentMethod();
 
-        // 2. Verify order exists
-        Order order = orderRepository.findById(requestDTO.getOrderId())
-                .orElseThrow(() -> new OrderNotFoundException(requestDTO.getOrderId()));
+        // 2. Verify the order and record the PENDING payment (short transaction)
+        Payment pendingPayment = transactionTemplate.execute(status -> createPendingPayment(requestDTO));
 
-        // ensure requested amount equal total amount for this order
-        if (!Objects.equals(requestDTO.getAmount(), order.getTotalAmount())) {
-            throw new PaymentAmountMismatchException(order.getTotalAmount(), requestDTO.getAmount());
+        // 3. Get the appropriate payment strategy
+        PaymentStrategy strategy = paymentStrategyFactory.getStrategy(requestDTO.getPaymentMethod());
+
+        // 4. Call the gateway on the payment executor, then store its result
+        Long paymentId = pendingPayment.getId();
+        CompletableFuture<Payment> finished = gatewayDispatcher.dispatch(strategy, requestDTO.getAmount(),
+                        gatewayIdempotencyKey(pendingPayment))
+                .thenApply(result -> transactionTemplate.execute(status -> updatePaymentStatus(paymentId, result)));
+
+        Optional<Payment> payment = gatewayDispatcher.await(finished);
+        if (payment.isEmpty()) {
+            log.info("Payment {} still waiting for the gateway, returning it as PENDING", paymentId);
+            return mapper.toResponseDTO(pendingPayment);
         }
 
-        // 3. Check if payment method is supported
-        String paymentMethod = requestDTO.getPaymentMethod();
-        if (!paymentStrategyFactory.isSupported(paymentMethod)) {
-            throw new ValidationException(ErrorCode.INVALID_PAYMENT_METHOD,
-                    "Payment method '" + paymentMethod + "' is not supported.");
+        // 5. Handle failure case
+        if (payment.get().getPaymentStatus() == PaymentStatus.FAILED) {
+            throw new ValidationException(ErrorCode.PAYMENT_FAILED, payment.get().getPaymentGatewayResponse());
         }
 
-        // 4. Get the appropriate payment strategy
-        PaymentStrategy strategy = paymentStrategyFactory.getStrategy(paymentMethod);
+        // 6. Return response DTO
+        return mapper.toResponseDTO(payment.get());
+    }
 
-        // 5. Process payment using the strategy
-        PaymentStrategy.PaymentResult result = strategy.processPayment(requestDTO.getAmount());
+    /**
+     * Creates payments for many orders at once.
+     * <p>
+     * Same steps as {@link #createPayment(PaymentRequestDTO)}, batched: the PENDING payments
+     * are inserted in one JDBC batch, the gateway is called outside any transaction with
+     * {@code app.payment.batch.parallelism} calls at a time per strategy, and the results are
+     * written back in a second batch. An order that is unknown, can no longer be paid, already
+     * has a payment that can not be retried, does not match the amount or asks for an
+     * unsupported method gets a failed result without a payment or a gateway call; the other
+     * orders go ahead. Retried payments are updated in place, like in
+     * {@link #createPayment(PaymentRequestDTO)}.
+     *
+     * @return one result per requested payment, in request order
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<PaymentBatchResultDTO> createPayments(PaymentBatchRequestDTO batchDTO) {
+        List<PaymentRequestDTO> requests = batchDTO.getPayments();
+        if (requests == null || requests.isEmpty()) {
+            return List.of();
+        }
 
-        // 6. Create and save Payment entity
-        Payment payment = Payment.builder()
-                .paymentMethod(PaymentMethod.valueOf(paymentMethod))
-                .amount(requestDTO.getAmount())
-                .PaymentDate(LocalDateTime.now())
-                .paymentStatus(result.success() ? PaymentStatus.PENDING : PaymentStatus.FAILED)
-                .transactionId(result.transactionId())
-                .paymentGatewayResponse(result.clientSecret())
-                .order(order)
-                .build();
+        // 1. Validate payment requests
+        Set<Long> orderIds = new HashSet<>();
+        for (PaymentRequestDTO requestDTO : requests) {
+            requestDTO.validatePaymentAmount();
+            requestDTO.handlePaymentMethod();
+            if (!orderIds.add(requestDTO.getOrderId())) {
+                throw new ValidationException(ErrorCode.DUPLICATE_ENTRY,
+                        "Order " + requestDTO.getOrderId() + " appears more than once in the batch");
+            }
+        }
 
-        Payment savedPayment = paymentRepository.save(payment);
+        // 2. Verify the orders and record the PENDING payments (short transaction, one JDBC batch)
+        Map<Long, PaymentStrategy.PaymentResult> results = new HashMap<>();
+        Map<Long, Payment> pendingPayments = recordPendingPayments(requests, results);
 
-        log.info("Payment created: id={}, transactionId={}, status={}",
-                savedPayment.getId(), savedPayment.getTransactionId(), savedPayment.getPaymentStatus());
+        // 3. Call the gateway per strategy, a bounded number of calls at a time
+        List<PaymentRequestDTO> payable = requests.stream()
+                .filter(requestDTO -> pendingPayments.containsKey(requestDTO.getOrderId()))
+                .toList();
+        paymentStrategyFactory.groupByStrategy(payable, PaymentRequestDTO::getPaymentMethod)
+                .forEach((strategy, group) -> results.putAll(strategy.processPayments(
+                        group.stream()
+                                .map(requestDTO -> new PaymentStrategy.BatchPayment(requestDTO.getOrderId(), requestDTO.getAmount(),
+                                        gatewayIdempotencyKey(pendingPayments.get(requestDTO.getOrderId()))))
+                                .toList(),
+                        batchParallelism)));
 
-        // 7. Handle failure case
-        if (!result.success()) {
-            throw new ValidationException(ErrorCode.PAYMENT_FAILED, result.errorMessage());
+        // 4. Store the gateway results (one JDBC batch); unknown outcomes stay PENDING
+        List<GatewayResult> gatewayResults = new ArrayList<>(pendingPayments.size());
+        pendingPayments.forEach((orderId, payment) -> {
+            PaymentStrategy.PaymentResult result = results.get(orderId);
+            if (result.outcomeUnknown()) {
+                log.warn("Gateway outcome of payment {} unknown, leaving it PENDING: {}", payment.getId(), result.errorMessage());
+                return;
+            }
+            gatewayResults.add(result.success()
+                    ? new GatewayResult(payment.getId(), PaymentStatus.PENDING, result.transactionId(), result.clientSecret())
+                    : new GatewayResult(payment.getId(), PaymentStatus.FAILED, null, result.errorMessage()));
+        });
+        List<Long> conflicts = paymentRepository.applyGatewayResults(gatewayResults);
+        if (!conflicts.isEmpty()) {
+            log.warn("Payments {} left PENDING before their gateway result was stored", conflicts);
         }
 
-        // 8. Return response DTO
-        return mapper.toResponseDTO(savedPayment);
+        log.info("Payment batch processed: requested={}, sentToGateway={}, failed={}", requests.size(),
+                pendingPayments.size(), results.values().stream().filter(result -> !result.success()).count());
+
+        // 5. Return one result per order
+        return requests.stream()
+                .map(requestDTO -> {
+                    Payment payment = pendingPayments.get(requestDTO.getOrderId());
+                    return PaymentBatchResultDTO.of(requestDTO.getOrderId(),
+                            payment != null ? payment.getId() : null, results.get(requestDTO.getOrderId()));
+                })
+                .toList();
     }
 
     /**
@@ -117,4 +210,213 @@ public class PaymentService {
 
         log.info("Payment status updated: transactionId={}, newStatus={}", transactionId, status);
     }
+
+    /**
+     * Stores the gateway result on a PENDING payment: the transaction id and client secret on
+     * success (the payment stays PENDING until the gateway confirms it), the error on failure.
+     * An unknown outcome changes nothing; the payment stays PENDING.
+     */
+    public Payment updatePaymentStatus(Long paymentId, PaymentStrategy.PaymentResult result) {
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new ValidationException(ErrorCode.PAYMENT_NOT_FOUND));
+
+        if (result.outcomeUnknown()) {
+            log.warn("Gateway outcome of payment {} unknown, leaving it PENDING: {}", paymentId, result.errorMessage());
+            return payment;
+        }
+        if (result.success()) {
+            payment.setTransactionId(result.transactionId());
+            payment.setPaymentGatewayResponse(result.clientSecret());
+        } else {
+            payment.setPaymentStatus(PaymentStatus.FAILED);
+            payment.setPaymentGatewayResponse(result.errorMessage());
+        }
+        Payment savedPayment = paymentRepository.save(payment);
+
+        log.info("Payment gateway result stored: id={}, transactionId={}, status={}",
+                savedPayment.getId(), savedPayment.getTransactionId(), savedPayment.getPaymentStatus());
+        return savedPayment;
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    // one key per payment attempt: calls repeated after an unknown outcome are the same payment at the gateway
+    private static String gatewayIdempotencyKey(Payment payment) {
+        int attempt = attemptOf(payment);
+        return attempt == 1 ? "payment-" + payment.getId() : "payment-" + payment.getId() + "-" + attempt;
+    }
+
+    private static int attemptOf(Payment payment) {
+        return payment.getGatewayAttempt() != null ? payment.getGatewayAttempt() : 1;
+    }
+
+    // a FAILED payment never reached the gateway or was refused; a PENDING one without a transaction id has an unknown outcome
+    private static boolean isRetryable(PaymentStatus status, String transactionId) {
+        return status == PaymentStatus.FAILED || (status == PaymentStatus.PENDING && transactionId == null);
+    }
+
+    /**
+     * Readies the payment of an earlier attempt for another gateway call. A FAILED payment
+     * starts the next attempt, with a fresh idempotency key; a PENDING one keeps its key, so the
+     * gateway hands back whatever the earlier call created.
+     */
+    private static void prepareRetry(Payment payment, PaymentRequestDTO requestDTO, LocalDateTime now) {
+        if (payment.getPaymentStatus() == PaymentStatus.FAILED) {
+            payment.setGatewayAttempt(attemptOf(payment) + 1);
+            payment.setPaymentStatus(PaymentStatus.PENDING);
+            payment.setTransactionId(null);
+            payment.setPaymentGatewayResponse(null);
+        }
+        payment.setPaymentMethod(PaymentMethod.valueOf(requestDTO.getPaymentMethod()));
+        payment.setAmount(requestDTO.getAmount());
+        payment.setPaymentDate(now);
+    }
+
+    private Payment createPendingPayment(PaymentRequestDTO requestDTO) {
+        // locked until the PENDING payment commits: the pending-order reaper skips it meanwhile
+        Order order = orderRepository.findByIdForUpdate(requestDTO.getOrderId())
+                .orElseThrow(() -> new OrderNotFoundException(requestDTO.getOrderId()));
+
+        // only an order that may still become PAID; a cancelled one has given its stock back
+        if (!order.getOrderStatus().canTransitionTo(OrderStatus.PAID)) {
+            throw new ValidationException(ErrorCode.ORDER_INVALID_STATUS_TRANSITION,
+                    "Order " + order.getId() + " is " + order.getOrderStatus() + " and can not be paid");
+        }
+
+        // ensure requested amount equal total amount for this order
+        if (!amountMatches(requestDTO.getAmount(), order.getTotalAmount())) {
+            throw new PaymentAmountMismatchException(order.getTotalAmount(), requestDTO.getAmount());
+        }
+
+        // check if payment method is supported
+        String paymentMethod = requestDTO.getPaymentMethod();
+        if (!paymentStrategyFactory.isSupported(paymentMethod)) {
+            throw new ValidationException(ErrorCode.INVALID_PAYMENT_METHOD,
+                    "Payment method '" + paymentMethod + "' is not supported.");
+        }
+
+        // the unique order_id allows one payment per order, a retry reuses the earlier attempt's row
+        Payment payment = order.getPayment();
+        if (payment == null) {
+            payment = Payment.builder()
+                    .paymentMethod(PaymentMethod.valueOf(paymentMethod))
+                    .amount(requestDTO.getAmount())
+                    .PaymentDate(LocalDateTime.now())
+                    .paymentStatus(PaymentStatus.PENDING)
+                    .order(order)
+                    .build();
+        } else if (isRetryable(payment.getPaymentStatus(), payment.getTransactionId())) {
+            prepareRetry(payment, requestDTO, LocalDateTime.now());
+        } else {
+            throw new ValidationException(ErrorCode.PAYMENT_ALREADY_PROCESSED,
+                    "Order " + order.getId() + " already has a " + payment.getPaymentStatus() + " payment");
+        }
+        return paymentRepository.save(payment);
+    }
+
+    private Map<Long, Payment> recordPendingPayments(List<PaymentRequestDTO> requests,
+                                                     Map<Long, PaymentStrategy.PaymentResult> results) {
+        try {
+            return transactionTemplate.execute(status -> createPendingPayments(requests, results));
+        } catch (DataIntegrityViolationException e) {
+            // the unique order_id caught a payment started concurrently; the batch rolled back before any charge
+            throw new ValidationException(ErrorCode.PAYMENT_ALREADY_PROCESSED,
+                    "A payment was started concurrently for an order of this batch, please retry");
+        }
+    }
+
+    /**
+     * Inserts a PENDING payment for every payable order, or readies its earlier attempt for a
+     * retry; the others get their failed result.
+     *
+     * @return order id -> inserted or retried payment, in request order
+     */
+    private Map<Long, Payment> createPendingPayments(List<PaymentRequestDTO> requests,
+                                                     Map<Long, PaymentStrategy.PaymentResult> results) {
+        // locked until the PENDING payments commit, like in createPendingPayment
+        List<Long> orderIds = requests.stream().map(PaymentRequestDTO::getOrderId).toList();
+        orderRepository.lockIds(orderIds);
+        Map<Long, OrderPaymentRow> orders = orderRepository.findPaymentRowsByIds(orderIds)
+                .stream()
+                .collect(Collectors.toMap(OrderPaymentRow::getId, Function.identity()));
+
+        Map<Long, Payment> newPayments = new LinkedHashMap<>();
+        Map<Long, PaymentRequestDTO> retries = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (PaymentRequestDTO requestDTO : requests) {
+            Long orderId = requestDTO.getOrderId();
+            OrderPaymentRow order = orders.get(orderId);
+            String rejection = rejectionOf(requestDTO, order);
+            if (rejection != null) {
+                results.put(orderId, PaymentStrategy.PaymentResult.failure(rejection));
+                continue;
+            }
+            if (order.getPaymentId() != null) {
+                retries.put(order.getPaymentId(), requestDTO);
+                continue;
+            }
+
+            newPayments.put(orderId, Payment.builder()
+                    .paymentMethod(PaymentMethod.valueOf(requestDTO.getPaymentMethod()))
+                    .amount(requestDTO.getAmount())
+                    .PaymentDate(now)
+                    .paymentStatus(PaymentStatus.PENDING)
+                    .order(orderRepository.getReferenceById(orderId))
+                    .build());
+        }
+
+        paymentRepository.insertAll(new ArrayList<>(newPayments.values()));
+
+        // earlier attempts are updated in place and flushed with this transaction
+        Map<Long, Payment> retriedPayments = new HashMap<>();
+        if (!retries.isEmpty()) {
+            for (Payment payment : paymentRepository.findAllById(retries.keySet())) {
+                if (isRetryable(payment.getPaymentStatus(), payment.getTransactionId())) {
+                    PaymentRequestDTO requestDTO = retries.get(payment.getId());
+                    prepareRetry(payment, requestDTO, now);
+                    retriedPayments.put(requestDTO.getOrderId(), payment);
+                }
+            }
+            // changed since the orders were read
+            retries.values().stream()
+                    .filter(requestDTO -> !retriedPayments.containsKey(requestDTO.getOrderId()))
+                    .forEach(requestDTO -> results.put(requestDTO.getOrderId(),
+                            PaymentStrategy.PaymentResult.failure("Order already has a payment")));
+        }
+
+        Map<Long, Payment> pendingPayments = new LinkedHashMap<>();
+        for (PaymentRequestDTO requestDTO : requests) {
+            Long orderId = requestDTO.getOrderId();
+            Payment payment = newPayments.containsKey(orderId) ? newPayments.get(orderId) : retriedPayments.get(orderId);
+            if (payment != null) {
+                pendingPayments.put(orderId, payment);
+            }
+        }
+        return pendingPayments;
+    }
+
+    // by value, so 100.0 matches a stored 100.00 in the single and the batch path alike
+    private static boolean amountMatches(BigDecimal requested, BigDecimal total) {
+        return requested != null && total != null && requested.compareTo(total) == 0;
+    }
+
+    // same checks as createPendingPayment, as a message instead of an exception
+    private String rejectionOf(PaymentRequestDTO requestDTO, OrderPaymentRow order) {
+        if (order == null) {
+            return OrderNotFoundException.formatMessage("Order", requestDTO.getOrderId());
+        }
+        if (!order.getOrderStatus().canTransitionTo(OrderStatus.PAID)) {
+            return "Order is " + order.getOrderStatus() + " and can not be paid";
+        }
+        if (order.getPaymentId() != null && !isRetryable(order.getPaymentStatus(), order.getTransactionId())) {
+            return "Order already has a payment";
+        }
+        if (!amountMatches(requestDTO.getAmount(), order.getTotalAmount())) {
+            return "Payment amount mismatch: expected %s, got %s".formatted(order.getTotalAmount(), requestDTO.getAmount());
+        }
+        if (!paymentStrategyFactory.isSupported(requestDTO.getPaymentMethod())) {
+            return "Payment method '" + requestDTO.getPaymentMethod() + "' is not supported.";
+        }
+        return null;
+    }
 }
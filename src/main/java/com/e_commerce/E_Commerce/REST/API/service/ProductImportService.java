@@ -0,0 +1,366 @@
+package com.e_commerce.E_Commerce.REST.API.service;
+
+import com.e_commerce.E_Commerce.REST.API.cache.ProductCatalogCache;
+import com.e_commerce.E_Commerce.REST.API.dto.request.ProductBulkUpdateRequestDTO;
+import com.e_commerce.E_Commerce.REST.API.dto.request.ProductCreateRequestDTO;
+import com.e_commerce.E_Commerce.REST.API.dto.response.BulkReportDTO;
+import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
+import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
+import com.e_commerce.E_Commerce.REST.API.exception.product.ProductQuantityExceedException;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockReservationLedger;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockShards;
+import com.e_commerce.E_Commerce.REST.API.mapper.ProductMapper;
+import com.e_commerce.E_Commerce.REST.API.model.Product;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductRepositoryCustom.ProductChange;
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetService;
+import com.e_commerce.E_Commerce.REST.API.search.ProductSearchService;
+import com.e_commerce.E_Commerce.REST.API.util.BulkReport;
+import com.e_commerce.E_Commerce.REST.API.util.BulkRowReader;
+import com.e_commerce.E_Commerce.REST.API.util.BulkRowReader.Row;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Imports and updates products from a CSV or NDJSON upload.
+ * <p>
+ * The upload is read in chunks of {@value #CHUNK_SIZE} rows. The rows of a chunk are validated
+ * in parallel with the same rules as {@link ProductService}, and the valid rows are written with
+ * one JDBC batch in their own transaction. A failing row never stops the upload; it is listed in
+ * the returned report instead.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    // stays below Oracle's limit of 1000 IN list items for the duplicate check
+    static final int CHUNK_SIZE = 500;
+
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductCatalogCache catalogCache;
+    private final ProductSearchService searchService;
+    private final ProductFacetService facetService;
+    private final StockReservationLedger stockLedger;
+    private final StockShards stockShards;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxReportedErrors;
+
+    public ProductImportService(
+            ProductService productService,
+            ProductRepository productRepository,
+            ProductMapper productMapper,
+            ProductCatalogCache catalogCache,
+            ProductSearchService searchService,
+            ProductFacetService facetService,
+            StockReservationLedger stockLedger,
+            StockShards stockShards,
+            Validator validator,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.bulk.max-reported-errors:1000}") int maxReportedErrors
+    ) {
+        this.productService = productService;
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.catalogCache = catalogCache;
+        this.searchService = searchService;
+        this.facetService = facetService;
+        this.stockLedger = stockLedger;
+        this.stockShards = stockShards;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Creates new products; names must not exist yet.
+     */
+    public BulkReportDTO importProducts(InputStream upload, MediaType contentType) {
+        BulkReport report = new BulkReport(maxReportedErrors);
+        // names imported so far, to reject repeats within the upload itself
+        Set<String> importedNames = new HashSet<>();
+
+        readInChunks(upload, contentType, ProductCreateRequestDTO.class,
+                chunk -> importChunk(chunk, importedNames, report));
+
+        BulkReportDTO result = report.finish();
+        log.info("imported {} of {} products in {} ms ({} rows/s)",
+                result.succeeded(), result.rows(), result.elapsedMillis(), Math.round(result.rowsPerSecond()));
+        return result;
+    }
+
+    /**
+     * Changes the price, stock and active flag of existing products by id, without loading them.
+     * Rows are applied in upload order, so a later row for the same product wins.
+     */
+    public BulkReportDTO updateProducts(InputStream upload, MediaType contentType) {
+        BulkReport report = new BulkReport(maxReportedErrors);
+
+        readInChunks(upload, contentType, ProductBulkUpdateRequestDTO.class, chunk -> updateChunk(chunk, report));
+
+        BulkReportDTO result = report.finish();
+        log.info("updated {} of {} products in {} ms ({} rows/s)",
+                result.succeeded(), result.rows(), result.elapsedMillis(), Math.round(result.rowsPerSecond()));
+        return result;
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private <T> void readInChunks(InputStream upload, MediaType contentType, Class<T> rowType,
+                                  Consumer<List<Row<T>>> chunkHandler) {
+        try (BulkRowReader<T> rows = openReader(upload, contentType, rowType)) {
+            List<Row<T>> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (Row<T> row = rows.next(); row != null; row = rows.next()) {
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    chunkHandler.accept(chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                chunkHandler.accept(chunk);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading the product upload failed", e);
+        }
+    }
+
+    private <T> BulkRowReader<T> openReader(InputStream upload, MediaType contentType, Class<T> rowType) {
+        try {
+            return new BulkRowReader<>(upload, contentType, objectMapper, rowType);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(ErrorCode.INVALID_INPUT_FORMAT, e.getMessage());
+        }
+    }
+
+    private void importChunk(List<Row<ProductCreateRequestDTO>> chunk, Set<String> importedNames, BulkReport report) {
+        // order is kept, so problems.get(i) belongs to chunk.get(i)
+        List<List<String>> problems = chunk.parallelStream().map(this::validate).toList();
+
+        List<String> candidateNames = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (problems.get(i).isEmpty()) {
+                candidateNames.add(chunk.get(i).value().getName());
+            }
+        }
+        Set<String> existingNames = candidateNames.isEmpty()
+                ? Set.of()
+                : new HashSet<>(productRepository.findExistingNames(candidateNames));
+
+        List<Product> products = new ArrayList<>(candidateNames.size());
+        List<Row<ProductCreateRequestDTO>> productRows = new ArrayList<>(candidateNames.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < chunk.size(); i++) {
+            Row<ProductCreateRequestDTO> row = chunk.get(i);
+            String name = row.value() == null ? null : row.value().getName();
+            if (!problems.get(i).isEmpty()) {
+                report.failed(row.number(), name, problems.get(i));
+            } else if (existingNames.contains(name)) {
+                report.failed(row.number(), name, ErrorCode.PRODUCT_ALREADY_EXISTS.getMessage());
+            } else if (!importedNames.add(name)) {
+                report.failed(row.number(), name, "Product name appears more than once in the upload");
+            } else {
+                Product product = productMapper.toEntity(row.value());
+                product.setActive(true);
+                product.setCreatedAt(now);
+                products.add(product);
+                productRows.add(row);
+            }
+        }
+        if (products.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                productRepository.insertAll(products);
+                catalogCache.invalidatePages();
+                products.forEach(searchService::indexAfterCommit);
+                products.forEach(facetService::putAfterCommit);
+            });
+            report.succeeded(products.size());
+        } catch (DataAccessException e) {
+            log.warn("inserting an import chunk of {} products failed: {}", products.size(), e.getMessage());
+            for (Row<ProductCreateRequestDTO> row : productRows) {
+                importedNames.remove(row.value().getName());
+                report.failed(row.number(), row.value().getName(), "Insert failed: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    private void updateChunk(List<Row<ProductBulkUpdateRequestDTO>> chunk, BulkReport report) {
+        List<List<String>> problems = chunk.parallelStream().map(this::validateUpdate).toList();
+
+        List<ProductChange> changes = new ArrayList<>(chunk.size());
+        List<Row<ProductBulkUpdateRequestDTO>> changeRows = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Row<ProductBulkUpdateRequestDTO> row = chunk.get(i);
+            if (!problems.get(i).isEmpty()) {
+                report.failed(row.number(), key(row), problems.get(i));
+            } else {
+                ProductBulkUpdateRequestDTO value = row.value();
+                changes.add(new ProductChange(value.getId(), value.getPrice(), value.getStockQuantity(), value.getActive()));
+                changeRows.add(row);
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        try {
+            Set<Long> missing = transactionTemplate.execute(status -> {
+                // before the new stock is written, so reservations the ledger still holds land underneath it
+                changes.stream()
+                        .filter(change -> change.stockQuantity() != null)
+                        .forEach(change -> stockLedger.reconcile(change.id()));
+                Set<Long> notFound = new HashSet<>(productRepository.updateAll(changes));
+                invalidateUpdated(changes, notFound);
+                return notFound;
+            });
+            for (Row<ProductBulkUpdateRequestDTO> row : changeRows) {
+                if (missing.contains(row.value().getId())) {
+                    report.failed(row.number(), key(row), ErrorCode.PRODUCT_NOT_FOUND.getMessage());
+                } else {
+                    report.succeeded(1);
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("applying an update chunk of {} products failed: {}", changes.size(), e.getMessage());
+            for (Row<ProductBulkUpdateRequestDTO> row : changeRows) {
+                report.failed(row.number(), key(row), "Update failed: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    /**
+     * Spreads new stock of sharded products over their shards, and brings the catalog cache,
+     * search index and facet counts in line with the changes once the transaction
+     * commits. Runs inside the update transaction, so the reads below already see the new values.
+     */
+    private void invalidateUpdated(List<ProductChange> changes, Set<Long> notFound) {
+        // the last active flag sent for a product is the one that sticks
+        Map<Long, Boolean> activeById = new HashMap<>();
+        Set<Long> updatedIds = new HashSet<>();
+        for (ProductChange change : changes) {
+            if (notFound.contains(change.id())) {
+                continue;
+            }
+            updatedIds.add(change.id());
+            if (change.active() != null) {
+                activeById.put(change.id(), change.active());
+            }
+            if (change.stockQuantity() != null) {
+                stockShards.replaceStock(change.id(), change.stockQuantity());
+            }
+        }
+        if (updatedIds.isEmpty()) {
+            return;
+        }
+
+        catalogCache.invalidateProducts(updatedIds);
+        catalogCache.invalidatePages();
+
+        Set<Long> facetIds = new HashSet<>(updatedIds);
+        List<Long> activated = new ArrayList<>();
+        activeById.forEach((productId, active) -> {
+            if (active) {
+                activated.add(productId);
+            } else {
+                facetIds.remove(productId);
+                searchService.removeAfterCommit(productId);
+                facetService.removeAfterCommit(productId);
+            }
+        });
+        // a reactivated product has to come back into the search index; text fields never change here
+        if (!activated.isEmpty()) {
+            productRepository.findAllById(activated).forEach(searchService::indexAfterCommit);
+        }
+        // still-inactive products are filtered out by the query and stay out of the facets
+        if (!facetIds.isEmpty()) {
+            productRepository.findFacetRows(facetIds).forEach(facetService::putAfterCommit);
+        }
+    }
+
+    private static String key(Row<ProductBulkUpdateRequestDTO> row) {
+        return row.value() == null || row.value().getId() == null ? null : row.value().getId().toString();
+    }
+
+    private List<String> validateUpdate(Row<ProductBulkUpdateRequestDTO> row) {
+        if (row.error() != null) {
+            return List.of(row.error());
+        }
+
+        ProductBulkUpdateRequestDTO requestDTO = row.value();
+        List<String> problems = new ArrayList<>();
+        for (ConstraintViolation<ProductBulkUpdateRequestDTO> violation : validator.validate(requestDTO)) {
+            problems.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (requestDTO.getPrice() == null && requestDTO.getStockQuantity() == null && requestDTO.getActive() == null) {
+            problems.add("Nothing to update, expected price, stockQuantity or active");
+        }
+        if (requestDTO.getPrice() != null && !productService.isPriceReasonable(requestDTO.getPrice())) {
+            problems.add(ErrorCode.UNREASONABLE_PRICE.getMessage());
+        }
+        try {
+            productService.validateStockQuantity(requestDTO.getStockQuantity());
+        } catch (ProductQuantityExceedException e) {
+            problems.add(Objects.requireNonNullElse(e.getMessage(), ErrorCode.PRODUCT_QUANTITY_EXCEEDS_STOCK.getMessage()));
+        }
+        problems.sort(null);
+        return problems;
+    }
+
+    /**
+     * @return why the row cannot be imported, empty when it is valid
+     */
+    private List<String> validate(Row<ProductCreateRequestDTO> row) {
+        if (row.error() != null) {
+            return List.of(row.error());
+        }
+
+        ProductCreateRequestDTO requestDTO = row.value();
+        productService.handlingInput(requestDTO);
+
+        List<String> problems = new ArrayList<>();
+        for (ConstraintViolation<ProductCreateRequestDTO> violation : validator.validate(requestDTO)) {
+            problems.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (requestDTO.getPrice() != null && !productService.isPriceReasonable(requestDTO.getPrice())) {
+            problems.add(ErrorCode.UNREASONABLE_PRICE.getMessage());
+        }
+        try {
+            productService.validateStockQuantity(requestDTO.getStockQuantity());
+        } catch (ProductQuantityExceedException e) {
+            problems.add(Objects.requireNonNullElse(e.getMessage(), ErrorCode.PRODUCT_QUANTITY_EXCEEDS_STOCK.getMessage()));
+        }
+        // violations come from a set; sort them so reports are stable
+        problems.sort(null);
+        return problems;
+    }
+}
@@ -1,25 +1,44 @@
 package com.e_commerce.E_Commerce.REST.API.service;
 
 
+import com.e_commerce.E_Commerce.REST.API.cache.ProductCatalogCache;
+import com.e_commerce.E_Commerce.REST.API.cache.ProductCatalogCache.PageKey;
 import com.e_commerce.E_Commerce.REST.API.dto.request.PaginationRequestDto;
 import com.e_commerce.E_Commerce.REST.API.dto.request.ProductCreateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.request.ProductUpdateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.response.PaginationResponseDto;
+import com.e_commerce.E_Commerce.REST.API.dto.response.ProductBrowseResponseDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.response.ProductResponseDTO;
 import com.e_commerce.E_Commerce.REST.API.exception.DuplicateResourceException;
 import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
 import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
 import com.e_commerce.E_Commerce.REST.API.exception.product.ProductNotFoundException;
 import com.e_commerce.E_Commerce.REST.API.exception.product.ProductQuantityExceedException;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockReservationLedger;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockShards;
 import com.e_commerce.E_Commerce.REST.API.mapper.ProductMapper;
 import com.e_commerce.E_Commerce.REST.API.model.Product;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderItemRepository;
 import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository;
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetIndex.Facets;
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetIndex.PriceBucket;
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetService;
+import com.e_commerce.E_Commerce.REST.API.search.ProductSearchIndex.SearchResult;
+import com.e_commerce.E_Commerce.REST.API.search.ProductSearchService;
+import com.e_commerce.E_Commerce.REST.API.util.PaginationUtility;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Transactional
 @RequiredArgsConstructor
@@ -31,6 +50,12 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final ProductCatalogCache catalogCache;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductSearchService searchService;
+    private final ProductFacetService facetService;
+    private final StockReservationLedger stockLedger;
+    private final StockShards stockShards;
 
 
     public ProductResponseDTO createProduct(ProductCreateRequestDTO requestDTO)
@@ -49,6 +74,9 @@ public class ProductService {
         Product product = productMapper.toEntity(requestDTO);
         product.setActive(true);
         Product savedProduct = productRepository.save(product);
+        catalogCache.invalidatePages();
+        searchService.indexAfterCommit(savedProduct);
+        facetService.putAfterCommit(savedProduct);
         return productMapper.toResponseDTO(savedProduct);
 
     }
@@ -56,12 +84,15 @@ public class ProductService {
 
 
 
+    @Transactional(readOnly = true)
     public ProductResponseDTO getById(Long productId)
     {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException(productId));
+        return catalogCache.getProduct(productId, () -> {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ProductNotFoundException(productId));
 
-        return productMapper.toResponseDTO(product);
+            return productMapper.toResponseDTO(product, countOrders(productId));
+        });
     }
 
 
@@ -71,9 +102,24 @@ public class ProductService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ProductNotFoundException(productId));
 
+        if (requestDTO.getStockQuantity() != null) {
+            // before the new stock is written, so reservations the ledger still holds land underneath it
+            stockLedger.reconcile(productId);
+        }
         productMapper.updateEntityFromDTO(requestDTO,product);
+        if (requestDTO.getStockQuantity() != null) {
+            // a sharded product keeps its stock in the shards, not in the column just written
+            if (stockShards.replaceStock(productId, requestDTO.getStockQuantity())) {
+                product.setStockQuantity(0);
+            }
+        }
+        // price / category / active changes can move the product onto other pages
+        catalogCache.invalidateProduct(productId);
+        catalogCache.invalidatePages();
+        searchService.indexAfterCommit(product);
+        facetService.putAfterCommit(product);
         return productMapper
-                .toResponseDTO(product);
+                .toResponseDTO(product, countOrders(productId));
     }
 
     public void deleteProduct(Long productId)
@@ -82,48 +128,120 @@ public class ProductService {
                 .orElseThrow(() -> new ProductNotFoundException(productId));
 
         productRepository.delete(deletedProduct);
+        catalogCache.invalidateProduct(productId);
+        searchService.removeAfterCommit(productId);
+        facetService.removeAfterCommit(productId);
 
     }
 
 
+    @Transactional(readOnly = true)
     public PaginationResponseDto<ProductResponseDTO> getAll(PaginationRequestDto requestDto)
     {
         PaginationRequestDto.validate(requestDto);
-        Page<Product> productList = productRepository.findAll(
-                requestDto.toPageable()
-        );
-
-        Page<ProductResponseDTO> responseDTOS = productList.map(productMapper::toResponseDTO);
-        return PaginationResponseDto.PaginationMetadata.of(responseDTOS);
+        return catalogCache.getPage(PageKey.of("all", requestDto), () -> withTotalOrders(PaginationUtility.read(
+                requestDto,
+                Product.class,
+                productRepository::findAll,
+                productRepository::findAllBy,
+                Function.identity()
+        )));
     }
 
 
+    @Transactional(readOnly = true)
     public PaginationResponseDto<ProductResponseDTO> getByRangePrice(BigDecimal min, BigDecimal max , PaginationRequestDto requestDto)
     {
 
         PaginationRequestDto.validate(requestDto);
 
-        Page<Product> products = productRepository.findByPriceBetween(min, max , requestDto.toPageable());
-
-       return PaginationResponseDto.PaginationMetadata.of(
-               products.map(productMapper::toResponseDTO)
-       );
+        return catalogCache.getPage(PageKey.of("price", requestDto, min, max), () -> withTotalOrders(PaginationUtility.read(
+                requestDto,
+                Product.class,
+                pageable -> productRepository.findByPriceBetween(min, max , pageable),
+                (position, sort, limit) -> productRepository.findByPriceBetween(min, max, position, sort, limit),
+                Function.identity()
+        )));
 
     }
 
+    @Transactional(readOnly = true)
     public PaginationResponseDto<ProductResponseDTO> getProductsByName(String productName , PaginationRequestDto requestDto)
     {
 
         PaginationRequestDto.validate(requestDto);
 
-        Page<Product> products =  productRepository.findByNameStartingWithIgnoreCase(productName , requestDto.toPageable());
+        return catalogCache.getPage(PageKey.of("name", requestDto, productName.toLowerCase()), () -> withTotalOrders(PaginationUtility.read(
+                requestDto,
+                Product.class,
+                pageable -> productRepository.findByNameStartingWithIgnoreCase(productName , pageable),
+                (position, sort, limit) -> productRepository.findByNameStartingWithIgnoreCase(productName, position, sort, limit),
+                Function.identity()
+        )));
+
+    }
+
+    /**
+     * Full-text search over name, category and description, best matches first. Tolerates one
+     * typo per word and treats the last word as a prefix. Pages are not cached: the index answers
+     * from memory and only the hits of the requested page are loaded.
+     */
+    @Transactional(readOnly = true)
+    public PaginationResponseDto<ProductResponseDTO> search(String query, PaginationRequestDto requestDto)
+    {
+        PaginationRequestDto.validate(requestDto);
+        if (requestDto.isKeyset())
+        {
+            throw new ValidationException(ErrorCode.INVALID_PAGINATION_PARAMETER,
+                    "Search results are ranked by relevance and only support page numbers");
+        }
+
+        SearchResult result = searchService.search(query, (requestDto.getPage() - 1) * requestDto.getSize(), requestDto.getSize());
+        Map<Long, Product> productsById = productRepository.findAllById(result.productIds()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        // keep the index's ranking; a product deleted since the lookup is simply left out
+        List<Product> products = result.productIds().stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return withTotalOrders(PaginationResponseDto.PaginationMetadata.of(
+                new PageImpl<>(products, requestDto.toPageable(), result.totalHits())));
+    }
+
+    /**
+     * Combined category / price range / availability filter. Facet counts come from memory and
+     * also give the page total, so the only query is the page itself (no COUNT, no GROUP BY).
+     *
+     * @param priceRange label of one of the configured price buckets, e.g. {@code 50-100}
+     */
+    @Transactional(readOnly = true)
+    public ProductBrowseResponseDTO browse(String category, String priceRange, Boolean inStock, PaginationRequestDto requestDto)
+    {
+        PaginationRequestDto.validate(requestDto);
+        if (requestDto.isKeyset())
+        {
+            throw new ValidationException(ErrorCode.INVALID_PAGINATION_PARAMETER,
+                    "Filtered browsing only supports page numbers");
+        }
+
+        PriceBucket bucket = priceRange == null ? null : facetService.priceBucket(priceRange);
+        Facets facets = facetService.facets(category, bucket, inStock);
 
-      return  PaginationResponseDto.PaginationMetadata.of(
-              products.map(productMapper::toResponseDTO)
-      );
+        List<Product> products = productRepository.filter(
+                category,
+                bucket == null ? null : bucket.min(),
+                bucket == null ? null : bucket.max(),
+                Boolean.TRUE.equals(inStock) ? 1 : null,
+                Boolean.FALSE.equals(inStock) ? 0 : null,
+                requestDto.toPageable());
 
+        PaginationResponseDto<ProductResponseDTO> results = withTotalOrders(PaginationResponseDto.PaginationMetadata.of(
+                new PageImpl<>(products, requestDto.toPageable(), facets.matching())));
+        return new ProductBrowseResponseDTO(results, facets);
     }
 
+    @Transactional(readOnly = true)
     public PaginationResponseDto<ProductResponseDTO> getProductsByCategory(
             String category,
             PaginationRequestDto requestDto
@@ -131,15 +249,43 @@ public class ProductService {
     {
         PaginationRequestDto.validate(requestDto);
 
-        Page<Product> products = productRepository.findByCategory(category, requestDto.toPageable());
+        return catalogCache.getPage(PageKey.of("category", requestDto, category), () -> withTotalOrders(PaginationUtility.read(
+                requestDto,
+                Product.class,
+                pageable -> productRepository.findByCategory(category, pageable),
+                (position, sort, limit) -> productRepository.findByCategory(category, position, sort, limit),
+                Function.identity()
+        )));
+    }
+
 
-        return PaginationResponseDto.PaginationMetadata.of(
-                products.map(productMapper::toResponseDTO)
-        );
+    // ============= PRIVATE HELPER METHODS =============
+
+    private Integer countOrders(Long productId)
+    {
+        return Math.toIntExact(orderItemRepository.countByProductId(productId));
     }
 
+    private PaginationResponseDto<ProductResponseDTO> withTotalOrders(PaginationResponseDto<Product> page)
+    {
+        Map<Long, Integer> totalOrders = new HashMap<>();
+        if (!page.getData().isEmpty())
+        {
+            List<Long> productIds = page.getData().stream().map(Product::getId).toList();
+            for (OrderItemRepository.ProductOrderCount count : orderItemRepository.countByProductIds(productIds))
+            {
+                totalOrders.put(count.getProductId(), Math.toIntExact(count.getTotalOrders()));
+            }
+        }
+
+        List<ProductResponseDTO> data = page.getData().stream()
+                .map(product -> productMapper.toResponseDTO(product, totalOrders.getOrDefault(product.getId(), 0)))
+                .toList();
+        return new PaginationResponseDto<>(data, page.getMetadata());
+    }
 
-    // Custom validation methods
+    // Custom validation methods; SUPPORTS so the bulk import can call them per row without opening transactions
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void handlingInput(ProductCreateRequestDTO requestDTO) {
         if (requestDTO.getName() !=  null) {
             requestDTO.setName(requestDTO.getName().trim());
@@ -155,10 +301,12 @@ public class ProductService {
         }
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean isPriceReasonable(BigDecimal price) {
         return price != null && price.compareTo(MAX_PRICE) < 0;
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void validateStockQuantity(Integer stockQuantity ) {
         if (stockQuantity != null && stockQuantity > MAX_STOCK_QUANTITY) {
             throw new ProductQuantityExceedException();
@@ -0,0 +1,47 @@
+package com.e_commerce.E_Commerce.REST.API.util;
+
+import com.e_commerce.E_Commerce.REST.API.dto.response.BulkReportDTO;
+import com.e_commerce.E_Commerce.REST.API.dto.response.BulkReportDTO.RowError;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tallies a bulk upload while it runs. Every row is counted, but only the first
+ * {@code maxReportedErrors} failures are kept, so the report stays small for a bad file.
+ */
+public class BulkReport {
+
+    private final int maxReportedErrors;
+    private final long startedNanos = System.nanoTime();
+    private final List<RowError> errors = new ArrayList<>();
+    private long succeeded;
+    private long failed;
+
+    public BulkReport(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public void succeeded(int rows) {
+        succeeded += rows;
+    }
+
+    public void failed(long row, String key, List<String> messages) {
+        failed++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new RowError(row, key, List.copyOf(messages)));
+        }
+    }
+
+    public void failed(long row, String key, String message) {
+        failed(row, key, List.of(message));
+    }
+
+    public BulkReportDTO finish() {
+        long elapsedNanos = System.nanoTime() - startedNanos;
+        long rows = succeeded + failed;
+        double rowsPerSecond = elapsedNanos == 0 ? 0 : rows / (elapsedNanos / 1e9);
+        return new BulkReportDTO(rows, succeeded, failed, elapsedNanos / 1_000_000, rowsPerSecond,
+                List.copyOf(errors), failed > errors.size());
+    }
+}
@@ -0,0 +1,169 @@
+package com.e_commerce.E_Commerce.REST.API.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads an upload one row at a time, as CSV with a header line or as newline-delimited JSON.
+ * <p>
+ * Nothing is buffered beyond the current row. CSV cells are bound by header name through
+ * Jackson, so both formats accept the same field names and coerce values the same way; empty
+ * cells are left unset. A row that cannot be parsed is returned with an error instead of
+ * aborting the whole upload.
+ */
+public class BulkRowReader<T> implements Closeable {
+
+    public static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int READ_BUFFER_CHARS = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final boolean csv;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader rowReader;
+    private final Class<T> rowType;
+    private List<String> header;
+    private long rowNumber;
+
+    public BulkRowReader(InputStream in, MediaType contentType, ObjectMapper objectMapper, Class<T> rowType) {
+        if (contentType == null || !(CSV.isCompatibleWith(contentType) || NDJSON.isCompatibleWith(contentType))) {
+            throw new IllegalArgumentException("Unsupported upload type " + contentType + ", expected " + CSV + " or " + NDJSON);
+        }
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), READ_BUFFER_CHARS);
+        this.csv = CSV.isCompatibleWith(contentType);
+        this.objectMapper = objectMapper;
+        this.rowReader = objectMapper.readerFor(rowType);
+        this.rowType = rowType;
+    }
+
+    /**
+     * @param number 1-based position of the row in the upload, not counting the CSV header
+     * @param value  the bound row, null if it could not be parsed
+     * @param error  why the row could not be parsed
+     */
+    public record Row<T>(long number, T value, String error) {
+    }
+
+    /**
+     * @return the next row, or null at the end of the upload
+     */
+    public Row<T> next() throws IOException {
+        return csv ? nextCsvRow() : nextJsonRow();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private Row<T> nextJsonRow() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        long number = ++rowNumber;
+        try {
+            return new Row<>(number, rowReader.readValue(line), null);
+        } catch (JsonProcessingException e) {
+            return new Row<>(number, null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Row<T> nextCsvRow() throws IOException {
+        if (header == null) {
+            header = readCsvRecord();
+            if (header == null) {
+                return null;
+            }
+            // spreadsheet exports often start with a byte order mark
+            header.set(0, header.get(0).replace("\uFEFF", ""));
+        }
+        List<String> cells = readCsvRecord();
+        if (cells == null) {
+            return null;
+        }
+
+        long number = ++rowNumber;
+        if (cells.size() > header.size()) {
+            return new Row<>(number, null, "Expected at most " + header.size() + " columns but found " + cells.size());
+        }
+        ObjectNode node = objectMapper.createObjectNode();
+        for (int i = 0; i < cells.size(); i++) {
+            if (!cells.get(i).isEmpty()) {
+                node.put(header.get(i), cells.get(i));
+            }
+        }
+        try {
+            return new Row<>(number, objectMapper.treeToValue(node, rowType), null);
+        } catch (JsonProcessingException e) {
+            return new Row<>(number, null, "Invalid value: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * RFC 4180 record: comma separated, cells may be quoted, quotes inside quoted cells are
+     * doubled and quoted cells may span lines. Blank lines are skipped.
+     *
+     * @return the cells, or null at the end of the input
+     */
+    private List<String> readCsvRecord() throws IOException {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        cell.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    cell.append((char) c);
+                }
+            } else if (c == '"' && cell.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else if (c == '\r') {
+                // the \n that follows ends the record
+            } else if (c == '\n') {
+                if (cells.isEmpty() && cell.isEmpty()) {
+                    continue;
+                }
+                break;
+            } else {
+                cell.append((char) c);
+            }
+        }
+        if (c == -1 && cells.isEmpty() && cell.isEmpty()) {
+            return null;
+        }
+        cells.add(cell.toString().trim());
+        return cells;
+    }
+}
@@ -0,0 +1,72 @@
+package com.e_commerce.E_Commerce.REST.API.util;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many threads may be inside a blocking call at the same time.
+ * <p>
+ * Waiting happens on a {@link Semaphore}, which parks virtual threads without pinning their
+ * carrier. The cap keeps a slow dependency from absorbing every request and pooled connection;
+ * it does not stop the wrapped call itself from pinning carriers, since permits usually
+ * outnumber them (one per CPU). Calls that block inside monitors need a non-pinning client,
+ * as the Stripe calls got with {@code PooledStripeHttpClient}.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+
+    public Bulkhead(String name, int maxConcurrentCalls, Duration maxWait) {
+        if (maxConcurrentCalls <= 0) {
+            throw new IllegalArgumentException("maxConcurrentCalls must be positive");
+        }
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    /**
+     * Runs the call once a permit is free, or returns {@code whenFull} if none frees up in time.
+     */
+    public <T, E extends Exception> T call(Call<T, E> call, Supplier<T> whenFull) throws E {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return whenFull.get();
+        }
+        if (!acquired) {
+            return whenFull.get();
+        }
+
+        try {
+            return call.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int inFlight() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
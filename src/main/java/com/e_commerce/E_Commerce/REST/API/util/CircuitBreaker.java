@@ -0,0 +1,210 @@
+package com.e_commerce.E_Commerce.REST.API.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Stops calling a dependency that keeps failing, so callers fail fast instead of waiting on it.
+ * <p>
+ * While CLOSED the outcomes of the last {@code windowSize} calls are kept; once at least
+ * {@code minimumCalls} are recorded and the share of failures reaches the threshold the breaker
+ * turns OPEN and rejects every call for {@code openDuration}. It then lets {@code halfOpenCalls}
+ * trial calls through (HALF_OPEN): all of them succeeding closes it with a fresh window, any of
+ * them failing opens it again. Which exceptions count as failures is up to the caller; a
+ * declined card is an answer, not an outage.
+ * <p>
+ * The lock is only held to update counters, never across the call.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final Predicate<Exception> isFailure;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // ring buffer of the last outcomes, true = failure
+    private final boolean[] outcomes;
+    private int nextOutcome;
+    private int recordedOutcomes;
+    private int failedOutcomes;
+
+    private volatile State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failedCalls = new LongAdder();
+    private final LongAdder rejectedCalls = new LongAdder();
+    private final LongAdder timesOpened = new LongAdder();
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenCalls, Predicate<Exception> isFailure) {
+        this(name, windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenCalls, isFailure, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                   Duration openDuration, int halfOpenCalls, Predicate<Exception> isFailure, LongSupplier nanoClock) {
+        if (windowSize <= 0 || halfOpenCalls <= 0) {
+            throw new IllegalArgumentException("windowSize and halfOpenCalls must be positive");
+        }
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]");
+        }
+        this.name = name;
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = Math.min(Math.max(minimumCalls, 1), windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.isFailure = isFailure;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Runs the call unless the breaker is open, in which case {@code whenOpen} is returned
+     * without calling anything. The call's exceptions are recorded and rethrown.
+     */
+    public <T, E extends Exception> T call(Bulkhead.Call<T, E> call, Supplier<T> whenOpen) throws E {
+        if (!tryAcquire()) {
+            rejectedCalls.increment();
+            return whenOpen.get();
+        }
+
+        calls.increment();
+        boolean failed = true;
+        try {
+            T result = call.run();
+            failed = false;
+            return result;
+        } catch (Exception e) {
+            failed = isFailure.test(e);
+            throw e;
+        } finally {
+            record(failed);
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Stats stats() {
+        State current;
+        double failureRate;
+        int buffered;
+        lock.lock();
+        try {
+            current = state;
+            buffered = recordedOutcomes;
+            failureRate = buffered == 0 ? 0 : (double) failedOutcomes / buffered;
+        } finally {
+            lock.unlock();
+        }
+        return new Stats(name, current, failureRate, buffered, calls.sum(), failedCalls.sum(),
+                rejectedCalls.sum(), timesOpened.sum());
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        lock.lock();
+        try {
+            if (state == State.OPEN && nanoClock.getAsLong() - openedAtNanos >= openNanos) {
+                state = State.HALF_OPEN;
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+            }
+            return switch (state) {
+                case CLOSED -> true;
+                case OPEN -> false;
+                case HALF_OPEN -> {
+                    if (halfOpenPermits == 0) {
+                        yield false;
+                    }
+                    halfOpenPermits--;
+                    yield true;
+                }
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failed) {
+        if (failed) {
+            failedCalls.increment();
+        }
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> {
+                    if (recordedOutcomes == outcomes.length) {
+                        failedOutcomes -= outcomes[nextOutcome] ? 1 : 0;
+                    } else {
+                        recordedOutcomes++;
+                    }
+                    outcomes[nextOutcome] = failed;
+                    failedOutcomes += failed ? 1 : 0;
+                    nextOutcome = (nextOutcome + 1) % outcomes.length;
+                    if (recordedOutcomes >= minimumCalls
+                            && failedOutcomes >= failureRateThreshold * recordedOutcomes) {
+                        open();
+                    }
+                }
+                case HALF_OPEN -> {
+                    if (failed) {
+                        open();
+                    } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                        state = State.CLOSED;
+                        resetWindow();
+                    }
+                }
+                case OPEN -> {
+                    // a call that started before the breaker opened, nothing left to decide
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = nanoClock.getAsLong();
+        timesOpened.increment();
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        nextOutcome = 0;
+        recordedOutcomes = 0;
+        failedOutcomes = 0;
+    }
+
+    /**
+     * @param failureRate     share of failures among the buffered outcomes while closed
+     * @param bufferedCalls   outcomes currently in the window
+     * @param rejectedCalls   calls refused while open, or half-open with no trial left
+     */
+    public record Stats(String name, State state, double failureRate, int bufferedCalls, long calls,
+                        long failedCalls, long rejectedCalls, long timesOpened) {
+    }
+}
@@ -2,8 +2,11 @@ package com.e_commerce.E_Commerce.REST.API.util;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
@@ -25,12 +28,26 @@ public class JwtService {
     private Long jwtExpiration;
     @Value("${jwt.refresh-expiration}")
     private Long refreshExpiration;
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private int claimsCacheMaxSize;
 
+    // built once -> both are immutable and thread-safe
+    @Getter(AccessLevel.NONE)
+    private SecretKey signingKey;
+    @Getter(AccessLevel.NONE)
+    private JwtParser jwtParser;
+    @Getter(AccessLevel.NONE)
+    private VerifiedClaimsCache claimsCache;
 
-    // generate secret key
-    private SecretKey getSigningKey()
+
+    @PostConstruct
+    public void init()
     {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        claimsCache = new VerifiedClaimsCache(claimsCacheMaxSize);
     }
 
     // =========== token generation ========
@@ -57,7 +74,7 @@ public class JwtService {
                 .subject(username)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -68,23 +85,30 @@ public class JwtService {
                 .subject(username)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + refreshExpiration) )
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
 
     }
     // ========= token validation =========
 
     public boolean validateToken(String token) // Checks the signature using the Secret Key issued by your server
+    {
+        return parseVerifiedClaims(token).isPresent();
+    }
+
+    /**
+     * Verifies the token once and returns its claims.
+     * Tokens seen before are served from the claims cache without checking the signature again.
+     *
+     * @return the claims, or empty when the token is malformed, forged or expired
+     */
+    public Optional<Claims> parseVerifiedClaims(String token)
     {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return  true;
-        } catch (JwtException e)
+            return Optional.of(extractAllClaims(token));
+        } catch (JwtException | IllegalArgumentException e)
         {
-            return false;
+            return Optional.empty();
         }
     }
 
@@ -114,11 +138,17 @@ public class JwtService {
 
     public Claims extractAllClaims(String token)
     {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        Claims cached = claimsCache.get(token);
+        if (cached != null)
+        {
+            return cached;
+        }
+
+        Claims claims = jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
+        claimsCache.put(token, claims);
+        return claims;
     }
 
 
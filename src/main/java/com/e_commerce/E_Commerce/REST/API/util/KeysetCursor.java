@@ -0,0 +1,150 @@
+package com.e_commerce.E_Commerce.REST.API.util;
+
+import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
+import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.beans.PropertyDescriptor;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes keyset scroll positions as opaque, url-safe cursors and back.
+ * <p>
+ * A cursor carries the scroll direction, the sort it was issued for and the key values of the
+ * row it points at (the sort column plus the id tie-breaker). Values are written as strings and
+ * converted back to the entity property types on decode.
+ */
+public class KeysetCursor {
+
+    private static final ConversionService CONVERSION = DefaultConversionService.getSharedInstance();
+    private static final String LINE_SEPARATOR = "\n";
+    private static final String KEY_VALUE_SEPARATOR = "=";
+
+    private KeysetCursor() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    /**
+     * @param position  a position taken from a keyset {@code Window}
+     * @param direction which way the cursor scrolls when it is sent back
+     * @param sort      signature of the sort the window was read with (see {@link #sortSignature})
+     */
+    public static String encode(ScrollPosition position, ScrollPosition.Direction direction, String sort) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Only keyset positions can be turned into cursors");
+        }
+
+        StringBuilder payload = new StringBuilder()
+                .append(direction.name()).append(LINE_SEPARATOR)
+                .append(sort);
+        keyset.getKeys().forEach((key, value) -> payload
+                .append(LINE_SEPARATOR)
+                .append(urlEncode(key))
+                .append(KEY_VALUE_SEPARATOR)
+                .append(value == null ? "" : urlEncode(CONVERSION.convert(value, String.class))));
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Turns a cursor back into a scroll position. A blank cursor starts at the first row.
+     * @throws ValidationException if the cursor is malformed or was issued for another sort
+     */
+    public static ScrollPosition decode(String cursor, Class<?> entityType, String sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        String[] lines;
+        ScrollPosition.Direction direction;
+        try {
+            lines = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(LINE_SEPARATOR);
+            direction = ScrollPosition.Direction.valueOf(lines[0]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw malformed();
+        }
+
+        if (lines.length < 3) {
+            throw malformed();
+        }
+        if (!lines[1].equals(sort)) {
+            throw new ValidationException(ErrorCode.INVALID_PAGINATION_PARAMETER,
+                    "cursor was issued for a different sort order, start again without it");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (int i = 2; i < lines.length; i++) {
+            int separator = lines[i].indexOf(KEY_VALUE_SEPARATOR);
+            if (separator < 0) {
+                throw malformed();
+            }
+            String property;
+            String rawValue;
+            try {
+                property = urlDecode(lines[i].substring(0, separator));
+                rawValue = urlDecode(lines[i].substring(separator + 1));
+            } catch (IllegalArgumentException e) {
+                throw malformed();
+            }
+            keys.put(property, convert(entityType, property, rawValue));
+        }
+
+        return ScrollPosition.of(keys, direction);
+    }
+
+    /**
+     * The sort a cursor is bound to, e.g. {@code price,ASC}.
+     */
+    public static String sortSignature(String sortBy, String sortDirection) {
+        return sortBy + "," + sortDirection.toUpperCase();
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private static Object convert(Class<?> entityType, String property, String rawValue) {
+        if (rawValue.isEmpty()) {
+            return null;
+        }
+
+        PropertyDescriptor descriptor;
+        try {
+            descriptor = BeanUtils.getPropertyDescriptor(entityType, property);
+        } catch (BeansException e) {
+            throw malformed();
+        }
+        if (descriptor == null) {
+            throw malformed();
+        }
+
+        try {
+            return CONVERSION.convert(rawValue, descriptor.getPropertyType());
+        } catch (ConversionException e) {
+            throw malformed();
+        }
+    }
+
+    private static ValidationException malformed() {
+        return new ValidationException(ErrorCode.INVALID_PAGINATION_PARAMETER, "Malformed pagination cursor");
+    }
+
+    private static String urlEncode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String urlDecode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,101 @@
+package com.e_commerce.E_Commerce.REST.API.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style order numbers: unique across nodes without coordination, time-ordered,
+ * and always {@value #LENGTH} characters ({@code ORD-} + 13 Crockford base32 digits).
+ * <p>
+ * The 63-bit id packs milliseconds since {@link #EPOCH} (41 bits, ~69 years), the node id
+ * (10 bits) and a per-millisecond sequence (12 bits, 4096 ids/ms per node). The last
+ * timestamp and sequence live in one {@link AtomicLong} advanced by CAS. When a millisecond's
+ * sequence runs out, or the clock steps back, ids continue on the last timestamp + 1 instead
+ * of blocking, so they stay unique and increasing.
+ */
+@Component
+public class OrderNumberGenerator {
+
+    public static final String PREFIX = "ORD-";
+    public static final int LENGTH = 17;
+
+    static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final byte[] DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+    private static final int ENCODED_DIGITS = LENGTH - PREFIX.length();
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+    // (millis since EPOCH << SEQUENCE_BITS) | sequence of the last issued id
+    private final AtomicLong lastState = new AtomicLong();
+
+    public OrderNumberGenerator(@Value("${app.order-number.node-id:0}") long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    OrderNumberGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("node id must be between 0 and " + MAX_NODE_ID + ", was " + nodeId);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    public String next() {
+        return encode(nextId());
+    }
+
+    /**
+     * @return the next raw id; its timestamp and node can be read back with {@link #timestampOf}
+     *         and {@link #nodeOf}
+     */
+    public long nextId() {
+        long state = nextState();
+        long millis = state >>> SEQUENCE_BITS;
+        long sequence = state & SEQUENCE_MASK;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+    }
+
+    static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    static long nodeOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+
+    static String encode(long id) {
+        byte[] chars = new byte[LENGTH];
+        for (int i = 0; i < PREFIX.length(); i++) {
+            chars[i] = (byte) PREFIX.charAt(i);
+        }
+        for (int i = LENGTH - 1; i >= LENGTH - ENCODED_DIGITS; i--) {
+            chars[i] = DIGITS[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars, StandardCharsets.US_ASCII);
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private long nextState() {
+        while (true) {
+            long last = lastState.get();
+            long now = (clock.getAsLong() - EPOCH) << SEQUENCE_BITS;
+            // same millisecond, exhausted sequence or clock moved back: continue after the last id
+            long next = now > last ? now : last + 1;
+            if (lastState.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
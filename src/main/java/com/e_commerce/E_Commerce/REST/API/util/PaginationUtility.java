@@ -0,0 +1,48 @@
+package com.e_commerce.E_Commerce.REST.API.util;
+
+import com.e_commerce.E_Commerce.REST.API.dto.request.PaginationRequestDto;
+import com.e_commerce.E_Commerce.REST.API.dto.response.PaginationResponseDto;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.function.Function;
+
+/**
+ * Runs a list query in the mode the request asks for: offset pages (with a COUNT query)
+ * or keyset slices (seek by cursor, no count), and maps the rows to response DTOs.
+ */
+public class PaginationUtility {
+
+    private PaginationUtility() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    /**
+     * A repository scroll method, e.g. {@code Window<Product> findAllBy(ScrollPosition, Sort, Limit)}.
+     */
+    @FunctionalInterface
+    public interface KeysetQuery<E> {
+        Window<E> scroll(ScrollPosition position, Sort sort, Limit limit);
+    }
+
+    public static <E, T> PaginationResponseDto<T> read(
+            PaginationRequestDto requestDto,
+            Class<E> entityType,
+            Function<Pageable, Page<E>> offsetQuery,
+            KeysetQuery<E> keysetQuery,
+            Function<E, T> mapper
+    ) {
+        if (requestDto.isKeyset()) {
+            ScrollPosition position = requestDto.toScrollPosition(entityType);
+            Window<E> window = keysetQuery.scroll(position, requestDto.toSort(), requestDto.toLimit());
+            return PaginationResponseDto.PaginationMetadata.of(window.map(mapper), position, requestDto);
+        }
+
+        Page<E> page = offsetQuery.apply(requestDto.toPageable());
+        return PaginationResponseDto.PaginationMetadata.of(page.map(mapper));
+    }
+}
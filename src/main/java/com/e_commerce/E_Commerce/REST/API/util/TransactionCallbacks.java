@@ -0,0 +1,48 @@
+package com.e_commerce.E_Commerce.REST.API.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Helpers to defer in-memory side effects until the surrounding transaction finishes.
+ * Outside a transaction the commit callbacks run immediately.
+ */
+public class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Runs the action once the current transaction commits (or right away when there is none).
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Runs the action only if the current transaction rolls back.
+     */
+    public static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
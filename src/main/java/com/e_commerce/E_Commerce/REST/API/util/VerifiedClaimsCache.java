@@ -0,0 +1,91 @@
+package com.e_commerce.E_Commerce.REST.API.util;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of JWT claims whose signature was already verified.
+ * Entries are keyed by a SHA-256 hash of the raw token and expire together with the token.
+ */
+public class VerifiedClaimsCache {
+
+    private final ConcurrentMap<String, CachedClaims> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final LongSupplier clock;
+
+    public VerifiedClaimsCache(int maxSize) {
+        this(maxSize, System::currentTimeMillis);
+    }
+
+    VerifiedClaimsCache(int maxSize, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the cached claims, or null when the token was never verified or has expired since
+     */
+    public Claims get(String token) {
+        String key = hash(token);
+        CachedClaims cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAtMillis() <= clock.getAsLong()) {
+            entries.remove(key, cached);
+            return null;
+        }
+        return cached.claims();
+    }
+
+    public void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        // a token without expiration has no natural TTL -> never cache it
+        if (maxSize <= 0 || expiration == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom();
+        }
+        entries.put(hash(token), new CachedClaims(claims, expiration.getTime()));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // drop expired tokens first, then an arbitrary tenth of the cache if it is still full
+    private void makeRoom() {
+        long now = clock.getAsLong();
+        entries.values().removeIf(cached -> cached.expiresAtMillis() <= now);
+
+        int toEvict = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (toEvict-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedClaims(Claims claims, long expiresAtMillis) {
+    }
+}
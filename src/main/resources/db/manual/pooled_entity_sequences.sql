@@ -0,0 +1,37 @@
+-- Dedicated, pooled id sequences for every entity (see @SequenceGenerator on the model classes).
+--
+-- Not a migration: the build has no migration tool, so nothing runs this automatically.
+-- Fresh schemas get the sequences from ddl-auto. For an existing schema, run it with SQL*Plus or
+-- SQLcl with the application stopped, once before the first start on these sequences and again
+-- whenever rows were inserted with ids from elsewhere. It is safe to run repeatedly.
+--
+-- Each sequence is (re)created to start right after the highest id already in its table. That
+-- also covers a sequence ddl-auto already created at 1 on a schema that has rows. INCREMENT BY
+-- must equal the entity's allocationSize (Hibernate refuses to start otherwise); with the
+-- pooled-lo optimizer every NEXTVAL is the low end of a block, so MAX(id) + 1 is the next free id.
+-- The previous implicit <entity>_SEQ sequences are no longer used and can be dropped afterwards.
+
+DECLARE
+    PROCEDURE reset_sequence(p_sequence VARCHAR2, p_table VARCHAR2, p_increment NUMBER) IS
+        v_exists NUMBER;
+        v_start  NUMBER;
+    BEGIN
+        EXECUTE IMMEDIATE 'SELECT NVL(MAX(id), 0) + 1 FROM ' || p_table INTO v_start;
+        SELECT COUNT(*) INTO v_exists FROM user_sequences WHERE sequence_name = UPPER(p_sequence);
+        IF v_exists > 0 THEN
+            EXECUTE IMMEDIATE 'DROP SEQUENCE ' || p_sequence;
+        END IF;
+        EXECUTE IMMEDIATE 'CREATE SEQUENCE ' || p_sequence
+            || ' START WITH ' || v_start
+            || ' INCREMENT BY ' || p_increment;
+    END;
+BEGIN
+    reset_sequence('orders_seq',      'orders',      50);
+    reset_sequence('order_items_seq', 'order_items', 200);
+    reset_sequence('products_seq',    'products',    100);
+    reset_sequence('payments_seq',    'payments',    50);
+    reset_sequence('customers_seq',   'customers',   20);
+    reset_sequence('users_seq',       'users',       20);
+    reset_sequence('product_stock_shards_seq', 'product_stock_shards', 50);
+END;
+/
@@ -0,0 +1,65 @@
+package com.e_commerce.E_Commerce.REST.API.benchmark;
+
+import com.e_commerce.E_Commerce.REST.API.util.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing (login/refresh) and parsing (every authenticated request), with and without
+ * the verified-claims cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "y8P2Q1v+K9L0rT5sD7X3zA4bU6mN8cW1eF0G2hI7jL9kM5pR";
+
+    private JwtService jwtService;
+    private JwtService uncachedJwtService;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = jwtService(10_000);
+        uncachedJwtService = jwtService(0);
+
+        user = User.withUsername("user@example.com").password("").authorities("ROLE_USER").build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims parseUncached() {
+        return uncachedJwtService.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Optional<Claims> parseCached() {
+        return jwtService.parseVerifiedClaims(token);
+    }
+
+    private JwtService jwtService(int claimsCacheMaxSize) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secret", SECRET);
+        ReflectionTestUtils.setField(service, "jwtExpiration", 900_000L);
+        ReflectionTestUtils.setField(service, "refreshExpiration", 604_800_000L);
+        ReflectionTestUtils.setField(service, "claimsCacheMaxSize", claimsCacheMaxSize);
+        service.init();
+        return service;
+    }
+}
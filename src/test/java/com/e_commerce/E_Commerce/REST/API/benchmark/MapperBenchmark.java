@@ -0,0 +1,110 @@
+package com.e_commerce.E_Commerce.REST.API.benchmark;
+
+import com.e_commerce.E_Commerce.REST.API.mapper.OrderItemMapper;
+import com.e_commerce.E_Commerce.REST.API.mapper.OrderItemMapperImpl;
+import com.e_commerce.E_Commerce.REST.API.mapper.OrderMapper;
+import com.e_commerce.E_Commerce.REST.API.mapper.OrderMapperImpl;
+import com.e_commerce.E_Commerce.REST.API.mapper.ProductMapper;
+import com.e_commerce.E_Commerce.REST.API.mapper.ProductMapperImpl;
+import com.e_commerce.E_Commerce.REST.API.model.Customer;
+import com.e_commerce.E_Commerce.REST.API.model.Order;
+import com.e_commerce.E_Commerce.REST.API.model.OrderItem;
+import com.e_commerce.E_Commerce.REST.API.model.Payment;
+import com.e_commerce.E_Commerce.REST.API.model.Product;
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+import com.e_commerce.E_Commerce.REST.API.payment.PaymentMethod;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response DTO mapping done for every order and product read.
+ * The order carries {@link #itemsPerOrder} items, each with its product.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "10"})
+    private int itemsPerOrder;
+
+    private final OrderMapper orderMapper = new OrderMapperImpl();
+    private final OrderItemMapper orderItemMapper = new OrderItemMapperImpl();
+    private final ProductMapper productMapper = new ProductMapperImpl();
+
+    private Order order;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setFirstName("Jane");
+        customer.setLastName("Doe");
+        customer.setPhone("+10000000000");
+
+        order = new Order();
+        order.setId(1L);
+        order.setOrderNumber("ORD-1");
+        order.setOrderDate(LocalDateTime.now());
+        order.setOrderStatus(OrderStatus.PENDING);
+        order.setCustomer(customer);
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < itemsPerOrder; i++) {
+            Product itemProduct = product(i + 1L);
+            OrderItem item = new OrderItem();
+            item.setId(i + 1L);
+            item.setOrder(order);
+            item.setProduct(itemProduct);
+            item.setQuantity(2);
+            item.setUnitPrice(itemProduct.getPrice());
+            order.getOrderItems().add(item);
+            total = total.add(itemProduct.getPrice().multiply(BigDecimal.TWO));
+        }
+        order.setTotalAmount(total);
+
+        Payment payment = new Payment();
+        payment.setId(1L);
+        payment.setOrder(order);
+        payment.setPaymentMethod(PaymentMethod.STRIPE);
+        payment.setAmount(total);
+        order.setPayment(payment);
+
+        product = product(1L);
+    }
+
+    @Benchmark
+    public Object orderToResponseDTO() {
+        return orderMapper.toResponseDTO(order);
+    }
+
+    @Benchmark
+    public Object orderItemsToResponseDTOs() {
+        return orderItemMapper.toResponseDTOs(order.getOrderItems());
+    }
+
+    @Benchmark
+    public Object productToResponseDTO() {
+        return productMapper.toResponseDTO(product, 3);
+    }
+
+    private Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("product-" + id);
+        product.setDescription("description");
+        product.setCategory("Electronics");
+        product.setImgUrl("https://example.com/" + id + ".png");
+        product.setPrice(new BigDecimal("19.99"));
+        product.setStockQuantity(100);
+        product.setActive(true);
+        return product;
+    }
+}
@@ -0,0 +1,94 @@
+package com.e_commerce.E_Commerce.REST.API.benchmark;
+
+import com.e_commerce.E_Commerce.REST.API.dto.request.OrderItemCreateRequestDTO;
+import com.e_commerce.E_Commerce.REST.API.dto.request.PaginationRequestDto;
+import com.e_commerce.E_Commerce.REST.API.model.OrderItem;
+import com.e_commerce.E_Commerce.REST.API.model.Product;
+import com.e_commerce.E_Commerce.REST.API.service.OrderItemValidator;
+import com.e_commerce.E_Commerce.REST.API.util.ValidationUtility;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request checks run before any database access: order item validation, order totals and
+ * pagination parameters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestValidationBenchmark {
+
+    @Param({"1", "10"})
+    private int itemsPerOrder;
+
+    private final OrderItemValidator orderItemValidator = new OrderItemValidator();
+
+    private List<OrderItemCreateRequestDTO> itemRequests;
+    private List<OrderItem> orderItems;
+    private PaginationRequestDto paginationRequest;
+
+    @Setup
+    public void setUp() {
+        itemRequests = new ArrayList<>();
+        orderItems = new ArrayList<>();
+        for (int i = 0; i < itemsPerOrder; i++) {
+            BigDecimal unitPrice = new BigDecimal("19.99").add(BigDecimal.valueOf(i));
+            itemRequests.add(OrderItemCreateRequestDTO.builder()
+                    .productId(i + 1L)
+                    .quantity(2)
+                    .unitPrice(unitPrice)
+                    .build());
+
+            Product product = new Product();
+            product.setId(i + 1L);
+            product.setStockQuantity(100);
+            product.setActive(true);
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setQuantity(2);
+            item.setUnitPrice(unitPrice);
+            orderItems.add(item);
+        }
+
+        paginationRequest = new PaginationRequestDto();
+        paginationRequest.setPage(3);
+        paginationRequest.setSize(20);
+        paginationRequest.setSortBy("price");
+        paginationRequest.setSortDirection("DESC");
+    }
+
+    @Benchmark
+    public List<OrderItemCreateRequestDTO> validateOrderItemRequests() {
+        itemRequests.forEach(orderItemValidator::validateOrderItemRequest);
+        return itemRequests;
+    }
+
+    @Benchmark
+    public List<OrderItem> validateOrderItems() {
+        orderItemValidator.validateOrderItems(orderItems);
+        return orderItems;
+    }
+
+    @Benchmark
+    public BigDecimal calculateOrderTotal() {
+        return ValidationUtility.calculateOrderTotal(itemRequests);
+    }
+
+    @Benchmark
+    public Object paginationToPageable() {
+        return paginationRequest.toPageable();
+    }
+
+    @Benchmark
+    public PaginationRequestDto paginationValidate() {
+        PaginationRequestDto.validate(paginationRequest);
+        return paginationRequest;
+    }
+}
@@ -0,0 +1,57 @@
+package com.e_commerce.E_Commerce.REST.API.benchmark;
+
+import com.e_commerce.E_Commerce.REST.API.inventory.StockReservationLedger;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockShards;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductStockShardRepository;
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of admitting a reservation in the in-memory ledger under contention on one hot product.
+ * Each op reserves one unit and gives it back, so the counter never runs dry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StockReservationLedgerBenchmark {
+
+    private static final long HOT_PRODUCT_ID = 1L;
+
+    private StockReservationLedger ledger;
+
+    @Setup
+    public void setUp() {
+        ProductRepository productRepository = Mockito.mock(ProductRepository.class);
+        Mockito.when(productRepository.findStockQuantityById(HOT_PRODUCT_ID))
+                .thenReturn(Optional.of(Integer.MAX_VALUE));
+        StockShards shards = new StockShards(productRepository, Mockito.mock(ProductStockShardRepository.class), false, 64);
+        ledger = new StockReservationLedger(productRepository, shards, Mockito.mock(ProductFacetService.class), true);
+        ledger.available(HOT_PRODUCT_ID);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean reserveAndRelease_singleThread() {
+        return reserveAndRelease();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean reserveAndRelease_64Threads() {
+        return reserveAndRelease();
+    }
+
+    private boolean reserveAndRelease() {
+        boolean admitted = ledger.reserve(HOT_PRODUCT_ID, 1);
+        ledger.release(HOT_PRODUCT_ID, 1);
+        return admitted;
+    }
+}
@@ -0,0 +1,117 @@
+package com.e_commerce.E_Commerce.REST.API.benchmark;
+
+import com.e_commerce.E_Commerce.REST.API.inventory.StockReservationLedger;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockShards;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductStockShardRepository;
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * Reservation throughput on one hot product when every stock update keeps its row locked until
+ * the order transaction commits, as the database does. {@code shards = 0} is the existing
+ * single-row {@code reduceStock} path, any other value splits the stock over that many shards.
+ * <p>
+ * Rows are simulated in memory: a guarded update locks its row (waiting like a blocked
+ * {@code UPDATE}), and the locks are released at commit, {@code holdMicros} after the
+ * reservation, which stands in for the rest of the order transaction. Throughput of the single
+ * row is bounded by one commit per hold time; with shards it grows with the shard count until
+ * the threads run out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class StockShardingBenchmark {
+
+    private static final long HOT_PRODUCT_ID = 1L;
+
+    @Param({"0", "2", "8", "32"})
+    public int shards;
+
+    @Param({"200"})
+    public long holdMicros;
+
+    private final ThreadLocal<List<ReentrantLock>> heldLocks = ThreadLocal.withInitial(ArrayList::new);
+    private Row productRow;
+    private Row[] shardRows;
+    private StockReservationLedger ledger;
+
+    @Setup
+    public void setUp() {
+        productRow = new Row(shards == 0 ? Integer.MAX_VALUE : 0);
+        shardRows = new Row[shards];
+        for (int i = 0; i < shards; i++) {
+            shardRows[i] = new Row(Integer.MAX_VALUE);
+        }
+
+        // stub-only mocks keep no invocation history, so they are safe to hit from every thread
+        ProductRepository productRepository = Mockito.mock(ProductRepository.class, Mockito.withSettings().stubOnly());
+        Mockito.when(productRepository.findStockShardCountById(HOT_PRODUCT_ID))
+                .thenReturn(shards == 0 ? Optional.empty() : Optional.of(shards));
+        Mockito.when(productRepository.reduceStock(eq(HOT_PRODUCT_ID), anyInt()))
+                .thenAnswer(invocation -> productRow.take(invocation.getArgument(1)));
+
+        ProductStockShardRepository shardRepository =
+                Mockito.mock(ProductStockShardRepository.class, Mockito.withSettings().stubOnly());
+        Mockito.when(shardRepository.reduceStock(anyLong(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> shardRows[invocation.<Integer>getArgument(1)].take(invocation.getArgument(2)));
+
+        StockShards stockShards = new StockShards(productRepository, shardRepository, true, 64);
+        ledger = new StockReservationLedger(productRepository, stockShards,
+                Mockito.mock(ProductFacetService.class, Mockito.withSettings().stubOnly()), false);
+    }
+
+    @Benchmark
+    public boolean reserveInOrderTransaction() {
+        boolean reserved = ledger.reserve(HOT_PRODUCT_ID, 1);
+        LockSupport.parkNanos(holdMicros * 1_000);
+        commit();
+        return reserved;
+    }
+
+    private void commit() {
+        List<ReentrantLock> held = heldLocks.get();
+        held.forEach(ReentrantLock::unlock);
+        held.clear();
+    }
+
+    /**
+     * One stock row: a successful guarded update keeps the row locked until commit.
+     */
+    private final class Row {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private int quantity;
+
+        Row(int quantity) {
+            this.quantity = quantity;
+        }
+
+        int take(int units) {
+            lock.lock();
+            if (quantity < units) {
+                lock.unlock();
+                return 0;
+            }
+            quantity -= units;
+            heldLocks.get().add(lock);
+            return 1;
+        }
+    }
+}
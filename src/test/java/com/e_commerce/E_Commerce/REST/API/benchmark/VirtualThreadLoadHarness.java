@@ -0,0 +1,159 @@
+package com.e_commerce.E_Commerce.REST.API.benchmark;
+
+import com.e_commerce.E_Commerce.REST.API.payment.PaymentStrategy.PaymentResult;
+import com.e_commerce.E_Commerce.REST.API.payment.StripeGatewayClient;
+import com.e_commerce.E_Commerce.REST.API.payment.StripePaymentStrategy;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares request handling on a platform thread pool (Tomcat's default 200 workers) with
+ * one virtual thread per request, against a stub Stripe gateway that answers slowly.
+ * <p>
+ * Each simulated request holds a connection from a JDBC-sized pool for a few milliseconds and
+ * then creates a PaymentIntent through {@link StripePaymentStrategy}. Latency is measured from
+ * submission, so queueing for a worker thread counts. One JSON line per mode is printed:
+ * <pre>
+ * mvn test -Dtest=VirtualThreadLoadHarness -Dloadtest=true [-Dloadtest.requests=4000 -Dloadtest.gateway-latency-ms=150]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@DisplayName("Virtual Thread Load Harness")
+class VirtualThreadLoadHarness {
+
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 4000);
+    private static final int GATEWAY_LATENCY_MS = Integer.getInteger("loadtest.gateway-latency-ms", 150);
+    private static final int DB_POOL_SIZE = Integer.getInteger("loadtest.db-pool-size", 20);
+    private static final int DB_HOLD_MS = Integer.getInteger("loadtest.db-hold-ms", 2);
+    private static final int GATEWAY_CONCURRENCY = Integer.getInteger("loadtest.gateway-concurrency", 512);
+    private static final int PLATFORM_THREADS = 200;
+
+    private static final String PAYMENT_INTENT_JSON = """
+            {"id":"pi_stub","object":"payment_intent","amount":1000,"currency":"usd",\
+            "status":"requires_payment_method","client_secret":"pi_stub_secret"}""";
+
+    private static HttpServer gateway;
+
+    @BeforeAll
+    static void startGateway() throws IOException {
+        gateway = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        gateway.createContext("/", exchange -> {
+            sleep(GATEWAY_LATENCY_MS);
+            byte[] body = PAYMENT_INTENT_JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        // the stub must never be the bottleneck
+        gateway.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        gateway.start();
+    }
+
+    @AfterAll
+    static void stopGateway() {
+        gateway.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should report throughput and latency for platform and virtual threads")
+    void compareModes() throws Exception {
+        // warm up the Stripe client and JIT before measuring
+        run("warmup", Executors.newFixedThreadPool(PLATFORM_THREADS), REQUESTS / 4);
+
+        Result platform = run("platform", Executors.newFixedThreadPool(PLATFORM_THREADS), REQUESTS);
+        Result virtual = run("virtual", Executors.newVirtualThreadPerTaskExecutor(), REQUESTS);
+
+        System.out.println(platform.toJson());
+        System.out.println(virtual.toJson());
+        assertThat(platform.failures()).isZero();
+        assertThat(virtual.failures()).isZero();
+    }
+
+    private Result run(String mode, ExecutorService executor, int requests) throws Exception {
+        StripePaymentStrategy strategy = new StripePaymentStrategy(new StripeGatewayClient("sk_test_stub",
+                "http://localhost:" + gateway.getAddress().getPort(), Duration.ofSeconds(5), Duration.ofSeconds(30), 0,
+                GATEWAY_CONCURRENCY, Duration.ofSeconds(30), 50, 20, 50, Duration.ofSeconds(30), 3));
+        Semaphore connectionPool = new Semaphore(DB_POOL_SIZE, true);
+        AtomicInteger failures = new AtomicInteger();
+        long[] latenciesNanos = new long[requests];
+
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>(requests);
+        try (executor) {
+            for (int i = 0; i < requests; i++) {
+                int request = i;
+                long submitted = System.nanoTime();
+                futures.add(executor.submit(() -> {
+                    connectionPool.acquireUninterruptibly();
+                    try {
+                        sleep(DB_HOLD_MS);
+                    } finally {
+                        connectionPool.release();
+                    }
+                    PaymentResult result = strategy.processPayment(BigDecimal.TEN);
+                    if (!result.success()) {
+                        failures.incrementAndGet();
+                    }
+                    latenciesNanos[request] = System.nanoTime() - submitted;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latenciesNanos);
+        return new Result(mode, requests, failures.get(), requests / (elapsed / 1e9),
+                percentileMillis(latenciesNanos, 0.50), percentileMillis(latenciesNanos, 0.99));
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1e6;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Result(String mode, int requests, int failures, double throughputPerSecond,
+                          double p50Millis, double p99Millis) {
+
+        private String toJson() {
+            return String.format(Locale.ROOT,
+                    "{\"mode\":\"%s\",\"requests\":%d,\"failures\":%d,\"throughputPerSecond\":%.1f,"
+                            + "\"p50Ms\":%.1f,\"p99Ms\":%.1f,\"gatewayLatencyMs\":%d,\"dbPoolSize\":%d}",
+                    mode, requests, failures, throughputPerSecond, p50Millis, p99Millis,
+                    GATEWAY_LATENCY_MS, DB_POOL_SIZE);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.e_commerce.E_Commerce.REST.API.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Bounded TTL Cache Test")
+class BoundedTtlCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final List<String> removedKeys = new ArrayList<>();
+
+    private BoundedTtlCache<String, String> newCache(int maxSize) {
+        return new BoundedTtlCache<>("test", maxSize, Duration.ofSeconds(5),
+                (key, value) -> removedKeys.add(key), now::get);
+    }
+
+    @Test
+    @DisplayName("Should load once and serve later reads from memory")
+    void get_shouldReadThrough() {
+        BoundedTtlCache<String, String> cache = newCache(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("a", () -> "value-" + loads.incrementAndGet())).isEqualTo("value-1");
+        assertThat(cache.get("a", () -> "value-" + loads.incrementAndGet())).isEqualTo("value-1");
+
+        assertThat(loads).hasValue(1);
+        CacheStats stats = cache.stats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.hitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Should expire entries once their ttl has passed")
+    void get_shouldExpireAfterWrite() {
+        BoundedTtlCache<String, String> cache = newCache(10);
+        cache.put("a", "value");
+
+        now.addAndGet(4_999);
+        assertThat(cache.get("a")).isEqualTo("value");
+
+        now.addAndGet(1);
+        assertThat(cache.get("a")).isNull();
+        assertThat(removedKeys).containsExactly("a");
+        assertThat(cache.stats().size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry when full")
+    void put_shouldEvictLeastRecentlyUsed() {
+        BoundedTtlCache<String, String> cache = newCache(2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+
+        cache.put("c", "3");
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo("1");
+        assertThat(cache.get("c")).isEqualTo("3");
+        assertThat(removedKeys).containsExactly("b");
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should notify the listener for every invalidated entry")
+    void invalidateIf_shouldRemoveMatchingKeys() {
+        BoundedTtlCache<String, String> cache = newCache(10);
+        cache.put("page-1", "1");
+        cache.put("page-2", "2");
+        cache.put("item-1", "3");
+
+        cache.invalidateIf(key -> key.startsWith("page"));
+
+        assertThat(removedKeys).containsExactlyInAnyOrder("page-1", "page-2");
+        assertThat(cache.get("item-1")).isEqualTo("3");
+        assertThat(cache.stats().size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should store a key only once until it expires")
+    void putIfAbsent_shouldRejectLiveKeys() {
+        BoundedTtlCache<String, String> cache = newCache(10);
+
+        assertThat(cache.putIfAbsent("evt_1", "seen")).isTrue();
+        assertThat(cache.putIfAbsent("evt_1", "seen")).isFalse();
+
+        now.addAndGet(Duration.ofSeconds(6).toMillis());
+        assertThat(cache.putIfAbsent("evt_1", "seen")).isTrue();
+    }
+}
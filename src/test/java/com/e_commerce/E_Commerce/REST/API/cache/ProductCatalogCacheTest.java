@@ -0,0 +1,82 @@
+package com.e_commerce.E_Commerce.REST.API.cache;
+
+import com.e_commerce.E_Commerce.REST.API.dto.response.PaginationResponseDto;
+import com.e_commerce.E_Commerce.REST.API.dto.response.ProductResponseDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Product Catalog Cache Test")
+class ProductCatalogCacheTest {
+
+    private static final ProductCatalogCache.PageKey KEY =
+            new ProductCatalogCache.PageKey("all", List.of(), 1, 10, "id", "asc", null);
+
+    private final ProductCatalogCache cache =
+            new ProductCatalogCache(100, Duration.ofMinutes(5), 100, Duration.ofMinutes(5));
+
+    @Test
+    @DisplayName("Should serve a cached page until a product on it is invalidated")
+    void getPage_shouldReloadAfterInvalidation() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getPage(KEY, () -> page(loads.incrementAndGet()));
+        cache.getPage(KEY, () -> page(loads.incrementAndGet()));
+        cache.invalidateProduct(1L);
+        cache.getPage(KEY, () -> page(loads.incrementAndGet()));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should not keep a page whose load overlapped an invalidation")
+    void getPage_whenInvalidatedWhileLoading_shouldNotCacheStalePage() {
+        AtomicInteger loads = new AtomicInteger();
+
+        // the product changes (and its commit invalidates) after the page was read from the database
+        PaginationResponseDto<ProductResponseDTO> stale = cache.getPage(KEY, () -> {
+            PaginationResponseDto<ProductResponseDTO> loaded = page(loads.incrementAndGet());
+            cache.invalidateProduct(1L);
+            return loaded;
+        });
+        PaginationResponseDto<ProductResponseDTO> fresh = cache.getPage(KEY, () -> page(loads.incrementAndGet()));
+
+        assertThat(stale.getData().get(0).price()).isEqualByComparingTo("1");
+        assertThat(fresh.getData().get(0).price()).isEqualByComparingTo("2");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should not keep a product whose load overlapped an invalidation")
+    void getProduct_whenInvalidatedWhileLoading_shouldNotCacheStaleProduct() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getProduct(1L, () -> {
+            ProductResponseDTO loaded = product(loads.incrementAndGet());
+            cache.invalidateProduct(1L);
+            return loaded;
+        });
+        ProductResponseDTO fresh = cache.getProduct(1L, () -> product(loads.incrementAndGet()));
+
+        assertThat(fresh.price()).isEqualByComparingTo("2");
+        assertThat(cache.getProduct(1L, () -> product(loads.incrementAndGet())).price()).isEqualByComparingTo("2");
+        assertThat(loads).hasValue(2);
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private static PaginationResponseDto<ProductResponseDTO> page(int version) {
+        return new PaginationResponseDto<>(List.of(product(version)), null);
+    }
+
+    private static ProductResponseDTO product(int version) {
+        return new ProductResponseDTO(1L, "Lamp", null, BigDecimal.valueOf(version), null, 5, "home", null,
+                true, 0, null, true);
+    }
+}
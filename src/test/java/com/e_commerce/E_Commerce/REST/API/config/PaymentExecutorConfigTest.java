@@ -0,0 +1,55 @@
+package com.e_commerce.E_Commerce.REST.API.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Payment Executor Config Test")
+class PaymentExecutorConfigTest {
+
+    @Test
+    @DisplayName("Should run at most max-concurrent-calls tasks, hold queue-capacity more and reject the rest")
+    void boundedVirtualThreadExecutor_shouldBoundRunningAndWaitingTasks() throws InterruptedException {
+        PaymentExecutorConfig.BoundedVirtualThreadExecutor executor =
+                new PaymentExecutorConfig.BoundedVirtualThreadExecutor(new SimpleAsyncTaskExecutor(), 2, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(3);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Runnable call = () -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                finished.countDown();
+            }
+        };
+
+        for (int i = 0; i < 3; i++) {
+            executor.execute(call);
+        }
+        assertThatThrownBy(() -> executor.execute(call)).isInstanceOf(TaskRejectedException.class);
+
+        Thread.sleep(100);
+        assertThat(inFlight).hasValue(2);
+        release.countDown();
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxInFlight).hasValue(2);
+
+        // the slots are free again
+        CountDownLatch next = new CountDownLatch(1);
+        executor.execute(next::countDown);
+        assertThat(next.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
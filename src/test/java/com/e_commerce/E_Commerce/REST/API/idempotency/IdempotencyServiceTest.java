@@ -0,0 +1,177 @@
+package com.e_commerce.E_Commerce.REST.API.idempotency;
+
+import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
+import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
+import com.e_commerce.E_Commerce.REST.API.model.IdempotencyKey;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Idempotency Service Test")
+class IdempotencyServiceTest {
+
+    private final IdempotencyService idempotencyService = new IdempotencyService(
+            new InMemoryIdempotencyStore(100, Duration.ofHours(1)), new ObjectMapper(), Duration.ofSeconds(5));
+    private final AtomicInteger executions = new AtomicInteger();
+
+    record Receipt(Long id, String number) {
+    }
+
+    private Receipt placeOrder() {
+        int execution = executions.incrementAndGet();
+        return new Receipt((long) execution, "ORD-" + execution);
+    }
+
+    @Test
+    @DisplayName("Should replay the first response for a repeated key")
+    void execute_withSameKey_shouldRunOnce() {
+        Receipt first = idempotencyService.execute("orders:jane", "key-1", Map.of("qty", 1), Receipt.class, this::placeOrder);
+        Receipt retry = idempotencyService.execute("orders:jane", "key-1", Map.of("qty", 1), Receipt.class, this::placeOrder);
+
+        assertThat(retry).isEqualTo(first);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should run every request without a key")
+    void execute_withoutKey_shouldAlwaysRun() {
+        idempotencyService.execute("orders:jane", null, Map.of("qty", 1), Receipt.class, this::placeOrder);
+        idempotencyService.execute("orders:jane", null, Map.of("qty", 1), Receipt.class, this::placeOrder);
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should keep keys of different scopes apart")
+    void execute_withSameKeyInOtherScope_shouldRunAgain() {
+        idempotencyService.execute("orders:jane", "key-1", Map.of("qty", 1), Receipt.class, this::placeOrder);
+        idempotencyService.execute("orders:john", "key-1", Map.of("qty", 1), Receipt.class, this::placeOrder);
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused with a different request body")
+    void execute_withDifferentBody_shouldReject() {
+        idempotencyService.execute("orders:jane", "key-1", Map.of("qty", 1), Receipt.class, this::placeOrder);
+
+        assertThatThrownBy(() -> idempotencyService.execute(
+                "orders:jane", "key-1", Map.of("qty", 2), Receipt.class, this::placeOrder))
+                .isInstanceOf(ValidationException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should not record failures, so a retry runs again")
+    void execute_whenActionFails_shouldAllowRetry() {
+        assertThatThrownBy(() -> idempotencyService.execute("orders:jane", "key-1", Map.of("qty", 1), Receipt.class, () -> {
+            throw new ValidationException(ErrorCode.PRODUCT_INSUFFICIENT_STOCK);
+        })).isInstanceOf(ValidationException.class);
+
+        Receipt retry = idempotencyService.execute("orders:jane", "key-1", Map.of("qty", 1), Receipt.class, this::placeOrder);
+
+        assertThat(retry.number()).isEqualTo("ORD-1");
+    }
+
+    @Test
+    @DisplayName("Should make concurrent duplicates wait for the in-flight request")
+    void execute_concurrentDuplicates_shouldShareOneExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Receipt> first = executor.submit(() -> idempotencyService.execute(
+                    "orders:jane", "key-1", Map.of("qty", 1), Receipt.class, () -> {
+                        started.countDown();
+                        await(release);
+                        return placeOrder();
+                    }));
+            assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+            Future<Receipt> second = executor.submit(() -> idempotencyService.execute(
+                    "orders:jane", "key-1", Map.of("qty", 1), Receipt.class, this::placeOrder));
+            Future<Receipt> third = executor.submit(() -> idempotencyService.execute(
+                    "orders:jane", "key-1", Map.of("qty", 1), Receipt.class, this::placeOrder));
+
+            release.countDown();
+
+            Receipt original = first.get(1, TimeUnit.SECONDS);
+            assertThat(second.get(1, TimeUnit.SECONDS)).isEqualTo(original);
+            assertThat(third.get(1, TimeUnit.SECONDS)).isEqualTo(original);
+            assertThat(executions).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject keys longer than the limit")
+    void execute_withTooLongKey_shouldReject() {
+        String key = "k".repeat(IdempotencyService.MAX_KEY_LENGTH + 1);
+
+        assertThatThrownBy(() -> idempotencyService.execute("orders:jane", key, Map.of(), Receipt.class, this::placeOrder))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a key that does not fit the stored key together with its scope")
+    void execute_withKeyTooLongForScope_shouldReject() {
+        String scope = "orders:" + "j".repeat(100);
+        String key = "k".repeat(IdempotencyKey.KEY_LENGTH - scope.length());
+
+        assertThatThrownBy(() -> idempotencyService.execute(scope, key, Map.of(), Receipt.class, this::placeOrder))
+                .isInstanceOf(ValidationException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.INVALID_INPUT_FORMAT);
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should answer with the stored response when another node completed the key first")
+    void execute_whenClaimLostToOtherNode_shouldReplayTheirResponse() {
+        Receipt theirs = new Receipt(7L, "ORD-7");
+        IdempotencyRecord[] stored = new IdempotencyRecord[1];
+        IdempotencyStore contested = new IdempotencyStore() {
+            @Override
+            public Optional<IdempotencyRecord> find(String key) {
+                return Optional.ofNullable(stored[0]);
+            }
+
+            @Override
+            public <T> Optional<T> execute(String key, String requestHash, Supplier<T> action, Function<T, String> serializer) {
+                // the other node's insert of the key committed before this claim
+                stored[0] = new IdempotencyRecord(requestHash, "{\"id\":7,\"number\":\"ORD-7\"}");
+                return Optional.empty();
+            }
+        };
+        IdempotencyService service = new IdempotencyService(contested, new ObjectMapper(), Duration.ofSeconds(5));
+
+        Receipt receipt = service.execute("orders:jane", "key-1", Map.of("qty", 1), Receipt.class, this::placeOrder);
+
+        assertThat(receipt).isEqualTo(theirs);
+        assertThat(executions).hasValue(0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
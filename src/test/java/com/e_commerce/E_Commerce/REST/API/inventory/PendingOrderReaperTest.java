@@ -0,0 +1,109 @@
+package com.e_commerce.E_Commerce.REST.API.inventory;
+
+import com.e_commerce.E_Commerce.REST.API.cache.ProductCatalogCache;
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderItemRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderItemRepository.ProductQuantity;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Pending Order Reaper Test")
+@ExtendWith(MockitoExtension.class)
+class PendingOrderReaperTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private OrderItemRepository orderItemRepository;
+    @Mock
+    private StockReservationLedger stockLedger;
+    @Mock
+    private ProductCatalogCache catalogCache;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PendingOrderReaper reaper;
+
+    @BeforeEach
+    void setUp() {
+        reaper = new PendingOrderReaper(orderRepository,
+                new CancelledOrderStock(orderItemRepository, stockLedger, catalogCache), transactionManager, Duration.ofMinutes(30), 2, 10);
+    }
+
+    @Test
+    @DisplayName("Should cancel expired orders batch by batch and release their units per product")
+    void reap_shouldCancelInBatchesAndReleaseStock() {
+        when(orderRepository.findIdsByStatusOlderThan(eq(OrderStatus.PENDING), any(), anyCollection(), any()))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(orderRepository.lockIdsByStatus(anyCollection(), eq("PENDING"), anyCollection()))
+                .thenAnswer(invocation -> List.copyOf(invocation.<List<Long>>getArgument(0)));
+        when(orderItemRepository.sumQuantitiesByProduct(List.of(1L, 2L)))
+                .thenReturn(List.of(quantity(10L, 3), quantity(11L, 1)));
+        when(orderItemRepository.sumQuantitiesByProduct(List.of(3L)))
+                .thenReturn(List.of(quantity(10L, 2)));
+
+        reaper.reap();
+
+        verify(stockLedger).releaseAll(Map.of(10L, 3, 11L, 1));
+        verify(stockLedger).releaseAll(Map.of(10L, 2));
+        verify(orderRepository).updateStatus(List.of(1L, 2L), OrderStatus.CANCELLED);
+        verify(orderRepository).updateStatus(List.of(3L), OrderStatus.CANCELLED);
+        verify(catalogCache).invalidateProducts(Set.of(10L, 11L));
+        verify(transactionManager, times(2)).commit(any());
+
+        PendingOrderReaper.Stats stats = reaper.stats();
+        assertThat(stats.runs()).isEqualTo(1);
+        assertThat(stats.cancelledOrders()).isEqualTo(3);
+        assertThat(stats.releasedUnits()).isEqualTo(6);
+        assertThat(stats.lastRun().releasedUnits()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Should stop when every candidate is locked by another transaction")
+    void reap_whenCandidatesLocked_shouldLeaveThemForTheNextRun() {
+        when(orderRepository.findIdsByStatusOlderThan(eq(OrderStatus.PENDING), any(), anyCollection(), any()))
+                .thenReturn(List.of(1L, 2L));
+        when(orderRepository.lockIdsByStatus(anyCollection(), eq("PENDING"), anyCollection())).thenReturn(List.of());
+
+        reaper.reap();
+
+        verify(orderRepository, times(1)).findIdsByStatusOlderThan(any(), any(), anyCollection(), any());
+        verify(stockLedger, never()).releaseAll(any());
+        verify(orderRepository, never()).updateStatus(anyList(), any());
+        assertThat(reaper.stats().cancelledOrders()).isZero();
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private static ProductQuantity quantity(Long productId, long quantity) {
+        return new ProductQuantity() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Long getQuantity() {
+                return quantity;
+            }
+        };
+    }
+}
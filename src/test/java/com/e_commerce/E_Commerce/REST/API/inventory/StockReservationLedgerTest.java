@@ -0,0 +1,228 @@
+package com.e_commerce.E_Commerce.REST.API.inventory;
+
+import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductStockShardRepository;
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Stock Reservation Ledger Test")
+@ExtendWith(MockitoExtension.class)
+class StockReservationLedgerTest {
+
+    private static final long PRODUCT_ID = 1L;
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ProductStockShardRepository shardRepository;
+    @Mock
+    private ProductFacetService facets;
+
+    private StockShards shards;
+    private StockReservationLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        shards = new StockShards(productRepository, shardRepository, false, 64);
+        ledger = new StockReservationLedger(productRepository, shards, facets, true);
+    }
+
+    @Nested
+    @DisplayName("Reservation Tests")
+    class Reservation {
+
+        @Test
+        @DisplayName("Should reject a reservation larger than the available stock")
+        void reserve_whenNotEnoughStock_shouldBeRejected() {
+            when(productRepository.findStockQuantityById(PRODUCT_ID)).thenReturn(Optional.of(5));
+
+            assertThat(ledger.reserve(PRODUCT_ID, 3)).isTrue();
+            assertThat(ledger.reserve(PRODUCT_ID, 3)).isFalse();
+            assertThat(ledger.available(PRODUCT_ID)).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should take nothing when one product of the batch is short")
+        void reserveAll_whenOneProductShort_shouldRollBackTheOthers() {
+            when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(10));
+            when(productRepository.findStockQuantityById(2L)).thenReturn(Optional.of(1));
+
+            List<Long> rejected = ledger.reserveAll(Map.of(1L, 4, 2L, 2));
+
+            assertThat(rejected).containsExactly(2L);
+            assertThat(ledger.available(1L)).isEqualTo(10);
+            assertThat(ledger.available(2L)).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should never oversell under 64 contending threads")
+        void reserve_underContention_shouldNotOversell() throws Exception {
+            int stock = 1_000;
+            int threads = 64;
+            int attemptsPerThread = 100;
+            when(productRepository.findStockQuantityById(PRODUCT_ID)).thenReturn(Optional.of(stock));
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int admitted = 0;
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (ledger.reserve(PRODUCT_ID, 1)) {
+                            admitted++;
+                        }
+                    }
+                    return admitted;
+                }));
+            }
+            start.countDown();
+
+            int totalAdmitted = 0;
+            for (Future<Integer> result : results) {
+                totalAdmitted += result.get(30, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            assertThat(totalAdmitted).isEqualTo(stock);
+            assertThat(ledger.available(PRODUCT_ID)).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Write Back Tests")
+    class WriteBack {
+
+        @Test
+        @DisplayName("Should coalesce reservations and releases into one delta per product")
+        void flush_shouldWriteCoalescedDeltas() {
+            when(productRepository.findStockQuantityById(PRODUCT_ID)).thenReturn(Optional.of(10));
+            ledger.reserve(PRODUCT_ID, 3);
+            ledger.reserve(PRODUCT_ID, 2);
+            ledger.release(PRODUCT_ID, 1);
+
+            ledger.flush();
+
+            verify(productRepository).applyStockDeltas(Map.of(PRODUCT_ID, 4L));
+        }
+
+        @Test
+        @DisplayName("Should keep the deltas when the write back fails")
+        @SuppressWarnings("unchecked")
+        void flush_whenDatabaseFails_shouldRetryNextTime() {
+            when(productRepository.findStockQuantityById(PRODUCT_ID)).thenReturn(Optional.of(10));
+            ledger.reserve(PRODUCT_ID, 3);
+            doThrow(new IllegalStateException("db down"))
+                    .doNothing()
+                    .when(productRepository).applyStockDeltas(anyMap());
+
+            ledger.flush();
+            ledger.flush();
+
+            ArgumentCaptor<Map<Long, Long>> captor = ArgumentCaptor.forClass(Map.class);
+            verify(productRepository, times(2)).applyStockDeltas(captor.capture());
+            assertThat(captor.getAllValues()).allMatch(deltas -> deltas.equals(Map.of(PRODUCT_ID, 3L)));
+        }
+
+        @Test
+        @DisplayName("Should count released batches into the next write back")
+        void releaseAll_shouldBeFlushedWithTheReservations() {
+            when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(10));
+            when(productRepository.findStockQuantityById(2L)).thenReturn(Optional.of(10));
+            ledger.reserve(1L, 5);
+
+            ledger.releaseAll(Map.of(1L, 2, 2L, 4));
+            ledger.flush();
+
+            verify(productRepository).applyStockDeltas(Map.of(1L, 3L, 2L, -4L));
+            assertThat(ledger.available(2L)).isEqualTo(14);
+        }
+
+        @Test
+        @DisplayName("Should reload a reconciled counter from the database")
+        void reconcile_shouldReloadStock() {
+            when(productRepository.findStockQuantityById(PRODUCT_ID)).thenReturn(Optional.of(10), Optional.of(50));
+            ledger.reserve(PRODUCT_ID, 3);
+            ledger.flush();
+
+            ledger.reconcile(PRODUCT_ID);
+
+            assertThat(ledger.available(PRODUCT_ID)).isEqualTo(50);
+        }
+
+        @Test
+        @DisplayName("Should write pending reservations back before a stock reset and then serve the new stock")
+        void reconcile_whenReservationsPending_shouldFlushThenReset() {
+            when(productRepository.findStockQuantityById(PRODUCT_ID)).thenReturn(Optional.of(10), Optional.of(50));
+            ledger.reserve(PRODUCT_ID, 3);
+
+            ledger.reconcile(PRODUCT_ID);
+
+            verify(productRepository).applyStockDeltas(Map.of(PRODUCT_ID, 3L));
+            assertThat(ledger.available(PRODUCT_ID)).isEqualTo(50);
+
+            assertThat(ledger.reserve(PRODUCT_ID, 1)).isTrue();
+            ledger.flush();
+            verify(productRepository).applyStockDeltas(Map.of(PRODUCT_ID, 1L));
+            assertThat(ledger.available(PRODUCT_ID)).isEqualTo(49);
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse to start together with stock sharding")
+    void constructor_whenShardsEnabled_shouldThrow() {
+        StockShards enabledShards = new StockShards(productRepository, shardRepository, true, 64);
+
+        assertThatThrownBy(() -> new StockReservationLedger(productRepository, enabledShards, facets, true))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should go straight to the guarded SQL update when disabled")
+    void reserve_whenDisabled_shouldUseRepository() {
+        StockReservationLedger disabled = new StockReservationLedger(productRepository, shards, facets, false);
+        when(productRepository.reduceStock(PRODUCT_ID, 2)).thenReturn(1);
+
+        assertThat(disabled.reserve(PRODUCT_ID, 2)).isTrue();
+        verify(productRepository).reduceStock(PRODUCT_ID, 2);
+        verify(facets).takeStockAfterCommit(PRODUCT_ID, 2);
+    }
+
+    @Test
+    @DisplayName("Should give a released batch back in one id-ordered update when disabled")
+    @SuppressWarnings("unchecked")
+    void releaseAll_whenDisabled_shouldApplyOneBatch() {
+        StockReservationLedger disabled = new StockReservationLedger(productRepository, shards, facets, false);
+
+        disabled.releaseAll(Map.of(7L, 1, 3L, 2));
+
+        ArgumentCaptor<Map<Long, Long>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(productRepository).applyStockDeltas(captor.capture());
+        assertThat(captor.getValue()).containsExactly(Map.entry(3L, -2L), Map.entry(7L, -1L));
+        verify(facets).takeStockAfterCommit(3L, -2);
+        verify(facets).takeStockAfterCommit(7L, -1);
+    }
+}
@@ -0,0 +1,215 @@
+package com.e_commerce.E_Commerce.REST.API.inventory;
+
+import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
+import com.e_commerce.E_Commerce.REST.API.model.Product;
+import com.e_commerce.E_Commerce.REST.API.model.ProductStockShard;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductStockShardRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductStockShardRepository.ShardQuantity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Stock Shards Test")
+@ExtendWith(MockitoExtension.class)
+class StockShardsTest {
+
+    private static final long PRODUCT_ID = 7L;
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ProductStockShardRepository shardRepository;
+
+    private StockShards shards;
+
+    @BeforeEach
+    void setUp() {
+        shards = new StockShards(productRepository, shardRepository, true, 64);
+    }
+
+    @Nested
+    @DisplayName("Reservation Tests")
+    class Reservation {
+
+        @Test
+        @DisplayName("Should fall back to the other shards when the random one is exhausted")
+        void reserve_whenShardExhausted_shouldTryTheOthers() {
+            when(productRepository.findStockShardCountById(PRODUCT_ID)).thenReturn(Optional.of(4));
+            when(shardRepository.reduceStock(eq(PRODUCT_ID), anyInt(), eq(2)))
+                    .thenAnswer(invocation -> invocation.<Integer>getArgument(1) == 3 ? 1 : 0);
+
+            assertThat(shards.reserve(PRODUCT_ID, 2)).isTrue();
+
+            verify(shardRepository).reduceStock(PRODUCT_ID, 3, 2);
+            verify(productRepository, never()).reduceStock(anyLong(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should take from several shards when no single one covers the quantity")
+        void reserve_whenSpreadOverShards_shouldTakeAcrossThem() {
+            when(productRepository.findStockShardCountById(PRODUCT_ID)).thenReturn(Optional.of(3));
+            // no shard holds 4, the locked rows cover whatever the fallback takes
+            when(shardRepository.reduceStock(eq(PRODUCT_ID), anyInt(), anyInt()))
+                    .thenAnswer(invocation -> invocation.<Integer>getArgument(2) == 4 ? 0 : 1);
+            when(productRepository.reduceStock(PRODUCT_ID, 4)).thenReturn(0);
+            when(shardRepository.lockQuantities(PRODUCT_ID)).thenReturn(List.of(locked(0, 2), locked(1, 2), locked(2, 1)));
+
+            assertThat(shards.reserve(PRODUCT_ID, 4)).isTrue();
+
+            verify(shardRepository).reduceStock(PRODUCT_ID, 0, 2);
+            verify(shardRepository).reduceStock(PRODUCT_ID, 1, 2);
+            verify(shardRepository, never()).reduceStock(PRODUCT_ID, 2, 1);
+        }
+
+        @Test
+        @DisplayName("Should count units given back to the product row when taking across shards")
+        void reserve_whenRowAndShardsTogetherCover_shouldTakeFromBoth() {
+            when(productRepository.findStockShardCountById(PRODUCT_ID)).thenReturn(Optional.of(2));
+            when(shardRepository.reduceStock(eq(PRODUCT_ID), anyInt(), anyInt()))
+                    .thenAnswer(invocation -> invocation.<Integer>getArgument(2) == 4 ? 0 : 1);
+            when(productRepository.reduceStock(PRODUCT_ID, 4)).thenReturn(0);
+            when(productRepository.lockStockQuantityById(PRODUCT_ID)).thenReturn(Optional.of(1));
+            when(productRepository.reduceStock(PRODUCT_ID, 1)).thenReturn(1);
+            when(shardRepository.lockQuantities(PRODUCT_ID)).thenReturn(List.of(locked(0, 1), locked(1, 2)));
+
+            assertThat(shards.reserve(PRODUCT_ID, 4)).isTrue();
+
+            verify(productRepository).reduceStock(PRODUCT_ID, 1);
+            verify(shardRepository).reduceStock(PRODUCT_ID, 0, 1);
+            verify(shardRepository).reduceStock(PRODUCT_ID, 1, 2);
+        }
+
+        @Test
+        @DisplayName("Should reject when the shards together hold too little")
+        void reserve_whenNotEnoughStock_shouldBeRejected() {
+            when(productRepository.findStockShardCountById(PRODUCT_ID)).thenReturn(Optional.of(2));
+            when(shardRepository.lockQuantities(PRODUCT_ID)).thenReturn(List.of(locked(0, 1), locked(1, 1)));
+
+            assertThat(shards.reserve(PRODUCT_ID, 3)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should spread a replaced stock over the locked shards with update queries")
+        void replaceStock_shouldWriteSharesToLockedShards() {
+            when(productRepository.findStockShardCountById(PRODUCT_ID)).thenReturn(Optional.of(3));
+            when(shardRepository.lockQuantities(PRODUCT_ID)).thenReturn(List.of(locked(0, 9), locked(1, 9), locked(2, 9)));
+
+            assertThat(shards.replaceStock(PRODUCT_ID, 8)).isTrue();
+
+            verify(shardRepository).setQuantity(PRODUCT_ID, 0, 3);
+            verify(shardRepository).setQuantity(PRODUCT_ID, 1, 3);
+            verify(shardRepository).setQuantity(PRODUCT_ID, 2, 2);
+            verify(productRepository).clearStock(PRODUCT_ID);
+        }
+
+        @Test
+        @DisplayName("Should re-read the shard count when the product row turns out empty")
+        void reserve_whenShardedElsewhere_shouldReloadShardCount() {
+            when(productRepository.findStockShardCountById(PRODUCT_ID)).thenReturn(Optional.empty(), Optional.of(2));
+            when(productRepository.reduceStock(PRODUCT_ID, 1)).thenReturn(0);
+            when(shardRepository.reduceStock(eq(PRODUCT_ID), anyInt(), eq(1))).thenReturn(1);
+
+            assertThat(shards.reserve(PRODUCT_ID, 1)).isTrue();
+            assertThat(shards.isSharded(PRODUCT_ID)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should give stock back to the product row when the shard is gone")
+        void release_whenShardMissing_shouldRestoreTheRow() {
+            when(productRepository.findStockShardCountById(PRODUCT_ID)).thenReturn(Optional.of(2));
+            when(shardRepository.restoreStock(eq(PRODUCT_ID), anyInt(), eq(5))).thenReturn(0);
+
+            shards.release(PRODUCT_ID, 5);
+
+            verify(productRepository).restoreStock(PRODUCT_ID, 5);
+        }
+
+        @Test
+        @DisplayName("Should only use the product row when sharding is disabled")
+        void reserve_whenDisabled_shouldUseProductRow() {
+            StockShards disabled = new StockShards(productRepository, shardRepository, false, 64);
+            when(productRepository.reduceStock(PRODUCT_ID, 1)).thenReturn(0);
+
+            assertThat(disabled.reserve(PRODUCT_ID, 1)).isFalse();
+
+            verify(productRepository, never()).findStockShardCountById(any());
+            verifyNoInteractions(shardRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Sharding Tests")
+    class Sharding {
+
+        @Test
+        @DisplayName("Should spread the stock on hand evenly and empty the product row")
+        void shard_shouldSpreadStockEvenly() {
+            Product product = Product.builder().id(PRODUCT_ID).stockQuantity(9).build();
+            when(productRepository.findByIdForUpdate(PRODUCT_ID)).thenReturn(Optional.of(product));
+            when(shardRepository.findAllForUpdate(PRODUCT_ID)).thenReturn(List.of(shard(0, 1)));
+
+            assertThat(shards.shard(PRODUCT_ID, 4)).containsExactly(3, 3, 2, 2);
+
+            assertThat(product.getStockQuantity()).isZero();
+            assertThat(product.getStockShardCount()).isEqualTo(4);
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<ProductStockShard>> saved = ArgumentCaptor.forClass(List.class);
+            verify(shardRepository).saveAll(saved.capture());
+            assertThat(saved.getValue()).extracting(ProductStockShard::getShardNo).containsExactly(0, 1, 2, 3);
+        }
+
+        @Test
+        @DisplayName("Should fold the shards back into the product row for a count of 0")
+        void shard_withZero_shouldFoldBack() {
+            Product product = Product.builder().id(PRODUCT_ID).stockQuantity(1).stockShardCount(2).build();
+            when(productRepository.findByIdForUpdate(PRODUCT_ID)).thenReturn(Optional.of(product));
+            when(shardRepository.findAllForUpdate(PRODUCT_ID)).thenReturn(List.of(shard(0, 4), shard(1, 5)));
+
+            assertThat(shards.shard(PRODUCT_ID, 0)).isEmpty();
+
+            assertThat(product.getStockQuantity()).isEqualTo(10);
+            assertThat(product.isStockSharded()).isFalse();
+            verify(shardRepository, never()).saveAll(any());
+        }
+
+        @Test
+        @DisplayName("Should reject a shard count above the limit")
+        void shard_withTooManyShards_shouldThrow() {
+            assertThatThrownBy(() -> shards.shard(PRODUCT_ID, 65)).isInstanceOf(ValidationException.class);
+            verifyNoInteractions(productRepository, shardRepository);
+        }
+    }
+
+    private static ProductStockShard shard(int shardNo, int quantity) {
+        return ProductStockShard.builder().productId(PRODUCT_ID).shardNo(shardNo).quantity(quantity).build();
+    }
+
+    private static ShardQuantity locked(int shardNo, int quantity) {
+        return new ShardQuantity() {
+            @Override
+            public int getShardNo() {
+                return shardNo;
+            }
+
+            @Override
+            public int getQuantity() {
+                return quantity;
+            }
+        };
+    }
+}
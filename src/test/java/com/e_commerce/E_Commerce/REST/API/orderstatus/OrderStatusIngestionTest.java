@@ -0,0 +1,165 @@
+package com.e_commerce.E_Commerce.REST.API.orderstatus;
+
+import com.e_commerce.E_Commerce.REST.API.cache.ProductCatalogCache;
+import com.e_commerce.E_Commerce.REST.API.inventory.CancelledOrderStock;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockReservationLedger;
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderItemRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderItemRepository.ProductQuantity;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository.OrderStatusRow;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepositoryCustom.StatusChange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Order Status Ingestion Test")
+@ExtendWith(MockitoExtension.class)
+class OrderStatusIngestionTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private OrderItemRepository orderItemRepository;
+    @Mock
+    private StockReservationLedger stockLedger;
+    @Mock
+    private ProductCatalogCache catalogCache;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderStatusIngestion ingestion;
+
+    @BeforeEach
+    void setUp() {
+        ingestion = newIngestion();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        ingestion.close();
+    }
+
+    @Test
+    @DisplayName("Should fold the events of each order into one guarded update and reject invalid transitions")
+    void drain_shouldApplyEventsInOrderPerOrder() {
+        ingestion.accept(List.of(
+                Map.entry(1L, OrderStatus.SHIPPED),
+                Map.entry(2L, OrderStatus.DELIVERED),
+                Map.entry(1L, OrderStatus.SHIPPED),
+                Map.entry(1L, OrderStatus.DELIVERED)));
+        when(orderRepository.findStatusesByIds(anyCollection()))
+                .thenReturn(List.of(status(1L, OrderStatus.PAID), status(2L, OrderStatus.PENDING)));
+        when(orderRepository.updateStatuses(anyList())).thenReturn(List.of());
+
+        ingestion.drain();
+
+        verify(orderRepository).updateStatuses(List.of(new StatusChange(1L, OrderStatus.PAID, 0L, OrderStatus.DELIVERED)));
+        OrderStatusIngestion.Stats stats = ingestion.stats();
+        assertThat(stats.accepted()).isEqualTo(4);
+        assertThat(stats.applied()).isEqualTo(2);
+        assertThat(stats.rejected()).isEqualTo(1);
+        assertThat(stats.pending()).isZero();
+        assertThat(stats.appliedThrough()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should retry an order changed concurrently and release the stock of cancelled orders")
+    void drain_whenOrderChangedConcurrently_shouldRetryItNextTime() {
+        ingestion.accept(List.of(Map.entry(1L, OrderStatus.CANCELLED), Map.entry(2L, OrderStatus.SHIPPED)));
+        when(orderRepository.findStatusesByIds(anyCollection()))
+                .thenReturn(List.of(status(1L, OrderStatus.PENDING), status(2L, OrderStatus.PAID)))
+                .thenReturn(List.of(status(1L, OrderStatus.CONFIRMED, 1L)));
+        when(orderRepository.updateStatuses(anyList())).thenReturn(List.of(1L), List.of());
+        when(orderItemRepository.sumQuantitiesByProduct(List.of(1L))).thenReturn(List.of(quantity(10L, 3)));
+
+        ingestion.drain();
+
+        assertThat(ingestion.stats().pending()).isEqualTo(1);
+        assertThat(ingestion.stats().appliedThrough()).isZero();
+        verifyNoInteractions(stockLedger);
+
+        ingestion.drain();
+
+        verify(orderRepository).updateStatuses(List.of(new StatusChange(1L, OrderStatus.CONFIRMED, 1L, OrderStatus.CANCELLED)));
+        verify(stockLedger).releaseAll(Map.of(10L, 3));
+        assertThat(ingestion.stats().conflicts()).isEqualTo(1);
+        assertThat(ingestion.stats().applied()).isEqualTo(2);
+        assertThat(ingestion.stats().appliedThrough()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should replay the events that were not applied before a restart")
+    void restart_shouldReplayUnappliedEvents() throws IOException {
+        ingestion.accept(List.of(Map.entry(1L, OrderStatus.SHIPPED)));
+        ingestion.close();
+
+        ingestion = newIngestion();
+
+        assertThat(ingestion.stats().pending()).isEqualTo(1);
+        assertThat(ingestion.stats().appliedThrough()).isZero();
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private OrderStatusIngestion newIngestion() {
+        return new OrderStatusIngestion(orderRepository,
+                new CancelledOrderStock(orderItemRepository, stockLedger, catalogCache), transactionManager, directory, DataSize.ofKilobytes(64), 100, 1000);
+    }
+
+    private static OrderStatusRow status(Long orderId, OrderStatus status) {
+        return status(orderId, status, 0L);
+    }
+
+    private static OrderStatusRow status(Long orderId, OrderStatus status, long version) {
+        return new OrderStatusRow() {
+            @Override
+            public Long getId() {
+                return orderId;
+            }
+
+            @Override
+            public OrderStatus getOrderStatus() {
+                return status;
+            }
+
+            @Override
+            public long getVersion() {
+                return version;
+            }
+        };
+    }
+
+    private static ProductQuantity quantity(Long productId, long quantity) {
+        return new ProductQuantity() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Long getQuantity() {
+                return quantity;
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.e_commerce.E_Commerce.REST.API.orderstatus;
+
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Order Status Log Test")
+class OrderStatusLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should replay the events after the checkpoint when reopened")
+    void reopen_shouldReplayEventsAfterCheckpoint() throws IOException {
+        try (OrderStatusLog log = new OrderStatusLog(directory, 1024)) {
+            log.append(List.of(Map.entry(1L, OrderStatus.SHIPPED), Map.entry(2L, OrderStatus.SHIPPED)));
+            log.append(List.of(Map.entry(1L, OrderStatus.DELIVERED)));
+            log.checkpoint(2);
+        }
+
+        try (OrderStatusLog log = new OrderStatusLog(directory, 1024)) {
+            assertThat(log.unapplied()).containsExactly(new OrderStatusEvent(3, 1L, OrderStatus.DELIVERED));
+            assertThat(log.append(List.of(Map.entry(2L, OrderStatus.DELIVERED))))
+                    .containsExactly(new OrderStatusEvent(4, 2L, OrderStatus.DELIVERED));
+        }
+    }
+
+    @Test
+    @DisplayName("Should cut off a record torn by a crash in the middle of an append")
+    void reopen_whenLastRecordTorn_shouldDropIt() throws IOException {
+        try (OrderStatusLog log = new OrderStatusLog(directory, 1024)) {
+            log.append(List.of(Map.entry(1L, OrderStatus.SHIPPED), Map.entry(2L, OrderStatus.SHIPPED)));
+        }
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(OrderStatusLog.RECORD_BYTES + 5);
+        }
+
+        try (OrderStatusLog log = new OrderStatusLog(directory, 1024)) {
+            assertThat(log.unapplied()).containsExactly(new OrderStatusEvent(1, 1L, OrderStatus.SHIPPED));
+            assertThat(log.lastSequence()).isEqualTo(1);
+        }
+        assertThat(Files.size(segment)).isEqualTo(OrderStatusLog.RECORD_BYTES);
+    }
+
+    @Test
+    @DisplayName("Should delete the segments that hold only applied events")
+    void checkpoint_shouldDeleteAppliedSegments() throws IOException {
+        try (OrderStatusLog log = new OrderStatusLog(directory, OrderStatusLog.RECORD_BYTES * 2L)) {
+            for (long orderId = 1; orderId <= 5; orderId++) {
+                log.append(List.of(Map.entry(orderId, OrderStatus.SHIPPED)));
+            }
+            assertThat(segments()).hasSize(3);
+
+            log.checkpoint(4);
+
+            assertThat(segments()).hasSize(1);
+        }
+        try (OrderStatusLog log = new OrderStatusLog(directory, OrderStatusLog.RECORD_BYTES * 2L)) {
+            assertThat(log.unapplied()).containsExactly(new OrderStatusEvent(5, 5L, OrderStatus.SHIPPED));
+        }
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("segment-")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.e_commerce.E_Commerce.REST.API.payment;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Payment Gateway Dispatcher Test")
+class PaymentGatewayDispatcherTest {
+
+    private ThreadPoolTaskExecutor executor;
+    private PaymentGatewayDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        // one call at a time, one more waiting
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        dispatcher = new PaymentGatewayDispatcher(executor, Duration.ofMillis(200), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should report a call that outlives the gateway timeout as unknown, not failed")
+    void dispatch_whenGatewaySlow_shouldReportUnknownOutcome() {
+        PaymentStrategy.PaymentResult result =
+                dispatcher.dispatch(new StubPaymentStrategy(Duration.ofSeconds(1)), BigDecimal.TEN, "payment-1").join();
+
+        assertThat(result.success()).isFalse();
+        assertThat(result.outcomeUnknown()).isTrue();
+        assertThat(result.errorMessage()).isEqualTo("Payment gateway timed out");
+    }
+
+    @Test
+    @DisplayName("Should not count the wait in the executor queue against the gateway timeout")
+    void dispatch_whenQueued_shouldTimeOnlyTheCall() {
+        PaymentStrategy strategy = new StubPaymentStrategy(Duration.ofMillis(150));
+
+        CompletableFuture<PaymentStrategy.PaymentResult> first = dispatcher.dispatch(strategy, BigDecimal.ONE, "payment-1");
+        CompletableFuture<PaymentStrategy.PaymentResult> queued = dispatcher.dispatch(strategy, BigDecimal.TEN, "payment-2");
+
+        // the second call waits 150 ms for the thread and then runs 150 ms, more than the 200 ms timeout in total
+        assertThat(first.join().success()).isTrue();
+        assertThat(queued.join().success()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should fail a call the full executor turns away, it never reached the gateway")
+    void dispatch_whenExecutorFull_shouldFail() {
+        PaymentStrategy strategy = new StubPaymentStrategy(Duration.ofMillis(150));
+        dispatcher.dispatch(strategy, BigDecimal.ONE, "payment-1");
+        dispatcher.dispatch(strategy, BigDecimal.ONE, "payment-2");
+
+        PaymentStrategy.PaymentResult result = dispatcher.dispatch(strategy, BigDecimal.ONE, "payment-3").join();
+
+        assertThat(result.success()).isFalse();
+        assertThat(result.outcomeUnknown()).isFalse();
+        assertThat(result.errorMessage()).isEqualTo("Payment gateway busy, please retry");
+    }
+}
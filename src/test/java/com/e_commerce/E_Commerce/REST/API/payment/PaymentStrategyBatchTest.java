@@ -0,0 +1,133 @@
+package com.e_commerce.E_Commerce.REST.API.payment;
+
+import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
+import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The batch side of the payment strategies: bounded parallel processing and routing by method.
+ */
+@DisplayName("Payment Strategy Batch Test")
+class PaymentStrategyBatchTest {
+
+    @Test
+    @DisplayName("Should process a batch with at most the given number of gateway calls in flight")
+    void processPayments_shouldBoundParallelism() {
+        SlowStrategy strategy = new SlowStrategy("STRIPE", 20);
+        List<PaymentStrategy.BatchPayment> payments = batch(40);
+
+        long start = System.nanoTime();
+        Map<Long, PaymentStrategy.PaymentResult> results = strategy.processPayments(payments, 8);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(strategy.maxInFlight.get()).isEqualTo(8);
+        assertThat(strategy.calls.get()).isEqualTo(40);
+        // 40 calls of 20 ms, 8 at a time: about 5 rounds instead of 40
+        assertThat(elapsedMillis).isLessThan(40 * 20 / 2);
+        assertThat(results.keySet()).containsExactlyElementsOf(
+                payments.stream().map(PaymentStrategy.BatchPayment::orderId).toList());
+        assertThat(results.values()).allMatch(PaymentStrategy.PaymentResult::success);
+    }
+
+    @Test
+    @DisplayName("Should turn a call that throws into an unknown outcome and finish the rest of the batch")
+    void processPayments_whenCallThrows_shouldLeaveOnlyThatPaymentUnknown() {
+        PaymentStrategy strategy = new SlowStrategy("STRIPE", 0) {
+            @Override
+            public PaymentResult processPayment(BigDecimal amount) {
+                if (amount.intValue() == 3) {
+                    throw new IllegalStateException("connection reset");
+                }
+                return super.processPayment(amount);
+            }
+        };
+
+        Map<Long, PaymentStrategy.PaymentResult> results = strategy.processPayments(batch(5), 2);
+
+        assertThat(results).hasSize(5);
+        assertThat(results.get(3L).success()).isFalse();
+        assertThat(results.get(3L).outcomeUnknown()).isTrue();
+        assertThat(results.get(3L).errorMessage()).isEqualTo("Payment gateway error");
+        assertThat(results.values()).filteredOn(PaymentStrategy.PaymentResult::success).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("Should route a batch to one group per strategy, keeping the item order")
+    void groupByStrategy_shouldGroupByPaymentMethod() {
+        SlowStrategy stripe = new SlowStrategy("STRIPE", 0);
+        SlowStrategy paypal = new SlowStrategy("PAYPAL", 0);
+        PaymentStrategyFactory factory = new PaymentStrategyFactory(List.of(stripe, paypal));
+
+        Map<PaymentStrategy, List<String>> groups = factory.groupByStrategy(
+                List.of("stripe:1", "paypal:2", "stripe:3", "PAYPAL:4"),
+                item -> item.substring(0, item.indexOf(':')));
+
+        assertThat(groups).containsOnlyKeys(stripe, paypal);
+        assertThat(groups.get(stripe)).containsExactly("stripe:1", "stripe:3");
+        assertThat(groups.get(paypal)).containsExactly("paypal:2", "PAYPAL:4");
+    }
+
+    @Test
+    @DisplayName("Should reject a batch with an unsupported payment method")
+    void groupByStrategy_whenMethodUnsupported_shouldThrow() {
+        PaymentStrategyFactory factory = new PaymentStrategyFactory(List.of(new SlowStrategy("STRIPE", 0)));
+
+        assertThatThrownBy(() -> factory.groupByStrategy(List.of("STRIPE", "BITCOIN"), method -> method))
+                .isInstanceOf(ValidationException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.INVALID_PAYMENT_METHOD);
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private static List<PaymentStrategy.BatchPayment> batch(int size) {
+        List<PaymentStrategy.BatchPayment> payments = new ArrayList<>(size);
+        LongStream.rangeClosed(1, size)
+                .forEach(orderId -> payments.add(new PaymentStrategy.BatchPayment(orderId, BigDecimal.valueOf(orderId),
+                        "payment-" + orderId)));
+        return payments;
+    }
+
+    private static class SlowStrategy implements PaymentStrategy {
+
+        private final String method;
+        private final long latencyMillis;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private SlowStrategy(String method, long latencyMillis) {
+            this.method = method;
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public PaymentResult processPayment(BigDecimal amount) {
+            calls.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return PaymentResult.success("pi_" + amount, "pi_" + amount + "_secret");
+        }
+
+        @Override
+        public String getPaymentMethodType() {
+            return method;
+        }
+    }
+}
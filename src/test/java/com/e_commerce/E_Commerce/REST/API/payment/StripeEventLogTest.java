@@ -0,0 +1,104 @@
+package com.e_commerce.E_Commerce.REST.API.payment;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Stripe Event Log Test")
+class StripeEventLogTest {
+
+    private static final Instant RECEIVED = Instant.ofEpochMilli(1_767_225_600_000L);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should replay the events after the checkpoint when reopened")
+    void reopen_shouldReplayEventsAfterCheckpoint() throws IOException {
+        try (StripeEventLog log = new StripeEventLog(directory, 1024)) {
+            log.append("evt_1", "pi_1", PaymentStatus.COMPLETED, RECEIVED);
+            log.append("evt_2", "pi_2", PaymentStatus.FAILED, RECEIVED);
+            log.append("evt_3", "pi_1", PaymentStatus.REFUNDED, RECEIVED);
+            log.checkpoint(2);
+        }
+
+        try (StripeEventLog log = new StripeEventLog(directory, 1024)) {
+            assertThat(log.unapplied())
+                    .containsExactly(new StripeEvent(3, "evt_3", "pi_1", PaymentStatus.REFUNDED, RECEIVED));
+            assertThat(log.append("evt_4", "pi_2", PaymentStatus.FAILED, RECEIVED))
+                    .isEqualTo(new StripeEvent(4, "evt_4", "pi_2", PaymentStatus.FAILED, RECEIVED));
+        }
+    }
+
+    @Test
+    @DisplayName("Should cut off a record torn by a crash in the middle of an append")
+    void reopen_whenLastRecordTorn_shouldDropIt() throws IOException {
+        try (StripeEventLog log = new StripeEventLog(directory, 1024)) {
+            log.append("evt_1", "pi_1", PaymentStatus.COMPLETED, RECEIVED);
+        }
+        Path segment = segments().get(0);
+        long firstRecord = Files.size(segment);
+        try (StripeEventLog log = new StripeEventLog(directory, 1024)) {
+            log.append("evt_2", "pi_2", PaymentStatus.COMPLETED, RECEIVED);
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(firstRecord + 10);
+        }
+
+        try (StripeEventLog log = new StripeEventLog(directory, 1024)) {
+            assertThat(log.unapplied())
+                    .containsExactly(new StripeEvent(1, "evt_1", "pi_1", PaymentStatus.COMPLETED, RECEIVED));
+            assertThat(log.lastSequence()).isEqualTo(1);
+        }
+        assertThat(Files.size(segment)).isEqualTo(firstRecord);
+    }
+
+    @Test
+    @DisplayName("Should delete the segments that hold only applied events")
+    void checkpoint_shouldDeleteAppliedSegments() throws IOException {
+        try (StripeEventLog log = new StripeEventLog(directory, 1)) {
+            for (int i = 1; i <= 3; i++) {
+                log.append("evt_" + i, "pi_" + i, PaymentStatus.COMPLETED, RECEIVED);
+            }
+            assertThat(segments()).hasSize(3);
+
+            log.checkpoint(2);
+
+            assertThat(segments()).hasSize(1);
+        }
+        try (StripeEventLog log = new StripeEventLog(directory, 1)) {
+            assertThat(log.unapplied()).extracting(StripeEvent::eventId).containsExactly("evt_3");
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse an id that does not fit a record")
+    void append_whenIdTooLong_shouldThrow() throws IOException {
+        try (StripeEventLog log = new StripeEventLog(directory, 1024)) {
+            assertThatThrownBy(() -> log.append("evt_" + "x".repeat(StripeEventLog.MAX_ID_BYTES), "pi_1",
+                    PaymentStatus.COMPLETED, RECEIVED))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(log.lastSequence()).isZero();
+        }
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("segment-")).sorted().toList();
+        }
+    }
+}
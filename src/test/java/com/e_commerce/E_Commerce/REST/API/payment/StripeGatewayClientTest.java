@@ -0,0 +1,202 @@
+package com.e_commerce.E_Commerce.REST.API.payment;
+
+import com.e_commerce.E_Commerce.REST.API.util.CircuitBreaker;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.CardException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.param.PaymentIntentCreateParams;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs {@link StripeGatewayClient} against a local stub of the Stripe API.
+ */
+@DisplayName("Stripe Gateway Client Test")
+class StripeGatewayClientTest {
+
+    private static final String PAYMENT_INTENT_JSON = """
+            {"id":"pi_stub","object":"payment_intent","amount":1000,"currency":"usd",\
+            "status":"requires_payment_method","client_secret":"pi_stub_secret"}""";
+    private static final String API_ERROR_JSON = """
+            {"error":{"type":"api_error","message":"Something went wrong on Stripe's end."}}""";
+    private static final String CARD_ERROR_JSON = """
+            {"error":{"type":"card_error","code":"card_declined","message":"Your card was declined."}}""";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private volatile int status = 200;
+    private volatile String responseBody = PAYMENT_INTENT_JSON;
+    private volatile long latencyMillis;
+    private volatile String lastAuthorization;
+    private volatile String lastIdempotencyKey;
+    private volatile String lastRequestBody;
+
+    private HttpServer gateway;
+
+    @BeforeEach
+    void startGateway() throws IOException {
+        gateway = HttpServer.create(new InetSocketAddress("localhost", 0), 64);
+        gateway.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            lastAuthorization = exchange.getRequestHeaders().getFirst("Authorization");
+            lastIdempotencyKey = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+            lastRequestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            sleep(latencyMillis);
+            byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        gateway.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        gateway.start();
+    }
+
+    @AfterEach
+    void stopGateway() {
+        gateway.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should create payment intents over one kept-alive connection")
+    void createPaymentIntent_shouldReuseConnection() throws Exception {
+        StripeGatewayClient client = newClient(Duration.ofSeconds(5), 10);
+
+        for (int i = 0; i < 5; i++) {
+            PaymentIntent paymentIntent = client.createPaymentIntent(params(), "payment-42");
+            assertThat(paymentIntent.getId()).isEqualTo("pi_stub");
+            assertThat(paymentIntent.getClientSecret()).isEqualTo("pi_stub_secret");
+        }
+
+        assertThat(requests.get()).isEqualTo(5);
+        assertThat(clientPorts).hasSize(1);
+        assertThat(lastAuthorization).isEqualTo("Bearer sk_test_stub");
+        assertThat(lastRequestBody).contains("amount=1000", "currency=usd");
+        assertThat(lastIdempotencyKey).isEqualTo("payment-42");
+    }
+
+    @Test
+    @DisplayName("Should give up on a call that outlives its deadline")
+    void createPaymentIntent_whenGatewaySlow_shouldFailAtDeadline() {
+        StripeGatewayClient client = newClient(Duration.ofMillis(200), 10);
+        latencyMillis = 2_000;
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.createPaymentIntent(params(), null))
+                .isInstanceOf(ApiConnectionException.class)
+                .hasMessageContaining("deadline");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Should open the breaker on gateway errors and then fail fast without calling the gateway")
+    void createPaymentIntent_whenGatewayFailing_shouldOpenBreaker() {
+        StripeGatewayClient client = newClient(Duration.ofSeconds(5), 4);
+        status = 500;
+        responseBody = API_ERROR_JSON;
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> client.createPaymentIntent(params(), null)).isInstanceOf(ApiException.class);
+        }
+        assertThatThrownBy(() -> client.createPaymentIntent(params(), null))
+                .isInstanceOf(StripeGatewayClient.GatewayRejectedException.class);
+
+        assertThat(requests.get()).isEqualTo(4);
+        StripeGatewayClient.Stats stats = client.stats();
+        assertThat(stats.circuitBreaker().state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(stats.circuitBreaker().rejectedCalls()).isEqualTo(1);
+        assertThat(stats.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep the breaker closed on declined cards")
+    void createPaymentIntent_whenCardDeclined_shouldStayClosed() {
+        StripeGatewayClient client = newClient(Duration.ofSeconds(5), 4);
+        status = 402;
+        responseBody = CARD_ERROR_JSON;
+
+        for (int i = 0; i < 8; i++) {
+            assertThatThrownBy(() -> client.createPaymentIntent(params(), null)).isInstanceOf(CardException.class);
+        }
+
+        assertThat(requests.get()).isEqualTo(8);
+        assertThat(client.stats().circuitBreaker().state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should turn a call away when every slot is taken without recording it in the breaker")
+    void createPaymentIntent_whenBulkheadFull_shouldNotReachBreaker() throws Exception {
+        StripeGatewayClient client = newClient(Duration.ofSeconds(5), 10);
+        latencyMillis = 500;
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            callers.add(Thread.ofVirtual().start(() -> {
+                try {
+                    client.createPaymentIntent(params(), null);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        while (requests.get() < 4) {
+            sleep(5);
+        }
+
+        assertThatThrownBy(() -> client.createPaymentIntent(params(), null))
+                .isInstanceOf(StripeGatewayClient.GatewayRejectedException.class)
+                .hasMessageContaining("busy");
+        for (Thread caller : callers) {
+            caller.join();
+        }
+
+        StripeGatewayClient.Stats stats = client.stats();
+        assertThat(stats.rejectedBusy()).isEqualTo(1);
+        assertThat(stats.circuitBreaker().calls()).isEqualTo(4);
+        assertThat(stats.circuitBreaker().rejectedCalls()).isZero();
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private StripeGatewayClient newClient(Duration deadline, int breakerWindow) {
+        return new StripeGatewayClient("sk_test_stub", "http://localhost:" + gateway.getAddress().getPort(),
+                Duration.ofSeconds(1), deadline, 0, 4, Duration.ofMillis(100),
+                breakerWindow, breakerWindow, 50, Duration.ofMinutes(1), 1);
+    }
+
+    private static PaymentIntentCreateParams params() {
+        return PaymentIntentCreateParams.builder()
+                .setAmount(1000L)
+                .setCurrency("usd")
+                .build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.e_commerce.E_Commerce.REST.API.payment;
+
+import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
+import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Stripe Signature Verifier Test")
+class StripeSignatureVerifierTest {
+
+    private static final byte[] PAYLOAD = "{\"id\":\"evt_1\",\"type\":\"payment_intent.succeeded\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicLong now = new AtomicLong(1_767_201_514L);
+    private final StripeSignatureVerifier verifier =
+            new StripeSignatureVerifier("whsec_test", Duration.ofMinutes(5), now::get);
+
+    @Test
+    @DisplayName("Should accept a header signed with the endpoint secret, whatever other signatures it carries")
+    void verify_shouldAcceptMatchingSignature() {
+        String header = verifier.header(now.get(), PAYLOAD);
+        String rotated = new StripeSignatureVerifier("whsec_old", Duration.ofMinutes(5), now::get)
+                .header(now.get(), PAYLOAD);
+
+        assertThatCode(() -> verifier.verify(PAYLOAD, header)).doesNotThrowAnyException();
+        assertThatCode(() -> verifier.verify(PAYLOAD, rotated + "," + header.substring(header.indexOf("v1="))))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered payload, a foreign secret and a missing header")
+    void verify_whenSignatureDoesNotMatch_shouldReject() {
+        String header = verifier.header(now.get(), PAYLOAD);
+        byte[] tampered = "{\"id\":\"evt_2\",\"type\":\"payment_intent.succeeded\"}".getBytes(StandardCharsets.UTF_8);
+        String foreign = new StripeSignatureVerifier("whsec_other", Duration.ofMinutes(5), now::get)
+                .header(now.get(), PAYLOAD);
+
+        assertThatThrownBy(() -> verifier.verify(tampered, header))
+                .isInstanceOf(ValidationException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.PAYMENT_WEBHOOK_SIGNATURE_INVALID);
+        assertThatThrownBy(() -> verifier.verify(PAYLOAD, foreign)).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> verifier.verify(PAYLOAD, null)).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> verifier.verify(PAYLOAD, "t=abc,v1=zz")).isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a delivery signed longer ago than the tolerance")
+    void verify_whenTimestampTooOld_shouldReject() {
+        String header = verifier.header(now.get(), PAYLOAD);
+
+        now.addAndGet(Duration.ofMinutes(5).toSeconds() + 1);
+
+        assertThatThrownBy(() -> verifier.verify(PAYLOAD, header))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("tolerance");
+    }
+}
@@ -0,0 +1,382 @@
+package com.e_commerce.E_Commerce.REST.API.payment;
+
+import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
+import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepositoryCustom;
+import com.e_commerce.E_Commerce.REST.API.repository.PaymentRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.PaymentRepository.PaymentStatusRow;
+import com.e_commerce.E_Commerce.REST.API.repository.PaymentRepositoryCustom.StatusChange;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Replays deliveries recorded from Stripe's test mode (src/test/resources/stripe/webhooks),
+ * signed the way Stripe signs them, against the receiver with mocked repositories.
+ */
+@DisplayName("Stripe Webhook Replay Test")
+@ExtendWith(MockitoExtension.class)
+class StripeWebhookReplayTest {
+
+    private static final String SECRET = "whsec_replay";
+    private static final String SUCCEEDED = "payment_intent.succeeded";
+    private static final String FAILED = "payment_intent.payment_failed";
+    private static final String REFUNDED = "charge.refunded";
+    private static final String UNHANDLED = "customer.created";
+    private static final String SUCCEEDED_INTENT = "pi_3Sl4dNPd5RZSTJk71vA0mG8e";
+    private static final String FAILED_INTENT = "pi_3Sl4fQPd5RZSTJk70eK1uJ5d";
+
+    private final StripeSignatureVerifier signer = new StripeSignatureVerifier(SECRET, Duration.ofMinutes(5));
+    private final List<StripeWebhookReceiver> receivers = new ArrayList<>();
+
+    @TempDir
+    Path logDirectory;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (StripeWebhookReceiver receiver : receivers) {
+            receiver.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply a recorded delivery sequence, refund before success and redeliveries included, in one batch")
+    void replay_shouldApplyRecordedEventsInOneBatch() {
+        StripeWebhookReceiver receiver = newReceiver(10_000, 500);
+        when(paymentRepository.findStatusesByTransactionIds(anyCollection())).thenReturn(List.of(
+                payment(1L, SUCCEEDED_INTENT, PaymentStatus.PENDING, 10L),
+                payment(2L, FAILED_INTENT, PaymentStatus.PENDING, 11L)));
+        when(paymentRepository.updateStatuses(anyList())).thenReturn(List.of());
+        when(orderRepository.updateStatuses(anyList())).thenReturn(List.of());
+
+        replay(receiver, recording(REFUNDED));
+        replay(receiver, recording(SUCCEEDED));
+        replay(receiver, recording(SUCCEEDED));
+        replay(receiver, recording(FAILED));
+        replay(receiver, recording(UNHANDLED));
+
+        verifyNoInteractions(paymentRepository, orderRepository);
+        receiver.drain();
+
+        verify(paymentRepository).updateStatuses(List.of(
+                new StatusChange(1L, PaymentStatus.PENDING, PaymentStatus.REFUNDED),
+                new StatusChange(2L, PaymentStatus.PENDING, PaymentStatus.FAILED)));
+        verify(orderRepository).updateStatuses(List.of(
+                new OrderRepositoryCustom.StatusChange(10L, OrderStatus.PENDING, 0L, OrderStatus.PAID)));
+        StripeWebhookReceiver.Stats stats = receiver.stats();
+        assertThat(stats.received()).isEqualTo(5);
+        assertThat(stats.duplicates()).isEqualTo(1);
+        assertThat(stats.ignored()).isEqualTo(1);
+        assertThat(stats.applied()).isEqualTo(3);
+        assertThat(stats.paidOrders()).isEqualTo(1);
+        assertThat(stats.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should acknowledge a storm of deliveries within milliseconds and apply it in batches afterwards")
+    void replay_whenStorm_shouldAckFastAndBatchWrites() {
+        int events = 5_000;
+        StripeWebhookReceiver receiver = newReceiver(events, 500);
+        when(paymentRepository.findStatusesByTransactionIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> intents = invocation.getArgument(0);
+            return intents.stream()
+                    .map(intent -> {
+                        long id = Long.parseLong(intent.substring(intent.lastIndexOf('_') + 1));
+                        return payment(id, intent, PaymentStatus.PENDING, id);
+                    })
+                    .toList();
+        });
+        when(paymentRepository.updateStatuses(anyList())).thenReturn(List.of());
+        when(orderRepository.updateStatuses(anyList())).thenReturn(List.of());
+
+        String recorded = new String(recording(SUCCEEDED), StandardCharsets.UTF_8);
+        long[] ackNanos = new long[events];
+        for (int i = 0; i < events; i++) {
+            byte[] payload = recorded
+                    .replace("evt_3Sl4dNPd5RZSTJk71QpX2aVb", "evt_storm_" + i)
+                    .replace(SUCCEEDED_INTENT, "pi_storm_" + i)
+                    .getBytes(StandardCharsets.UTF_8);
+            String header = signer.header(System.currentTimeMillis() / 1000, payload);
+            long start = System.nanoTime();
+            receiver.receive(payload, header);
+            ackNanos[i] = System.nanoTime() - start;
+        }
+
+        // the first deliveries also pay for class loading and JIT compilation
+        long[] warm = Arrays.copyOfRange(ackNanos, 1_000, events);
+        Arrays.sort(warm);
+        assertThat(Duration.ofNanos(warm[warm.length * 99 / 100])).isLessThan(Duration.ofMillis(5));
+        verifyNoInteractions(paymentRepository, orderRepository);
+
+        receiver.drain();
+
+        verify(paymentRepository, times(events / 500)).updateStatuses(anyList());
+        verify(orderRepository, times(events / 500)).updateStatuses(anyList());
+        assertThat(receiver.stats().applied()).isEqualTo(events);
+        assertThat(receiver.stats().paidOrders()).isEqualTo(events);
+    }
+
+    @Test
+    @DisplayName("Should answer 503 when the backlog is full and take the redelivery once it has room")
+    void receive_whenQueueFull_shouldRejectAndAcceptRedelivery() {
+        StripeWebhookReceiver receiver = newReceiver(1, 500);
+        when(paymentRepository.findStatusesByTransactionIds(anyCollection()))
+                .thenReturn(List.of(payment(1L, SUCCEEDED_INTENT, PaymentStatus.PENDING, 10L)));
+        when(paymentRepository.updateStatuses(anyList())).thenReturn(List.of());
+        when(orderRepository.updateStatuses(anyList())).thenReturn(List.of());
+        replay(receiver, recording(SUCCEEDED));
+
+        assertThatThrownBy(() -> replay(receiver, recording(FAILED)))
+                .isInstanceOf(ValidationException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.SERVICE_UNAVAILABLE);
+
+        receiver.drain();
+        when(paymentRepository.findStatusesByTransactionIds(anyCollection()))
+                .thenReturn(List.of(payment(2L, FAILED_INTENT, PaymentStatus.PENDING, 11L)));
+        replay(receiver, recording(FAILED));
+        receiver.drain();
+
+        assertThat(receiver.stats().duplicates()).isZero();
+        assertThat(receiver.stats().applied()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should park events for a payment intent not stored yet and apply them once a payment carries it")
+    void drain_whenPaymentIntentUnknown_shouldParkAndRetryEvents() {
+        StripeWebhookReceiver receiver = newReceiver(10, 500, Duration.ZERO, Duration.ofHours(24));
+        when(paymentRepository.findStatusesByTransactionIds(anyCollection()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(payment(1L, SUCCEEDED_INTENT, PaymentStatus.PENDING, 10L)));
+        when(paymentRepository.updateStatuses(anyList())).thenReturn(List.of());
+        when(orderRepository.updateStatuses(anyList())).thenReturn(List.of());
+
+        replay(receiver, recording(SUCCEEDED));
+        receiver.drain();
+
+        assertThat(receiver.stats().parked()).isEqualTo(1);
+        assertThat(receiver.stats().applied()).isZero();
+        // not applied yet, so a redelivery is not a duplicate
+        replay(receiver, recording(SUCCEEDED));
+        assertThat(receiver.stats().duplicates()).isZero();
+
+        receiver.drain();
+
+        verify(paymentRepository).updateStatuses(List.of(
+                new StatusChange(1L, PaymentStatus.PENDING, PaymentStatus.COMPLETED)));
+        StripeWebhookReceiver.Stats stats = receiver.stats();
+        assertThat(stats.applied()).isEqualTo(1);
+        assertThat(stats.duplicates()).isEqualTo(1);
+        assertThat(stats.parked()).isZero();
+        assertThat(stats.pending()).isZero();
+        replay(receiver, recording(SUCCEEDED));
+        assertThat(receiver.stats().duplicates()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should park a refund that arrives a drain before its success and apply it afterwards")
+    void drain_whenRefundBeforeSuccessInEarlierDrain_shouldParkRefund() {
+        StripeWebhookReceiver receiver = newReceiver(10, 500, Duration.ZERO, Duration.ofHours(24));
+        when(paymentRepository.findStatusesByTransactionIds(anyCollection()))
+                .thenReturn(List.of(payment(1L, SUCCEEDED_INTENT, PaymentStatus.PENDING, 10L)))
+                .thenReturn(List.of(payment(1L, SUCCEEDED_INTENT, PaymentStatus.PENDING, 10L)))
+                .thenReturn(List.of(payment(1L, SUCCEEDED_INTENT, PaymentStatus.PENDING, 10L)))
+                .thenReturn(List.of(payment(1L, SUCCEEDED_INTENT, PaymentStatus.COMPLETED, 10L)));
+        when(paymentRepository.updateStatuses(anyList())).thenReturn(List.of());
+        when(orderRepository.updateStatuses(anyList())).thenReturn(List.of());
+
+        replay(receiver, recording(REFUNDED));
+        receiver.drain();
+
+        assertThat(receiver.stats().parked()).isEqualTo(1);
+        assertThat(receiver.stats().rejected()).isZero();
+
+        // the parked refund is tried before the success and still waits
+        replay(receiver, recording(SUCCEEDED));
+        receiver.drain();
+        receiver.drain();
+
+        verify(paymentRepository).updateStatuses(List.of(
+                new StatusChange(1L, PaymentStatus.PENDING, PaymentStatus.COMPLETED)));
+        verify(paymentRepository).updateStatuses(List.of(
+                new StatusChange(1L, PaymentStatus.COMPLETED, PaymentStatus.REFUNDED)));
+        StripeWebhookReceiver.Stats stats = receiver.stats();
+        assertThat(stats.applied()).isEqualTo(2);
+        assertThat(stats.rejected()).isZero();
+        assertThat(stats.parked()).isZero();
+        replay(receiver, recording(REFUNDED));
+        assertThat(receiver.stats().duplicates()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject and remember an event the payment can never reach")
+    void drain_whenEventUnreachable_shouldRejectIt() {
+        StripeWebhookReceiver receiver = newReceiver(10, 500);
+        when(paymentRepository.findStatusesByTransactionIds(anyCollection()))
+                .thenReturn(List.of(payment(2L, FAILED_INTENT, PaymentStatus.REFUNDED, 11L)));
+        when(paymentRepository.updateStatuses(anyList())).thenReturn(List.of());
+
+        replay(receiver, recording(FAILED));
+        receiver.drain();
+
+        StripeWebhookReceiver.Stats stats = receiver.stats();
+        assertThat(stats.rejected()).isEqualTo(1);
+        assertThat(stats.parked()).isZero();
+        replay(receiver, recording(FAILED));
+        assertThat(receiver.stats().duplicates()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should drop parked events once they waited longer than the unmatched ttl")
+    void drain_whenParkedEventExpires_shouldDropIt() {
+        StripeWebhookReceiver receiver = newReceiver(10, 500, Duration.ZERO, Duration.ZERO);
+        when(paymentRepository.findStatusesByTransactionIds(anyCollection())).thenReturn(List.of());
+        replay(receiver, recording(SUCCEEDED));
+        receiver.drain();
+
+        receiver.drain();
+
+        verify(paymentRepository, times(1)).findStatusesByTransactionIds(anyCollection());
+        assertThat(receiver.stats().unmatched()).isEqualTo(1);
+        assertThat(receiver.stats().parked()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should apply events acknowledged before a crash when the next receiver opens the log")
+    void drain_afterCrash_shouldReplayAcknowledgedEvents() {
+        StripeWebhookReceiver crashed = newReceiver(10, 500);
+        replay(crashed, recording(SUCCEEDED));
+        replay(crashed, recording(FAILED));
+        verifyNoInteractions(paymentRepository, orderRepository);
+
+        // the first receiver never drains, as if the node died right after answering Stripe
+        StripeWebhookReceiver restarted = newReceiver(10, 500);
+        when(paymentRepository.findStatusesByTransactionIds(anyCollection())).thenReturn(List.of(
+                payment(1L, SUCCEEDED_INTENT, PaymentStatus.PENDING, 10L),
+                payment(2L, FAILED_INTENT, PaymentStatus.PENDING, 11L)));
+        when(paymentRepository.updateStatuses(anyList())).thenReturn(List.of());
+        when(orderRepository.updateStatuses(anyList())).thenReturn(List.of());
+        assertThat(restarted.stats().pending()).isEqualTo(2);
+
+        restarted.drain();
+
+        verify(paymentRepository).updateStatuses(List.of(
+                new StatusChange(1L, PaymentStatus.PENDING, PaymentStatus.COMPLETED),
+                new StatusChange(2L, PaymentStatus.PENDING, PaymentStatus.FAILED)));
+        assertThat(restarted.stats().applied()).isEqualTo(2);
+        receivers.remove(crashed);
+    }
+
+    @Test
+    @DisplayName("Should reject a delivery whose payload does not match its signature without logging it")
+    void receive_whenSignatureInvalid_shouldReject() {
+        StripeWebhookReceiver receiver = newReceiver(10, 500);
+        byte[] payload = recording(SUCCEEDED);
+        String header = signer.header(System.currentTimeMillis() / 1000, payload);
+        byte[] tampered = new String(payload, StandardCharsets.UTF_8)
+                .replace("4999", "1")
+                .getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> receiver.receive(tampered, header))
+                .isInstanceOf(ValidationException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.PAYMENT_WEBHOOK_SIGNATURE_INVALID);
+        assertThat(receiver.stats().received()).isZero();
+        assertThat(receiver.stats().pending()).isZero();
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private StripeWebhookReceiver newReceiver(int maxPending, int batchSize) {
+        return newReceiver(maxPending, batchSize, Duration.ofSeconds(30), Duration.ofHours(24));
+    }
+
+    private StripeWebhookReceiver newReceiver(int maxPending, int batchSize, Duration unmatchedRetryInterval,
+                                              Duration unmatchedTtl) {
+        StripeWebhookReceiver receiver = new StripeWebhookReceiver(paymentRepository, orderRepository,
+                transactionManager, new ObjectMapper(), SECRET, Duration.ofMinutes(5), 100_000, Duration.ofHours(72),
+                logDirectory, DataSize.ofMegabytes(64), maxPending, batchSize, unmatchedRetryInterval, unmatchedTtl);
+        receivers.add(receiver);
+        return receiver;
+    }
+
+    private void replay(StripeWebhookReceiver receiver, byte[] payload) {
+        receiver.receive(payload, signer.header(System.currentTimeMillis() / 1000, payload));
+    }
+
+    private static byte[] recording(String eventType) {
+        String resource = "/stripe/webhooks/" + eventType + ".json";
+        try (InputStream in = StripeWebhookReplayTest.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("missing recording " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static PaymentStatusRow payment(Long paymentId, String transactionId, PaymentStatus status, Long orderId) {
+        return new PaymentStatusRow() {
+            @Override
+            public Long getId() {
+                return paymentId;
+            }
+
+            @Override
+            public String getTransactionId() {
+                return transactionId;
+            }
+
+            @Override
+            public PaymentStatus getPaymentStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getOrderId() {
+                return orderId;
+            }
+
+            @Override
+            public OrderStatus getOrderStatus() {
+                return OrderStatus.PENDING;
+            }
+
+            @Override
+            public long getOrderVersion() {
+                return 0L;
+            }
+        };
+    }
+}
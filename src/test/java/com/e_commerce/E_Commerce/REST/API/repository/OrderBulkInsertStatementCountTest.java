@@ -0,0 +1,152 @@
+package com.e_commerce.E_Commerce.REST.API.repository;
+
+import com.e_commerce.E_Commerce.REST.API.model.Customer;
+import com.e_commerce.E_Commerce.REST.API.model.Order;
+import com.e_commerce.E_Commerce.REST.API.model.OrderItem;
+import com.e_commerce.E_Commerce.REST.API.model.Product;
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Persisting an order with {@link #ITEMS} items must cost one id fetch per entity type and one
+ * batched insert per table, not a nextval and an insert per row. Doubles as the bulk insert
+ * benchmark: the counted statements are the database round trips of the write.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.e_commerce.E_Commerce.REST.API.repository.OrderBulkInsertStatementCountTest$SqlCounter"
+})
+@DisplayName("Order Bulk Insert Statement Count Test")
+class OrderBulkInsertStatementCountTest {
+
+    private static final int ITEMS = 50;
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Customer customer;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        customer = new Customer();
+        customer.setFirstName("Jane");
+        customer.setLastName("Doe");
+        customer.setPhone("+10000000000");
+        entityManager.persist(customer);
+
+        product = new Product();
+        product.setName("product");
+        product.setDescription("description");
+        product.setCategory("Electronics");
+        product.setImgUrl("https://example.com/p.png");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(1000);
+        product.setActive(true);
+        entityManager.persist(product);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should insert an order and its items with two id fetches and two batched inserts")
+    void save_orderWithItems_shouldBatchInsertsAndIds() {
+        Order order = orderWithItems(ITEMS);
+        SqlCounter.reset();
+        statistics.clear();
+
+        orderRepository.save(order);
+        entityManager.flush();
+
+        // orders_seq + order_items_seq, then one insert into orders and one batch into order_items
+        assertThat(SqlCounter.sequenceCalls).hasValue(2);
+        assertThat(SqlCounter.inserts).hasValueLessThanOrEqualTo(2);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ITEMS + 1);
+    }
+
+    @Test
+    @DisplayName("Should serve the next orders from the already allocated id blocks")
+    void save_followingOrders_shouldNotFetchIdsPerOrder() {
+        orderRepository.save(orderWithItems(ITEMS));
+        entityManager.flush();
+        List<Order> orders = List.of(orderWithItems(ITEMS), orderWithItems(ITEMS), orderWithItems(ITEMS));
+        SqlCounter.reset();
+
+        orderRepository.saveAll(orders);
+        entityManager.flush();
+
+        // 150 more items fit in the 200-id block, the orders in their 50-id block
+        assertThat(SqlCounter.sequenceCalls).hasValue(0);
+        // orders in one batch, items in batches of hibernate.jdbc.batch_size (50)
+        assertThat(SqlCounter.inserts).hasValueLessThanOrEqualTo(4);
+    }
+
+    /**
+     * Counts the SQL Hibernate prepares; a JDBC batch is prepared once for all its rows.
+     */
+    public static class SqlCounter implements StatementInspector {
+
+        static final AtomicInteger sequenceCalls = new AtomicInteger();
+        static final AtomicInteger inserts = new AtomicInteger();
+
+        static void reset() {
+            sequenceCalls.set(0);
+            inserts.set(0);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            String normalized = sql.toLowerCase(Locale.ROOT);
+            if (normalized.contains("nextval") || normalized.contains("next value for")) {
+                sequenceCalls.incrementAndGet();
+            } else if (normalized.startsWith("insert")) {
+                inserts.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+
+    private Order orderWithItems(int items) {
+        Order order = new Order();
+        order.setCustomer(entityManager.find(Customer.class, customer.getId()));
+        order.setOrderNumber("ORD-" + System.nanoTime());
+        order.setOrderStatus(OrderStatus.PENDING);
+        order.setTotalAmount(new BigDecimal("10.00").multiply(BigDecimal.valueOf(items)));
+
+        Product orderedProduct = entityManager.find(Product.class, product.getId());
+        for (int i = 0; i < items; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setProduct(orderedProduct);
+            item.setQuantity(1);
+            item.setUnitPrice(new BigDecimal("10.00"));
+            order.getOrderItems().add(item);
+        }
+        return order;
+    }
+}
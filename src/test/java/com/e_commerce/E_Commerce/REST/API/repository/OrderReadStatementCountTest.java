@@ -0,0 +1,190 @@
+package com.e_commerce.E_Commerce.REST.API.repository;
+
+import com.e_commerce.E_Commerce.REST.API.cache.ProductCatalogCache;
+import com.e_commerce.E_Commerce.REST.API.dto.request.PaginationRequestDto;
+import com.e_commerce.E_Commerce.REST.API.dto.response.OrderResponseDTO;
+import com.e_commerce.E_Commerce.REST.API.dto.response.PaginationResponseDto;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockReservationLedger;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockShards;
+import com.e_commerce.E_Commerce.REST.API.mapper.OrderItemMapperImpl;
+import com.e_commerce.E_Commerce.REST.API.mapper.OrderMapperImpl;
+import com.e_commerce.E_Commerce.REST.API.model.Customer;
+import com.e_commerce.E_Commerce.REST.API.model.Order;
+import com.e_commerce.E_Commerce.REST.API.model.OrderItem;
+import com.e_commerce.E_Commerce.REST.API.model.Payment;
+import com.e_commerce.E_Commerce.REST.API.model.Product;
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+import com.e_commerce.E_Commerce.REST.API.payment.PaymentMethod;
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetService;
+import com.e_commerce.E_Commerce.REST.API.service.OrderItemValidator;
+import com.e_commerce.E_Commerce.REST.API.service.OrderService;
+import com.e_commerce.E_Commerce.REST.API.util.OrderNumberGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Order list and detail reads must cost a fixed number of statements, however many
+ * orders are on the page and however many items each order has.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({
+        OrderService.class,
+        OrderMapperImpl.class,
+        OrderItemMapperImpl.class,
+        OrderItemValidator.class,
+        StockReservationLedger.class,
+        StockShards.class,
+        ProductFacetService.class,
+        ProductCatalogCache.class,
+        OrderNumberGenerator.class
+})
+@DisplayName("Order Read Statement Count Test")
+class OrderReadStatementCountTest {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Customer customer;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        customer = new Customer();
+        customer.setFirstName("Jane");
+        customer.setLastName("Doe");
+        customer.setPhone("+10000000000");
+        entityManager.persist(customer);
+
+        for (int i = 0; i < 5; i++) {
+            Product product = new Product();
+            product.setName("product-" + i);
+            product.setDescription("description");
+            product.setCategory("Electronics");
+            product.setImgUrl("https://example.com/" + i + ".png");
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStockQuantity(100);
+            product.setActive(true);
+            products.add(entityManager.persist(product));
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should read an orders page with the same statements for 2 or 20 orders")
+    void getAll_shouldUseFixedStatementsPerPage() {
+        addOrders(2, 1);
+        long smallPage = countStatements(() -> orderService.getAll(pageOf(50)));
+
+        addOrders(18, 5);
+        long largePage = countStatements(() -> orderService.getAll(pageOf(50)));
+
+        assertThat(largePage).isEqualTo(smallPage);
+        // page select (customer + payment joined) + count + items/products
+        assertThat(smallPage).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should read the orders of a customer with the same statements for 2 or 20 orders")
+    void getOrdersByCustomerId_shouldUseFixedStatements() {
+        addOrders(2, 1);
+        long fewOrders = countStatements(() -> orderService.getOrdersByCustomerId(customer.getId()));
+
+        addOrders(18, 5);
+        long manyOrders = countStatements(() -> orderService.getOrdersByCustomerId(customer.getId()));
+
+        assertThat(manyOrders).isEqualTo(fewOrders);
+    }
+
+    @Test
+    @DisplayName("Should read one order with all its items in a single statement")
+    void getOrderById_shouldUseOneStatement() {
+        Order order = addOrders(1, 5).get(0);
+
+        long statements = countStatements(() -> orderService.getOrderById(order.getId()));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should map items, products and payment of every listed order")
+    void getAll_shouldMapWholeGraph() {
+        addOrders(3, 2);
+        entityManager.clear();
+
+        PaginationResponseDto<OrderResponseDTO> page = orderService.getAll(pageOf(10));
+
+        assertThat(page.getData()).hasSize(3);
+        assertThat(page.getData()).allSatisfy(order -> {
+            assertThat(order.orderItems()).hasSize(2);
+            assertThat(order.orderItems()).allSatisfy(item -> assertThat(item.productName()).isNotNull());
+            assertThat(order.payment()).isNotNull();
+        });
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private long countStatements(Supplier<?> read) {
+        entityManager.clear();
+        statistics.clear();
+        read.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private PaginationRequestDto pageOf(int size) {
+        PaginationRequestDto requestDto = new PaginationRequestDto();
+        requestDto.setSize(size);
+        return requestDto;
+    }
+
+    private List<Order> addOrders(int count, int itemsPerOrder) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setCustomer(entityManager.find(Customer.class, customer.getId()));
+            order.setOrderNumber("ORD-" + System.nanoTime());
+            order.setOrderStatus(OrderStatus.PENDING);
+            order.setTotalAmount(new BigDecimal("10.00").multiply(BigDecimal.valueOf(itemsPerOrder)));
+
+            for (int j = 0; j < itemsPerOrder; j++) {
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setProduct(entityManager.find(Product.class, products.get(j % products.size()).getId()));
+                item.setQuantity(1);
+                item.setUnitPrice(new BigDecimal("10.00"));
+                order.getOrderItems().add(item);
+            }
+
+            Payment payment = new Payment();
+            payment.setOrder(order);
+            payment.setPaymentMethod(PaymentMethod.STRIPE);
+            payment.setAmount(order.getTotalAmount());
+            order.setPayment(payment);
+
+            orders.add(entityManager.persist(order));
+        }
+        entityManager.flush();
+        return orders;
+    }
+}
@@ -0,0 +1,136 @@
+package com.e_commerce.E_Commerce.REST.API.repository;
+
+import com.e_commerce.E_Commerce.REST.API.cache.ProductCatalogCache;
+import com.e_commerce.E_Commerce.REST.API.dto.request.PaginationRequestDto;
+import com.e_commerce.E_Commerce.REST.API.dto.response.PaginationResponseDto;
+import com.e_commerce.E_Commerce.REST.API.dto.response.ProductResponseDTO;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockReservationLedger;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockShards;
+import com.e_commerce.E_Commerce.REST.API.mapper.ProductMapper;
+import com.e_commerce.E_Commerce.REST.API.model.OrderItem;
+import com.e_commerce.E_Commerce.REST.API.model.Product;
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetService;
+import com.e_commerce.E_Commerce.REST.API.search.ProductSearchService;
+import com.e_commerce.E_Commerce.REST.API.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Product pages must cost the same number of statements no matter how many order items
+ * reference the listed products (no lazy itemList initialization per product).
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DisplayName("Product Page Statement Count Test")
+class ProductPageStatementCountTest {
+
+    private static final int PRODUCTS = 20;
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private ProductService productService;
+    private Statistics statistics;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // a cache that keeps nothing -> every call reaches the database
+        ProductCatalogCache noCache = new ProductCatalogCache(0, Duration.ZERO, 0, Duration.ZERO);
+        productService = new ProductService(
+                productRepository, Mappers.getMapper(ProductMapper.class), noCache, orderItemRepository,
+                mock(ProductSearchService.class), mock(ProductFacetService.class),
+                mock(StockReservationLedger.class), mock(StockShards.class));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("product-" + i);
+            product.setDescription("description");
+            product.setCategory("Electronics");
+            product.setImgUrl("https://example.com/" + i + ".png");
+            product.setPrice(new BigDecimal("10.00").add(BigDecimal.valueOf(i)));
+            product.setStockQuantity(100);
+            product.setActive(true);
+            products.add(entityManager.persist(product));
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should issue the same statements per page for 1 or 50 order items per product")
+    void getAll_shouldNotDependOnOrderVolume() {
+        addOrderItems(1);
+        long fewOrders = statementsForFirstPage();
+
+        addOrderItems(49);
+        long manyOrders = statementsForFirstPage();
+
+        assertThat(manyOrders).isEqualTo(fewOrders);
+        // page select + count + one grouped order count
+        assertThat(fewOrders).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should report order counts from the grouped query")
+    void getAll_shouldFillTotalOrders() {
+        addOrderItems(3);
+        entityManager.clear();
+
+        PaginationResponseDto<ProductResponseDTO> page = productService.getAll(firstPage());
+
+        assertThat(page.getData())
+                .hasSize(PRODUCTS)
+                .extracting(ProductResponseDTO::totalOrders)
+                .containsOnly(3);
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private long statementsForFirstPage() {
+        entityManager.clear();
+        statistics.clear();
+        productService.getAll(firstPage());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private PaginationRequestDto firstPage() {
+        PaginationRequestDto requestDto = new PaginationRequestDto();
+        requestDto.setSize(PRODUCTS);
+        return requestDto;
+    }
+
+    private void addOrderItems(int perProduct) {
+        for (Product product : products) {
+            for (int i = 0; i < perProduct; i++) {
+                OrderItem item = new OrderItem();
+                item.setProduct(entityManager.find(Product.class, product.getId()));
+                item.setQuantity(1);
+                item.setUnitPrice(product.getPrice());
+                entityManager.persist(item);
+            }
+        }
+        entityManager.flush();
+    }
+}
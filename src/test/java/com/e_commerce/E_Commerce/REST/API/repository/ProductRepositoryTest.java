@@ -8,9 +8,13 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -241,4 +245,38 @@ class ProductRepositoryTest {
                     .containsExactlyInAnyOrder("laptop", "Smartphone", "Desk Chair");
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Keyset Scroll Tests")
+    class KeysetScroll {
+        @Test
+        @DisplayName("Should seek past the last row of the previous slice")
+        void findAllBy_whenScrollingForward_shouldReturnNextSlice() {
+            Sort byPrice = Sort.by(Sort.Direction.ASC, "price");
+
+            Window<Product> first = repository.findAllBy(ScrollPosition.keyset(), byPrice, Limit.of(2));
+
+            assertThat(first.getContent())
+                    .extracting(Product::getName)
+                    .containsExactly("Desk Chair", "Smartphone");
+            assertThat(first.hasNext()).isTrue();
+
+            Window<Product> second = repository.findAllBy(first.positionAt(first.size() - 1), byPrice, Limit.of(2));
+
+            assertThat(second.getContent())
+                    .extracting(Product::getName)
+                    .containsExactly("laptop");
+            assertThat(second.hasNext()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should filter while scrolling by category")
+        void findByCategory_whenScrolling_shouldOnlyReturnCategory() {
+            Window<Product> window = repository.findByCategory(
+                    "games", ScrollPosition.keyset(), Sort.by("name"), Limit.of(10));
+
+            assertThat(window.isEmpty()).isTrue();
+            assertThat(window.hasNext()).isFalse();
+        }
+    }
+}
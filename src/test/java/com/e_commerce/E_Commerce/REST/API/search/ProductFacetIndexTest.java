@@ -0,0 +1,91 @@
+package com.e_commerce.E_Commerce.REST.API.search;
+
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetIndex.FacetCount;
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetIndex.Facets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Product Facet Index Test")
+class ProductFacetIndexTest {
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex(new BigDecimal("50"), new BigDecimal("100"));
+        index.put(1L, "Audio", new BigDecimal("20.00"), 5);
+        index.put(2L, "Audio", new BigDecimal("75.00"), 0);
+        index.put(3L, "Audio", new BigDecimal("150.00"), 3);
+        index.put(4L, "Sports", new BigDecimal("50.00"), 8);
+        index.put(5L, "Sports", new BigDecimal("49.99"), 1);
+    }
+
+    @Test
+    @DisplayName("Should label buckets from their limits, the last one open-ended")
+    void priceBuckets_shouldCoverEveryPrice() {
+        assertThat(index.priceBuckets()).extracting(ProductFacetIndex.PriceBucket::label)
+                .containsExactly("0-50", "50-100", "100+");
+        assertThat(index.priceBucket("100+")).get().satisfies(bucket -> assertThat(bucket.max()).isNull());
+        assertThat(index.priceBucket("10-20")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should count every product without filters")
+    void facets_withoutFilters_shouldCountEverything() {
+        Facets facets = index.facets(null, null, null);
+
+        assertThat(facets.matching()).isEqualTo(5);
+        assertThat(facets.categories()).containsExactly(new FacetCount("Audio", 3), new FacetCount("Sports", 2));
+        assertThat(facets.prices()).containsExactly(
+                new FacetCount("0-50", 2), new FacetCount("50-100", 2), new FacetCount("100+", 1));
+        assertThat(facets.availability()).containsExactly(
+                new FacetCount(ProductFacetIndex.IN_STOCK, 4), new FacetCount(ProductFacetIndex.OUT_OF_STOCK, 1));
+    }
+
+    @Test
+    @DisplayName("Should apply every filter except a facet's own")
+    void facets_withFilters_shouldIgnoreOwnFilter() {
+        Facets facets = index.facets("Audio", "50-100", true);
+
+        assertThat(facets.matching()).isZero();
+        // categories: price 50-100 and in stock -> only product 4
+        assertThat(facets.categories()).containsExactly(new FacetCount("Sports", 1));
+        // prices: Audio and in stock -> products 1 and 3
+        assertThat(facets.prices()).containsExactly(
+                new FacetCount("0-50", 1), new FacetCount("50-100", 0), new FacetCount("100+", 1));
+        // availability: Audio at 50-100 -> product 2, sold out
+        assertThat(facets.availability()).containsExactly(
+                new FacetCount(ProductFacetIndex.IN_STOCK, 0), new FacetCount(ProductFacetIndex.OUT_OF_STOCK, 1));
+    }
+
+    @Test
+    @DisplayName("Should move products between cells on update, stock-out, restock and removal")
+    void updates_shouldMoveCountsIncrementally() {
+        index.put(1L, "Sports", new BigDecimal("120.00"), 5);
+        index.takeStock(4L, 8);
+        index.takeStock(2L, -2);
+        index.remove(5L);
+
+        Facets facets = index.facets(null, null, null);
+
+        assertThat(facets.matching()).isEqualTo(4);
+        assertThat(facets.categories()).containsExactly(new FacetCount("Audio", 2), new FacetCount("Sports", 2));
+        assertThat(facets.prices()).containsExactly(
+                new FacetCount("0-50", 0), new FacetCount("50-100", 2), new FacetCount("100+", 2));
+        assertThat(facets.availability()).containsExactly(
+                new FacetCount(ProductFacetIndex.IN_STOCK, 3), new FacetCount(ProductFacetIndex.OUT_OF_STOCK, 1));
+    }
+
+    @Test
+    @DisplayName("Should match nothing for an unknown category and reject an unknown price bucket")
+    void facets_withUnknownValues() {
+        assertThat(index.facets("Garden", null, null).matching()).isZero();
+        assertThatThrownBy(() -> index.facets(null, "1-2", null)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
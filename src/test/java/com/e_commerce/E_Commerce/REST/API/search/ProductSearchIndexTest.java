@@ -0,0 +1,114 @@
+package com.e_commerce.E_Commerce.REST.API.search;
+
+import com.e_commerce.E_Commerce.REST.API.search.ProductSearchIndex.SearchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Product Search Index Test")
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.index(1L, "Sony Wireless Headphones", "Noise cancelling over-ear headphones", "Audio");
+        index.index(2L, "JBL Speaker", "Portable bluetooth speaker with deep bass", "Audio");
+        index.index(3L, "Running Shoes", "Lightweight shoes for road running", "Sports");
+        index.index(4L, "Caf\u00e9 Cr\u00e8me Mug", "Ceramic mug, works with headphones on", "Kitchen");
+    }
+
+    @Test
+    @DisplayName("Should rank a name match above a description match")
+    void search_shouldRankNameMatchesFirst() {
+        SearchResult result = index.search("headphones", 0, 10);
+
+        assertThat(result.totalHits()).isEqualTo(2);
+        assertThat(result.productIds()).containsExactly(1L, 4L);
+    }
+
+    @Test
+    @DisplayName("Should require every query word to match")
+    void search_shouldAndQueryTerms() {
+        assertThat(index.search("bluetooth speaker", 0, 10).productIds()).containsExactly(2L);
+        assertThat(index.search("bluetooth shoes", 0, 10).productIds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should match category, case and accents insensitively")
+    void search_shouldMatchCategoryAndFoldAccents() {
+        assertThat(index.search("SPORTS", 0, 10).productIds()).containsExactly(3L);
+        assertThat(index.search("cafe creme", 0, 10).productIds()).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("Should tolerate one typo per word")
+    void search_shouldMatchWithinOneEdit() {
+        assertThat(index.search("headphnoes", 0, 10).productIds()).containsExactly(1L, 4L);
+        assertThat(index.search("speakr", 0, 10).productIds()).containsExactly(2L);
+        assertThat(index.search("spaekerz", 0, 10).productIds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should treat the last word as a prefix")
+    void search_shouldExpandLastTermAsPrefix() {
+        assertThat(index.search("wireless head", 0, 10).productIds()).containsExactly(1L);
+        assertThat(index.search("run", 0, 10).productIds()).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Should return the requested slice of the ranking")
+    void search_shouldPage() {
+        SearchResult firstPage = index.search("audio", 0, 1);
+        SearchResult secondPage = index.search("audio", 1, 1);
+
+        assertThat(firstPage.totalHits()).isEqualTo(2);
+        assertThat(firstPage.productIds()).hasSize(1);
+        assertThat(secondPage.productIds()).hasSize(1).doesNotContainAnyElementsOf(firstPage.productIds());
+        assertThat(index.search("audio", 2, 1).productIds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should replace a product's terms on update and forget it on remove")
+    void indexAndRemove_shouldUpdateIncrementally() {
+        index.index(2L, "JBL Soundbar", "Home cinema soundbar", "Audio");
+
+        assertThat(index.search("speaker", 0, 10).productIds()).isEmpty();
+        assertThat(index.search("soundbar", 0, 10).productIds()).containsExactly(2L);
+
+        index.remove(2L);
+
+        assertThat(index.search("soundbar", 0, 10).totalHits()).isZero();
+        assertThat(index.contains(2L)).isFalse();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should keep results intact after compacting deleted documents")
+    void remove_shouldCompactWithoutLosingLiveDocuments() {
+        for (long id = 100; id < 3100; id++) {
+            index.index(id, "Bulk item " + id, null, "Bulk");
+        }
+        for (long id = 100; id < 3000; id++) {
+            index.remove(id);
+        }
+
+        assertThat(index.search("bulk", 0, 200).productIds()).hasSize(100).allMatch(id -> id >= 3000);
+        assertThat(index.search("headphones", 0, 10).productIds()).containsExactly(1L, 4L);
+    }
+
+    @Test
+    @DisplayName("Should detect single edits including adjacent transpositions")
+    void withinOneEdit_shouldCoverAllEditKinds() {
+        assertThat(ProductSearchIndex.withinOneEdit("speaker", "speaker")).isTrue();
+        assertThat(ProductSearchIndex.withinOneEdit("speaker", "speakr")).isTrue();
+        assertThat(ProductSearchIndex.withinOneEdit("speaker", "speakers")).isTrue();
+        assertThat(ProductSearchIndex.withinOneEdit("speaker", "speeker")).isTrue();
+        assertThat(ProductSearchIndex.withinOneEdit("speaker", "spaeker")).isTrue();
+        assertThat(ProductSearchIndex.withinOneEdit("speaker", "spekear")).isFalse();
+        assertThat(ProductSearchIndex.withinOneEdit("speaker", "spkr")).isFalse();
+    }
+}
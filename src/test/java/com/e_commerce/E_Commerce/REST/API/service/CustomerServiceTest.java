@@ -96,7 +96,7 @@ class CustomerServiceTest {
                                 .email("new@gmail.com")
                                 .build();
 
-                paginationDto = new PaginationRequestDto(1, 10, "id", "ASC", null);
+                paginationDto = new PaginationRequestDto(1, 10, "id", "ASC", null, null);
         }
 
         @DisplayName("GetAll test Class")
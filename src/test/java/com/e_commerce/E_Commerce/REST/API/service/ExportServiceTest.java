@@ -0,0 +1,114 @@
+package com.e_commerce.E_Commerce.REST.API.service;
+
+import com.e_commerce.E_Commerce.REST.API.dto.response.OrderResponseDTO;
+import com.e_commerce.E_Commerce.REST.API.dto.response.ProductResponseDTO;
+import com.e_commerce.E_Commerce.REST.API.mapper.OrderMapper;
+import com.e_commerce.E_Commerce.REST.API.mapper.ProductMapper;
+import com.e_commerce.E_Commerce.REST.API.model.Order;
+import com.e_commerce.E_Commerce.REST.API.model.Product;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderItemRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Export Service Test")
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private OrderItemRepository orderItemRepository;
+    @Mock
+    private ProductMapper productMapper;
+    @Mock
+    private OrderMapper orderMapper;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private ExportService exportService;
+
+    @Test
+    @DisplayName("Should write one JSON line per product and detach every chunk")
+    void exportProducts_shouldStreamNdjsonInChunks() throws IOException {
+        int rows = ExportService.CHUNK_SIZE * 2 + 1;
+        when(productRepository.streamAllForExport()).thenReturn(LongStream.rangeClosed(1, rows).mapToObj(this::product));
+        when(orderItemRepository.countByProductIds(anyList())).thenReturn(List.of());
+        when(productMapper.toResponseDTO(any(Product.class), anyInt())).thenReturn(
+                ProductResponseDTO.builder().id(1L).name("laptop").price(new BigDecimal("10.00")).build());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = exportService.exportProducts(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(rows);
+        assertThat(lines).hasSize(rows);
+        assertThat(objectMapper.readTree(lines[0]).get("name").asText()).isEqualTo("laptop");
+        verify(orderItemRepository, times(3)).countByProductIds(anyList());
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    @DisplayName("Should batch-load items of each order chunk before mapping it")
+    void exportOrders_shouldLoadChildrenPerChunk() throws IOException {
+        Order order = new Order();
+        order.setId(7L);
+        when(orderRepository.streamAllForExport()).thenReturn(Stream.of(order));
+        when(orderMapper.toResponseDTO(order)).thenReturn(new OrderResponseDTO(
+                7L, "ORD-7", null, BigDecimal.TEN, "PENDING", List.of(), null, null, false));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = exportService.exportOrders(out);
+
+        assertThat(exported).isEqualTo(1);
+        assertThat(out.toString(StandardCharsets.UTF_8)).startsWith("{").endsWith("}\n");
+        verify(orderRepository).findAllWithItemsAndProducts(List.of(7L));
+        verify(entityManager).clear();
+    }
+
+    @Test
+    @DisplayName("Should write nothing for an empty table")
+    void exportProducts_whenEmpty_shouldWriteNothing() throws IOException {
+        when(productRepository.streamAllForExport()).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(exportService.exportProducts(out)).isZero();
+        assertThat(out.size()).isZero();
+    }
+
+    private Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        return product;
+    }
+}
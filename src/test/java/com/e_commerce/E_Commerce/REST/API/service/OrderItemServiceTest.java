@@ -1,5 +1,6 @@
 package com.e_commerce.E_Commerce.REST.API.service;
 
+import com.e_commerce.E_Commerce.REST.API.cache.ProductCatalogCache;
 import com.e_commerce.E_Commerce.REST.API.dto.request.OrderItemCreateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.request.OrderItemUpdateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.response.OrderItemResponseDTO;
@@ -9,6 +10,7 @@ import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
 import com.e_commerce.E_Commerce.REST.API.exception.order.OrderNotFoundException;
 import com.e_commerce.E_Commerce.REST.API.exception.orderItem.OrderItemsEmptyException;
 import com.e_commerce.E_Commerce.REST.API.exception.product.ProductNotFoundException;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockReservationLedger;
 import com.e_commerce.E_Commerce.REST.API.mapper.OrderItemMapper;
 import com.e_commerce.E_Commerce.REST.API.model.Order;
 import com.e_commerce.E_Commerce.REST.API.model.OrderItem;
@@ -52,6 +54,12 @@ class OrderItemServiceTest {
     @Mock
     private OrderItemValidator orderItemValidator;
 
+    @Mock
+    private StockReservationLedger stockLedger;
+
+    @Mock
+    private ProductCatalogCache catalogCache;
+
     @InjectMocks
     private OrderItemService orderItemService;
 
@@ -102,12 +110,7 @@ class OrderItemServiceTest {
         updateRequestDTO.setOrderQuantity(3);
 
         // Setup response DTO
-        responseDTO = new OrderItemResponseDTO();
-        responseDTO.setId(1L);
-        responseDTO.setProductId(1L);
-        responseDTO.setProductName("Test Product");
-        responseDTO.setQuantity(2);
-        responseDTO.setUnitPrice(BigDecimal.valueOf(100.00));
+        responseDTO = new OrderItemResponseDTO(1L, 1L, "Test Product", 2, BigDecimal.valueOf(100.00), null, null);
     }
 
     @Test
@@ -124,7 +127,7 @@ class OrderItemServiceTest {
 
         // Assert
         assertNotNull(result);
-        assertEquals(1L, result.getId());
+        assertEquals(1L, result.id());
         verify(orderRepository).findById(1L);
         verify(orderItemRepository).findByIdAndOrderId(1L, 1L);
     }
@@ -133,7 +136,6 @@ class OrderItemServiceTest {
     void getOrderItemById_OrderNotFound_ThrowsException() {
         // Arrange
         when(orderRepository.findById(1L)).thenReturn(Optional.empty());
-        doThrow(new ValidationException(null)).when(orderItemValidator).validateOrderStatusForItemOperations(null);
 
         // Act & Assert
         assertThrows(Exception.class, () -> orderItemService.getOrderItemById(1L, 1L));
@@ -163,6 +165,7 @@ class OrderItemServiceTest {
         when(orderItemMapper.toResponseDTO(testOrderItem)).thenReturn(responseDTO);
         when(orderItemMapper.calculateItemTotal(testOrderItem)).thenReturn(BigDecimal.valueOf(200.00));
         when(orderItemValidator.hasSufficientStock(createRequestDTO, testProduct)).thenReturn(true);
+        when(stockLedger.reserve(1L, 2)).thenReturn(true);
         
         doNothing().when(orderItemValidator).validateOrderItemRequest(createRequestDTO);
         doNothing().when(orderItemValidator).validateOrderStatusForItemOperations(testOrder);
@@ -175,14 +178,30 @@ class OrderItemServiceTest {
         assertNotNull(result);
         verify(orderRepository).findById(1L);
         verify(productRepository).findById(1L);
+        verify(stockLedger).reserve(1L, 2);
+        verify(catalogCache).invalidateProduct(1L);
+        verify(productRepository, never()).save(any());
         verify(orderItemRepository).save(any(OrderItem.class));
     }
 
+    @Test
+    void addOrderItem_ReservationRejected_ThrowsException() {
+        // Arrange
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(orderItemRepository.findByOrderIdAndProductId(1L, 1L)).thenReturn(Optional.empty());
+        when(orderItemValidator.hasSufficientStock(createRequestDTO, testProduct)).thenReturn(true);
+        when(stockLedger.reserve(1L, 2)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> orderItemService.addOrderItem(1L, createRequestDTO));
+        verify(orderItemRepository, never()).save(any());
+    }
+
     @Test
     void addOrderItem_OrderNotFound_ThrowsException() {
         // Arrange
         when(orderRepository.findById(1L)).thenReturn(Optional.empty());
-        doThrow(new ValidationException(null)).when(orderItemValidator).validateOrderStatusForItemOperations(null);
 
         // Act & Assert
         assertThrows(Exception.class, () -> orderItemService.addOrderItem(1L, createRequestDTO));
@@ -224,8 +243,7 @@ class OrderItemServiceTest {
         // Arrange
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(orderItemRepository.findByOrderIdAndProductId(1L, 1L)).thenReturn(Optional.empty());
-        when(orderItemValidator.hasSufficientStock(createRequestDTO, testProduct)).thenReturn(false);
+        when(orderItemValidator.hasSufficientStock(any(OrderItemCreateRequestDTO.class), eq(testProduct))).thenReturn(false);
         
         doNothing().when(orderItemValidator).validateOrderItemRequest(createRequestDTO);
         doNothing().when(orderItemValidator).validateOrderStatusForItemOperations(testOrder);
@@ -241,7 +259,7 @@ class OrderItemServiceTest {
         // Arrange
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
         when(orderItemRepository.findById(1L)).thenReturn(Optional.of(testOrderItem));
-        when(productRepository.reduceStock(1L, 1)).thenReturn(1); // Increasing quantity by 1
+        when(stockLedger.reserve(1L, 1)).thenReturn(true); // Increasing quantity by 1
         when(orderItemRepository.save(any(OrderItem.class))).thenReturn(testOrderItem);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
         when(orderItemMapper.toResponseDTO(testOrderItem)).thenReturn(responseDTO);
@@ -263,7 +281,7 @@ class OrderItemServiceTest {
         // Arrange
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
         when(orderItemRepository.findById(1L)).thenReturn(Optional.of(testOrderItem));
-        when(productRepository.reduceStock(1L, 1)).thenReturn(0); // Stock update failed
+        when(stockLedger.reserve(1L, 1)).thenReturn(false); // Stock update failed
         
         doNothing().when(orderItemValidator).validateOrderStatusForItemOperations(testOrder);
         doNothing().when(orderItemValidator).validateOrderItemBelongsToOrder(testOrderItem, 1L);
@@ -358,7 +376,7 @@ class OrderItemServiceTest {
         // Assert
         verify(orderRepository).findById(1L);
         verify(orderItemRepository).deleteById(1L);
-        verify(productRepository).save(testProduct);
+        verify(stockLedger).release(1L, testOrderItem.getQuantity());
     }
 
     @Test
@@ -1,15 +1,20 @@
 package com.e_commerce.E_Commerce.REST.API.service;
 
+import com.e_commerce.E_Commerce.REST.API.cache.ProductCatalogCache;
 import com.e_commerce.E_Commerce.REST.API.dto.request.OrderCreateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.request.OrderItemCreateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.request.OrderUpdateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.request.PaginationRequestDto;
-import com.e_commerce.E_Commerce.REST.API.dto.response.OrderItemResponseDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.response.OrderResponseDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.response.PaginationResponseDto;
+import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
 import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
 import com.e_commerce.E_Commerce.REST.API.exception.customer.CustomerNotFoundException;
 import com.e_commerce.E_Commerce.REST.API.exception.order.OrderNotFoundException;
+import com.e_commerce.E_Commerce.REST.API.exception.product.ProductNotFoundException;
+import com.e_commerce.E_Commerce.REST.API.inventory.CancelledOrderStock;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockReservationLedger;
+import com.e_commerce.E_Commerce.REST.API.mapper.OrderItemMapper;
 import com.e_commerce.E_Commerce.REST.API.mapper.OrderMapper;
 import com.e_commerce.E_Commerce.REST.API.model.Customer;
 import com.e_commerce.E_Commerce.REST.API.model.Order;
@@ -18,12 +23,15 @@ import com.e_commerce.E_Commerce.REST.API.model.Product;
 import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
 import com.e_commerce.E_Commerce.REST.API.repository.CustomerRepository;
 import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository.OrderStatusRow;
 import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository;
+import com.e_commerce.E_Commerce.REST.API.util.OrderNumberGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -32,7 +40,9 @@ import org.springframework.data.domain.Pageable;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -54,7 +64,22 @@ class OrderServiceTest {
     private ProductRepository productRepository;
 
     @Mock
-    private OrderItemService orderItemService;
+    private OrderItemMapper orderItemMapper;
+
+    @Mock
+    private OrderItemValidator orderItemValidator;
+
+    @Mock
+    private StockReservationLedger stockLedger;
+
+    @Mock
+    private ProductCatalogCache catalogCache;
+
+    @Mock
+    private CancelledOrderStock cancelledOrderStock;
+
+    @Spy
+    private OrderNumberGenerator orderNumberGenerator = new OrderNumberGenerator(0);
 
     @InjectMocks
     private OrderService orderService;
@@ -110,9 +135,8 @@ class OrderServiceTest {
                 .build();
 
         // Setup response DTO
-        responseDTO = new OrderResponseDTO();
-        responseDTO.setId(1L);
-        responseDTO.setOrderNumber("ORD-123456");
+        responseDTO = new OrderResponseDTO(1L, "ORD-123456", null, BigDecimal.valueOf(200.00), "PENDING",
+                List.of(), null, null, false);
     }
 
     @Test
@@ -120,8 +144,10 @@ class OrderServiceTest {
         // Arrange
         when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
         when(orderMapper.createNewOrder(any(), anyString())).thenReturn(testOrder);
-        when(orderItemService.addOrderItem(any(), any())).thenReturn(new OrderItemResponseDTO());
         when(productRepository.findAllById(anySet())).thenReturn(List.of(testProduct));
+        when(orderItemValidator.hasSufficientStock(any(OrderItemCreateRequestDTO.class), eq(testProduct))).thenReturn(true);
+        when(orderItemMapper.createOrderItem(any(), eq(testProduct), eq(testOrder))).thenReturn(testOrderItem);
+        when(stockLedger.reserveAll(anyMap())).thenReturn(List.of());
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
         when(orderMapper.toResponseDTO(any(Order.class))).thenReturn(responseDTO);
 
@@ -130,12 +156,43 @@ class OrderServiceTest {
 
         // Assert
         assertNotNull(result);
-        assertEquals("ORD-123456", result.getOrderNumber());
+        assertEquals("ORD-123456", result.orderNumber());
         verify(customerRepository).findById(1L);
+        verify(productRepository).findAllById(Set.of(1L));
+        verify(stockLedger).reserveAll(Map.of(1L, 2));
+        verify(catalogCache).invalidateProducts(Map.of(1L, 2).keySet());
+        verify(productRepository, never()).findById(any());
         verify(orderRepository).save(any(Order.class));
         verify(orderMapper).toResponseDTO(any(Order.class));
     }
 
+    @Test
+    void createOrder_ProductMissing_ThrowsException() {
+        // Arrange
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(productRepository.findAllById(anySet())).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(ProductNotFoundException.class, () -> orderService.createOrder(createRequestDTO));
+        verify(stockLedger, never()).reserveAll(anyMap());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void createOrder_StockReservationRejected_ThrowsException() {
+        // Arrange
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(orderMapper.createNewOrder(any(), anyString())).thenReturn(testOrder);
+        when(productRepository.findAllById(anySet())).thenReturn(List.of(testProduct));
+        when(orderItemValidator.hasSufficientStock(any(OrderItemCreateRequestDTO.class), eq(testProduct))).thenReturn(true);
+        when(orderItemMapper.createOrderItem(any(), eq(testProduct), eq(testOrder))).thenReturn(testOrderItem);
+        when(stockLedger.reserveAll(anyMap())).thenReturn(List.of(1L));
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> orderService.createOrder(createRequestDTO));
+        verify(orderRepository, never()).save(any());
+    }
+
     @Test
     void createOrder_CustomerNotFound_ThrowsException() {
         // Arrange
@@ -171,7 +228,7 @@ class OrderServiceTest {
 
         // Assert
         assertNotNull(result);
-        assertEquals(1L, result.getId());
+        assertEquals(1L, result.id());
         verify(orderRepository).findByIdWithCustomerAndItems(1L);
         verify(orderMapper).toResponseDTO(testOrder);
     }
@@ -192,8 +249,9 @@ class OrderServiceTest {
         OrderUpdateRequestDTO updateDTO = new OrderUpdateRequestDTO();
         updateDTO.setOrderStatus("SHIPPED");
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
-        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        when(orderRepository.findStatusById(1L)).thenReturn(Optional.of(statusRow(OrderStatus.PAID, 4L)));
+        when(orderRepository.updateStatusIfCurrent(1L, OrderStatus.PAID, 4L, OrderStatus.SHIPPED)).thenReturn(1);
+        when(orderRepository.findByIdWithCustomerAndItems(1L)).thenReturn(Optional.of(testOrder));
         when(orderMapper.toResponseDTO(any(Order.class))).thenReturn(responseDTO);
 
         // Act
@@ -201,9 +259,27 @@ class OrderServiceTest {
 
         // Assert
         assertNotNull(result);
-        verify(orderRepository).findById(1L);
-        verify(orderMapper).updateEntityFromDTO(updateDTO, testOrder);
-        verify(orderRepository).save(testOrder);
+        verify(orderRepository).updateStatusIfCurrent(1L, OrderStatus.PAID, 4L, OrderStatus.SHIPPED);
+        verify(orderRepository, never()).save(any());
+        verifyNoInteractions(cancelledOrderStock);
+    }
+
+    @Test
+    void updateOrderStatus_Cancelled_ReleasesStock() {
+        // Arrange
+        OrderUpdateRequestDTO updateDTO = new OrderUpdateRequestDTO();
+        updateDTO.setOrderStatus("CANCELLED");
+
+        when(orderRepository.findStatusById(1L)).thenReturn(Optional.of(statusRow(OrderStatus.PENDING, 2L)));
+        when(orderRepository.updateStatusIfCurrent(1L, OrderStatus.PENDING, 2L, OrderStatus.CANCELLED)).thenReturn(1);
+        when(orderRepository.findByIdWithCustomerAndItems(1L)).thenReturn(Optional.of(testOrder));
+        when(orderMapper.toResponseDTO(any(Order.class))).thenReturn(responseDTO);
+
+        // Act
+        orderService.updateOrderStatus(1L, updateDTO);
+
+        // Assert
+        verify(cancelledOrderStock).release(List.of(1L));
     }
 
     @Test
@@ -212,19 +288,73 @@ class OrderServiceTest {
         OrderUpdateRequestDTO updateDTO = new OrderUpdateRequestDTO();
         updateDTO.setOrderStatus("SHIPPED");
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(orderRepository.findStatusById(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(OrderNotFoundException.class, () -> orderService.updateOrderStatus(1L, updateDTO));
-        verify(orderRepository).findById(1L);
-        verify(orderRepository, never()).save(any());
+        verify(orderRepository, never()).updateStatusIfCurrent(anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    void updateOrderStatus_TransitionNotAllowed_ThrowsException() {
+        // Arrange
+        OrderUpdateRequestDTO updateDTO = new OrderUpdateRequestDTO();
+        updateDTO.setOrderStatus("SHIPPED");
+
+        when(orderRepository.findStatusById(1L)).thenReturn(Optional.of(statusRow(OrderStatus.PENDING, 0L)));
+
+        // Act & Assert
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> orderService.updateOrderStatus(1L, updateDTO));
+        assertEquals(ErrorCode.ORDER_INVALID_STATUS_TRANSITION, exception.getErrorCode());
+        verify(orderRepository, never()).updateStatusIfCurrent(anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    void updateOrderStatus_ConcurrentChange_RechecksNewStatus() {
+        // Arrange: a webhook pays the order between our read and our write
+        OrderUpdateRequestDTO updateDTO = new OrderUpdateRequestDTO();
+        updateDTO.setOrderStatus("CANCELLED");
+
+        when(orderRepository.findStatusById(1L)).thenReturn(
+                Optional.of(statusRow(OrderStatus.PENDING, 0L)),
+                Optional.of(statusRow(OrderStatus.PAID, 1L)));
+        when(orderRepository.updateStatusIfCurrent(1L, OrderStatus.PENDING, 0L, OrderStatus.CANCELLED)).thenReturn(0);
+        when(orderRepository.updateStatusIfCurrent(1L, OrderStatus.PAID, 1L, OrderStatus.CANCELLED)).thenReturn(1);
+        when(orderRepository.findByIdWithCustomerAndItems(1L)).thenReturn(Optional.of(testOrder));
+        when(orderMapper.toResponseDTO(any(Order.class))).thenReturn(responseDTO);
+
+        // Act
+        orderService.updateOrderStatus(1L, updateDTO);
+
+        // Assert
+        verify(orderRepository, times(2)).findStatusById(1L);
+        verify(orderRepository).updateStatusIfCurrent(1L, OrderStatus.PAID, 1L, OrderStatus.CANCELLED);
+        verify(cancelledOrderStock, times(1)).release(List.of(1L));
+    }
+
+    @Test
+    void updateOrderStatus_KeepsConflicting_GivesUpAfterBoundedAttempts() {
+        // Arrange
+        OrderUpdateRequestDTO updateDTO = new OrderUpdateRequestDTO();
+        updateDTO.setOrderStatus("DELIVERED");
+
+        when(orderRepository.findStatusById(1L)).thenReturn(Optional.of(statusRow(OrderStatus.SHIPPED, 7L)));
+        when(orderRepository.updateStatusIfCurrent(1L, OrderStatus.SHIPPED, 7L, OrderStatus.DELIVERED)).thenReturn(0);
+
+        // Act & Assert
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> orderService.updateOrderStatus(1L, updateDTO));
+        assertEquals(ErrorCode.CONCURRENT_MODIFICATION, exception.getErrorCode());
+        verify(orderRepository, times(3)).updateStatusIfCurrent(1L, OrderStatus.SHIPPED, 7L, OrderStatus.DELIVERED);
+        verify(orderRepository, never()).findByIdWithCustomerAndItems(anyLong());
     }
 
     @Test
     void getAll_Success() {
         // Arrange
         PaginationRequestDto requestDto = new PaginationRequestDto();
-        requestDto.setPage(0);
+        requestDto.setPage(1);
         requestDto.setSize(10);
 
         Page<Order> orderPage = new PageImpl<>(List.of(testOrder));
@@ -236,7 +366,7 @@ class OrderServiceTest {
 
         // Assert
         assertNotNull(result);
-        assertFalse(result.getContent().isEmpty());
+        assertFalse(result.getData().isEmpty());
         verify(orderRepository).findAllWithCustomer(any(Pageable.class));
     }
 
@@ -256,6 +386,7 @@ class OrderServiceTest {
         assertEquals(1, result.size());
         verify(customerRepository).findById(1L);
         verify(orderRepository).findByCustomerId(1L);
+        verify(orderRepository).findAllWithItemsAndProducts(List.of(testOrder.getId()));
     }
 
     @Test
@@ -273,7 +404,7 @@ class OrderServiceTest {
     void getOrderByStatus_Success() {
         // Arrange
         PaginationRequestDto requestDto = new PaginationRequestDto();
-        requestDto.setPage(0);
+        requestDto.setPage(1);
         requestDto.setSize(10);
 
         Page<Order> orderPage = new PageImpl<>(List.of(testOrder));
@@ -285,7 +416,7 @@ class OrderServiceTest {
 
         // Assert
         assertNotNull(result);
-        assertFalse(result.getContent().isEmpty());
+        assertFalse(result.getData().isEmpty());
         verify(orderRepository).findByOrderStatus(eq(OrderStatus.PENDING), any(Pageable.class));
     }
 
@@ -293,11 +424,30 @@ class OrderServiceTest {
     void getOrderByStatus_InvalidStatus_ThrowsException() {
         // Arrange
         PaginationRequestDto requestDto = new PaginationRequestDto();
-        requestDto.setPage(0);
+        requestDto.setPage(1);
         requestDto.setSize(10);
 
         // Act & Assert
         assertThrows(ValidationException.class, () -> orderService.getOrderByStatus("INVALID_STATUS", requestDto));
         verify(orderRepository, never()).findByOrderStatus(any(), any());
     }
+
+    private static OrderStatusRow statusRow(OrderStatus status, long version) {
+        return new OrderStatusRow() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public OrderStatus getOrderStatus() {
+                return status;
+            }
+
+            @Override
+            public long getVersion() {
+                return version;
+            }
+        };
+    }
 }
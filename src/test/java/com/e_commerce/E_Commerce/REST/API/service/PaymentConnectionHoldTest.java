@@ -0,0 +1,147 @@
+package com.e_commerce.E_Commerce.REST.API.service;
+
+import com.e_commerce.E_Commerce.REST.API.dto.request.PaymentRequestDTO;
+import com.e_commerce.E_Commerce.REST.API.mapper.PaymentMapper;
+import com.e_commerce.E_Commerce.REST.API.model.Order;
+import com.e_commerce.E_Commerce.REST.API.model.Payment;
+import com.e_commerce.E_Commerce.REST.API.payment.PaymentGatewayDispatcher;
+import com.e_commerce.E_Commerce.REST.API.payment.PaymentStatus;
+import com.e_commerce.E_Commerce.REST.API.payment.PaymentStrategy;
+import com.e_commerce.E_Commerce.REST.API.payment.PaymentStrategyFactory;
+import com.e_commerce.E_Commerce.REST.API.payment.StubPaymentStrategy;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.PaymentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * With a gateway that takes {@link #GATEWAY_LATENCY} to answer, no transaction (and so no
+ * pooled connection) may stay open for anything close to that long.
+ */
+@DisplayName("Payment Connection Hold Test")
+class PaymentConnectionHoldTest {
+
+    private static final Duration GATEWAY_LATENCY = Duration.ofMillis(300);
+
+    private final HoldRecordingTransactionManager transactionManager = new HoldRecordingTransactionManager();
+    private final AtomicBoolean gatewayCalledInTransaction = new AtomicBoolean();
+    private final PaymentRepository paymentRepository = Mockito.mock(PaymentRepository.class);
+    private final OrderRepository orderRepository = Mockito.mock(OrderRepository.class);
+
+    private ThreadPoolTaskExecutor executor;
+    private PaymentService paymentService;
+
+    @BeforeEach
+    void setUp() {
+        PaymentStrategy gateway = new StubPaymentStrategy(GATEWAY_LATENCY) {
+            @Override
+            public PaymentResult processPayment(BigDecimal amount) {
+                gatewayCalledInTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+                return super.processPayment(amount);
+            }
+        };
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setQueueCapacity(10);
+        executor.initialize();
+
+        paymentService = new PaymentService(
+                new PaymentStrategyFactory(List.of(gateway)),
+                paymentRepository,
+                orderRepository,
+                Mockito.mock(PaymentMapper.class),
+                new PaymentGatewayDispatcher(executor, Duration.ofSeconds(5), Duration.ofSeconds(5)),
+                new TransactionTemplate(transactionManager));
+
+        Order order = new Order();
+        order.setId(1L);
+        order.setTotalAmount(new BigDecimal("100.00"));
+        Payment payment = Payment.builder().id(10L).paymentStatus(PaymentStatus.PENDING).order(order).build();
+
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(order));
+        when(paymentRepository.findById(10L)).thenReturn(Optional.of(payment));
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> {
+            Payment saved = invocation.getArgument(0);
+            saved.setId(10L);
+            return saved;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should call the gateway outside any transaction and keep each transaction short")
+    void createPayment_shouldNotHoldConnectionDuringGatewayCall() {
+        PaymentRequestDTO requestDTO = new PaymentRequestDTO();
+        requestDTO.setOrderId(1L);
+        requestDTO.setAmount(new BigDecimal("100.00"));
+        requestDTO.setPaymentMethod("STRIPE");
+
+        long start = System.nanoTime();
+        paymentService.createPayment(requestDTO);
+        Duration total = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(gatewayCalledInTransaction).isFalse();
+        assertThat(total).isGreaterThanOrEqualTo(GATEWAY_LATENCY);
+        // one transaction for the PENDING row, one for the gateway result
+        assertThat(transactionManager.holds).hasSize(2);
+        assertThat(transactionManager.holds).allSatisfy(hold ->
+                assertThat(hold).isLessThan(GATEWAY_LATENCY.dividedBy(3)));
+    }
+
+    /**
+     * Stands in for the JDBC transaction manager: a transaction is as long as a connection hold.
+     */
+    private static final class HoldRecordingTransactionManager extends AbstractPlatformTransactionManager {
+
+        private final List<Duration> holds = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new long[1];
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            ((long[]) transaction)[0] = System.nanoTime();
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            record(status);
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            record(status);
+        }
+
+        private void record(DefaultTransactionStatus status) {
+            holds.add(Duration.ofNanos(System.nanoTime() - ((long[]) status.getTransaction())[0]));
+        }
+    }
+}
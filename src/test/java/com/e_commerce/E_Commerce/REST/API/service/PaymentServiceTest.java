@@ -1,32 +1,50 @@
 package com.e_commerce.E_Commerce.REST.API.service;
 
+import com.e_commerce.E_Commerce.REST.API.dto.request.PaymentBatchRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.request.PaymentRequestDTO;
+import com.e_commerce.E_Commerce.REST.API.dto.response.PaymentBatchResultDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.response.PaymentResponseDTO;
+import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
 import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
 import com.e_commerce.E_Commerce.REST.API.exception.order.OrderNotFoundException;
 import com.e_commerce.E_Commerce.REST.API.exception.payment.PaymentAmountMismatchException;
 import com.e_commerce.E_Commerce.REST.API.mapper.PaymentMapper;
 import com.e_commerce.E_Commerce.REST.API.model.Order;
 import com.e_commerce.E_Commerce.REST.API.model.Payment;
+import com.e_commerce.E_Commerce.REST.API.model.enums.OrderStatus;
+import com.e_commerce.E_Commerce.REST.API.payment.PaymentGatewayDispatcher;
 import com.e_commerce.E_Commerce.REST.API.payment.PaymentMethod;
 import com.e_commerce.E_Commerce.REST.API.payment.PaymentStatus;
 import com.e_commerce.E_Commerce.REST.API.payment.PaymentStrategy;
 import com.e_commerce.E_Commerce.REST.API.payment.PaymentStrategyFactory;
 import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderRepository.OrderPaymentRow;
 import com.e_commerce.E_Commerce.REST.API.repository.PaymentRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.PaymentRepositoryCustom.GatewayResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -48,6 +66,14 @@ class PaymentServiceTest {
     @Mock
     private PaymentStrategy paymentStrategy;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    // runs the gateway call on the calling thread
+    @Spy
+    private PaymentGatewayDispatcher gatewayDispatcher =
+            new PaymentGatewayDispatcher(Runnable::run, Duration.ofSeconds(5), Duration.ofSeconds(5));
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -85,24 +111,26 @@ class PaymentServiceTest {
                 .build();
 
         // Setup payment response DTO
-        paymentResponseDTO = new PaymentResponseDTO();
-        paymentResponseDTO.setId(1L);
-        paymentResponseDTO.setTransactionId("txn_123456");
-        paymentResponseDTO.setPaymentStatus("PENDING");
+        paymentResponseDTO = new PaymentResponseDTO(1L, "CREDIT_CARD", BigDecimal.valueOf(200.00), null, null,
+                "PENDING", "txn_123456", null, false, false, null, null);
 
         // Setup payment results
         successResult = PaymentStrategy.PaymentResult.success("txn_123456", "client_secret_123");
         failureResult = PaymentStrategy.PaymentResult.failure("Payment failed");
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
     void createPayment_Success() {
         // Arrange
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
         when(paymentStrategyFactory.isSupported("STRIPE")).thenReturn(true);
         when(paymentStrategyFactory.getStrategy("STRIPE")).thenReturn(paymentStrategy);
-        when(paymentStrategy.processPayment(any(BigDecimal.class))).thenReturn(successResult);
+        when(paymentStrategy.processPayment(any(BigDecimal.class), anyString())).thenReturn(successResult);
         when(paymentRepository.save(any(Payment.class))).thenReturn(testPayment);
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(testPayment));
         when(mapper.toResponseDTO(any(Payment.class))).thenReturn(paymentResponseDTO);
 
         // Act
@@ -110,21 +138,173 @@ class PaymentServiceTest {
 
         // Assert
         assertNotNull(result);
-        assertEquals("txn_123456", result.getTransactionId());
-        verify(orderRepository).findById(1L);
+        assertEquals("txn_123456", result.transactionId());
+        verify(orderRepository).findByIdForUpdate(1L);
         verify(paymentStrategyFactory).isSupported("STRIPE");
-        verify(paymentStrategy).processPayment(BigDecimal.valueOf(100.00));
-        verify(paymentRepository).save(any(Payment.class));
+        verify(paymentStrategy).processPayment(BigDecimal.valueOf(100.00), "payment-1");
+        // PENDING row first, gateway result afterwards
+        verify(paymentRepository, times(2)).save(any(Payment.class));
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void createPayment_GatewayStillRunning_ReturnsPendingPayment() {
+        // Arrange
+        Payment pendingPayment = Payment.builder()
+                .id(1L)
+                .paymentMethod(PaymentMethod.STRIPE)
+                .amount(BigDecimal.valueOf(100.00))
+                .paymentStatus(PaymentStatus.PENDING)
+                .order(testOrder)
+                .build();
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
+        when(paymentStrategyFactory.isSupported("STRIPE")).thenReturn(true);
+        when(paymentStrategyFactory.getStrategy("STRIPE")).thenReturn(paymentStrategy);
+        when(paymentStrategy.processPayment(any(BigDecimal.class), anyString())).thenReturn(successResult);
+        when(paymentRepository.save(any(Payment.class))).thenReturn(pendingPayment);
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(pendingPayment));
+        doReturn(Optional.empty()).when(gatewayDispatcher).await(any());
+        when(mapper.toResponseDTO(pendingPayment)).thenReturn(paymentResponseDTO);
+
+        // Act
+        PaymentResponseDTO result = paymentService.createPayment(paymentRequestDTO);
+
+        // Assert
+        assertSame(paymentResponseDTO, result);
+        verify(mapper).toResponseDTO(pendingPayment);
+    }
+
+    @Test
+    void createPayment_GatewayOutcomeUnknown_LeavesPaymentPending() {
+        // Arrange
+        Payment pendingPayment = Payment.builder()
+                .id(1L)
+                .paymentMethod(PaymentMethod.STRIPE)
+                .amount(BigDecimal.valueOf(100.00))
+                .paymentStatus(PaymentStatus.PENDING)
+                .order(testOrder)
+                .build();
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
+        when(paymentStrategyFactory.isSupported("STRIPE")).thenReturn(true);
+        when(paymentStrategyFactory.getStrategy("STRIPE")).thenReturn(paymentStrategy);
+        when(paymentStrategy.processPayment(any(BigDecimal.class), anyString()))
+                .thenReturn(PaymentStrategy.PaymentResult.unknown("Payment gateway timed out"));
+        when(paymentRepository.save(any(Payment.class))).thenReturn(pendingPayment);
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(pendingPayment));
+        when(mapper.toResponseDTO(pendingPayment)).thenReturn(paymentResponseDTO);
+
+        // Act
+        PaymentResponseDTO result = paymentService.createPayment(paymentRequestDTO);
+
+        // Assert
+        assertSame(paymentResponseDTO, result);
+        assertEquals(PaymentStatus.PENDING, pendingPayment.getPaymentStatus());
+        assertNull(pendingPayment.getPaymentGatewayResponse());
+        // only the PENDING row is written
+        verify(paymentRepository, times(1)).save(any(Payment.class));
+    }
+
+    @Test
+    void createPayment_RetryAfterFailedAttempt_ReusesPayment() {
+        // Arrange
+        Payment failedPayment = Payment.builder()
+                .id(1L)
+                .paymentMethod(PaymentMethod.STRIPE)
+                .amount(BigDecimal.valueOf(100.00))
+                .paymentStatus(PaymentStatus.FAILED)
+                .paymentGatewayResponse("Payment gateway busy, please retry")
+                .order(testOrder)
+                .build();
+        testOrder.setPayment(failedPayment);
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
+        when(paymentStrategyFactory.isSupported("STRIPE")).thenReturn(true);
+        when(paymentStrategyFactory.getStrategy("STRIPE")).thenReturn(paymentStrategy);
+        when(paymentStrategy.processPayment(any(BigDecimal.class), anyString())).thenReturn(successResult);
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(failedPayment));
+        when(mapper.toResponseDTO(failedPayment)).thenReturn(paymentResponseDTO);
+
+        // Act
+        PaymentResponseDTO result = paymentService.createPayment(paymentRequestDTO);
+
+        // Assert
+        assertSame(paymentResponseDTO, result);
+        assertEquals(PaymentStatus.PENDING, failedPayment.getPaymentStatus());
+        assertEquals(2, failedPayment.getGatewayAttempt());
+        assertEquals("txn_123456", failedPayment.getTransactionId());
+        assertEquals("client_secret_123", failedPayment.getPaymentGatewayResponse());
+        // a fresh idempotency key for the new attempt, on the same row
+        verify(paymentStrategy).processPayment(BigDecimal.valueOf(100.00), "payment-1-2");
+        verify(paymentRepository, times(2)).save(failedPayment);
+    }
+
+    @Test
+    void createPayment_RetryAfterUnknownOutcome_ResendsSameKey() {
+        // Arrange
+        Payment pendingPayment = Payment.builder()
+                .id(1L)
+                .paymentMethod(PaymentMethod.STRIPE)
+                .amount(BigDecimal.valueOf(100.00))
+                .paymentStatus(PaymentStatus.PENDING)
+                .order(testOrder)
+                .build();
+        testOrder.setPayment(pendingPayment);
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
+        when(paymentStrategyFactory.isSupported("STRIPE")).thenReturn(true);
+        when(paymentStrategyFactory.getStrategy("STRIPE")).thenReturn(paymentStrategy);
+        when(paymentStrategy.processPayment(any(BigDecimal.class), anyString())).thenReturn(successResult);
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(pendingPayment));
+        when(mapper.toResponseDTO(pendingPayment)).thenReturn(paymentResponseDTO);
+
+        // Act
+        paymentService.createPayment(paymentRequestDTO);
+
+        // Assert
+        assertNull(pendingPayment.getGatewayAttempt());
+        assertEquals("txn_123456", pendingPayment.getTransactionId());
+        verify(paymentStrategy).processPayment(BigDecimal.valueOf(100.00), "payment-1");
+    }
+
+    @Test
+    void createPayment_OrderAlreadyPaid_ThrowsException() {
+        // Arrange
+        testOrder.setPayment(testPayment);
+        testPayment.setPaymentStatus(PaymentStatus.COMPLETED);
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
+        when(paymentStrategyFactory.isSupported("STRIPE")).thenReturn(true);
+
+        // Act & Assert
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> paymentService.createPayment(paymentRequestDTO));
+        assertEquals(ErrorCode.PAYMENT_ALREADY_PROCESSED, exception.getErrorCode());
+        verify(paymentRepository, never()).save(any());
+        verifyNoInteractions(paymentStrategy);
+    }
+
+    @Test
+    void createPayment_OrderCancelledByReaper_ThrowsException() {
+        // Arrange: the reaper cancelled the order and released its stock before the lock was taken
+        testOrder.setOrderStatus(OrderStatus.CANCELLED);
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
+
+        // Act & Assert
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> paymentService.createPayment(paymentRequestDTO));
+        assertEquals(ErrorCode.ORDER_INVALID_STATUS_TRANSITION, exception.getErrorCode());
+        verify(orderRepository, never()).findById(any());
+        verify(paymentRepository, never()).save(any());
+        verifyNoInteractions(paymentStrategy);
     }
 
     @Test
     void createPayment_OrderNotFound_ThrowsException() {
         // Arrange
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(OrderNotFoundException.class, () -> paymentService.createPayment(paymentRequestDTO));
-        verify(orderRepository).findById(1L);
+        verify(orderRepository).findByIdForUpdate(1L);
         verify(paymentRepository, never()).save(any());
     }
 
@@ -132,24 +312,44 @@ class PaymentServiceTest {
     void createPayment_AmountMismatch_ThrowsException() {
         // Arrange
         paymentRequestDTO.setAmount(BigDecimal.valueOf(200.00)); // Different from order total
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
 
         // Act & Assert
         assertThrows(PaymentAmountMismatchException.class, () -> paymentService.createPayment(paymentRequestDTO));
-        verify(orderRepository).findById(1L);
+        verify(orderRepository).findByIdForUpdate(1L);
         verify(paymentRepository, never()).save(any());
     }
 
+    @Test
+    void createPayment_AmountWithOtherScale_IsAccepted() {
+        // Arrange
+        paymentRequestDTO.setAmount(new BigDecimal("100.00")); // order total is 100.0
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
+        when(paymentStrategyFactory.isSupported("STRIPE")).thenReturn(true);
+        when(paymentStrategyFactory.getStrategy("STRIPE")).thenReturn(paymentStrategy);
+        when(paymentStrategy.processPayment(any(BigDecimal.class), anyString())).thenReturn(successResult);
+        when(paymentRepository.save(any(Payment.class))).thenReturn(testPayment);
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(testPayment));
+        when(mapper.toResponseDTO(any(Payment.class))).thenReturn(paymentResponseDTO);
+
+        // Act
+        PaymentResponseDTO result = paymentService.createPayment(paymentRequestDTO);
+
+        // Assert
+        assertEquals("txn_123456", result.transactionId());
+        verify(paymentRepository, times(2)).save(any(Payment.class));
+    }
+
     @Test
     void createPayment_UnsupportedPaymentMethod_ThrowsException() {
         // Arrange
         paymentRequestDTO.setPaymentMethod("UNSUPPORTED");
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
         when(paymentStrategyFactory.isSupported("UNSUPPORTED")).thenReturn(false);
 
         // Act & Assert
         assertThrows(ValidationException.class, () -> paymentService.createPayment(paymentRequestDTO));
-        verify(orderRepository).findById(1L);
+        verify(orderRepository).findByIdForUpdate(1L);
         verify(paymentStrategyFactory).isSupported("UNSUPPORTED");
         verify(paymentRepository, never()).save(any());
     }
@@ -157,20 +357,22 @@ class PaymentServiceTest {
     @Test
     void createPayment_PaymentProcessingFails_ThrowsException() {
         // Arrange
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
         when(paymentStrategyFactory.isSupported("STRIPE")).thenReturn(true);
         when(paymentStrategyFactory.getStrategy("STRIPE")).thenReturn(paymentStrategy);
-        when(paymentStrategy.processPayment(any(BigDecimal.class))).thenReturn(failureResult);
+        when(paymentStrategy.processPayment(any(BigDecimal.class), anyString())).thenReturn(failureResult);
         
         Payment failedPayment = Payment.builder()
                 .id(1L)
                 .paymentStatus(PaymentStatus.FAILED)
                 .build();
         when(paymentRepository.save(any(Payment.class))).thenReturn(failedPayment);
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(failedPayment));
 
         // Act & Assert
         assertThrows(ValidationException.class, () -> paymentService.createPayment(paymentRequestDTO));
-        verify(paymentRepository).save(any(Payment.class));
+        verify(paymentRepository, times(2)).save(any(Payment.class));
+        verify(mapper, never()).toResponseDTO(any());
     }
 
     @Test
@@ -184,7 +386,7 @@ class PaymentServiceTest {
 
         // Assert
         assertNotNull(result);
-        assertEquals(1L, result.getId());
+        assertEquals(1L, result.id());
         verify(paymentRepository).findById(1L);
         verify(mapper).toResponseDTO(testPayment);
     }
@@ -259,4 +461,227 @@ class PaymentServiceTest {
         assertThrows(Exception.class, () -> paymentService.createPayment(paymentRequestDTO));
         verify(paymentRepository, never()).save(any());
     }
+
+    @Test
+    void createPayments_InsertsAndStoresResultsInOneBatchEach() {
+        // Arrange
+        PaymentBatchRequestDTO batchDTO = new PaymentBatchRequestDTO(List.of(
+                batchRequest(1L, "100.00"),
+                batchRequest(2L, "50.00"),
+                batchRequest(3L, "20.00"),
+                batchRequest(4L, "10.00"),
+                batchRequest(5L, "99.00")));
+        ReflectionTestUtils.setField(paymentService, "batchParallelism", 4);
+        when(orderRepository.findPaymentRowsByIds(List.of(1L, 2L, 3L, 4L, 5L))).thenReturn(List.of(
+                orderRow(1L, "100.00", null),
+                orderRow(2L, "50.00", null),
+                orderRow(3L, "20.00", 7L),
+                orderRow(5L, "100.00", null)));
+        when(orderRepository.getReferenceById(any())).thenAnswer(invocation -> {
+            Order order = new Order();
+            order.setId(invocation.getArgument(0));
+            return order;
+        });
+        when(paymentStrategyFactory.isSupported("STRIPE")).thenReturn(true);
+        doAnswer(invocation -> {
+            List<Payment> payments = invocation.getArgument(0);
+            for (int i = 0; i < payments.size(); i++) {
+                payments.get(i).setId(100L + i);
+            }
+            return null;
+        }).when(paymentRepository).insertAll(anyList());
+        when(paymentStrategyFactory.<PaymentRequestDTO>groupByStrategy(anyList(), any()))
+                .thenAnswer(invocation -> Map.of(paymentStrategy, invocation.getArgument(0)));
+        when(paymentStrategy.processPayments(anyList(), anyInt()))
+                .thenReturn(Map.of(1L, successResult, 2L, failureResult));
+        when(paymentRepository.applyGatewayResults(anyList())).thenReturn(List.of());
+
+        // Act
+        List<PaymentBatchResultDTO> results = paymentService.createPayments(batchDTO);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), results.stream().map(PaymentBatchResultDTO::orderId).toList());
+        assertEquals(new PaymentBatchResultDTO(1L, 100L, "PENDING", true, "txn_123456", "client_secret_123", null),
+                results.get(0));
+        assertEquals(new PaymentBatchResultDTO(2L, 101L, "FAILED", false, null, null, "Payment failed"),
+                results.get(1));
+        assertEquals("Order already has a payment", results.get(2).errorMessage());
+        assertNull(results.get(2).paymentId());
+        assertFalse(results.get(3).success());
+        assertTrue(results.get(4).errorMessage().startsWith("Payment amount mismatch"));
+
+        verify(paymentRepository, times(1)).insertAll(argThat(payments -> payments.size() == 2
+                && payments.stream().allMatch(payment -> payment.getPaymentStatus() == PaymentStatus.PENDING)));
+        verify(paymentStrategy).processPayments(List.of(
+                new PaymentStrategy.BatchPayment(1L, new BigDecimal("100.00"), "payment-100"),
+                new PaymentStrategy.BatchPayment(2L, new BigDecimal("50.00"), "payment-101")), 4);
+        verify(paymentRepository, times(1)).applyGatewayResults(List.of(
+                new GatewayResult(100L, PaymentStatus.PENDING, "txn_123456", "client_secret_123"),
+                new GatewayResult(101L, PaymentStatus.FAILED, null, "Payment failed")));
+        verify(paymentStrategy, never()).processPayment(any(), any());
+        verify(paymentRepository, never()).save(any());
+    }
+
+    @Test
+    void createPayments_RetriesFailedPaymentInPlace() {
+        // Arrange
+        PaymentBatchRequestDTO batchDTO = new PaymentBatchRequestDTO(List.of(
+                batchRequest(1L, "100.00"),
+                batchRequest(2L, "50.00")));
+        ReflectionTestUtils.setField(paymentService, "batchParallelism", 4);
+        when(orderRepository.findPaymentRowsByIds(List.of(1L, 2L))).thenReturn(List.of(
+                orderRow(1L, OrderStatus.PENDING, "100.00", 8L, PaymentStatus.FAILED, null),
+                orderRow(2L, "50.00", null)));
+        when(orderRepository.getReferenceById(2L)).thenReturn(new Order());
+        when(paymentStrategyFactory.isSupported("STRIPE")).thenReturn(true);
+        Payment failedPayment = Payment.builder()
+                .id(8L)
+                .paymentMethod(PaymentMethod.STRIPE)
+                .amount(new BigDecimal("100.00"))
+                .paymentStatus(PaymentStatus.FAILED)
+                .paymentGatewayResponse("Stripe error: invalid amount")
+                .build();
+        when(paymentRepository.findAllById(Set.of(8L))).thenReturn(List.of(failedPayment));
+        doAnswer(invocation -> {
+            invocation.<List<Payment>>getArgument(0).get(0).setId(100L);
+            return null;
+        }).when(paymentRepository).insertAll(anyList());
+        when(paymentStrategyFactory.<PaymentRequestDTO>groupByStrategy(anyList(), any()))
+                .thenAnswer(invocation -> Map.of(paymentStrategy, invocation.getArgument(0)));
+        when(paymentStrategy.processPayments(anyList(), anyInt()))
+                .thenReturn(Map.of(1L, successResult, 2L, PaymentStrategy.PaymentResult.unknown("Payment gateway timed out")));
+        when(paymentRepository.applyGatewayResults(anyList())).thenReturn(List.of());
+
+        // Act
+        List<PaymentBatchResultDTO> results = paymentService.createPayments(batchDTO);
+
+        // Assert
+        assertEquals(new PaymentBatchResultDTO(1L, 8L, "PENDING", true, "txn_123456", "client_secret_123", null),
+                results.get(0));
+        assertEquals(new PaymentBatchResultDTO(2L, 100L, "PENDING", false, null, null, "Payment gateway timed out"),
+                results.get(1));
+        assertEquals(PaymentStatus.PENDING, failedPayment.getPaymentStatus());
+        assertNull(failedPayment.getPaymentGatewayResponse());
+        verify(paymentRepository).insertAll(argThat(payments -> payments.size() == 1));
+        verify(paymentStrategy).processPayments(List.of(
+                new PaymentStrategy.BatchPayment(1L, new BigDecimal("100.00"), "payment-8-2"),
+                new PaymentStrategy.BatchPayment(2L, new BigDecimal("50.00"), "payment-100")), 4);
+        // the unknown outcome is left PENDING, not written
+        verify(paymentRepository).applyGatewayResults(List.of(
+                new GatewayResult(8L, PaymentStatus.PENDING, "txn_123456", "client_secret_123")));
+    }
+
+    @Test
+    void createPayments_LocksOrdersAndSkipsCancelledOnes() {
+        // Arrange
+        PaymentBatchRequestDTO batchDTO = new PaymentBatchRequestDTO(List.of(
+                batchRequest(1L, "100.00"),
+                batchRequest(2L, "50.00")));
+        ReflectionTestUtils.setField(paymentService, "batchParallelism", 4);
+        when(orderRepository.lockIds(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(orderRepository.findPaymentRowsByIds(List.of(1L, 2L))).thenReturn(List.of(
+                orderRow(1L, OrderStatus.CANCELLED, "100.00", null, null, null),
+                orderRow(2L, OrderStatus.CONFIRMED, "50.00", null, null, null)));
+        when(orderRepository.getReferenceById(2L)).thenReturn(new Order());
+        when(paymentStrategyFactory.isSupported("STRIPE")).thenReturn(true);
+        doAnswer(invocation -> {
+            invocation.<List<Payment>>getArgument(0).get(0).setId(100L);
+            return null;
+        }).when(paymentRepository).insertAll(anyList());
+        when(paymentStrategyFactory.<PaymentRequestDTO>groupByStrategy(anyList(), any()))
+                .thenAnswer(invocation -> Map.of(paymentStrategy, invocation.getArgument(0)));
+        when(paymentStrategy.processPayments(anyList(), anyInt())).thenReturn(Map.of(2L, successResult));
+        when(paymentRepository.applyGatewayResults(anyList())).thenReturn(List.of());
+
+        // Act
+        List<PaymentBatchResultDTO> results = paymentService.createPayments(batchDTO);
+
+        // Assert
+        assertEquals("Order is CANCELLED and can not be paid", results.get(0).errorMessage());
+        assertNull(results.get(0).paymentId());
+        assertTrue(results.get(1).success());
+        // the orders are locked before their status is read, so the reaper skips them until the commit
+        InOrder inOrder = inOrder(orderRepository);
+        inOrder.verify(orderRepository).lockIds(List.of(1L, 2L));
+        inOrder.verify(orderRepository).findPaymentRowsByIds(List.of(1L, 2L));
+        verify(paymentRepository).insertAll(argThat(payments -> payments.size() == 1));
+    }
+
+    @Test
+    void createPayments_DuplicateOrder_ThrowsException() {
+        // Arrange
+        PaymentBatchRequestDTO batchDTO = new PaymentBatchRequestDTO(List.of(
+                batchRequest(1L, "100.00"),
+                batchRequest(1L, "100.00")));
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> paymentService.createPayments(batchDTO));
+        verify(paymentRepository, never()).insertAll(anyList());
+        verifyNoInteractions(paymentStrategy);
+    }
+
+    @Test
+    void createPayments_NothingPayable_SkipsGateway() {
+        // Arrange
+        PaymentBatchRequestDTO batchDTO = new PaymentBatchRequestDTO(List.of(batchRequest(9L, "10.00")));
+        when(orderRepository.findPaymentRowsByIds(List.of(9L))).thenReturn(List.of());
+        when(paymentStrategyFactory.<PaymentRequestDTO>groupByStrategy(anyList(), any())).thenReturn(Map.of());
+
+        // Act
+        List<PaymentBatchResultDTO> results = paymentService.createPayments(batchDTO);
+
+        // Assert
+        assertEquals(1, results.size());
+        assertFalse(results.get(0).success());
+        assertEquals("FAILED", results.get(0).paymentStatus());
+        verifyNoInteractions(paymentStrategy);
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private static PaymentRequestDTO batchRequest(Long orderId, String amount) {
+        return new PaymentRequestDTO("stripe", new BigDecimal(amount), orderId);
+    }
+
+    // an existing payment is a COMPLETED one
+    private static OrderPaymentRow orderRow(Long id, String totalAmount, Long paymentId) {
+        return paymentId == null
+                ? orderRow(id, OrderStatus.PENDING, totalAmount, null, null, null)
+                : orderRow(id, OrderStatus.PENDING, totalAmount, paymentId, PaymentStatus.COMPLETED, "pi_" + paymentId);
+    }
+
+    private static OrderPaymentRow orderRow(Long id, OrderStatus orderStatus, String totalAmount, Long paymentId,
+                                            PaymentStatus paymentStatus, String transactionId) {
+        return new OrderPaymentRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public OrderStatus getOrderStatus() {
+                return orderStatus;
+            }
+
+            @Override
+            public BigDecimal getTotalAmount() {
+                return new BigDecimal(totalAmount);
+            }
+
+            @Override
+            public Long getPaymentId() {
+                return paymentId;
+            }
+
+            @Override
+            public PaymentStatus getPaymentStatus() {
+                return paymentStatus;
+            }
+
+            @Override
+            public String getTransactionId() {
+                return transactionId;
+            }
+        };
+    }
 }
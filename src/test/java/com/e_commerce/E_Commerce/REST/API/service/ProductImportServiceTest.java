@@ -0,0 +1,185 @@
+package com.e_commerce.E_Commerce.REST.API.service;
+
+import com.e_commerce.E_Commerce.REST.API.cache.ProductCatalogCache;
+import com.e_commerce.E_Commerce.REST.API.dto.response.BulkReportDTO;
+import com.e_commerce.E_Commerce.REST.API.dto.response.BulkReportDTO.RowError;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockReservationLedger;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockShards;
+import com.e_commerce.E_Commerce.REST.API.mapper.ProductMapper;
+import com.e_commerce.E_Commerce.REST.API.model.Product;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderItemRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository;
+import com.e_commerce.E_Commerce.REST.API.repository.ProductRepositoryCustom.ProductChange;
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetService;
+import com.e_commerce.E_Commerce.REST.API.search.ProductSearchService;
+import com.e_commerce.E_Commerce.REST.API.util.BulkRowReader;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Product Import Service Test")
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    private static final String HEADER = "name,description,price,stockQuantity,category,imgUrl\n";
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ProductCatalogCache catalogCache;
+    @Mock
+    private OrderItemRepository orderItemRepository;
+    @Mock
+    private ProductSearchService searchService;
+    @Mock
+    private ProductFacetService facetService;
+    @Mock
+    private StockReservationLedger stockLedger;
+    @Mock
+    private StockShards stockShards;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        ProductMapper productMapper = Mappers.getMapper(ProductMapper.class);
+        ProductService productService = new ProductService(productRepository, productMapper, catalogCache,
+                orderItemRepository, searchService, facetService, stockLedger, stockShards);
+        importService = new ProductImportService(productService, productRepository, productMapper, catalogCache,
+                searchService, facetService, stockLedger, stockShards, Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES),
+                transactionManager, 1000);
+    }
+
+    @Test
+    @DisplayName("Should insert valid rows and report every rejected row with its reason")
+    void importProducts_shouldReportRejectedRows() {
+        String csv = HEADER
+                + row("Sony Headphones", "10.00", "5")
+                + row("  Existing Lamp ", "20.00", "5")
+                + row("Sony Headphones", "30.00", "5")
+                + row("Gold Watch", "2000000", "5")
+                + row("Crate", "5.00", "200000")
+                + "X,short,-1,,,\n";
+        when(productRepository.findExistingNames(anyCollection())).thenReturn(List.of("Existing Lamp"));
+
+        BulkReportDTO report = importService.importProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BulkRowReader.CSV);
+
+        assertThat(report.rows()).isEqualTo(6);
+        assertThat(report.succeeded()).isEqualTo(1);
+        assertThat(report.failed()).isEqualTo(5);
+        assertThat(report.errorsTruncated()).isFalse();
+        assertThat(report.errors()).extracting(RowError::row).containsExactly(2L, 3L, 4L, 5L, 6L);
+        assertThat(report.errors().get(0).key()).isEqualTo("Existing Lamp");
+        assertThat(report.errors().get(1).messages()).containsExactly("Product name appears more than once in the upload");
+        assertThat(report.errors().get(2).messages()).containsExactly("Price exceeds allowed maximum");
+        assertThat(report.errors().get(3).messages()).containsExactly("Stock quantity cannot exceed 100,000 units");
+        assertThat(report.errors().get(4).messages()).hasSizeGreaterThan(3);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Product>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(productRepository).insertAll(inserted.capture());
+        assertThat(inserted.getValue()).singleElement().satisfies(product -> {
+            assertThat(product.getName()).isEqualTo("Sony Headphones");
+            assertThat(product.isActive()).isTrue();
+            assertThat(product.getCreatedAt()).isNotNull();
+        });
+        verify(searchService).indexAfterCommit(inserted.getValue().get(0));
+        verify(facetService).putAfterCommit(inserted.getValue().get(0));
+        verify(catalogCache).invalidatePages();
+    }
+
+    @Test
+    @DisplayName("Should check names and insert once per chunk, not once per row")
+    void importProducts_shouldWorkInChunks() {
+        int rows = ProductImportService.CHUNK_SIZE * 2 + 1;
+        String csv = HEADER + IntStream.range(0, rows)
+                .mapToObj(i -> row("Product " + i, "9.99", "1"))
+                .collect(Collectors.joining());
+
+        BulkReportDTO report = importService.importProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BulkRowReader.CSV);
+
+        assertThat(report.succeeded()).isEqualTo(rows);
+        verify(productRepository, times(3)).findExistingNames(anyCollection());
+        verify(productRepository, times(3)).insertAll(anyList());
+        verify(productRepository, never()).existsByName(any());
+        verify(productRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should apply updates in one batch and refresh caches, index and facets for the changed products")
+    void updateProducts_shouldApplyChangesAndRefreshDownstream() {
+        String csv = "id,price,stockQuantity,active\n"
+                + "1,19.99,,\n"
+                + "2,,0,false\n"
+                + "3,,,true\n"
+                + "99,5.00,,\n"
+                + ",5.00,,\n"
+                + "4,,,\n";
+        Product reactivated = new Product();
+        reactivated.setId(3L);
+        when(productRepository.updateAll(anyList())).thenReturn(List.of(99L));
+        when(productRepository.findAllById(List.of(3L))).thenReturn(List.of(reactivated));
+
+        BulkReportDTO report = importService.updateProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BulkRowReader.CSV);
+
+        assertThat(report.rows()).isEqualTo(6);
+        assertThat(report.succeeded()).isEqualTo(3);
+        assertThat(report.failed()).isEqualTo(3);
+        assertThat(report.errors()).extracting(RowError::row).containsExactlyInAnyOrder(4L, 5L, 6L);
+        assertThat(report.errors()).filteredOn(error -> error.row() == 4L).singleElement()
+                .satisfies(error -> assertThat(error.messages()).containsExactly("Product not found"));
+
+        verify(productRepository).updateAll(List.of(
+                new ProductChange(1L, new BigDecimal("19.99"), null, null),
+                new ProductChange(2L, null, 0, false),
+                new ProductChange(3L, null, null, true),
+                new ProductChange(99L, new BigDecimal("5.00"), null, null)));
+        verify(catalogCache).invalidateProducts(Set.of(1L, 2L, 3L));
+        verify(stockShards).replaceStock(2L, 0);
+        // pending reservations are written back before the new stock
+        InOrder stockWrites = inOrder(stockLedger, productRepository);
+        stockWrites.verify(stockLedger).reconcile(2L);
+        stockWrites.verify(productRepository).updateAll(anyList());
+        verify(searchService).removeAfterCommit(2L);
+        verify(facetService).removeAfterCommit(2L);
+        verify(searchService).indexAfterCommit(reactivated);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> facetIds = ArgumentCaptor.forClass(Collection.class);
+        verify(productRepository).findFacetRows(facetIds.capture());
+        assertThat(facetIds.getValue()).containsExactlyInAnyOrder(1L, 3L);
+        verify(productRepository, never()).findById(any());
+    }
+
+    private static String row(String name, String price, String stock) {
+        return name + ",A product used in import tests," + price + "," + stock
+                + ",Testing,https://example.com/item.png\n";
+    }
+}
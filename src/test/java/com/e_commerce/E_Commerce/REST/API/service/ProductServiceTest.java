@@ -1,5 +1,7 @@
 package com.e_commerce.E_Commerce.REST.API.service;
 
+import com.e_commerce.E_Commerce.REST.API.cache.ProductCatalogCache;
+import com.e_commerce.E_Commerce.REST.API.dto.request.PaginationRequestDto;
 import com.e_commerce.E_Commerce.REST.API.dto.request.ProductCreateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.request.ProductUpdateRequestDTO;
 import com.e_commerce.E_Commerce.REST.API.dto.response.ProductResponseDTO;
@@ -8,9 +10,15 @@ import com.e_commerce.E_Commerce.REST.API.exception.ErrorCode;
 import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
 import com.e_commerce.E_Commerce.REST.API.exception.product.ProductNotFoundException;
 import com.e_commerce.E_Commerce.REST.API.exception.product.ProductQuantityExceedException;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockReservationLedger;
+import com.e_commerce.E_Commerce.REST.API.inventory.StockShards;
 import com.e_commerce.E_Commerce.REST.API.mapper.ProductMapper;
 import com.e_commerce.E_Commerce.REST.API.model.Product;
+import com.e_commerce.E_Commerce.REST.API.repository.OrderItemRepository;
 import com.e_commerce.E_Commerce.REST.API.repository.ProductRepository;
+import com.e_commerce.E_Commerce.REST.API.search.ProductFacetService;
+import com.e_commerce.E_Commerce.REST.API.search.ProductSearchService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -21,6 +29,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,6 +42,18 @@ class ProductServiceTest {
     private ProductRepository productRepository;
     @Mock
     private ProductMapper productMapper;
+    @Mock
+    private ProductCatalogCache catalogCache;
+    @Mock
+    private OrderItemRepository orderItemRepository;
+    @Mock
+    private ProductSearchService searchService;
+    @Mock
+    private ProductFacetService facetService;
+    @Mock
+    private StockReservationLedger stockLedger;
+    @Mock
+    private StockShards stockShards;
 
     @InjectMocks
     private ProductService productService;
@@ -93,6 +114,8 @@ class ProductServiceTest {
 
             verify(productMapper).toEntity(dto);
             verify(productMapper).toResponseDTO(savedProduct);
+            verify(searchService).indexAfterCommit(savedProduct);
+            verify(facetService).putAfterCommit(savedProduct);
         }
 
         @Test
@@ -172,6 +195,13 @@ class ProductServiceTest {
     @Nested
     @DisplayName("Get Product By ID Tests")
     class GetById {
+
+        @BeforeEach
+        void readThroughCache() {
+            lenient().when(catalogCache.getProduct(anyLong(), any()))
+                    .thenAnswer(invocation -> invocation.<Supplier<ProductResponseDTO>>getArgument(1).get());
+        }
+
         @Test
         @DisplayName("Should return product when it exists")
         void getById_whenProductExists_shouldReturnProduct() {
@@ -183,7 +213,7 @@ class ProductServiceTest {
             when(expectedResponse.id()).thenReturn(productId);
 
             when(productRepository.findById(productId)).thenReturn(Optional.of(expectedProduct));
-            when(productMapper.toResponseDTO(expectedProduct)).thenReturn(expectedResponse);
+            when(productMapper.toResponseDTO(expectedProduct, 0)).thenReturn(expectedResponse);
 
             // act
             ProductResponseDTO actualResponse = productService.getById(productId);
@@ -195,7 +225,26 @@ class ProductServiceTest {
             // VERIFY
             verify(productRepository).findById(productId);
             verify(productRepository, never()).save(any());
-            verify(productMapper).toResponseDTO(expectedProduct);
+            verify(productMapper).toResponseDTO(expectedProduct, 0);
+            verify(orderItemRepository).countByProductId(productId);
+            verify(catalogCache).getProduct(eq(productId), any());
+        }
+
+        @Test
+        @DisplayName("Should serve a cached product without touching the repository")
+        void getById_whenProductCached_shouldNotHitRepository() {
+            Long productId = 2L;
+            ProductResponseDTO cachedResponse = mock(ProductResponseDTO.class);
+            doReturn(cachedResponse).when(catalogCache).getProduct(eq(productId), any());
+
+            // act
+            ProductResponseDTO actualResponse = productService.getById(productId);
+
+            // assert
+            assertThat(actualResponse).isSameAs(cachedResponse);
+
+            // VERIFY
+            verifyNoInteractions(productRepository, productMapper);
         }
 
         @Test
@@ -247,7 +296,7 @@ class ProductServiceTest {
             when(expectedResponse.price()).thenReturn(productPrice);
 
             when(productRepository.findById(productId)).thenReturn(Optional.of(productEntity));
-            when(productMapper.toResponseDTO(savedProduct)).thenReturn(expectedResponse);
+            when(productMapper.toResponseDTO(savedProduct, 0)).thenReturn(expectedResponse);
 
             // act;
             ProductResponseDTO actualResponse = productService.updateProduct(incomingRequestDTO, productId);
@@ -261,7 +310,12 @@ class ProductServiceTest {
             // verify
             verify(productRepository).save(any());
             verify(productRepository).findById(productId);
-            verify(productMapper).toResponseDTO(savedProduct);
+            verify(productMapper).toResponseDTO(savedProduct, 0);
+            verify(catalogCache).invalidateProduct(productId);
+            verify(catalogCache).invalidatePages();
+            verify(searchService).indexAfterCommit(productEntity);
+            verify(facetService).putAfterCommit(productEntity);
+            verify(stockLedger, never()).reconcile(any());
         }
 
         @Test
@@ -302,6 +356,9 @@ class ProductServiceTest {
             // verify
             verify(productRepository).findById(productId);
             verify(productRepository).delete(expectedProduct);
+            verify(catalogCache).invalidateProduct(productId);
+            verify(searchService).removeAfterCommit(productId);
+            verify(facetService).removeAfterCommit(productId);
         }
 
         @Test
@@ -319,4 +376,21 @@ class ProductServiceTest {
             verify(productRepository, never()).delete(any(Product.class));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Search Tests")
+    class Search {
+        @Test
+        @DisplayName("Should reject a page below 1 before querying the index")
+        void search_whenPageZero_shouldThrowValidationException() {
+            PaginationRequestDto requestDto = new PaginationRequestDto();
+            requestDto.setPage(0);
+
+            assertThatThrownBy(() -> productService.search("headphones", requestDto))
+                    .isExactlyInstanceOf(ValidationException.class)
+                    .extracting("errorCode").isEqualTo(ErrorCode.INVALID_PAGINATION_PARAMETER);
+
+            verifyNoInteractions(searchService, productRepository);
+        }
+    }
+}
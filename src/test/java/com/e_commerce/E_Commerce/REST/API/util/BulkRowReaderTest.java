@@ -0,0 +1,105 @@
+package com.e_commerce.E_Commerce.REST.API.util;
+
+import com.e_commerce.E_Commerce.REST.API.dto.request.ProductCreateRequestDTO;
+import com.e_commerce.E_Commerce.REST.API.util.BulkRowReader.Row;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Bulk Row Reader Test")
+class BulkRowReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @Test
+    @DisplayName("Should bind CSV cells by header, including quoted cells spanning lines")
+    void csv_shouldBindByHeader() throws IOException {
+        String csv = """
+                name,price,stockQuantity,description\r
+                "Mug, large",12.50,3,"says ""hi""
+                on two lines"\r
+                \r
+                Lamp,5,,
+                """;
+
+        List<Row<ProductCreateRequestDTO>> rows = readAll(csv, BulkRowReader.CSV);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).number()).isEqualTo(1);
+        assertThat(rows.get(0).value().getName()).isEqualTo("Mug, large");
+        assertThat(rows.get(0).value().getPrice()).isEqualByComparingTo("12.50");
+        assertThat(rows.get(0).value().getDescription()).isEqualTo("says \"hi\"\non two lines");
+        assertThat(rows.get(1).number()).isEqualTo(2);
+        assertThat(rows.get(1).value().getStockQuantity()).isNull();
+        assertThat(rows.get(1).value().getPrice()).isEqualTo(new BigDecimal("5"));
+    }
+
+    @Test
+    @DisplayName("Should report unparsable CSV rows and keep reading")
+    void csv_shouldReportBadRows() throws IOException {
+        String csv = """
+                name,price
+                Shoe,abc
+                Lamp,5,extra
+                Mug,7
+                """;
+
+        List<Row<ProductCreateRequestDTO>> rows = readAll(csv, BulkRowReader.CSV);
+
+        assertThat(rows).extracting(Row::number).containsExactly(1L, 2L, 3L);
+        assertThat(rows.get(0).error()).startsWith("Invalid value");
+        assertThat(rows.get(1).error()).contains("at most 2 columns");
+        assertThat(rows.get(2).value().getName()).isEqualTo("Mug");
+    }
+
+    @Test
+    @DisplayName("Should read one JSON document per line and report malformed lines")
+    void ndjson_shouldReadLines() throws IOException {
+        String ndjson = """
+                {"name":"A","price":1}
+
+                {broken
+                {"name":"B","stockQuantity":"7"}
+                """;
+
+        List<Row<ProductCreateRequestDTO>> rows = readAll(ndjson, BulkRowReader.NDJSON);
+
+        assertThat(rows).extracting(Row::number).containsExactly(1L, 2L, 3L);
+        assertThat(rows.get(0).value().getName()).isEqualTo("A");
+        assertThat(rows.get(1).error()).startsWith("Malformed JSON");
+        assertThat(rows.get(2).value().getStockQuantity()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should reject other content types")
+    void constructor_shouldRejectUnknownType() {
+        assertThatThrownBy(() -> new BulkRowReader<>(new ByteArrayInputStream(new byte[0]),
+                MediaType.APPLICATION_JSON, objectMapper, ProductCreateRequestDTO.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<Row<ProductCreateRequestDTO>> readAll(String body, MediaType type) throws IOException {
+        List<Row<ProductCreateRequestDTO>> rows = new ArrayList<>();
+        try (BulkRowReader<ProductCreateRequestDTO> reader = new BulkRowReader<>(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), type, objectMapper,
+                ProductCreateRequestDTO.class)) {
+            for (Row<ProductCreateRequestDTO> row = reader.next(); row != null; row = reader.next()) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
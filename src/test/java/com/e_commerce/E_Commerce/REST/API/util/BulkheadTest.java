@@ -0,0 +1,65 @@
+package com.e_commerce.E_Commerce.REST.API.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Bulkhead Test")
+class BulkheadTest {
+
+    @Test
+    @DisplayName("Should run the call and free its permit afterwards")
+    void call_shouldReleasePermit() {
+        Bulkhead bulkhead = new Bulkhead("test", 1, Duration.ZERO);
+
+        assertThat(bulkhead.call(() -> "ok", () -> "full")).isEqualTo("ok");
+        assertThat(bulkhead.call(() -> "again", () -> "full")).isEqualTo("again");
+        assertThat(bulkhead.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fall back when every permit stays taken past the max wait")
+    void call_whenFull_shouldReturnFallback() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, Duration.ofMillis(20));
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch leave = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> holder = executor.submit(() -> bulkhead.call(() -> {
+                inside.countDown();
+                leave.await();
+                return "held";
+            }, () -> "full"));
+            assertThat(inside.await(1, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(bulkhead.inFlight()).isEqualTo(1);
+            assertThat(bulkhead.call(() -> "ok", () -> "full")).isEqualTo("full");
+
+            leave.countDown();
+            assertThat(holder.get(1, TimeUnit.SECONDS)).isEqualTo("held");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should propagate the call's exception and still free its permit")
+    void call_whenCallThrows_shouldReleasePermit() {
+        Bulkhead bulkhead = new Bulkhead("test", 1, Duration.ZERO);
+
+        assertThatThrownBy(() -> bulkhead.call(() -> {
+            throw new IOException("gateway down");
+        }, () -> null)).isInstanceOf(IOException.class);
+        assertThat(bulkhead.inFlight()).isZero();
+    }
+}
@@ -0,0 +1,89 @@
+package com.e_commerce.E_Commerce.REST.API.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Circuit Breaker Test")
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("Should open once the failure rate over the window reaches the threshold and then fail fast")
+    void call_whenFailureRateReached_shouldOpen() throws Exception {
+        CircuitBreaker breaker = newBreaker();
+
+        assertThat(breaker.call(() -> "ok", () -> "open")).isEqualTo("ok");
+        fail(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        fail(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.call(() -> "ok", () -> "open")).isEqualTo("open");
+        CircuitBreaker.Stats stats = breaker.stats();
+        assertThat(stats.calls()).isEqualTo(3);
+        assertThat(stats.failedCalls()).isEqualTo(2);
+        assertThat(stats.rejectedCalls()).isEqualTo(1);
+        assertThat(stats.timesOpened()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should close after the trial calls succeed and reopen when a trial call fails")
+    void call_afterOpenDuration_shouldTrialCalls() throws Exception {
+        CircuitBreaker breaker = newBreaker();
+        fail(breaker);
+        fail(breaker);
+        fail(breaker);
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        fail(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(breaker.call(() -> "trial 1", () -> "open")).isEqualTo("trial 1");
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.call(() -> "trial 2", () -> "open")).isEqualTo("trial 2");
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.stats().bufferedCalls()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not count exceptions the caller does not classify as failures")
+    void call_whenExceptionIsNotFailure_shouldStayClosed() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 4, 3, 0.5, Duration.ofSeconds(10), 2,
+                e -> !(e instanceof IllegalArgumentException), now::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> breaker.call(() -> {
+                throw new IllegalArgumentException("card declined");
+            }, () -> null)).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.stats().failedCalls()).isZero();
+    }
+
+    // ============= PRIVATE HELPER METHODS =============
+
+    private CircuitBreaker newBreaker() {
+        return new CircuitBreaker("test", 4, 3, 0.5, Duration.ofSeconds(10), 2, e -> true, now::get);
+    }
+
+    private static void fail(CircuitBreaker breaker) {
+        try {
+            breaker.call(() -> {
+                throw new IOException("gateway down");
+            }, () -> null);
+        } catch (IOException expected) {
+            // recorded by the breaker
+        }
+    }
+}
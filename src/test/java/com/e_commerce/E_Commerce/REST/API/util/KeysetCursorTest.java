@@ -0,0 +1,63 @@
+package com.e_commerce.E_Commerce.REST.API.util;
+
+import com.e_commerce.E_Commerce.REST.API.exception.ValidationException;
+import com.e_commerce.E_Commerce.REST.API.model.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Keyset Cursor Test")
+class KeysetCursorTest {
+
+    private static final String PRICE_ASC = KeysetCursor.sortSignature("price", "asc");
+
+    @Test
+    @DisplayName("Should restore typed key values from an encoded cursor")
+    void decode_shouldRoundTripKeys() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("price", new BigDecimal("199.99"));
+        keys.put("id", 42L);
+
+        String cursor = KeysetCursor.encode(
+                ScrollPosition.forward(keys), ScrollPosition.Direction.BACKWARD, PRICE_ASC);
+        ScrollPosition decoded = KeysetCursor.decode(cursor, Product.class, PRICE_ASC);
+
+        assertThat(decoded).isInstanceOf(KeysetScrollPosition.class);
+        KeysetScrollPosition keyset = (KeysetScrollPosition) decoded;
+        assertThat(keyset.scrollsBackward()).isTrue();
+        assertThat(keyset.getKeys())
+                .containsEntry("price", new BigDecimal("199.99"))
+                .containsEntry("id", 42L);
+    }
+
+    @Test
+    @DisplayName("Should start at the first row when the cursor is blank")
+    void decode_whenBlank_shouldReturnInitialPosition() {
+        assertThat(KeysetCursor.decode("", Product.class, PRICE_ASC).isInitial()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor issued for another sort")
+    void decode_whenSortDiffers_shouldThrowValidationException() {
+        String cursor = KeysetCursor.encode(
+                ScrollPosition.forward(Map.of("id", 1L)), ScrollPosition.Direction.FORWARD, PRICE_ASC);
+
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor, Product.class, KeysetCursor.sortSignature("name", "ASC")))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered cursor")
+    void decode_whenMalformed_shouldThrowValidationException() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not-a-cursor", Product.class, PRICE_ASC))
+                .isInstanceOf(ValidationException.class);
+    }
+}
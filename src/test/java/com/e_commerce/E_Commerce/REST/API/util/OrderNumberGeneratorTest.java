@@ -0,0 +1,116 @@
+package com.e_commerce.E_Commerce.REST.API.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Order Number Generator Test")
+class OrderNumberGeneratorTest {
+
+    private final AtomicLong now = new AtomicLong(OrderNumberGenerator.EPOCH + 1_000_000L);
+
+    @Test
+    @DisplayName("Should produce fixed-width numbers carrying timestamp and node")
+    void next_shouldEncodeTimestampAndNode() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(42, now::get);
+
+        long id = generator.nextId();
+        String orderNumber = generator.next();
+
+        assertThat(orderNumber).hasSize(OrderNumberGenerator.LENGTH).startsWith(OrderNumberGenerator.PREFIX);
+        assertThat(OrderNumberGenerator.timestampOf(id)).isEqualTo(now.get());
+        assertThat(OrderNumberGenerator.nodeOf(id)).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("Should keep numbers increasing when a millisecond's sequence runs out")
+    void next_whenSequenceExhausted_shouldBorrowNextMillisecond() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, now::get);
+        int perMillisecond = 1 << OrderNumberGenerator.SEQUENCE_BITS;
+
+        String previous = generator.next();
+        for (int i = 0; i < perMillisecond * 3; i++) {
+            String next = generator.next();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("Should stay unique and increasing when the clock moves back")
+    void next_whenClockMovesBack_shouldContinueAfterLastId() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, now::get);
+        long before = generator.nextId();
+
+        now.addAndGet(-5_000);
+        long after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    @DisplayName("Should reject node ids outside the node bits")
+    void constructor_withInvalidNodeId_shouldThrow() {
+        assertThatThrownBy(() -> new OrderNumberGenerator(OrderNumberGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new OrderNumberGenerator(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should never repeat a number across threads and nodes")
+    void next_underContention_shouldBeUnique() throws Exception {
+        int nodes = 4;
+        int threadsPerNode = 8;
+        int idsPerThread = 20_000;
+
+        // every simulated node shares the real clock, like separate JVMs would
+        List<OrderNumberGenerator> generators = new ArrayList<>();
+        for (int node = 0; node < nodes; node++) {
+            generators.add(new OrderNumberGenerator(node));
+        }
+
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(nodes * threadsPerNode);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (OrderNumberGenerator generator : generators) {
+                for (int t = 0; t < threadsPerNode; t++) {
+                    workers.add(executor.submit(() -> {
+                        start.await();
+                        String previous = "";
+                        for (int i = 0; i < idsPerThread; i++) {
+                            String orderNumber = generator.next();
+                            assertThat(orderNumber).hasSize(OrderNumberGenerator.LENGTH).isGreaterThan(previous);
+                            issued.add(orderNumber);
+                            previous = orderNumber;
+                        }
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(issued).hasSize(nodes * threadsPerNode * idsPerThread);
+    }
+}
@@ -0,0 +1,60 @@
+package com.e_commerce.E_Commerce.REST.API.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Verified Claims Cache Test")
+class VerifiedClaimsCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    private Claims claimsExpiringAt(long expiresAtMillis) {
+        return Jwts.claims()
+                .subject("user@example.com")
+                .expiration(new Date(expiresAtMillis))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should return cached claims until the token expires")
+    void get_shouldHonourTokenExpiration() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(10, now::get);
+        Claims claims = claimsExpiringAt(now.get() + 5_000);
+
+        cache.put("token-a", claims);
+        assertThat(cache.get("token-a")).isSameAs(claims);
+
+        now.addAndGet(5_000);
+        assertThat(cache.get("token-a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should never grow past its maximum size")
+    void put_whenFull_shouldEvict() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(100, now::get);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("token-" + i, claimsExpiringAt(now.get() + 60_000));
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should not cache tokens without expiration")
+    void put_whenNoExpiration_shouldSkip() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(10, now::get);
+
+        cache.put("token-a", Jwts.claims().subject("user@example.com").build());
+
+        assertThat(cache.get("token-a")).isNull();
+    }
+}